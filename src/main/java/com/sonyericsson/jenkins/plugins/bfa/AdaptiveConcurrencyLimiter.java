@@ -0,0 +1,265 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the number of threads of a pool to the load of the controller, with additive increase and multiplicative
+ * decrease (AIMD).
+ *
+ * Once per {@link #INTERVAL_NANOS} the limit is lowered by {@link #DECREASE_FACTOR} if the controller is
+ * overloaded, that is when the system load per processor exceeds {@link #MAX_LOAD}, when more than
+ * {@link #MAX_GC_FRACTION} of the time was spent in garbage collection, or when the tasks take more than
+ * {@link #LATENCY_TOLERANCE} times their usual time. Otherwise the limit is raised by one if all permitted threads
+ * were busy. The limit always stays between the configured bounds.
+ *
+ * The time of a task is counted per megabyte of log it scanned, so that a few large logs don't look like an
+ * overload. The usual time follows improvements right away, and moves towards the current time with a half-life of
+ * {@link #BASELINE_HALF_LIFE_NANOS}, so that it doesn't stay at an unusually fast period forever.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * The factor the limit is multiplied with when overloaded.
+     */
+    static final double DECREASE_FACTOR = 0.75;
+    /**
+     * How much slower than usual tasks may get before the controller is considered overloaded.
+     */
+    static final double LATENCY_TOLERANCE = 2.0;
+    /**
+     * The system load average per processor above which the controller is considered overloaded.
+     */
+    static final double MAX_LOAD = 1.0;
+    /**
+     * The fraction of time spent in garbage collection above which the controller is considered overloaded.
+     */
+    static final double MAX_GC_FRACTION = 0.1;
+    /**
+     * The minimum time between two adjustments.
+     */
+    static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * The time it takes the usual time of the tasks to move half-way to their current time.
+     */
+    static final long BASELINE_HALF_LIFE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    /**
+     * The least amount of work a task is counted as, since smaller tasks mostly take a fixed time.
+     */
+    static final long MIN_WORK_BYTES = 1024 * 1024;
+
+    private static final double SMOOTHING = 0.2;
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * The source of the load and garbage collection measurements.
+     */
+    interface Probe {
+        /**
+         * The system load average divided by the number of processors.
+         *
+         * @return the load, or a negative value if not available.
+         */
+        double getLoadPerProcessor();
+
+        /**
+         * The accumulated time spent in garbage collection.
+         *
+         * @return the time in milliseconds.
+         */
+        long getGcTimeMillis();
+    }
+
+    /**
+     * Measures the running JVM.
+     */
+    static final Probe JVM_PROBE = new Probe() {
+        @Override
+        public double getLoadPerProcessor() {
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            double load = os.getSystemLoadAverage();
+            if (load < 0) {
+                return load;
+            }
+            return load / os.getAvailableProcessors();
+        }
+
+        @Override
+        public long getGcTimeMillis() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                long time = gc.getCollectionTime();
+                if (time > 0) {
+                    total += time;
+                }
+            }
+            return total;
+        }
+    };
+
+    private final Probe probe;
+    private int min;
+    private int max;
+    private double limit;
+    private int inFlight;
+    private int peakInFlight;
+    private double latency;
+    private double baseline;
+    private long lastAdjust;
+    private long lastGcTime;
+
+    /**
+     * Creates a limiter measuring the running JVM, starting at the maximum.
+     *
+     * @param min the lowest limit.
+     * @param max the highest limit.
+     */
+    public AdaptiveConcurrencyLimiter(int min, int max) {
+        this(JVM_PROBE, min, max, System.nanoTime());
+    }
+
+    /**
+     * Standard constructor.
+     *
+     * @param probe the source of load measurements.
+     * @param min the lowest limit.
+     * @param max the highest limit.
+     * @param now the current time from {@link System#nanoTime()}.
+     */
+    AdaptiveConcurrencyLimiter(Probe probe, int min, int max, long now) {
+        this.probe = probe;
+        setBounds(min, max);
+        this.limit = this.max;
+        this.lastAdjust = now;
+        this.lastGcTime = probe.getGcTimeMillis();
+    }
+
+    /**
+     * Changes the bounds of the limit.
+     *
+     * @param minLimit the lowest limit, at least 1.
+     * @param maxLimit the highest limit, at least minLimit.
+     */
+    public synchronized void setBounds(int minLimit, int maxLimit) {
+        this.min = Math.max(1, minLimit);
+        this.max = Math.max(this.min, maxLimit);
+        limit = Math.min(this.max, Math.max(this.min, limit));
+    }
+
+    /**
+     * The current limit.
+     *
+     * @return the number of tasks that may run at the same time.
+     */
+    public synchronized int getLimit() {
+        return (int)limit;
+    }
+
+    /**
+     * The usual time of the tasks.
+     *
+     * @return the time in milliseconds per megabyte.
+     */
+    synchronized double getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Records that a task has started.
+     */
+    public synchronized void onStart() {
+        inFlight++;
+        peakInFlight = Math.max(peakInFlight, inFlight);
+    }
+
+    /**
+     * Records that a task has finished, and adjusts the limit if it is time to.
+     *
+     * @param latencyNanos the time the task took.
+     * @param workBytes the size of the log the task scanned, 0 if unknown.
+     * @return true if the limit has changed.
+     */
+    public boolean onComplete(long latencyNanos, long workBytes) {
+        return onComplete(latencyNanos, workBytes, System.nanoTime());
+    }
+
+    /**
+     * Records that a task has finished, and adjusts the limit if it is time to.
+     *
+     * @param latencyNanos the time the task took.
+     * @param workBytes the size of the log the task scanned, 0 if unknown.
+     * @param now the current time from {@link System#nanoTime()}.
+     * @return true if the limit has changed.
+     */
+    synchronized boolean onComplete(long latencyNanos, long workBytes, long now) {
+        inFlight = Math.max(0, inFlight - 1);
+        double millisPerMegabyte = latencyNanos / NANOS_PER_MILLI
+                / ((double)Math.max(MIN_WORK_BYTES, workBytes) / MIN_WORK_BYTES);
+        if (latency == 0) {
+            latency = millisPerMegabyte;
+            baseline = millisPerMegabyte;
+        } else {
+            latency += (millisPerMegabyte - latency) * SMOOTHING;
+            // the baseline follows improvements right away, and degradations as it decays in adjust()
+            if (latency < baseline) {
+                baseline = latency;
+            }
+        }
+        if (now - lastAdjust < INTERVAL_NANOS) {
+            return false;
+        }
+        int before = getLimit();
+        adjust(now);
+        return getLimit() != before;
+    }
+
+    /**
+     * Lowers or raises the limit depending on the measurements since the last adjustment.
+     *
+     * @param now the current time from {@link System#nanoTime()}.
+     */
+    private void adjust(long now) {
+        long gcTime = probe.getGcTimeMillis();
+        double elapsedMillis = (now - lastAdjust) / NANOS_PER_MILLI;
+        double gcFraction = (gcTime - lastGcTime) / elapsedMillis;
+        double load = probe.getLoadPerProcessor();
+        boolean overloaded = load > MAX_LOAD
+                || gcFraction > MAX_GC_FRACTION
+                || latency > baseline * LATENCY_TOLERANCE;
+        if (overloaded) {
+            limit = Math.max(min, limit * DECREASE_FACTOR);
+        } else if (peakInFlight >= (int)limit) {
+            limit = Math.min(max, limit + 1);
+        }
+        baseline += (latency - baseline) * (1 - Math.pow(2, -(double)(now - lastAdjust) / BASELINE_HALF_LIFE_NANOS));
+        lastAdjust = now;
+        lastGcTime = gcTime;
+        peakInFlight = inFlight;
+    }
+}
@@ -28,16 +28,27 @@ package com.sonyericsson.jenkins.plugins.bfa;
 import static com.sonyericsson.jenkins.plugins.bfa.MetricsManager.incCounters;
 import static com.sonyericsson.jenkins.plugins.bfa.MetricsManager.UNKNOWNCAUSE;
 
+import com.sonyericsson.jenkins.plugins.bfa.model.ApplicableCauses;
+import com.sonyericsson.jenkins.plugins.bfa.model.CauseEvaluationOrder;
+import com.sonyericsson.jenkins.plugins.bfa.model.DownstreamDataCache;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseDisplayData;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseMatrixBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureReader;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.IncrementalRescan;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogLineIndex;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogRegion;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogRegionPlanner;
+import com.sonyericsson.jenkins.plugins.bfa.model.RenderedPayloadCache;
+import com.sonyericsson.jenkins.plugins.bfa.model.ResultStorageMode;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanStrategy;
 import com.sonyericsson.jenkins.plugins.bfa.model.ScannerJobProperty;
+import com.sonyericsson.jenkins.plugins.bfa.model.StreamingScan;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
-import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
 import com.sonyericsson.jenkins.plugins.bfa.statistics.StatisticsLogger;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
@@ -45,6 +56,7 @@ import hudson.Util;
 import hudson.init.InitMilestone;
 import hudson.init.Initializer;
 import hudson.matrix.MatrixProject;
+import hudson.matrix.MatrixRun;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.model.listeners.RunListener;
@@ -56,6 +68,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.LineNumberReader;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -64,11 +77,11 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -88,7 +101,26 @@ public class BuildFailureScanner extends RunListener<Run> {
     private static final Logger logger = Logger.getLogger(BuildFailureScanner.class.getName());
     private static final String LOG_FILE_NAME = "log";
 
-    private static ThreadPoolExecutor threadPoolExecutor;
+    /**
+     * The number of bytes at the end of the log that are scanned when the scan queue is full.
+     */
+    private static final long OVERLOAD_TAIL_BYTES = 1024 * 1024;
+
+    /**
+     * The time a virtual thread waits for room in the scan queue before scanning only the end of the log.
+     */
+    private static final long OVERLOAD_WAIT_MINUTES = 10;
+
+    /**
+     * Set on the threads scanning on demand, which wait for room in the scan queue for as long as it takes instead
+     * of scanning only the end of the log, since the user asked for the builds to be scanned again.
+     */
+    private static final ThreadLocal<Boolean> ON_DEMAND = new ThreadLocal<Boolean>();
+
+    /**
+     * The time to wait for a streaming scan to catch up with the end of the log.
+     */
+    private static final long STREAMING_WAIT_SECONDS = 60;
 
     /**
      * Creates the shared thread pool after extensions have been made available.
@@ -96,9 +128,7 @@ public class BuildFailureScanner extends RunListener<Run> {
     @Initializer(after = InitMilestone.EXTENSIONS_AUGMENTED)
     @SuppressWarnings("unused")
     public static void initThreadPool() {
-        threadPoolExecutor = (ThreadPoolExecutor)Executors.newFixedThreadPool(
-                PluginImpl.getInstance().getNrOfScanThreads()
-        );
+        ScanScheduler.getInstance();
     }
 
     @Override
@@ -116,12 +146,28 @@ public class BuildFailureScanner extends RunListener<Run> {
     }
 
     @Override
-    public void onCompleted(Run run, @NonNull TaskListener listener) {
+    public void onCompleted(final Run run, @NonNull TaskListener listener) {
         logger.entering(getClass().getName(), "onCompleted");
-        doScan(run);
+        if (PluginImpl.getInstance().isAsynchronousScanningEnabled()) {
+            ScanCoordinator.getInstance().submit(run, new Runnable() {
+                @Override
+                public void run() {
+                    doScan(run, true);
+                }
+            });
+        } else {
+            doScan(run, false);
+        }
     }
 
-    private void doScan(Run build) {
+    /**
+     * Scans the build if it is in the log size limit.
+     *
+     * @param build the build to scan.
+     * @param persist if the build should be saved when the scan is done, needed when the scan doesn't run as part
+     *                of the build completion.
+     */
+    private static void doScan(Run build, boolean persist) {
         File file = new File(build.getRootDir(), ScanLogAction.FILE_NAME);
         try (
                 FileOutputStream fos = new FileOutputStream(file, true);
@@ -129,11 +175,24 @@ public class BuildFailureScanner extends RunListener<Run> {
         ) {
             if (PluginImpl.isSizeInLimit(build)) {
                 scanIfNotScanned(build, scanLog);
+            } else if (PluginImpl.getInstance().getScanStrategy() == ScanStrategy.HEAD_AND_TAIL) {
+                logToScanLog(scanLog, "Log exceeds limit: " + PluginImpl.getInstance().getMaxLogSize()
+                        + "MB, scanning its beginning and end");
+                scanIfNotScanned(build, scanLog);
             } else {
                 logToScanLog(scanLog, "Log exceeds limit: " + PluginImpl.getInstance().getMaxLogSize() + "MB");
             }
+            if (persist) {
+                build.save();
+            }
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Could not get the causes from the knowledge base", e);
+        } finally {
+            // the build wasn't scanned, or it was scanned but the streaming scan had not completed
+            StreamingScan streamingScan = StreamingScan.remove(build);
+            if (streamingScan != null) {
+                streamingScan.abandon();
+            }
         }
     }
 
@@ -163,6 +222,20 @@ public class BuildFailureScanner extends RunListener<Run> {
         }
     }
 
+    /**
+     * Marks the scans of the current thread as scans on demand, which are never limited to the end of the log when
+     * the scan queue is full. A scan that can't wait for room in the queue fails instead.
+     *
+     * @param onDemand true while scanning on demand, false when done.
+     */
+    public static void setOnDemand(boolean onDemand) {
+        if (onDemand) {
+            ON_DEMAND.set(Boolean.TRUE);
+        } else {
+            ON_DEMAND.remove();
+        }
+    }
+
     /**
      * Performs a scan of the build, adds the {@link FailureCauseBuildAction} and reports to the
      * {@link StatisticsLogger}.
@@ -171,11 +244,61 @@ public class BuildFailureScanner extends RunListener<Run> {
      * @param scanLog log to write information to.
      */
     public static void scan(Run build, PrintStream scanLog) {
+        scan(build, scanLog, null);
+    }
+
+    /**
+     * Re-scans a build that was scanned before, evaluating only what changed in the knowledge base since, see
+     * {@link IncrementalRescan}. Builds that can't be re-scanned incrementally are scanned from scratch.
+     *
+     * @param build the build to re-scan.
+     * @param scanLog log to write information to.
+     * @throws Exception if the previous result could not be removed from the knowledge base.
+     */
+    public static void rescanIncrementally(Run build, PrintStream scanLog) throws Exception {
+        if (!PluginImpl.shouldScan(build) || !PluginImpl.needToAnalyze(build.getResult())) {
+            return;
+        }
+        FailureCauseBuildAction previous = build.getAction(FailureCauseBuildAction.class);
+        if (previous != null) {
+            build.removeAction(previous);
+        }
+        PluginImpl.getInstance().getKnowledgeBase().removeBuildfailurecause(build);
+        scan(build, scanLog, previous);
+    }
+
+    /**
+     * Performs a scan of the build, adds the {@link FailureCauseBuildAction} and reports to the
+     * {@link StatisticsLogger}.
+     *
+     * @param build    the build to scan
+     * @param scanLog log to write information to.
+     * @param previous the result of the previous scan of the build, to only evaluate what changed since, or null.
+     */
+    private static void scan(Run build, PrintStream scanLog, FailureCauseBuildAction previous) {
         ScanLogAction scanLogAction = new ScanLogAction();
         build.addOrReplaceAction(scanLogAction);
         try {
-            Collection<FailureCause> causes = PluginImpl.getInstance().getKnowledgeBase().getCauses();
-            List<FoundFailureCause> foundCauseListToLog = findCauses(causes, build, scanLog);
+            Collection<FailureCause> allCauses = PluginImpl.getInstance().getKnowledgeBase().getCauses();
+            Collection<FailureCause> causes = ApplicableCauses.of(build, allCauses);
+            if (causes.size() < allCauses.size()) {
+                logToScanLog(scanLog, causes.size() + " of " + allCauses.size() + " causes apply to this job");
+            }
+            List<FoundFailureCause> foundCauseListToLog = null;
+            if (previous != null) {
+                foundCauseListToLog = rescanChanged(causes, build, scanLog, previous);
+            }
+            if (foundCauseListToLog == null) {
+                foundCauseListToLog = findCauses(causes, build, scanLog);
+            }
+            if (CauseEvaluationOrder.isOrdered(causes)) {
+                // before the fallback categories, so that a terminal cause also hides generic causes
+                List<FoundFailureCause> resolved = CauseEvaluationOrder.resolve(causes, foundCauseListToLog);
+                if (resolved.size() < foundCauseListToLog.size()) {
+                    logToScanLog(scanLog, "Removing causes superseded by terminal or exclusive causes");
+                }
+                foundCauseListToLog = resolved;
+            }
             List<FoundFailureCause> foundCauseList;
 
             /* Register failed test cases as foundCauses.
@@ -230,8 +353,20 @@ public class BuildFailureScanner extends RunListener<Run> {
 
             FailureCauseBuildAction buildAction = new FailureCauseBuildAction(foundCauseList);
             buildAction.setBuild(build);
+            buildAction.setScanPlanVersion(ScanPlanHistory.getInstance().record(causes));
+            writeLineIndex(build, foundCauseList);
+            ResultStorageMode storageMode = PluginImpl.getInstance().getResultStorageMode();
+            if (storageMode == ResultStorageMode.COMPACT) {
+                buildAction.storeCompactly(causes);
+            } else if (storageMode == ResultStorageMode.SIDECAR) {
+                buildAction.storeInSidecar(causes);
+            }
             build.addAction(buildAction);
-            final FailureCauseDisplayData data = buildAction.getFailureCauseDisplayData();
+            DownstreamDataCache.getInstance().invalidate(build);
+            if (build instanceof MatrixRun) {
+                FailureCauseMatrixBuildAction.recordScan((MatrixRun)build, foundCauseList);
+            }
+            final FailureCauseDisplayData data = RenderedPayloadCache.getInstance().get(buildAction).getData();
             List<FailureCauseDisplayData> downstreamFailureCauses = data.getDownstreamFailureCauses();
 
             if (!downstreamFailureCauses.isEmpty()) {
@@ -258,8 +393,16 @@ public class BuildFailureScanner extends RunListener<Run> {
                     String buildNum = String.valueOf(build.getNumber());
                     String buildName = data.getLinks().getProjectDisplayName();
                     String buildUrl = Jenkins.getInstance().getRootUrl() + build.getUrl();
-                    createSlackMessage(foundCauseList, notifySlackAllFail, slackFailCauseCat, buildName,
-                            buildNum, buildUrl, scanLog);
+                    final List<FoundFailureCause> slackCauses = foundCauseList;
+                    final boolean slackAll = notifySlackAllFail;
+                    // the key holds all options the message is rendered with
+                    String message = RenderedPayloadCache.getInstance().get(buildAction).format(
+                            "slack:" + notifySlackAllFail + ":" + failureCategories + ":" + buildUrl,
+                            displayData -> renderSlackMessage(slackCauses, slackAll, slackFailCauseCat, buildName,
+                                    buildNum, buildUrl));
+                    if (message != null) {
+                        queueSlackMessage(message, scanLog);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -271,7 +414,8 @@ public class BuildFailureScanner extends RunListener<Run> {
     }
 
     /**
-     * Function to create the message for Slack using build and BFA information.
+     * Function to create the message for Slack using build and BFA information, and queue it with the
+     * {@link NotificationDispatcher}.
      * @param foundCauseList - Build failure causes found in the build
      * @param notifySlackOfAllFailures - Flag to indicate if all failures should be sent to Slack
      * @param slackFailureCauseCategories - Failure causes for which to notify Slack (from BFA configuration)
@@ -285,6 +429,28 @@ public class BuildFailureScanner extends RunListener<Run> {
     public static String createSlackMessage(List<FoundFailureCause> foundCauseList,
             boolean notifySlackOfAllFailures, List<String> slackFailureCauseCategories,
             String buildName, String buildNum, String buildUrl, PrintStream scanLog) {
+        String message = renderSlackMessage(foundCauseList, notifySlackOfAllFailures, slackFailureCauseCategories,
+                buildName, buildNum, buildUrl);
+        if (message != null) {
+            queueSlackMessage(message, scanLog);
+        }
+        return message;
+    }
+
+    /**
+     * Function to create the message for Slack using build and BFA information.
+     * @param foundCauseList - Build failure causes found in the build
+     * @param notifySlackOfAllFailures - Flag to indicate if all failures should be sent to Slack
+     * @param slackFailureCauseCategories - Failure causes for which to notify Slack (from BFA configuration)
+     * @param buildName - Name of the build
+     * @param buildNum - Build object
+     * @param buildUrl - Full URL of build
+     * @return String Slack message with failure name, category and description if Slack should be notified,
+     * null otherwise
+     */
+    private static String renderSlackMessage(List<FoundFailureCause> foundCauseList,
+            boolean notifySlackOfAllFailures, List<String> slackFailureCauseCategories,
+            String buildName, String buildNum, String buildUrl) {
         boolean notifySlackOfFailure = false;
         StringBuilder bufBuildFailCause = new StringBuilder();
 
@@ -333,19 +499,31 @@ public class BuildFailureScanner extends RunListener<Run> {
 
         /* Notify slack if configured to report "ALL" failures or if one of the failure categories matched. */
         if (notifySlackOfAllFailures || notifySlackOfFailure) {
-            SlackMessageProvider slack = new SlackMessageProvider();
-
             StringBuilder s = new StringBuilder("Job *\"" + buildName + "\"*");
             s.append(" build *#").append(buildNum).append("* FAILED due to following failure causes: \n");
             s.append(bufBuildFailCause.toString()).append("\nSee ");
             s.append(buildUrl).append(" for details.");
-
-            slack.postToSlack(s.toString(), scanLog);
             return s.toString();
         }
         return null;
     }
 
+    /**
+     * Queues a message for Slack with the {@link NotificationDispatcher}.
+     * @param message - the message
+     * @param scanLog - PrintStream for the build log
+     */
+    private static void queueSlackMessage(String message, PrintStream scanLog) {
+        boolean queued = NotificationDispatcher.getInstance().submit(message);
+        if (scanLog != null) {
+            if (queued) {
+                scanLog.println("[BFA] Queued build failure information for slack.");
+            } else {
+                scanLog.println("[BFA] Too many notifications waiting, build failure information not sent.");
+            }
+        }
+    }
+
     /**
      * Function to check if atleast one of the failure cause categories match the identified failure.
      * @param category - Category of the cause for the build failure
@@ -396,12 +574,11 @@ public class BuildFailureScanner extends RunListener<Run> {
      */
     private static List<FoundFailureCause> findCauses(final Collection<FailureCause> causes,
                                                       final Run build, final PrintStream scanLog) {
-        threadPoolExecutor.setMaximumPoolSize(PluginImpl.getInstance().getNrOfScanThreads());
-        threadPoolExecutor.setCorePoolSize(PluginImpl.getInstance().getNrOfScanThreads());
+        ScanScheduler.getInstance().configure(PluginImpl.getInstance());
 
         logToScanLog(scanLog, "Scanning build for known causes...");
         long start = System.currentTimeMillis();
-        final List<FoundFailureCause> foundFailureCauseList = findIndications(causes, build, scanLog);
+        final List<FoundFailureCause> foundFailureCauseList = findIndicationsCached(causes, build, scanLog);
 
         long time = System.currentTimeMillis() - start;
         if (logger.isLoggable(Level.FINER)) {
@@ -428,13 +605,122 @@ public class BuildFailureScanner extends RunListener<Run> {
         return foundFailureCauseList;
     }
 
+    /**
+     * Finds the failure causes of a build that was scanned before, by only evaluating what changed in the knowledge
+     * base since.
+     *
+     * @param causes the list of possible causes.
+     * @param build the build to analyze.
+     * @param scanLog the build log.
+     * @param previous the result of the previous scan.
+     * @return a list of found failure causes, or null if the build has to be scanned from scratch.
+     */
+    private static List<FoundFailureCause> rescanChanged(final Collection<FailureCause> causes, final Run build,
+                                                         final PrintStream scanLog,
+                                                         final FailureCauseBuildAction previous) {
+        Map<String, List<String>> snapshot = ScanPlanHistory.getInstance().get(previous.getScanPlanVersion());
+        IncrementalRescan rescan = IncrementalRescan.plan(snapshot, previous.getFoundFailureCauses(), causes,
+                PluginImpl.getInstance().getFallbackCategories());
+        if (rescan == null) {
+            logToScanLog(scanLog, "The causes of the previous scan are not known, scanning the whole build");
+            return null;
+        }
+        logToScanLog(scanLog, "Re-evaluating " + rescan.getIndicationsToEvaluate() + " indications of "
+                + rescan.getCausesToEvaluate().size() + " changed causes...");
+        List<FoundFailureCause> found = Collections.emptyList();
+        if (!rescan.getCausesToEvaluate().isEmpty()) {
+            ScanScheduler.getInstance().configure(PluginImpl.getInstance());
+            found = findIndications(rescan.getCausesToEvaluate(), build, scanLog);
+        }
+        List<FoundFailureCause> merged = Collections.synchronizedList(rescan.merge(found));
+        if (merged.isEmpty()) {
+            logToScanLog(scanLog, "No failure causes found");
+        } else {
+            logToScanLog(scanLog, "Found failure cause(s):");
+            for (FoundFailureCause foundCause : merged) {
+                logToScanLog(scanLog, foundCause.getName());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Writes the {@link LogLineIndex} of the log of a build, and sets the offsets of the found indications in it.
+     *
+     * @param build the build.
+     * @param found the found causes.
+     */
+    private static void writeLineIndex(Run build, List<FoundFailureCause> found) {
+        if (!LogLineIndex.isUseful(found)) {
+            return;
+        }
+        try {
+            LogLineIndex.write(build, found);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not index the log of " + build.getFullDisplayName(), e);
+        }
+    }
+
     private static void logToScanLog(PrintStream scanLog, String logLine) {
         scanLog.printf("%tF %<tR %s%n", new Date(), logLine);
     }
 
     /**
+     * Finds indications for all causes, or takes them from the {@link ScanResultCache} when a log with the same
+     * content was scanned for the same causes before, like the log of a retried build. The log is hashed before its
+     * first scan and the hash is kept next to the build, see {@link ScanResultCache#getLogDigest(Run)}.
      *
-     * Finds indications for all causes.
+     * @param causes the list of possible causes.
+     * @param build current build.
+     * @param scanLog build log for providing feedback.
+     * @return a list of found indications, could be empty.
+     */
+    private static List<FoundFailureCause> findIndicationsCached(final Collection<FailureCause> causes,
+                                                                 final Run build,
+                                                                 final PrintStream scanLog) {
+        PluginImpl plugin = PluginImpl.getInstance();
+        if (!plugin.isScanResultCacheEnabled() || isPipelineScanned(build)) {
+            return findIndications(causes, build, scanLog);
+        }
+        ScanResultCache cache = ScanResultCache.getInstance();
+        String settings = plugin.getScanStrategy() + "," + plugin.getHeadScanSize()
+                + "," + plugin.getTailScanSize() + "," + plugin.getMaxLogSize();
+        String logDigest = ScanResultCache.getLogDigest(build);
+        if (logDigest == null) {
+            return findIndications(causes, build, scanLog);
+        }
+        String key = ScanResultCache.key(logDigest, causes, settings);
+        List<FoundFailureCause> cached = cache.get(key, build, causes);
+        if (cached != null) {
+            logToScanLog(scanLog, "Using the result of a scan of an identical log");
+            // the streaming scan is not needed
+            StreamingScan streamingScan = StreamingScan.remove(build);
+            if (streamingScan != null) {
+                streamingScan.abandon();
+            }
+            return cached;
+        }
+        List<FoundFailureCause> found = findIndications(causes, build, scanLog);
+        cache.put(key, found);
+        return found;
+    }
+
+    /**
+     * Checks if a build is scanned by the logs of its failed Pipeline steps, whose results depend on more than the
+     * content of the log.
+     *
+     * @param build the build.
+     * @return true if so.
+     */
+    private static boolean isPipelineScanned(Run build) {
+        return PluginImpl.getInstance().isPipelineScanEnabled() && Jenkins.get().getPlugin("workflow-api") != null
+                && PipelineLogScanner.isApplicable(build);
+    }
+
+    /**
+     *
+     * Finds indications for all causes. Causes with priorities are evaluated in one pass, and causes superseded by
+     * a found terminal or exclusive cause are no longer looked for, see {@link CauseEvaluationOrder}.
      *
      * @param causes the list of possible causes.
      * @param build current build.
@@ -444,47 +730,215 @@ public class BuildFailureScanner extends RunListener<Run> {
     private static List<FoundFailureCause> findIndications(final Collection<FailureCause> causes,
                                                            final Run build,
                                                            final PrintStream scanLog) {
-        final List<FailureCause> singleLineCauses = new ArrayList<FailureCause>();
-        final List<FailureCause> notOnlySingleLineCauses = new ArrayList<FailureCause>();
+        StreamingScan streamingScan = StreamingScan.remove(build);
+        if (streamingScan != null) {
+            List<FoundFailureCause> streamed = streamingScan.await(STREAMING_WAIT_SECONDS, TimeUnit.SECONDS);
+            // scoped causes, and causes added or changed while the build was running, were not streamed as they
+            // are now and are looked for in the log
+            List<FailureCause> changed = null;
+            if (streamed != null) {
+                changed = streamingScan.getChanged(causes);
+            }
+            if (changed != null && (changed.isEmpty() || changed.size() < causes.size())) {
+                logToScanLog(scanLog, "Using the scan done while the build was running");
+                List<FoundFailureCause> foundFailureCauses = new ArrayList<FoundFailureCause>(
+                        StreamingScan.getUnchanged(streamed, causes, changed));
+                if (!changed.isEmpty()) {
+                    logToScanLog(scanLog, "Scanning the log for " + changed.size()
+                            + " causes that were not looked for while the build was running");
+                    mergeFoundCauses(foundFailureCauses, findIndicationsInRegion(ScanPlan.of(changed), build,
+                            LogRegionPlanner.whole(build), LogRegion.whole(), scanLog, null));
+                }
+                // causes superseded by terminal or exclusive causes are removed in scan(), as for a full scan
+                return foundFailureCauses;
+            }
+            if (changed == null) {
+                logToScanLog(scanLog, "The scan done while the build was running is incomplete, scanning the log");
+            } else {
+                logToScanLog(scanLog, "All causes changed while the build was running, scanning the log");
+            }
+        }
 
-        splitCauses(causes, singleLineCauses, notOnlySingleLineCauses);
+        return findIndicationsInLog(causes, build, scanLog);
+    }
+
+    /**
+     * Finds indications for causes in the log of the build, or in the logs of the failed steps of a Pipeline.
+     *
+     * @param causes the list of possible causes.
+     * @param build current build.
+     * @param scanLog build log for providing feedback.
+     * @return a list of found indications, could be empty.
+     */
+    private static List<FoundFailureCause> findIndicationsInLog(final Collection<FailureCause> causes,
+                                                                final Run build,
+                                                                final PrintStream scanLog) {
+        CauseEvaluationOrder.LiveCauses live = null;
+        ScanPlan plan;
+        if (CauseEvaluationOrder.isOrdered(causes)) {
+            // the highest priority first, so that found terminal and exclusive causes prune the rest early
+            live = new CauseEvaluationOrder.LiveCauses(causes);
+            plan = ScanPlan.of(CauseEvaluationOrder.byPriority(causes));
+        } else {
+            plan = ScanPlan.of(causes);
+        }
+
+        List<FoundFailureCause> pipelineCauses = findIndicationsInFailedSteps(plan, build, scanLog);
+        if (!pipelineCauses.isEmpty()) {
+            return pipelineCauses;
+        }
+
+        LogRegionPlanner regions = planRegions(build, scanLog);
+        List<FoundFailureCause> foundFailureCauses = new ArrayList<FoundFailureCause>();
+        for (LogRegion pass : regions.getPasses()) {
+            if (!pass.isWhole()) {
+                logToScanLog(scanLog, "Scanning the log from byte " + pass.getStart() + describeEnd(pass));
+            }
+            mergeFoundCauses(foundFailureCauses, findIndicationsInRegion(plan, build, regions, pass, scanLog, live));
+            if (regions.isStopAtFirstMatch() && !foundFailureCauses.isEmpty()) {
+                logToScanLog(scanLog, "Found failure cause(s) at the end of the log, "
+                        + "skipping the rest of the log for all causes");
+                break;
+            }
+        }
+        return foundFailureCauses;
+    }
+
+    /**
+     * Plans the regions of the log to scan, by the configured {@link ScanStrategy}.
+     *
+     * @param build current build.
+     * @param scanLog build log for providing feedback.
+     * @return the plan, the whole log if the log can't be read.
+     */
+    private static LogRegionPlanner planRegions(Run build, PrintStream scanLog) {
+        PluginImpl plugin = PluginImpl.getInstance();
+        try {
+            return LogRegionPlanner.plan(build, plugin.getScanStrategy(),
+                    (long)plugin.getHeadScanSize() * PluginImpl.BYTES_IN_MEGABYTE,
+                    (long)plugin.getTailScanSize() * PluginImpl.BYTES_IN_MEGABYTE,
+                    !PluginImpl.isSizeInLimit(build));
+        } catch (IOException e) {
+            logToScanLog(scanLog, "Could not plan the regions of the log to scan: " + e);
+            return LogRegionPlanner.whole(build);
+        }
+    }
+
+    /**
+     * Describes where a region ends, for the scan log.
+     *
+     * @param region the region.
+     * @return the description.
+     */
+    private static String describeEnd(LogRegion region) {
+        if (region.getEnd() == LogRegion.END_OF_LOG) {
+            return " to the end";
+        }
+        return " to byte " + region.getEnd();
+    }
+
+    /**
+     * Adds found causes to a list, merging the indications of causes that are already in it.
+     *
+     * @param foundFailureCauses the list to add to.
+     * @param toAdd the causes to add.
+     */
+    private static void mergeFoundCauses(List<FoundFailureCause> foundFailureCauses,
+                                         List<FoundFailureCause> toAdd) {
+        for (FoundFailureCause cause : toAdd) {
+            FoundFailureCause existing = null;
+            for (FoundFailureCause foundCause : foundFailureCauses) {
+                if (Util.fixNull(foundCause.getId()).equals(Util.fixNull(cause.getId()))
+                        && foundCause.getName().equals(cause.getName())) {
+                    existing = foundCause;
+                    break;
+                }
+            }
+            if (existing == null) {
+                foundFailureCauses.add(cause);
+            } else {
+                existing.addIndications(cause.getIndications());
+            }
+        }
+    }
+
+    /**
+     * Finds indications for all causes in one region of the log, on the scanner threads.
+     *
+     * @param plan the causes to look for.
+     * @param build current build.
+     * @param regions the plan of the regions of the log.
+     * @param pass the region to scan.
+     * @param scanLog build log for providing feedback.
+     * @param live the causes still looked for, or null to look for all causes.
+     * @return a list of found indications, could be empty.
+     */
+    private static List<FoundFailureCause> findIndicationsInRegion(final ScanPlan plan,
+                                                                   final Run build,
+                                                                   final LogRegionPlanner regions,
+                                                                   final LogRegion pass,
+                                                                   final PrintStream scanLog,
+                                                                   final CauseEvaluationOrder.LiveCauses live) {
+        final List<FailureCause> singleLineCauses = plan.getSingleLineCauses();
+        final List<FailureCause> notOnlySingleLineCauses = plan.getMultiLineCauses();
+
+        final ScanScheduler scheduler = ScanScheduler.getInstance();
+        final ScanPriority priority = ScanPriority.of(build);
+        if (!hasCapacity(scheduler, notOnlySingleLineCauses.size() + 1, scanLog)) {
+            return findIndicationsWhenFull(plan, build, regions, pass, scanLog, live);
+        }
 
         final List<Future<?>> scanningTasks = new ArrayList<Future<?>>(notOnlySingleLineCauses.size() + 1);
         final List<FoundFailureCause> foundFailureCauses = Collections.synchronizedList(
                 new ArrayList<FoundFailureCause>());
 
-        if (!singleLineCauses.isEmpty()) {
-            scanningTasks.add(threadPoolExecutor.submit(new Runnable() {
-                @Override
-                public void run() {
-                    foundFailureCauses.addAll(parseSingleLineCauses(build, scanLog, singleLineCauses));
-                    Thread.currentThread().setName("BFA-scanner-" + build.getFullDisplayName());
-                }
-            }));
-        }
+        try {
+            if (!singleLineCauses.isEmpty()) {
+                scanningTasks.add(scheduler.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        foundFailureCauses.addAll(parseSingleLineCauses(build, scanLog, singleLineCauses, pass,
+                                live));
+                        Thread.currentThread().setName("BFA-scanner-" + build.getFullDisplayName());
+                    }
+                }, priority));
+            }
 
-        for (final FailureCause cause : notOnlySingleLineCauses) {
-            scanningTasks.add(threadPoolExecutor.submit(new Runnable() {
-                @Override
-                public void run() {
-                    final List<FoundIndication> foundIndications = new ArrayList<FoundIndication>();
-                    for (final Indication indication : cause.getIndications()) {
-                        Thread.currentThread().setName("BFA-scanner-"
-                                + build.getFullDisplayName() + ": "
-                                + cause.getName() + "-"
-                                + indication.getUserProvidedExpression());
-
-                        FoundIndication foundIndication = parseIndication(build, scanLog, indication, cause.getName());
-                        if (foundIndication != null) {
-                            foundIndications.add(foundIndication);
+            for (final FailureCause cause : notOnlySingleLineCauses) {
+                scanningTasks.add(scheduler.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        final List<FoundIndication> foundIndications = new ArrayList<FoundIndication>();
+                        for (final Indication indication : cause.getIndications()) {
+                            if (live != null && !live.isLive(cause)) {
+                                return;
+                            }
+                            Thread.currentThread().setName("BFA-scanner-"
+                                    + build.getFullDisplayName() + ": "
+                                    + cause.getName() + "-"
+                                    + indication.getUserProvidedExpression());
+
+                            FoundIndication foundIndication =
+                                    parseIndication(build, scanLog, indication, cause.getName(), regions, pass);
+                            if (foundIndication != null) {
+                                foundIndications.add(foundIndication);
+                            }
                         }
-                    }
 
-                    if (!foundIndications.isEmpty()) {
-                        foundFailureCauses.add(new FoundFailureCause(cause, foundIndications));
+                        if (!foundIndications.isEmpty()) {
+                            foundFailureCauses.add(new FoundFailureCause(cause, foundIndications));
+                            if (live != null) {
+                                live.found(cause);
+                            }
+                        }
                     }
-                }
-            }));
+                }, priority));
+            }
+        } catch (RejectedExecutionException e) {
+            for (Future<?> scanningTask : scanningTasks) {
+                scanningTask.cancel(true);
+            }
+            return findIndicationsWhenFull(plan, build, regions, pass, scanLog, live);
         }
 
         waitAllTasks(scanLog, scanningTasks);
@@ -518,31 +972,158 @@ public class BuildFailureScanner extends RunListener<Run> {
     }
 
     /**
+     * Finds indications in the logs of the failed steps of a Pipeline run, if enabled.
      *
-     * Split list of causes in two part: causes with single line indication only and others.
+     * @param plan the causes to look for.
+     * @param build current build.
+     * @param scanLog build log for providing feedback.
+     * @return a list of found indications, empty if the whole log should be scanned.
+     */
+    private static List<FoundFailureCause> findIndicationsInFailedSteps(ScanPlan plan, Run build,
+                                                                        PrintStream scanLog) {
+        PluginImpl plugin = PluginImpl.getInstance();
+        if (!isPipelineScanned(build)) {
+            return Collections.emptyList();
+        }
+        try {
+            List<FoundFailureCause> found = PipelineLogScanner.scan(build, plan, plugin.isPipelineScanIncludeStages());
+            if (found.isEmpty()) {
+                logToScanLog(scanLog, "Nothing found in the logs of the failed steps, scanning the whole log");
+            } else {
+                logToScanLog(scanLog, "Scanned the logs of the failed steps");
+            }
+            return found;
+        } catch (IOException e) {
+            logToScanLog(scanLog, "Could not scan the logs of the failed steps: " + e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Checks if the scan tasks of a build can be queued. Virtual threads wait a while for room in the queue, since
+     * blocking them is cheap, and scans on demand wait until there is room, while other threads don't wait at all.
      *
-     * @param causes All causes.
-     * @param singleLineCauses Collection to put list of causes with single line indication.
-     * @param notOnlySingleLineCauses Collection to put other causes.
+     * @param scheduler the scheduler.
+     * @param tasks the number of tasks.
+     * @param scanLog build log for providing feedback.
+     * @return true if there is room in the queue.
      */
-    private static void splitCauses(Collection<FailureCause> causes,
-                                    List<FailureCause> singleLineCauses,
-                                    List<FailureCause> notOnlySingleLineCauses) {
-        for (FailureCause cause : causes) {
-            boolean atLeastOneNonSignalLine = false;
-            for (Indication indication : cause.getIndications()) {
-                if (indication instanceof MultilineBuildLogIndication) {
-                    atLeastOneNonSignalLine = true;
-                    break;
-                }
+    private static boolean hasCapacity(ScanScheduler scheduler, int tasks, PrintStream scanLog) {
+        if (scheduler.hasCapacity(tasks)) {
+            return true;
+        }
+        boolean onDemand = ON_DEMAND.get() != null;
+        if (!onDemand && !VirtualThreads.isVirtual(Thread.currentThread())) {
+            return false;
+        }
+        try {
+            if (!onDemand) {
+                return scheduler.awaitCapacity(tasks, OVERLOAD_WAIT_MINUTES, TimeUnit.MINUTES);
             }
+            logToScanLog(scanLog, "The scan queue is full, waiting for room in it");
+            while (!scheduler.awaitCapacity(tasks, OVERLOAD_WAIT_MINUTES, TimeUnit.MINUTES)) {
+                logger.log(Level.INFO, "[BFA] A scan on demand has waited " + OVERLOAD_WAIT_MINUTES
+                        + " minutes for room in the scan queue, waiting on");
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-            if (atLeastOneNonSignalLine) {
-                notOnlySingleLineCauses.add(cause);
-            } else {
-                singleLineCauses.add(cause);
+    /**
+     * Finds indications for all causes when the scan tasks could not be queued, in the end of the log only. Scans on
+     * demand fail instead, so that the build is left as not scanned rather than scanned only in part.
+     *
+     * @param plan the causes to look for.
+     * @param build current build.
+     * @param regions the plan of the regions of the log.
+     * @param pass the region that should have been scanned.
+     * @param scanLog build log for providing feedback.
+     * @param live the causes still looked for, or null to look for all causes.
+     * @return a list of found indications, could be empty.
+     * @throws IllegalStateException if scanning on demand.
+     */
+    private static List<FoundFailureCause> findIndicationsWhenFull(ScanPlan plan, Run build,
+                                                                   LogRegionPlanner regions, LogRegion pass,
+                                                                   PrintStream scanLog,
+                                                                   CauseEvaluationOrder.LiveCauses live) {
+        if (ON_DEMAND.get() != null) {
+            logToScanLog(scanLog, "The scan tasks could not be queued, the scan on demand failed");
+            throw new IllegalStateException("The scan tasks of " + build.getFullDisplayName()
+                    + " could not be queued");
+        }
+        logToScanLog(scanLog, "The scan queue is full, scanning only the end of the log");
+        return findIndicationsInTail(plan, build, regions, pass, scanLog, live);
+    }
+
+    /**
+     * Finds indications for all causes in the end of the log only, in the calling thread.
+     * Used instead of the full scan when the scan queue is full, since the end of the log is where most failures
+     * are reported.
+     *
+     * @param plan the causes to look for.
+     * @param build current build.
+     * @param regions the plan of the regions of the log.
+     * @param pass the region that should have been scanned.
+     * @param scanLog build log for providing feedback.
+     * @param live the causes still looked for, or null to look for all causes.
+     * @return a list of found indications, could be empty.
+     */
+    private static List<FoundFailureCause> findIndicationsInTail(ScanPlan plan, Run build, LogRegionPlanner regions,
+                                                                 LogRegion pass, PrintStream scanLog,
+                                                                 CauseEvaluationOrder.LiveCauses live) {
+        final List<FoundFailureCause> foundFailureCauses = new ArrayList<FoundFailureCause>();
+        LineNumberReader reader = null;
+        try {
+            LogRegion tail = LogRegion.tail(build, OVERLOAD_TAIL_BYTES).intersect(pass);
+            if (tail.isEmpty()) {
+                return foundFailureCauses;
+            }
+            if (!plan.getSingleLineCauses().isEmpty()) {
+                reader = tail.open(build);
+                foundFailureCauses.addAll(FailureReader.scanSingleLinePatterns(
+                        plan.getSingleLineCauses(), build, reader, LOG_FILE_NAME, live));
+                reader.close();
+            }
+            for (FailureCause cause : plan.getMultiLineCauses()) {
+                if (live != null && !live.isLive(cause)) {
+                    continue;
+                }
+                final List<FoundIndication> foundIndications = new ArrayList<FoundIndication>();
+                for (Indication indication : cause.getIndications()) {
+                    LogRegion region = regions.regionFor(indication, tail);
+                    if (region.isEmpty()) {
+                        continue;
+                    }
+                    reader = region.open(build);
+                    FoundIndication foundIndication = indication.getReader().scan(build, reader, LOG_FILE_NAME);
+                    reader.close();
+                    if (foundIndication != null) {
+                        foundIndications.add(foundIndication);
+                    }
+                }
+                if (!foundIndications.isEmpty()) {
+                    foundFailureCauses.add(new FoundFailureCause(cause, foundIndications));
+                    if (live != null) {
+                        live.found(cause);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logToScanLog(scanLog, "Exception during parsing file: " + e);
+            logger.log(Level.WARNING, "[BFA] Failed to scan the end of the log of " + build.getFullDisplayName(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Failed to close the reader. ", e);
+                }
             }
         }
+        return foundFailureCauses;
     }
 
     /**
@@ -553,15 +1134,19 @@ public class BuildFailureScanner extends RunListener<Run> {
      * @param scanLog build log for providing feedback.
      * @param indication indication to be found.
      * @param causeName name of cause this indication belongs to.
+     * @param regions the plan of the regions of the log.
+     * @param pass the region to scan.
      * @return a found indication, null otherwise.
      */
     private static FoundIndication parseIndication(Run build,
                                                    PrintStream scanLog,
                                                    Indication indication,
-                                                   String causeName) {
+                                                   String causeName,
+                                                   LogRegionPlanner regions,
+                                                   LogRegion pass) {
         long start = System.currentTimeMillis();
 
-        final FoundIndication foundIndication = findIndication(indication, build, scanLog);
+        final FoundIndication foundIndication = findIndication(indication, build, scanLog, regions, pass);
         if (foundIndication != null) {
             if (logger.isLoggable(Level.FINER)) {
                 logger.log(Level.FINER, "[{0}] [{1}] {2}ms", new Object[]{build.getFullDisplayName(),
@@ -580,21 +1165,30 @@ public class BuildFailureScanner extends RunListener<Run> {
      * @param build current build.
      * @param scanLog build log for providing feedback.
      * @param singleLineCauses list of causes to be found.
+     * @param region the region to scan.
+     * @param live the causes still looked for, or null to look for all causes.
      * @return a list of causes with found indication, could be empty.
      */
     private static List<FoundFailureCause> parseSingleLineCauses(Run build,
                                               PrintStream scanLog,
-                                              List<FailureCause> singleLineCauses) {
+                                              List<FailureCause> singleLineCauses,
+                                              LogRegion region,
+                                              CauseEvaluationOrder.LiveCauses live) {
         final List<FoundFailureCause> foundFailureCauses = new ArrayList<FoundFailureCause>();
         BufferedReader reader = null;
         try {
-            reader = new BufferedReader(build.getLogReader());
+            if (region.isWhole()) {
+                reader = new BufferedReader(build.getLogReader());
+            } else {
+                reader = region.open(build);
+            }
             foundFailureCauses.addAll(
                     FailureReader.scanSingleLinePatterns(
                             singleLineCauses,
                             build,
                             reader,
-                            LOG_FILE_NAME));
+                            LOG_FILE_NAME,
+                            live));
         } catch (Exception e) {
             logToScanLog(scanLog, "Exception during parsing file: " + e);
             ScanLogAction logAction = build.getAction(ScanLogAction.class);
@@ -619,11 +1213,36 @@ public class BuildFailureScanner extends RunListener<Run> {
      * @param indication the indication to look for.
      * @param build      the build to analyze.
      * @param scanLog   the build log.
+     * @param regions the plan of the regions of the log.
+     * @param pass the region to scan.
      * @return an indication if one is found, null otherwise.
      */
-    private static FoundIndication findIndication(Indication indication, Run build, PrintStream scanLog) {
+    private static FoundIndication findIndication(Indication indication, Run build, PrintStream scanLog,
+                                                  LogRegionPlanner regions, LogRegion pass) {
         FailureReader failureReader = indication.getReader();
-        return failureReader.scan(build, scanLog);
+        LineNumberReader reader = null;
+        try {
+            LogRegion region = regions.regionFor(indication, pass);
+            if (region.isWhole()) {
+                return failureReader.scan(build, scanLog);
+            }
+            if (region.isEmpty()) {
+                return null;
+            }
+            reader = region.open(build);
+            return failureReader.scan(build, reader, LOG_FILE_NAME);
+        } catch (IOException e) {
+            logToScanLog(scanLog, "Exception during parsing file: " + e);
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Failed to close the reader. ", e);
+                }
+            }
+        }
     }
 
     /**
@@ -0,0 +1,305 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.ResultStorageMode;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the revisions of the causes found in builds stored with {@link ResultStorageMode#COMPACT}, so that the
+ * builds only need to store the id and revision of their causes.
+ *
+ * A revision is a hash of everything shown about a cause, so it never changes once written and all builds that
+ * found the same revision of a cause share one copy of its name, description and categories in memory.
+ */
+public final class CauseRevisions {
+
+    /**
+     * The directory of the revisions, relative to the Jenkins root directory.
+     */
+    static final String DIRECTORY = "build-failure-analyzer/cause-revisions";
+
+    /**
+     * The number of characters of the cause fingerprint used as revision.
+     */
+    static final int REVISION_LENGTH = 16;
+
+    /**
+     * The number of revisions kept in memory.
+     */
+    static final int CACHE_SIZE = 1000;
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final String SUFFIX = ".json";
+    private static final Logger logger = Logger.getLogger(CauseRevisions.class.getName());
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    private static CauseRevisions instance;
+
+    private final File directory;
+    private final Set<String> recorded = new HashSet<String>();
+    private final Map<String, Revision> cache = new LinkedHashMap<String, Revision>(CACHE_SIZE, LOAD_FACTOR, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Revision> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Standard constructor.
+     *
+     * @param directory the directory of the revisions.
+     */
+    public CauseRevisions(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized CauseRevisions getInstance() {
+        if (instance == null) {
+            instance = new CauseRevisions(new File(Jenkins.get().getRootDir(), DIRECTORY));
+        }
+        return instance;
+    }
+
+    /**
+     * The revision of a cause.
+     *
+     * @param cause the cause.
+     * @return the revision.
+     * @see ScanPlan#fingerprint(FailureCause)
+     */
+    public static String revision(FailureCause cause) {
+        return ScanPlan.fingerprint(cause).substring(0, REVISION_LENGTH);
+    }
+
+    /**
+     * Interns a string shown with found causes, so that equal strings of different builds are shared.
+     *
+     * @param string the string, or null.
+     * @return the shared instance.
+     */
+    public static String intern(String string) {
+        if (string == null) {
+            return null;
+        }
+        return STRINGS.intern(string);
+    }
+
+    /**
+     * Stores the current revision of a cause, if not already stored.
+     *
+     * @param cause the cause.
+     * @return the revision.
+     */
+    public String record(FailureCause cause) {
+        String revision = revision(cause);
+        synchronized (this) {
+            if (recorded.contains(revision)) {
+                return revision;
+            }
+            File file = new File(directory, revision + SUFFIX);
+            try {
+                if (!file.exists()) {
+                    if (!directory.isDirectory() && !directory.mkdirs()) {
+                        throw new IOException("Could not create " + directory);
+                    }
+                    File temp = new File(directory, revision + ".tmp");
+                    OBJECT_MAPPER.writeValue(temp, Revision.of(cause));
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                recorded.add(revision);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "[BFA] Could not store revision " + revision + " of " + cause.getName(), e);
+            }
+        }
+        return revision;
+    }
+
+    /**
+     * Gets a stored revision of a cause.
+     *
+     * @param revision the revision.
+     * @return the revision, or null if it is not stored.
+     */
+    public synchronized Revision get(String revision) {
+        if (revision == null) {
+            return null;
+        }
+        Revision cached = cache.get(revision);
+        if (cached != null) {
+            return cached;
+        }
+        File file = new File(directory, revision + SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            Revision read = OBJECT_MAPPER.readValue(file, Revision.class);
+            cache.put(revision, read);
+            return read;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not read revision " + revision, e);
+            return null;
+        }
+    }
+
+    /**
+     * What is shown about a revision of a cause.
+     */
+    public static final class Revision {
+        private final String id;
+        private final String name;
+        private final String description;
+        private final List<String> categories;
+        private final List<String> patterns;
+
+        /**
+         * Standard constructor.
+         *
+         * @param id the id of the cause.
+         * @param name the name.
+         * @param description the description.
+         * @param categories the categories.
+         * @param patterns the patterns of the indications.
+         */
+        @JsonCreator
+        public Revision(@JsonProperty("id") String id,
+                        @JsonProperty("name") String name,
+                        @JsonProperty("description") String description,
+                        @JsonProperty("categories") List<String> categories,
+                        @JsonProperty("patterns") List<String> patterns) {
+            this.id = intern(id);
+            this.name = intern(name);
+            this.description = intern(description);
+            this.categories = internAll(categories);
+            this.patterns = internAll(patterns);
+        }
+
+        /**
+         * The revision of a cause as it is now.
+         *
+         * @param cause the cause.
+         * @return the revision.
+         */
+        public static Revision of(FailureCause cause) {
+            List<String> patterns = new ArrayList<String>();
+            for (Indication indication : cause.getIndications()) {
+                patterns.add(indication.getPattern().pattern());
+            }
+            return new Revision(cause.getId(), cause.getName(), cause.getDescription(), cause.getCategories(),
+                    patterns);
+        }
+
+        /**
+         * Interns the strings of a list.
+         *
+         * @param strings the strings, or null.
+         * @return an unmodifiable list of the interned strings, or null.
+         */
+        private static List<String> internAll(List<String> strings) {
+            if (strings == null) {
+                return null;
+            }
+            List<String> interned = new ArrayList<String>(strings.size());
+            for (String string : strings) {
+                interned.add(intern(string));
+            }
+            return Collections.unmodifiableList(interned);
+        }
+
+        /**
+         * The id of the cause.
+         *
+         * @return the id.
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * The name of the cause.
+         *
+         * @return the name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The description of the cause.
+         *
+         * @return the description.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * The categories of the cause.
+         *
+         * @return the categories.
+         */
+        public List<String> getCategories() {
+            return categories;
+        }
+
+        /**
+         * The patterns of the indications of the cause, in order.
+         *
+         * @return the patterns.
+         */
+        public List<String> getPatterns() {
+            return patterns;
+        }
+    }
+}
@@ -35,12 +35,15 @@ import java.util.LinkedList;
 import java.util.List;
 
 /**
- *  Aggregates the failure causes from downstream builds to the parent build.
+ *  Aggregates the failure causes from downstream builds to the parent build. The causes of each run are added
+ *  when the run finishes, see {@link FailureCauseMatrixBuildAction#addRun(MatrixRun)}.
  *
  *  @author Tomas Westling &lt;thomas.westling@sonyericsson.com&gt;
  */
 public class FailureCauseMatrixAggregator extends MatrixAggregator {
 
+    private FailureCauseMatrixBuildAction action;
+
     /**
      * Standard constructor.
      *
@@ -52,11 +55,42 @@ public class FailureCauseMatrixAggregator extends MatrixAggregator {
         super(build, launcher, listener);
     }
 
+    @Override
+    public boolean startBuild() {
+        action = new FailureCauseMatrixBuildAction(build);
+        return true;
+    }
+
+    /**
+     * Adds the causes of each run as it finishes, and shows them on the build as soon as any are found.
+     *
+     * @param run the finished run.
+     * @return true.
+     */
+    @Override
+    public boolean endRun(MatrixRun run) {
+        if (action == null || !PluginImpl.shouldScan(build)) {
+            return true;
+        }
+        if (action.addRun(run) && build.getAction(FailureCauseMatrixBuildAction.class) == null) {
+            build.addAction(action);
+        }
+        return true;
+    }
+
     @Override
     public boolean endBuild() {
         if (PluginImpl.shouldScan(build) && PluginImpl.needToAnalyze(build.getResult())) {
-            List<MatrixRun> runsWithCorrectNumber = getRuns(build);
-            build.addAction(new FailureCauseMatrixBuildAction(build, runsWithCorrectNumber));
+            if (action == null) {
+                action = new FailureCauseMatrixBuildAction(build, getRuns(build));
+            } else {
+                action.addPendingRuns();
+            }
+            if (build.getAction(FailureCauseMatrixBuildAction.class) == null) {
+                build.addAction(action);
+            }
+        } else if (action != null) {
+            build.removeAction(action);
         }
         return true;
     }
@@ -27,6 +27,7 @@ import com.sonyericsson.hudson.plugins.gerrit.trigger.gerritnotifier.GerritMessa
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseDisplayData;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.RenderedPayloadCache;
 
 import hudson.Extension;
 import hudson.model.Run;
@@ -46,17 +47,15 @@ public class GerritMessageProviderExtension extends GerritMessageProvider {
     @Override
     public String getBuildCompletedMessage(Run build) {
         if (PluginImpl.getInstance().isGerritTriggerEnabled()) {
-            StringBuilder customMessage = new StringBuilder();
             if (build != null) {
+                ScanCoordinator.awaitScan(build);
                 FailureCauseBuildAction action = build.getAction(FailureCauseBuildAction.class);
                 if (action != null) {
-                    FailureCauseDisplayData displayData = action.getFailureCauseDisplayData();
-
-                    addFailureCausesFromData(customMessage, displayData);
-                    printDownstream(customMessage, displayData.getDownstreamFailureCauses());
-
+                    String key = "gerrit:" + Jenkins.getInstance().getRootUrl() + ":"
+                            + PluginImpl.getInstance().getNoCausesMessage();
+                    String customMessage = RenderedPayloadCache.getInstance().get(action).format(key, this::render);
                     if (customMessage.length() > 0) {
-                        return customMessage.toString().replace("'", "\"");
+                        return customMessage;
                     }
                 }
             }
@@ -64,6 +63,19 @@ public class GerritMessageProviderExtension extends GerritMessageProvider {
         return null;
     }
 
+    /**
+     * Renders the message of a build.
+     *
+     * @param displayData the data of the build.
+     * @return the message, empty if there is nothing to tell.
+     */
+    private String render(FailureCauseDisplayData displayData) {
+        StringBuilder customMessage = new StringBuilder();
+        addFailureCausesFromData(customMessage, displayData);
+        printDownstream(customMessage, displayData.getDownstreamFailureCauses());
+        return customMessage.toString().replace("'", "\"");
+    }
+
     /**
      *
      * Adds all causes from downstream builds in recursion
@@ -61,20 +61,39 @@ public class IndicationAnnotator extends ConsoleAnnotator<Object> {
      */
     private void addToHelperMap(FoundFailureCause cause) {
         for (FoundIndication indication : cause.getIndications()) {
-            String matchingString = indication.getFirstMatchingLine();
-            if (matchingString != null && !matchingString.isEmpty()) {
-                AnnotationHelper matchingHelper = helperMap.get(matchingString);
-                if (matchingHelper == null) {
-                    matchingHelper = new AnnotationHelper();
-                }
-                matchingHelper.addTitle(cause.getName());
-                matchingHelper.addFocus(indication.getMatchingHash() + cause.getId());
-                matchingHelper.addAfter("</span>");
-                helperMap.put(matchingString, matchingHelper);
+            addToHelperMap(cause, indication);
+        }
+    }
+
+    /**
+     * Adds the matching and focus line of one indication to the helper map.
+     *
+     * @param cause the {@link FoundFailureCause} of the indication.
+     * @param indication the indication to add the line for.
+     */
+    void addToHelperMap(FoundFailureCause cause, FoundIndication indication) {
+        String matchingString = indication.getFirstMatchingLine();
+        if (matchingString != null && !matchingString.isEmpty()) {
+            AnnotationHelper matchingHelper = helperMap.get(matchingString);
+            if (matchingHelper == null) {
+                matchingHelper = new AnnotationHelper();
             }
+            matchingHelper.addTitle(cause.getName());
+            matchingHelper.addFocus(indication.getMatchingHash() + cause.getId());
+            matchingHelper.addAfter("</span>");
+            helperMap.put(matchingString, matchingHelper);
         }
     }
 
+    /**
+     * If there are no lines to annotate.
+     *
+     * @return true if so.
+     */
+    boolean isEmpty() {
+        return helperMap.isEmpty();
+    }
+
     @Override
     public ConsoleAnnotator annotate(Object context, MarkupText text) {
         AnnotationHelper match = helperMap.get(text.getText().replace("\n", "").replace("\r", ""));
@@ -25,6 +25,7 @@ package com.sonyericsson.jenkins.plugins.bfa;
 
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogLineIndex;
 import hudson.Extension;
 import hudson.console.ConsoleAnnotator;
 import hudson.console.ConsoleAnnotatorFactory;
@@ -33,7 +34,10 @@ import org.kohsuke.stapler.Ancestor;
 import org.kohsuke.stapler.Stapler;
 import org.kohsuke.stapler.StaplerRequest2;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Factory for creating a new {@link IndicationAnnotator} when the log should be annotated.
@@ -43,6 +47,14 @@ import java.util.List;
 @Extension
 public class IndicationAnnotatorFactory extends ConsoleAnnotatorFactory {
 
+    /**
+     * The system property of the size of the tail of the log shown on the console page, in KB, as read by Jenkins.
+     */
+    private static final String CONSOLE_TAIL_PROPERTY = "hudson.consoleTailKB";
+    private static final long DEFAULT_CONSOLE_TAIL_KB = 150;
+    private static final long KB = 1024;
+    private static final Logger logger = Logger.getLogger(IndicationAnnotatorFactory.class.getName());
+
     @Override
     public ConsoleAnnotator newInstance(Object context) {
         StaplerRequest2 currentRequest = Stapler.getCurrentRequest2();
@@ -64,6 +76,77 @@ public class IndicationAnnotatorFactory extends ConsoleAnnotatorFactory {
         if (foundFailureCauses.isEmpty()) {
             return null;
         }
+        int firstLine = getFirstLine(build, getStartOffset(currentRequest, build));
+        if (firstLine > 0) {
+            PositionalIndicationAnnotator annotator = new PositionalIndicationAnnotator(foundFailureCauses,
+                    firstLine);
+            if (!annotator.isEmpty()) {
+                return annotator;
+            }
+        }
         return new IndicationAnnotator(foundFailureCauses);
     }
+
+    /**
+     * The number of the line of the log at an offset, counted with the {@link LogLineIndex} written after the scan,
+     * so that only the lines after its closest sampled line are read.
+     *
+     * @param build the build.
+     * @param offset the offset, or -1 if unknown.
+     * @return the line number, starting at 1, or 0 if it is not known.
+     */
+    private static int getFirstLine(Run build, long offset) {
+        if (offset == 0) {
+            return 1;
+        }
+        if (offset < 0) {
+            return 0;
+        }
+        try {
+            LogLineIndex index = LogLineIndex.load(build);
+            if (index == null) {
+                return 0;
+            }
+            return index.countLines(build, offset) + 1;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not count the lines of the log of " + build.getFullDisplayName(),
+                    e);
+            return 0;
+        }
+    }
+
+    /**
+     * The offset of the log the annotation starts at in this request. The console page only shows the tail of large
+     * logs, and progressive requests continue from an offset.
+     *
+     * @param request the request.
+     * @param build the build.
+     * @return the offset, or -1 if not known.
+     */
+    static long getStartOffset(StaplerRequest2 request, Run build) {
+        String path = request.getRequestURI();
+        if (path == null) {
+            return -1;
+        }
+        if (path.endsWith("/consoleFull")) {
+            return 0;
+        }
+        if (path.endsWith("/console")) {
+            // as computed by the console page
+            long tail = Long.getLong(CONSOLE_TAIL_PROPERTY, DEFAULT_CONSOLE_TAIL_KB) * KB;
+            return Math.max(0, build.getLogText().length() - tail);
+        }
+        if (path.endsWith("/progressiveHtml")) {
+            String start = request.getParameter("start");
+            if (start == null) {
+                return 0;
+            }
+            try {
+                return Math.max(-1, Long.parseLong(start));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
 }
@@ -1,5 +1,6 @@
 package com.sonyericsson.jenkins.plugins.bfa;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.model.IFailureCauseMetricData;
@@ -13,6 +14,7 @@ import java.util.SortedSet;
 public final class MetricsManager {
     static final String CAUSEPREFIX = "jenkins_bfa.cause.";
     static final String CATEGORYPREFIX = "jenkins_bfa.category.";
+    static final String GAUGEPREFIX = "jenkins_bfa.";
 
     /**A magic cause to represent builds that match no causes in the database. */
     public static final FailureCause UNKNOWNCAUSE = new FailureCause("no matching cause", "");
@@ -72,4 +74,16 @@ public final class MetricsManager {
             }
         }
     }
+
+    /**
+     * Registers a gauge, replacing any gauge previously registered with the same name.
+     *
+     * @param name the name of the gauge, without the jenkins_bfa prefix.
+     * @param gauge the gauge.
+     */
+    public static void registerGauge(String name, Gauge<?> gauge) {
+        MetricRegistry metricRegistry = Metrics.metricRegistry();
+        metricRegistry.remove(GAUGEPREFIX + name);
+        metricRegistry.register(GAUGEPREFIX + name, gauge);
+    }
 }
@@ -0,0 +1,361 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.codahale.metrics.Gauge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends the failure notifications of builds on a thread of its own, so that a slow endpoint doesn't hold up the
+ * scanner threads.
+ *
+ * Notifications are queued and sent together after {@link #BATCH_WINDOW_MILLIS}. When more than
+ * {@link #DIGEST_THRESHOLD} builds failed within the window, they are sent as digests of at most
+ * {@link #MAX_DIGEST_SIZE} notifications instead of one message each. Sending is retried with exponential backoff up
+ * to {@link #MAX_ATTEMPTS} times, and notifications that don't fit in the queue are dropped.
+ */
+public final class NotificationDispatcher {
+
+    /**
+     * The maximum number of notifications waiting to be sent.
+     */
+    static final int QUEUE_CAPACITY = 1000;
+
+    /**
+     * The time notifications are collected before they are sent.
+     */
+    static final long BATCH_WINDOW_MILLIS = 2000;
+
+    /**
+     * The number of notifications in a window above which they are sent as digests.
+     */
+    static final int DIGEST_THRESHOLD = 3;
+
+    /**
+     * The maximum number of notifications in one digest.
+     */
+    static final int MAX_DIGEST_SIZE = 20;
+
+    /**
+     * The number of times a message is tried to be sent.
+     */
+    static final int MAX_ATTEMPTS = 5;
+
+    /**
+     * The time waited before the first retry, doubled for each following retry.
+     */
+    static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+    /**
+     * The longest time waited before a retry.
+     */
+    static final long MAX_BACKOFF_MILLIS = 60000;
+
+    private static final Logger logger = Logger.getLogger(NotificationDispatcher.class.getName());
+    private static final String DIGEST_SEPARATOR = "\n\n---\n\n";
+    private static NotificationDispatcher instance;
+
+    private final Sender sender;
+    private final BlockingQueue<String> queue;
+    private final long batchWindowMillis;
+    private final long initialBackoffMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Standard constructor.
+     *
+     * @param sender sends the messages.
+     * @param capacity the maximum number of notifications waiting to be sent.
+     * @param batchWindowMillis the time notifications are collected before they are sent.
+     * @param initialBackoffMillis the time waited before the first retry.
+     */
+    NotificationDispatcher(Sender sender, int capacity, long batchWindowMillis, long initialBackoffMillis) {
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<String>(capacity);
+        this.batchWindowMillis = batchWindowMillis;
+        this.initialBackoffMillis = initialBackoffMillis;
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable target) {
+                Thread thread = new Thread(target, "BFA-notification-dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+    }
+
+    /**
+     * The singleton instance, sending to Slack.
+     *
+     * @return the instance.
+     */
+    public static synchronized NotificationDispatcher getInstance() {
+        if (instance == null) {
+            instance = new NotificationDispatcher(new SlackSender(), QUEUE_CAPACITY, BATCH_WINDOW_MILLIS,
+                    INITIAL_BACKOFF_MILLIS);
+            instance.registerGauges();
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a notification to be sent.
+     *
+     * @param message the message.
+     * @return true if queued, false if dropped because the queue is full.
+     */
+    public boolean submit(String message) {
+        if (!queue.offer(message)) {
+            dropped.incrementAndGet();
+            logger.log(Level.WARNING, "[BFA] Dropped a notification, " + queue.size() + " are waiting to be sent");
+            return false;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, batchWindowMillis, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Sends the queued notifications, as digests if there are many.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<String> messages = new ArrayList<String>();
+        queue.drainTo(messages);
+        if (messages.size() <= DIGEST_THRESHOLD) {
+            for (String message : messages) {
+                send(message, 1);
+            }
+            return;
+        }
+        for (int start = 0; start < messages.size(); start += MAX_DIGEST_SIZE) {
+            send(digest(messages.subList(start, Math.min(start + MAX_DIGEST_SIZE, messages.size()))), 1);
+        }
+    }
+
+    /**
+     * Joins notifications into one message.
+     *
+     * @param messages the notifications.
+     * @return the message.
+     */
+    static String digest(List<String> messages) {
+        StringBuilder digest = new StringBuilder();
+        digest.append("*").append(messages.size()).append(" builds failed:*");
+        for (String message : messages) {
+            digest.append(DIGEST_SEPARATOR).append(message);
+        }
+        return digest.toString();
+    }
+
+    /**
+     * Sends a message, scheduling a retry if it failed.
+     *
+     * @param message the message.
+     * @param attempt the number of this attempt, starting at 1.
+     */
+    private void send(final String message, final int attempt) {
+        try {
+            if (sender.send(message)) {
+                sent.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            return;
+        } catch (IOException | RuntimeException e) {
+            if (attempt >= MAX_ATTEMPTS) {
+                failed.incrementAndGet();
+                logger.log(Level.WARNING, "[BFA] Gave up sending a notification after " + attempt + " attempts", e);
+                return;
+            }
+            logger.log(Level.FINE, "[BFA] Could not send a notification, will retry", e);
+        }
+        retried.incrementAndGet();
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                send(message, attempt + 1);
+            }
+        }, getBackoff(attempt), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The time to wait before retrying a failed attempt.
+     *
+     * @param attempt the number of the failed attempt, starting at 1.
+     * @return the time in milliseconds.
+     */
+    long getBackoff(int attempt) {
+        long backoff = initialBackoffMillis;
+        for (int i = 1; i < attempt && backoff < MAX_BACKOFF_MILLIS; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * The number of notifications waiting to be sent.
+     *
+     * @return the number.
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * The number of messages sent, counting a digest once.
+     *
+     * @return the number.
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * The number of retries.
+     *
+     * @return the number.
+     */
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    /**
+     * The number of messages that could not be sent.
+     *
+     * @return the number.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * The number of notifications dropped because the queue was full.
+     *
+     * @return the number.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops sending, dropping the queued notifications and retries.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Publishes the dispatcher metrics.
+     */
+    private void registerGauges() {
+        try {
+            MetricsManager.registerGauge("notifications.queued", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return getQueuedCount();
+                }
+            });
+            MetricsManager.registerGauge("notifications.sent", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getSentCount();
+                }
+            });
+            MetricsManager.registerGauge("notifications.retried", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getRetriedCount();
+                }
+            });
+            MetricsManager.registerGauge("notifications.failed", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getFailedCount();
+                }
+            });
+            MetricsManager.registerGauge("notifications.dropped", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getDroppedCount();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "[BFA] Could not register the notification metrics", e);
+        }
+    }
+
+    /**
+     * Sends messages to an endpoint.
+     */
+    public interface Sender {
+
+        /**
+         * Sends a message.
+         *
+         * @param message the message.
+         * @return true if sent, false if it can't be sent and should not be retried.
+         * @throws IOException if it was not sent and may be retried.
+         */
+        boolean send(String message) throws IOException;
+    }
+
+    /**
+     * Sends messages to the Slack channel of the configuration.
+     */
+    static final class SlackSender implements Sender {
+
+        @Override
+        public boolean send(String message) throws IOException {
+            return new SlackMessageProvider().publish(message);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureReader;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.Run;
+import org.jenkinsci.plugins.workflow.actions.ErrorAction;
+import org.jenkinsci.plugins.workflow.actions.LabelAction;
+import org.jenkinsci.plugins.workflow.actions.LogAction;
+import org.jenkinsci.plugins.workflow.actions.ThreadNameAction;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
+import org.jenkinsci.plugins.workflow.flow.FlowExecutionOwner;
+import org.jenkinsci.plugins.workflow.graph.BlockEndNode;
+import org.jenkinsci.plugins.workflow.graph.BlockStartNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graphanalysis.DepthFirstScanner;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scans only the logs of the failed steps of a Pipeline run, instead of the whole interleaved console.
+ *
+ * The flow graph is searched for steps with an {@link ErrorAction} and a {@link LogAction}, optionally together with
+ * all other steps of the stages they fail in. The found indications record the stage and step they were found in,
+ * and their line numbers are relative to the log of the step.
+ * Only used when the workflow-api plugin is installed, see {@link #isApplicable(Run)}.
+ */
+public final class PipelineLogScanner {
+
+    private static final Logger logger = Logger.getLogger(PipelineLogScanner.class.getName());
+
+    /**
+     * Utility class.
+     */
+    private PipelineLogScanner() {
+    }
+
+    /**
+     * Checks if the build is a Pipeline run that can be scanned by step.
+     *
+     * @param build the build.
+     * @return true if so.
+     */
+    public static boolean isApplicable(Run build) {
+        return build instanceof FlowExecutionOwner.Executable;
+    }
+
+    /**
+     * Scans the logs of the failed steps of a Pipeline run.
+     *
+     * @param build the build, see {@link #isApplicable(Run)}.
+     * @param plan the causes to look for.
+     * @param includeStages if all steps of the stages with failed steps are scanned too.
+     * @return the found causes, empty if nothing was found in the logs of the failed steps.
+     * @throws IOException if the flow graph or a log can't be read.
+     */
+    public static List<FoundFailureCause> scan(Run build, ScanPlan plan, boolean includeStages) throws IOException {
+        FlowExecutionOwner owner = ((FlowExecutionOwner.Executable)build).asFlowExecutionOwner();
+        FlowExecution execution = null;
+        if (owner != null) {
+            execution = owner.getOrNull();
+        }
+        if (execution == null) {
+            return Collections.emptyList();
+        }
+        List<FlowNode> nodes = new DepthFirstScanner().allNodes(execution);
+        Set<String> failedStages = new HashSet<String>();
+        List<FlowNode> toScan = new ArrayList<FlowNode>();
+        for (FlowNode node : nodes) {
+            if (node.getError() == null) {
+                continue;
+            }
+            if (node.getAction(LogAction.class) != null) {
+                toScan.add(node);
+            }
+            // steps like error() fail without any output of their own
+            BlockStartNode stage = getStage(node);
+            if (includeStages && stage != null) {
+                failedStages.add(stage.getId());
+            }
+        }
+        if (!failedStages.isEmpty()) {
+            for (FlowNode node : nodes) {
+                BlockStartNode stage = getStage(node);
+                if (!toScan.contains(node) && node.getAction(LogAction.class) != null
+                        && stage != null && failedStages.contains(stage.getId())) {
+                    toScan.add(node);
+                }
+            }
+        }
+        Collections.sort(toScan, new Comparator<FlowNode>() {
+            @Override
+            public int compare(FlowNode a, FlowNode b) {
+                return compareIds(a.getId(), b.getId());
+            }
+        });
+
+        Map<FailureCause, Map<String, FoundIndication>> found =
+                new LinkedHashMap<FailureCause, Map<String, FoundIndication>>();
+        for (FlowNode node : toScan) {
+            scanNode(build, plan, node, found);
+        }
+        List<FoundFailureCause> foundFailureCauses = new ArrayList<FoundFailureCause>(found.size());
+        for (Map.Entry<FailureCause, Map<String, FoundIndication>> entry : found.entrySet()) {
+            foundFailureCauses.add(new FoundFailureCause(entry.getKey(),
+                    new ArrayList<FoundIndication>(entry.getValue().values())));
+        }
+        return foundFailureCauses;
+    }
+
+    /**
+     * Scans the log of one step, keeping the first match of each indication over all steps.
+     *
+     * @param build the build.
+     * @param plan the causes to look for.
+     * @param node the step.
+     * @param found the matches so far, by cause and pattern.
+     * @throws IOException if the log can't be read.
+     */
+    private static void scanNode(Run build, ScanPlan plan, FlowNode node,
+                                 Map<FailureCause, Map<String, FoundIndication>> found) throws IOException {
+        LogAction logAction = node.getAction(LogAction.class);
+        String file = "log of step " + node.getId();
+        BlockStartNode stage = getStage(node);
+        String stageName = null;
+        if (stage != null) {
+            stageName = stage.getAction(LabelAction.class).getDisplayName();
+        }
+        String stepName = node.getDisplayFunctionName();
+
+        List<FoundFailureCause> nodeCauses = new ArrayList<FoundFailureCause>();
+        if (!plan.getSingleLineCauses().isEmpty()) {
+            try (LineNumberReader reader = new LineNumberReader(logAction.getLogText().readAll())) {
+                nodeCauses.addAll(FailureReader.scanSingleLinePatterns(plan.getSingleLineCauses(), build, reader,
+                        file));
+            }
+        }
+        for (FailureCause cause : plan.getMultiLineCauses()) {
+            List<FoundIndication> foundIndications = new ArrayList<FoundIndication>();
+            for (Indication indication : cause.getIndications()) {
+                try (LineNumberReader reader = new LineNumberReader(logAction.getLogText().readAll())) {
+                    FoundIndication foundIndication = indication.getReader().scan(build, reader, file);
+                    if (foundIndication != null) {
+                        foundIndications.add(foundIndication);
+                    }
+                }
+            }
+            if (!foundIndications.isEmpty()) {
+                nodeCauses.add(new FoundFailureCause(cause, foundIndications));
+            }
+        }
+
+        for (FoundFailureCause nodeCause : nodeCauses) {
+            FailureCause cause = findCause(plan, nodeCause);
+            if (cause == null) {
+                logger.log(Level.FINE, "[BFA] Could not map {0} back to its cause", nodeCause.getName());
+                continue;
+            }
+            Map<String, FoundIndication> byPattern = found.get(cause);
+            if (byPattern == null) {
+                byPattern = new LinkedHashMap<String, FoundIndication>();
+                found.put(cause, byPattern);
+            }
+            for (FoundIndication foundIndication : nodeCause.getIndications()) {
+                if (!byPattern.containsKey(foundIndication.getPattern())) {
+                    foundIndication.setStage(stageName);
+                    foundIndication.setStep(stepName);
+                    byPattern.put(foundIndication.getPattern(), foundIndication);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the cause a found cause was created from.
+     *
+     * @param plan the causes.
+     * @param foundCause the found cause.
+     * @return the cause, or null if not found.
+     */
+    private static FailureCause findCause(ScanPlan plan, FoundFailureCause foundCause) {
+        for (FailureCause cause : plan.getSingleLineCauses()) {
+            if (matches(cause, foundCause)) {
+                return cause;
+            }
+        }
+        for (FailureCause cause : plan.getMultiLineCauses()) {
+            if (matches(cause, foundCause)) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a found cause was created from a cause.
+     *
+     * @param cause the cause.
+     * @param foundCause the found cause.
+     * @return true if so.
+     */
+    private static boolean matches(FailureCause cause, FoundFailureCause foundCause) {
+        if (cause.getId() != null) {
+            return cause.getId().equals(foundCause.getId());
+        }
+        return cause.getName().equals(foundCause.getName());
+    }
+
+    /**
+     * The innermost stage enclosing a node. The errors of a block are also recorded on the end node of the block,
+     * which is resolved from the start node of the block, so that a failed stage is not attributed to the stage
+     * around it.
+     *
+     * @param node the node.
+     * @return the start node of the stage, or null if the node isn't in a stage.
+     */
+    static BlockStartNode getStage(FlowNode node) {
+        FlowNode start = node;
+        if (node instanceof BlockEndNode) {
+            start = ((BlockEndNode<?>)node).getStartNode();
+            if (isStage(start)) {
+                return (BlockStartNode)start;
+            }
+        }
+        for (BlockStartNode block : start.getEnclosingBlocks()) {
+            if (isStage(block)) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a node starts a stage, and not a parallel branch, which has a label too.
+     *
+     * @param node the node.
+     * @return true if so.
+     */
+    private static boolean isStage(FlowNode node) {
+        return node instanceof BlockStartNode && node.getAction(LabelAction.class) != null
+                && node.getAction(ThreadNameAction.class) == null;
+    }
+
+    /**
+     * Compares flow node ids, which are numbers in all known flow executions.
+     *
+     * @param a one id.
+     * @param b another id.
+     * @return the order of the ids.
+     */
+    private static int compareIds(String a, String b) {
+        try {
+            return Long.compare(Long.parseLong(a), Long.parseLong(b));
+        } catch (NumberFormatException e) {
+            return a.compareTo(b);
+        }
+    }
+}
@@ -28,7 +28,11 @@ package com.sonyericsson.jenkins.plugins.bfa;
 import com.sonyericsson.jenkins.plugins.bfa.db.KnowledgeBase;
 import com.sonyericsson.jenkins.plugins.bfa.db.LocalFileKnowledgeBase;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogRegionPlanner;
+import com.sonyericsson.jenkins.plugins.bfa.model.ResultStorageMode;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanStrategy;
 import com.sonyericsson.jenkins.plugins.bfa.model.ScannerJobProperty;
+import com.sonyericsson.jenkins.plugins.bfa.model.StreamingScan;
 import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandQueue;
 import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandVariables;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -96,7 +100,12 @@ public class PluginImpl extends GlobalConfiguration {
      */
     public static final int DEFAULT_MAX_LOG_SIZE = 0;
 
-    private static final int BYTES_IN_MEGABYTE = 1024 * 1024;
+    static final int BYTES_IN_MEGABYTE = 1024 * 1024;
+
+    /**
+     * Default number of seconds to wait for a pending scan before rendering its result.
+     */
+    public static final int DEFAULT_SCAN_RESULT_TIMEOUT = 60;
 
     /**
      * Default slack channel to use.
@@ -171,6 +180,22 @@ public class PluginImpl extends GlobalConfiguration {
 
     private Boolean metricSquashingEnabled;
 
+    private Boolean asynchronousScanningEnabled;
+    private Integer scanResultTimeout;
+    private Integer scanQueueCapacity;
+    private Boolean virtualThreadsEnabled;
+    private Boolean adaptiveConcurrencyEnabled;
+    private Integer minScanThreads;
+    private Boolean streamingScanEnabled;
+    private Boolean pipelineScanEnabled;
+    private Boolean pipelineScanIncludeStages;
+    private ScanStrategy scanStrategy;
+    private Integer headScanSize;
+    private Integer tailScanSize;
+    private Boolean scanResultCacheEnabled;
+    private Integer scanResultCacheSize;
+    private ResultStorageMode resultStorageMode;
+
     /**
      * ScanOnDemandVariable instance.
      */
@@ -244,6 +269,9 @@ public class PluginImpl extends GlobalConfiguration {
     @Terminator
     public void stop() {
         ScanOnDemandQueue.shutdown();
+        ScanCoordinator.shutdown();
+        ScanScheduler.shutdown();
+        StreamingScan.shutdown();
         knowledgeBase.stop();
     }
 
@@ -570,6 +598,370 @@ public class PluginImpl extends GlobalConfiguration {
         this.metricSquashingEnabled = metricSquashingEnabled;
     }
 
+    /**
+     * If completed builds are scanned in the background instead of in the thread completing the build.
+     *
+     * @return true if on.
+     * @see ScanCoordinator
+     */
+    public boolean isAsynchronousScanningEnabled() {
+        if (asynchronousScanningEnabled == null) {
+            return false;
+        } else {
+            return asynchronousScanningEnabled;
+        }
+    }
+
+    /**
+     * Sets if completed builds are scanned in the background.
+     * Default value is false.
+     *
+     * @param asynchronousScanningEnabled on or off.
+     */
+    @DataBoundSetter
+    public void setAsynchronousScanningEnabled(boolean asynchronousScanningEnabled) {
+        this.asynchronousScanningEnabled = asynchronousScanningEnabled;
+    }
+
+    /**
+     * The number of seconds consumers of a scan result, like the Gerrit message or the token macro,
+     * wait for a pending background scan to finish.
+     *
+     * @return the timeout in seconds.
+     */
+    public int getScanResultTimeout() {
+        if (scanResultTimeout == null || scanResultTimeout < 0) {
+            return DEFAULT_SCAN_RESULT_TIMEOUT;
+        }
+        return scanResultTimeout;
+    }
+
+    /**
+     * Sets the number of seconds to wait for a pending background scan.
+     *
+     * @param scanResultTimeout the timeout in seconds.
+     */
+    @DataBoundSetter
+    public void setScanResultTimeout(int scanResultTimeout) {
+        this.scanResultTimeout = scanResultTimeout;
+    }
+
+    /**
+     * The maximum number of scan tasks waiting for a scanner thread.
+     * When the queue is full, builds are scanned only at the end of their logs. Also the maximum number of builds
+     * waiting for an asynchronous scan, see {@link ScanCoordinator}.
+     *
+     * @return the capacity of the scan queue.
+     * @see ScanScheduler
+     */
+    public int getScanQueueCapacity() {
+        if (scanQueueCapacity == null || scanQueueCapacity < 1) {
+            return ScanScheduler.DEFAULT_QUEUE_CAPACITY;
+        }
+        return scanQueueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of scan tasks waiting for a scanner thread.
+     *
+     * @param scanQueueCapacity the capacity of the scan queue.
+     */
+    @DataBoundSetter
+    public void setScanQueueCapacity(int scanQueueCapacity) {
+        this.scanQueueCapacity = scanQueueCapacity;
+    }
+
+    /**
+     * If background scans and scan-on-demand tasks run on virtual threads, when the JDK supports them.
+     *
+     * @return true if on.
+     * @see VirtualThreads
+     */
+    public boolean isVirtualThreadsEnabled() {
+        if (virtualThreadsEnabled == null) {
+            return false;
+        } else {
+            return virtualThreadsEnabled;
+        }
+    }
+
+    /**
+     * Sets if background scans and scan-on-demand tasks run on virtual threads.
+     * Default value is false.
+     *
+     * @param virtualThreadsEnabled on or off.
+     */
+    @DataBoundSetter
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
+    /**
+     * If the number of scanner and scan-on-demand threads adapts to the load of the controller, between
+     * {@link #getMinScanThreads()} and {@link #getNrOfScanThreads()} for the scanner, and between the minimum and
+     * maximum number of worker threads for scan-on-demand.
+     *
+     * @return true if on.
+     * @see AdaptiveConcurrencyLimiter
+     */
+    public boolean isAdaptiveConcurrencyEnabled() {
+        if (adaptiveConcurrencyEnabled == null) {
+            return false;
+        } else {
+            return adaptiveConcurrencyEnabled;
+        }
+    }
+
+    /**
+     * Sets if the number of scanner threads adapts to the load of the controller.
+     * Default value is false.
+     *
+     * @param adaptiveConcurrencyEnabled on or off.
+     */
+    @DataBoundSetter
+    public void setAdaptiveConcurrencyEnabled(boolean adaptiveConcurrencyEnabled) {
+        this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
+    }
+
+    /**
+     * The lowest number of scanner threads when the number adapts to the load of the controller.
+     *
+     * @return the number of threads.
+     * @see #isAdaptiveConcurrencyEnabled()
+     */
+    public int getMinScanThreads() {
+        if (minScanThreads == null || minScanThreads < 1) {
+            return 1;
+        }
+        return minScanThreads;
+    }
+
+    /**
+     * Sets the lowest number of scanner threads when the number adapts to the load of the controller.
+     *
+     * @param minScanThreads the number of threads.
+     */
+    @DataBoundSetter
+    public void setMinScanThreads(int minScanThreads) {
+        this.minScanThreads = minScanThreads;
+    }
+
+    /**
+     * If the logs of running builds are scanned while they are written, so that the scan is done when the build
+     * completes. Only applies to classic job types, not to Pipelines.
+     *
+     * @return true if on.
+     * @see StreamingScanFilter
+     */
+    public boolean isStreamingScanEnabled() {
+        if (streamingScanEnabled == null) {
+            return false;
+        } else {
+            return streamingScanEnabled;
+        }
+    }
+
+    /**
+     * Sets if the logs of running builds are scanned while they are written.
+     * Default value is false.
+     *
+     * @param streamingScanEnabled on or off.
+     */
+    @DataBoundSetter
+    public void setStreamingScanEnabled(boolean streamingScanEnabled) {
+        this.streamingScanEnabled = streamingScanEnabled;
+    }
+
+    /**
+     * If Pipeline runs are scanned by the logs of their failed steps, falling back to the whole log only when
+     * nothing is found there.
+     *
+     * @return true if on.
+     * @see PipelineLogScanner
+     */
+    public boolean isPipelineScanEnabled() {
+        if (pipelineScanEnabled == null) {
+            return false;
+        } else {
+            return pipelineScanEnabled;
+        }
+    }
+
+    /**
+     * Sets if Pipeline runs are scanned by the logs of their failed steps.
+     * Default value is false.
+     *
+     * @param pipelineScanEnabled on or off.
+     */
+    @DataBoundSetter
+    public void setPipelineScanEnabled(boolean pipelineScanEnabled) {
+        this.pipelineScanEnabled = pipelineScanEnabled;
+    }
+
+    /**
+     * If the logs of all steps in the stages of the failed steps are scanned too, when Pipeline runs are scanned by
+     * the logs of their failed steps.
+     *
+     * @return true if on.
+     * @see #isPipelineScanEnabled()
+     */
+    public boolean isPipelineScanIncludeStages() {
+        if (pipelineScanIncludeStages == null) {
+            return false;
+        } else {
+            return pipelineScanIncludeStages;
+        }
+    }
+
+    /**
+     * Sets if the logs of all steps in the stages of the failed steps are scanned too.
+     * Default value is false.
+     *
+     * @param pipelineScanIncludeStages on or off.
+     */
+    @DataBoundSetter
+    public void setPipelineScanIncludeStages(boolean pipelineScanIncludeStages) {
+        this.pipelineScanIncludeStages = pipelineScanIncludeStages;
+    }
+
+    /**
+     * The order in which the regions of build logs are scanned.
+     *
+     * @return the strategy, {@link ScanStrategy#FULL} by default.
+     * @see LogRegionPlanner
+     */
+    public ScanStrategy getScanStrategy() {
+        if (scanStrategy == null) {
+            return ScanStrategy.FULL;
+        }
+        return scanStrategy;
+    }
+
+    /**
+     * Sets the order in which the regions of build logs are scanned.
+     *
+     * @param scanStrategy the strategy.
+     */
+    @DataBoundSetter
+    public void setScanStrategy(ScanStrategy scanStrategy) {
+        this.scanStrategy = scanStrategy;
+    }
+
+    /**
+     * The number of megabytes at the beginning of logs over the maximum log size that are scanned with
+     * {@link ScanStrategy#HEAD_AND_TAIL}.
+     *
+     * @return the size in MB.
+     */
+    public int getHeadScanSize() {
+        if (headScanSize == null || headScanSize < 1) {
+            return LogRegionPlanner.DEFAULT_HEAD_SIZE;
+        }
+        return headScanSize;
+    }
+
+    /**
+     * Sets the number of megabytes at the beginning of oversized logs that are scanned.
+     *
+     * @param headScanSize the size in MB.
+     */
+    @DataBoundSetter
+    public void setHeadScanSize(int headScanSize) {
+        this.headScanSize = headScanSize;
+    }
+
+    /**
+     * The number of megabytes at the end of logs that are scanned first, with {@link ScanStrategy#TAIL_FIRST} and
+     * {@link ScanStrategy#HEAD_AND_TAIL}.
+     *
+     * @return the size in MB.
+     */
+    public int getTailScanSize() {
+        if (tailScanSize == null || tailScanSize < 1) {
+            return LogRegionPlanner.DEFAULT_TAIL_SIZE;
+        }
+        return tailScanSize;
+    }
+
+    /**
+     * Sets the number of megabytes at the end of logs that are scanned first.
+     *
+     * @param tailScanSize the size in MB.
+     */
+    @DataBoundSetter
+    public void setTailScanSize(int tailScanSize) {
+        this.tailScanSize = tailScanSize;
+    }
+
+    /**
+     * If scan results are cached by the content of the log, so that identical logs are not scanned again.
+     *
+     * @return true if on.
+     * @see ScanResultCache
+     */
+    public boolean isScanResultCacheEnabled() {
+        if (scanResultCacheEnabled == null) {
+            return false;
+        } else {
+            return scanResultCacheEnabled;
+        }
+    }
+
+    /**
+     * Sets if scan results are cached by the content of the log.
+     * Default value is false.
+     *
+     * @param scanResultCacheEnabled on or off.
+     */
+    @DataBoundSetter
+    public void setScanResultCacheEnabled(boolean scanResultCacheEnabled) {
+        this.scanResultCacheEnabled = scanResultCacheEnabled;
+    }
+
+    /**
+     * The maximum size of the scan result cache on disk.
+     *
+     * @return the size in MB.
+     */
+    public int getScanResultCacheSize() {
+        if (scanResultCacheSize == null || scanResultCacheSize < 1) {
+            return ScanResultCache.DEFAULT_SIZE;
+        }
+        return scanResultCacheSize;
+    }
+
+    /**
+     * Sets the maximum size of the scan result cache on disk.
+     *
+     * @param scanResultCacheSize the size in MB.
+     */
+    @DataBoundSetter
+    public void setScanResultCacheSize(int scanResultCacheSize) {
+        this.scanResultCacheSize = scanResultCacheSize;
+    }
+
+    /**
+     * How the causes found in builds are stored with them.
+     *
+     * @return the mode, {@link ResultStorageMode#FULL} by default.
+     */
+    public ResultStorageMode getResultStorageMode() {
+        if (resultStorageMode == null) {
+            return ResultStorageMode.FULL;
+        }
+        return resultStorageMode;
+    }
+
+    /**
+     * Sets how the causes found in builds are stored with them.
+     *
+     * @param resultStorageMode the mode.
+     */
+    @DataBoundSetter
+    public void setResultStorageMode(ResultStorageMode resultStorageMode) {
+        this.resultStorageMode = resultStorageMode;
+    }
+
     /**
      * Send notifications to Gerrit-Trigger-plugin.
      *
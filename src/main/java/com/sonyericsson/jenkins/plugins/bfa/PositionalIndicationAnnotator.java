@@ -0,0 +1,227 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.MarkupText;
+import hudson.console.ConsoleAnnotator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Annotates the lines of the build log the indications were found on by their line numbers, instead of comparing
+ * the text of every line with the matching lines like {@link IndicationAnnotator} does.
+ *
+ * Lines without a match only increment a counter, and after the last matching line the annotator returns null so
+ * that the rest of the log isn't passed to it at all. The text of a matching line is still compared before it is
+ * annotated, in case the log changed since it was scanned. Indications without a reliable line number, found in
+ * the logs of Pipeline steps or spanning several lines, are annotated by {@link IndicationAnnotator}.
+ *
+ * The console passes the log to annotators in pieces ending at a '\n', while the scanners number lines the way
+ * {@link java.io.BufferedReader} does, also ending them at a lone '\r'. Such pieces are therefore counted as several
+ * lines, and only the part of the piece that is the matching line is annotated.
+ *
+ * The number of the first line passed to the annotator must be known, see {@link IndicationAnnotatorFactory}.
+ */
+public class PositionalIndicationAnnotator extends ConsoleAnnotator<Object> {
+
+    private static final String LOG_FILE_NAME = "log";
+
+    private final int[] lines;
+    private final String[] texts;
+    private final AnnotationHelper[] helpers;
+    private final IndicationAnnotator fallback;
+    private int line;
+    private int next;
+
+    /**
+     * Constructor for annotating the log from its first line.
+     *
+     * @param foundFailureCauses the {@link FoundFailureCause}s to add annotation for.
+     */
+    public PositionalIndicationAnnotator(List<FoundFailureCause> foundFailureCauses) {
+        this(foundFailureCauses, 1);
+    }
+
+    /**
+     * Constructor for annotating the log from a line, like the tail of the log shown by the console page.
+     *
+     * @param foundFailureCauses the {@link FoundFailureCause}s to add annotation for.
+     * @param firstLine the number of the first line passed to the annotator, starting at 1. It might be the end of
+     * a line that starts before the annotated part.
+     */
+    public PositionalIndicationAnnotator(List<FoundFailureCause> foundFailureCauses, int firstLine) {
+        this.line = firstLine;
+        Map<Integer, AnnotationHelper> helpersByLine = new TreeMap<Integer, AnnotationHelper>();
+        Map<Integer, String> textsByLine = new TreeMap<Integer, String>();
+        IndicationAnnotator others = new IndicationAnnotator(Collections.<FoundFailureCause>emptyList());
+        for (FoundFailureCause cause : foundFailureCauses) {
+            for (FoundIndication indication : cause.getIndications()) {
+                if (!isPositional(indication)) {
+                    others.addToHelperMap(cause, indication);
+                    continue;
+                }
+                if (indication.getMatchingLine() < firstLine) {
+                    // not annotated
+                    continue;
+                }
+                AnnotationHelper helper = helpersByLine.get(indication.getMatchingLine());
+                if (helper == null) {
+                    helper = new AnnotationHelper();
+                    helpersByLine.put(indication.getMatchingLine(), helper);
+                    textsByLine.put(indication.getMatchingLine(), indication.getMatchingString());
+                }
+                helper.addTitle(cause.getName());
+                helper.addFocus(indication.getMatchingHash() + cause.getId());
+                helper.addAfter("</span>");
+            }
+        }
+        lines = new int[helpersByLine.size()];
+        texts = new String[lines.length];
+        helpers = new AnnotationHelper[lines.length];
+        int i = 0;
+        for (Map.Entry<Integer, AnnotationHelper> entry : helpersByLine.entrySet()) {
+            lines[i] = entry.getKey();
+            texts[i] = textsByLine.get(entry.getKey());
+            helpers[i] = entry.getValue();
+            i++;
+        }
+        if (others.isEmpty()) {
+            fallback = null;
+        } else {
+            fallback = others;
+        }
+    }
+
+    /**
+     * Checks if an indication can be annotated by its line number.
+     *
+     * @param indication the indication.
+     * @return true if it was found on a known line of the build log and matched only that line.
+     */
+    static boolean isPositional(FoundIndication indication) {
+        String matchingString = indication.getMatchingString();
+        return indication.getMatchingLine() > 0 && indication.getStep() == null
+                && LOG_FILE_NAME.equals(indication.getMatchingFile())
+                && matchingString != null && !matchingString.isEmpty()
+                && matchingString.indexOf('\n') < 0 && matchingString.indexOf('\r') < 0;
+    }
+
+    /**
+     * If there is anything to annotate by line number.
+     *
+     * @return true if so.
+     */
+    boolean isEmpty() {
+        return lines.length == 0;
+    }
+
+    @Override
+    public ConsoleAnnotator annotate(Object context, MarkupText text) {
+        String piece = text.getText();
+        boolean positional = false;
+        int start = 0;
+        int carriageReturn = findLoneCarriageReturn(piece, start);
+        while (carriageReturn >= 0) {
+            if (annotateLine(text, piece, start, carriageReturn)) {
+                positional = true;
+            }
+            start = carriageReturn + 1;
+            carriageReturn = findLoneCarriageReturn(piece, start);
+        }
+        if (annotateLine(text, piece, start, trimEnd(piece, start))) {
+            positional = true;
+        }
+        if (!positional && fallback != null) {
+            fallback.annotate(context, text);
+        }
+        if (next >= lines.length) {
+            return fallback;
+        }
+        return this;
+    }
+
+    /**
+     * Annotates the next line if an indication was found on it and it still has the expected text.
+     *
+     * @param text the piece of the log passed to the annotator.
+     * @param piece the text of the piece.
+     * @param start the start of the line in the piece.
+     * @param end the end of the line in the piece, without line terminator.
+     * @return true if an indication was found on the line.
+     */
+    private boolean annotateLine(MarkupText text, String piece, int start, int end) {
+        int number = line++;
+        if (next >= lines.length || lines[next] != number) {
+            return false;
+        }
+        String expected = texts[next];
+        if (end - start == expected.length() && piece.regionMatches(start, expected, 0, end - start)) {
+            text.addMarkup(start, end, helpers[next].getBefore(), helpers[next].getAfter());
+        }
+        next++;
+        return true;
+    }
+
+    /**
+     * Finds a '\r' that ends a line without being part of a "\r\n", before the end of a piece of the log.
+     *
+     * @param piece the piece.
+     * @param from the index to search from.
+     * @return the index, or -1 if there is none.
+     */
+    static int findLoneCarriageReturn(String piece, int from) {
+        int index = piece.indexOf('\r', from);
+        while (index >= 0 && index + 1 < piece.length()) {
+            if (piece.charAt(index + 1) != '\n') {
+                return index;
+            }
+            index = piece.indexOf('\r', index + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * The end of the last line of a piece of the log, without its line terminator.
+     *
+     * @param piece the piece.
+     * @param start the start of the last line.
+     * @return the end.
+     */
+    private static int trimEnd(String piece, int start) {
+        int end = piece.length();
+        if (end > start && piece.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && piece.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+}
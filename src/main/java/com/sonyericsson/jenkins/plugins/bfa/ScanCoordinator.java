@@ -0,0 +1,276 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import hudson.model.Run;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the scans of completed builds in the background when asynchronous scanning is enabled, so that the
+ * {@link BuildFailureScanner} doesn't block the thread that completes the build.
+ *
+ * Pending builds are scanned in {@link ScanPriority} order. Keeps a completion future for every pending scan,
+ * which consumers of the scan result, like the Gerrit message provider and the token macro, can wait for with a
+ * bounded timeout. At most {@link PluginImpl#getScanQueueCapacity()} scans wait besides the running ones. When
+ * that many are waiting, or the scan can't be queued, the build is scanned in the thread completing it instead, so
+ * that the scans slow down the builds rather than pile up, and no build is left without a result.
+ */
+public final class ScanCoordinator {
+
+    private static final Logger logger = Logger.getLogger(ScanCoordinator.class.getName());
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static ScanCoordinator instance;
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> pending =
+            new ConcurrentHashMap<String, CompletableFuture<Void>>();
+    private final ThreadPoolExecutor executor;
+    private ExecutorService virtualExecutor;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile int threads;
+
+    /**
+     * Private constructor.
+     *
+     * @see #getInstance()
+     */
+    private ScanCoordinator() {
+        threads = PluginImpl.getInstance().getNrOfScanThreads();
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable target) {
+                        Thread thread = new Thread(target, "BFA-scan-coordinator-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized ScanCoordinator getInstance() {
+        if (instance == null) {
+            instance = new ScanCoordinator();
+        }
+        return instance;
+    }
+
+    /**
+     * Queues the scan of a build. If a scan of the build is already pending, the scan is not queued again. If the
+     * queue is full, the build is scanned before this returns.
+     *
+     * @param run the build that will be scanned.
+     * @param scan the scan to perform.
+     * @return the completion of the scan.
+     */
+    public Future<Void> submit(final Run run, final Runnable scan) {
+        final String id = run.getExternalizableId();
+        final CompletableFuture<Void> completion = new CompletableFuture<Void>();
+        CompletableFuture<Void> previous = pending.putIfAbsent(id, completion);
+        if (previous != null) {
+            return previous;
+        }
+        int configured = PluginImpl.getInstance().getNrOfScanThreads();
+        if (configured != threads) {
+            resize(configured);
+        }
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scan.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "[BFA] Scan of " + id + " failed", e);
+                } finally {
+                    pending.remove(id, completion);
+                    completion.complete(null);
+                }
+            }
+        };
+        try {
+            if (pending.size() > PluginImpl.getInstance().getScanQueueCapacity() + threads) {
+                throw new RejectedExecutionException("The scan queue is full");
+            }
+            ExecutorService virtual = getVirtualExecutor();
+            if (virtual != null) {
+                // the scan tasks are still prioritized by the ScanScheduler
+                virtual.execute(task);
+            } else {
+                executor.execute(new ScanScheduler.PrioritizedTask(task, ScanPriority.of(run),
+                        sequence.getAndIncrement()));
+            }
+        } catch (RejectedExecutionException e) {
+            logger.log(Level.WARNING, "[BFA] Unable to queue the scan of " + id + ", scanning it now", e);
+            task.run();
+        }
+        return completion;
+    }
+
+    /**
+     * Resizes the pool after the configured number of scan threads has changed.
+     *
+     * @param configured the number of threads.
+     */
+    private synchronized void resize(int configured) {
+        if (configured == threads) {
+            return;
+        }
+        if (configured > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(configured);
+            executor.setCorePoolSize(configured);
+        } else {
+            executor.setCorePoolSize(configured);
+            executor.setMaximumPoolSize(configured);
+        }
+        threads = configured;
+    }
+
+    /**
+     * The executor starting a virtual thread for each scan, if virtual threads are enabled and supported.
+     *
+     * @return the executor, or null if the platform thread pool should be used.
+     */
+    private synchronized ExecutorService getVirtualExecutor() {
+        if (!VirtualThreads.isEnabled()) {
+            return null;
+        }
+        if (virtualExecutor == null) {
+            virtualExecutor = VirtualThreads.newExecutor("BFA-scan-coordinator-virtual-");
+        }
+        return virtualExecutor;
+    }
+
+    /**
+     * Checks if a scan of the build is queued or running.
+     *
+     * @param run the build.
+     * @return true if so.
+     */
+    public boolean isPending(Run run) {
+        return pending.containsKey(run.getExternalizableId());
+    }
+
+    /**
+     * The number of scans that are queued or running.
+     *
+     * @return the number of pending scans.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Waits for a pending scan of the build to finish. Returns immediately if no scan is pending.
+     *
+     * @param run the build.
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if no scan of the build is pending anymore.
+     */
+    public boolean await(Run run, long timeout, TimeUnit unit) {
+        CompletableFuture<Void> completion = pending.get(run.getExternalizableId());
+        if (completion == null) {
+            return true;
+        }
+        try {
+            completion.get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            logger.log(Level.WARNING, "[BFA] Timed out waiting for the scan of {0}", run.getFullDisplayName());
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a pending scan of the build to finish, at most {@link PluginImpl#getScanResultTimeout()} seconds.
+     * Does nothing if no scan has been queued, e.g. because asynchronous scanning is off.
+     *
+     * @param run the build.
+     * @return true if no scan of the build is pending anymore.
+     */
+    public static boolean awaitScan(Run run) {
+        ScanCoordinator coordinator;
+        synchronized (ScanCoordinator.class) {
+            coordinator = instance;
+        }
+        if (coordinator == null || run == null) {
+            return true;
+        }
+        return coordinator.await(run, PluginImpl.getInstance().getScanResultTimeout(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops accepting new scans and waits a while for the pending ones.
+     */
+    public static void shutdown() {
+        ScanCoordinator coordinator;
+        synchronized (ScanCoordinator.class) {
+            coordinator = instance;
+        }
+        if (coordinator != null) {
+            synchronized (coordinator) {
+                if (coordinator.virtualExecutor != null) {
+                    coordinator.virtualExecutor.shutdown();
+                }
+            }
+            coordinator.executor.shutdown();
+            try {
+                if (!coordinator.executor.awaitTermination(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS)) {
+                    coordinator.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                coordinator.executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.IncrementalRescan;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps snapshots of the indications builds were scanned for, by {@link ScanPlan#version(Collection) version}, so
+ * that the builds can be re-scanned incrementally when the knowledge base changes, see {@link IncrementalRescan}.
+ *
+ * Builds only record the version, so a snapshot is shared by all builds scanned for the same causes. Only the most
+ * recently used snapshots are kept: a snapshot is touched when builds are scanned or re-scanned with it, at most once
+ * per {@link #TOUCH_INTERVAL_MILLIS}, so a version that stays in use is never pruned for the many short-lived versions
+ * of a knowledge base that is being edited. Builds scanned for pruned versions are scanned from scratch.
+ */
+public final class ScanPlanHistory {
+
+    /**
+     * The directory of the snapshots, relative to the Jenkins root directory.
+     */
+    static final String DIRECTORY = "build-failure-analyzer/scan-plans";
+
+    /**
+     * The number of snapshots kept.
+     */
+    static final int MAX_SNAPSHOTS = 200;
+
+    /**
+     * The least time between two touches of a snapshot that is used.
+     */
+    static final long TOUCH_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String SUFFIX = ".json";
+    private static final Logger logger = Logger.getLogger(ScanPlanHistory.class.getName());
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, List<String>>> SNAPSHOT_TYPE =
+            new TypeReference<Map<String, List<String>>>() { };
+
+    private static ScanPlanHistory instance;
+
+    private final File directory;
+    private final int maxSnapshots;
+    private final Map<String, Long> touched = new HashMap<String, Long>();
+    private String lastVersion;
+    private Map<String, List<String>> lastSnapshot;
+
+    /**
+     * Standard constructor.
+     *
+     * @param directory the directory of the snapshots.
+     * @param maxSnapshots the number of snapshots kept.
+     */
+    ScanPlanHistory(File directory, int maxSnapshots) {
+        this.directory = directory;
+        this.maxSnapshots = maxSnapshots;
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized ScanPlanHistory getInstance() {
+        if (instance == null) {
+            instance = new ScanPlanHistory(new File(Jenkins.get().getRootDir(), DIRECTORY), MAX_SNAPSHOTS);
+        }
+        return instance;
+    }
+
+    /**
+     * Records the indications of the causes builds are scanned for, if not already recorded.
+     *
+     * @param causes the causes.
+     * @return the version to record in the scanned builds.
+     */
+    public String record(Collection<FailureCause> causes) {
+        String version = ScanPlan.version(causes);
+        synchronized (this) {
+            File file = new File(directory, version + SUFFIX);
+            if (touched.containsKey(version)) {
+                touch(version, file);
+                return version;
+            }
+            try {
+                if (file.exists()) {
+                    touch(version, file);
+                } else {
+                    if (!directory.isDirectory() && !directory.mkdirs()) {
+                        throw new IOException("Could not create " + directory);
+                    }
+                    File temp = new File(directory, version + ".tmp");
+                    OBJECT_MAPPER.writeValue(temp, IncrementalRescan.snapshot(causes));
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    touched.put(version, System.currentTimeMillis());
+                    prune();
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "[BFA] Could not record the causes of scan plan " + version, e);
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Gets the indications builds were scanned for.
+     *
+     * @param version the version recorded in the builds.
+     * @return the snapshot, or null if it is not known.
+     */
+    public synchronized Map<String, List<String>> get(String version) {
+        if (version == null) {
+            return null;
+        }
+        // re-scans go through many builds scanned for the same causes
+        File file = new File(directory, version + SUFFIX);
+        if (version.equals(lastVersion)) {
+            touch(version, file);
+            return lastSnapshot;
+        }
+        if (!file.isFile()) {
+            return null;
+        }
+        touch(version, file);
+        try {
+            lastSnapshot = OBJECT_MAPPER.readValue(file, SNAPSHOT_TYPE);
+            lastVersion = version;
+            return lastSnapshot;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not read the causes of scan plan " + version, e);
+            return null;
+        }
+    }
+
+    /**
+     * Marks a snapshot as used, unless it was marked recently.
+     *
+     * @param version the version.
+     * @param file the file of the snapshot.
+     */
+    private void touch(String version, File file) {
+        long now = System.currentTimeMillis();
+        Long last = touched.get(version);
+        if (last != null && now - last < TOUCH_INTERVAL_MILLIS) {
+            return;
+        }
+        if (file.setLastModified(now)) {
+            touched.put(version, now);
+        } else {
+            touched.remove(version);
+        }
+    }
+
+    /**
+     * Deletes the least recently used snapshots.
+     */
+    private void prune() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null || files.length <= maxSnapshots) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - maxSnapshots; i++) {
+            String name = files[i].getName();
+            touched.remove(name.substring(0, name.length() - SUFFIX.length()));
+            try {
+                Files.deleteIfExists(files[i].toPath());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "[BFA] Could not delete " + files[i], e);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import hudson.model.Cause;
+import hudson.model.Run;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The order in which queued scans are executed by the {@link ScanScheduler}.
+ *
+ * Builds that gate a Gerrit vote are scanned first, and within the same class smaller logs go before larger ones,
+ * so that quick failures don't wait behind huge logs. So that a large log isn't held back forever by a steady stream
+ * of smaller ones, the scans are ordered by a {@link #getDeadline(long) deadline} within their class: the time they
+ * were queued, plus one second per {@link #AGING_BYTES_PER_SECOND} of log, but at most {@link #MAX_WAIT_MILLIS}.
+ */
+public final class ScanPriority implements Comparable<ScanPriority> {
+
+    /**
+     * The priority class of builds that someone is waiting for, like Gerrit verifications.
+     */
+    public static final int CLASS_GATING = 0;
+
+    /**
+     * The priority class of all other builds.
+     */
+    public static final int CLASS_NORMAL = 1;
+
+    /**
+     * The priority of work that isn't tied to a build log.
+     */
+    public static final ScanPriority DEFAULT = new ScanPriority(CLASS_NORMAL, 0);
+
+    /**
+     * The size of log that is held back one second behind smaller logs.
+     */
+    static final long AGING_BYTES_PER_SECOND = 100 * 1024;
+
+    /**
+     * The longest time a log is held back behind smaller logs.
+     */
+    static final long MAX_WAIT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private static final String GERRIT_TRIGGER_PACKAGE = "com.sonyericsson.hudson.plugins.gerrit.trigger.";
+
+    private final int priorityClass;
+    private final long logSize;
+
+    /**
+     * Standard constructor.
+     *
+     * @param priorityClass the priority class, lower goes first.
+     * @param logSize the size of the log to scan, smaller goes first.
+     */
+    public ScanPriority(int priorityClass, long logSize) {
+        this.priorityClass = priorityClass;
+        this.logSize = logSize;
+    }
+
+    /**
+     * Calculates the priority of scanning a build.
+     *
+     * @param build the build.
+     * @return the priority.
+     */
+    public static ScanPriority of(Run build) {
+        int priorityClass = CLASS_NORMAL;
+        for (Object cause : build.getCauses()) {
+            if (isGating((Cause)cause)) {
+                priorityClass = CLASS_GATING;
+                break;
+            }
+        }
+        return new ScanPriority(priorityClass, build.getLogText().length());
+    }
+
+    /**
+     * Checks if the cause is a trigger that waits for the result, i.e. one from the Gerrit Trigger plugin.
+     *
+     * @param cause the cause.
+     * @return true if so.
+     */
+    private static boolean isGating(Cause cause) {
+        return cause.getClass().getName().startsWith(GERRIT_TRIGGER_PACKAGE);
+    }
+
+    /**
+     * The priority class.
+     *
+     * @return the class, lower goes first.
+     */
+    public int getPriorityClass() {
+        return priorityClass;
+    }
+
+    /**
+     * The size of the log.
+     *
+     * @return the size in bytes.
+     */
+    public long getLogSize() {
+        return logSize;
+    }
+
+    /**
+     * The time at which a scan goes before all scans of the same class that are queued later.
+     *
+     * @param queuedAt the time the scan was queued, in milliseconds.
+     * @return the time in milliseconds.
+     */
+    public long getDeadline(long queuedAt) {
+        return queuedAt + Math.min(MAX_WAIT_MILLIS, logSize * MILLIS_PER_SECOND / AGING_BYTES_PER_SECOND);
+    }
+
+    @Override
+    public int compareTo(ScanPriority other) {
+        int result = Integer.compare(priorityClass, other.priorityClass);
+        if (result == 0) {
+            result = Long.compare(logSize, other.logSize);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ScanPriority)) {
+            return false;
+        }
+        ScanPriority other = (ScanPriority)obj;
+        return priorityClass == other.priorityClass && logSize == other.logSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(priorityClass, logSize);
+    }
+
+    @Override
+    public String toString() {
+        return "ScanPriority{class=" + priorityClass + ", logSize=" + logSize + "}";
+    }
+}
@@ -0,0 +1,557 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.codahale.metrics.Gauge;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sonyericsson.jenkins.plugins.bfa.model.CauseEvaluationOrder;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches scan results on disk by the content of the log, so that retried builds with the same log, and builds
+ * scanned again on demand, are not scanned twice for the same causes.
+ *
+ * The key of a result is a SHA-256 hash of the log bytes together with the
+ * {@link ScanPlan#version(Collection) version} of the causes and the scan settings. The log is hashed before its
+ * first scan, in one sequential read without matching any pattern, and the hash is kept next to the build for its
+ * later scans. A hit recreates the found causes from the stored indications without evaluating any
+ * pattern. The entries are evicted least recently used first when their total size exceeds the configured size.
+ *
+ * Files are only read and written outside of the lock of the cache. Entries are written to a temporary file that
+ * is moved into place, so a reader sees either the old or the new entry.
+ */
+public final class ScanResultCache {
+
+    /**
+     * The directory of the cache, relative to the Jenkins root directory.
+     */
+    static final String DIRECTORY = "build-failure-analyzer/scan-cache";
+
+    /**
+     * The name of the file in the build directory that keeps the hash of the log.
+     */
+    static final String DIGEST_FILE_NAME = "bfa-log-digest";
+
+    /**
+     * The default size of the cache in MB.
+     */
+    public static final int DEFAULT_SIZE = 100;
+
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 65536;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final Logger logger = Logger.getLogger(ScanResultCache.class.getName());
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static ScanResultCache instance;
+
+    private final File directory;
+    private final Map<String, Long> entries = new LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long totalSize;
+    private long maxSize;
+    private boolean loaded;
+
+    /**
+     * Standard constructor.
+     *
+     * @param directory the directory of the cache.
+     * @param maxSize the maximum total size of the entries in bytes.
+     */
+    ScanResultCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The singleton instance, sized from the {@link PluginImpl} configuration.
+     *
+     * @return the instance.
+     */
+    public static synchronized ScanResultCache getInstance() {
+        if (instance == null) {
+            instance = new ScanResultCache(new File(Jenkins.get().getRootDir(), DIRECTORY),
+                    toBytes(PluginImpl.getInstance().getScanResultCacheSize()));
+            instance.registerGauges();
+        }
+        instance.setMaxSize(toBytes(PluginImpl.getInstance().getScanResultCacheSize()));
+        return instance;
+    }
+
+    /**
+     * Converts megabytes to bytes.
+     *
+     * @param megabytes the megabytes.
+     * @return the bytes.
+     */
+    private static long toBytes(int megabytes) {
+        return (long)megabytes * PluginImpl.BYTES_IN_MEGABYTE;
+    }
+
+    /**
+     * Publishes the cache metrics.
+     */
+    private void registerGauges() {
+        try {
+            MetricsManager.registerGauge("result_cache.hits", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getHits();
+                }
+            });
+            MetricsManager.registerGauge("result_cache.misses", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getMisses();
+                }
+            });
+            MetricsManager.registerGauge("result_cache.size_bytes", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getSize();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "[BFA] Could not register the result cache metrics", e);
+        }
+    }
+
+    /**
+     * The key of the result of scanning a log for causes.
+     *
+     * @param logDigest the hash of the log, see {@link #getLogDigest(Run)}.
+     * @param causes the causes the log is scanned for.
+     * @param settings the scan settings that affect the result.
+     * @return the key.
+     */
+    public static String key(String logDigest, Collection<FailureCause> causes, String settings) {
+        MessageDigest digest = newDigest();
+        digest.update(logDigest.getBytes(StandardCharsets.UTF_8));
+        digest.update(ScanPlan.version(causes).getBytes(StandardCharsets.UTF_8));
+        digest.update(settings.getBytes(StandardCharsets.UTF_8));
+        return ScanPlan.toHex(digest.digest());
+    }
+
+    /**
+     * The hash of the log of a build. The log is read to hash it the first time the build is scanned, before the
+     * cache is looked up, and the hash is kept next to the build for its later scans.
+     *
+     * @param build the build.
+     * @return the hash, or null if the log can't be read.
+     */
+    public static String getLogDigest(Run build) {
+        String logDigest = readLogDigest(build);
+        if (logDigest != null) {
+            return logDigest;
+        }
+        try {
+            logDigest = digest(build.getLogInputStream());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not hash the log of " + build.getFullDisplayName(), e);
+            return null;
+        }
+        writeLogDigest(build, logDigest);
+        return logDigest;
+    }
+
+    /**
+     * Hashes a log.
+     *
+     * @param in the log, closed when it is read.
+     * @return the hash.
+     * @throws IOException if the log can't be read.
+     */
+    static String digest(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream digesting = new DigestInputStream(in, digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = digesting.read(buffer);
+            while (read >= 0) {
+                read = digesting.read(buffer);
+            }
+        }
+        return ScanPlan.toHex(digest.digest());
+    }
+
+    /**
+     * Reads the hash of the log of a build kept by {@link #writeLogDigest(Run, String)}.
+     *
+     * @param build the build.
+     * @return the hash, or null if none is kept or the log changed since.
+     */
+    public static String readLogDigest(Run build) {
+        File file = new File(build.getRootDir(), DIGEST_FILE_NAME);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            String[] fields = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim().split(" ");
+            if (fields.length == 2 && fields[0].equals(logStamp(build))) {
+                return fields[1];
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not read " + file, e);
+        }
+        return null;
+    }
+
+    /**
+     * Keeps the hash of the log of a build next to it, for its later scans.
+     *
+     * @param build the build.
+     * @param logDigest the hash, see {@link #getLogDigest(Run)}.
+     */
+    public static void writeLogDigest(Run build, String logDigest) {
+        File file = new File(build.getRootDir(), DIGEST_FILE_NAME);
+        File temp = new File(build.getRootDir(), DIGEST_FILE_NAME + TEMP_SUFFIX);
+        try {
+            Files.write(temp.toPath(), (logStamp(build) + " " + logDigest).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not write " + file, e);
+        }
+    }
+
+    /**
+     * Tells if the log of a build changed since its hash was kept.
+     *
+     * @param build the build.
+     * @return the size and modification time of the log file.
+     */
+    private static String logStamp(Run build) {
+        File log = build.getLogFile();
+        return log.length() + ":" + log.lastModified();
+    }
+
+    /**
+     * Creates a SHA-256 digest.
+     *
+     * @return the digest.
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Gets a cached result.
+     *
+     * @param key the key.
+     * @param build the build the result is for.
+     * @param causes the causes the build is scanned for.
+     * @return the found causes, or null if there is no result for the key.
+     */
+    public List<FoundFailureCause> get(String key, Run build, Collection<FailureCause> causes) {
+        File file = new File(directory, key + SUFFIX);
+        synchronized (this) {
+            load();
+            if (entries.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        try {
+            List<FoundFailureCause> found = fromJson(OBJECT_MAPPER.readTree(file), build, causes);
+            if (found != null) {
+                if (!file.setLastModified(System.currentTimeMillis())) {
+                    logger.fine("[BFA] Could not touch " + file);
+                }
+                hits.incrementAndGet();
+                return found;
+            }
+        } catch (FileNotFoundException e) {
+            logger.fine("[BFA] The cached scan result " + file + " was evicted while it was read");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not read the cached scan result " + file, e);
+        }
+        List<File> removed;
+        synchronized (this) {
+            removed = remove(key);
+        }
+        delete(removed);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches a result, evicting the least recently used results if the cache gets too large.
+     *
+     * @param key the key.
+     * @param found the found causes.
+     */
+    public void put(String key, List<FoundFailureCause> found) {
+        synchronized (this) {
+            load();
+        }
+        File file = new File(directory, key + SUFFIX);
+        File temp = null;
+        List<File> evicted;
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(toJson(found));
+            // unique, so that concurrent puts of the same key don't write to the same file
+            temp = File.createTempFile(key, TEMP_SUFFIX, directory);
+            Files.write(temp.toPath(), json);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                Long previous = entries.put(key, (long)json.length);
+                if (previous != null) {
+                    totalSize -= previous;
+                }
+                totalSize += json.length;
+                evicted = evict();
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not cache the scan result " + file, e);
+            if (temp != null) {
+                delete(temp);
+            }
+            return;
+        }
+        delete(evicted);
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is within its size.
+     *
+     * @return the files of the removed entries, to delete outside of the lock.
+     */
+    private List<File> evict() {
+        List<File> evicted = new ArrayList<File>();
+        Iterator<String> keys = entries.keySet().iterator();
+        while (totalSize > maxSize && keys.hasNext()) {
+            String key = keys.next();
+            totalSize -= entries.get(key);
+            keys.remove();
+            evicted.add(new File(directory, key + SUFFIX));
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key the key.
+     * @return the file of the entry, to delete outside of the lock.
+     */
+    private List<File> remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalSize -= size;
+        }
+        return Collections.singletonList(new File(directory, key + SUFFIX));
+    }
+
+    /**
+     * Deletes files, logging failures.
+     *
+     * @param files the files.
+     */
+    private static void delete(List<File> files) {
+        for (File file : files) {
+            delete(file);
+        }
+    }
+
+    /**
+     * Deletes a file, logging failures.
+     *
+     * @param file the file.
+     */
+    private static void delete(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not delete the cached scan result " + file, e);
+        }
+    }
+
+    /**
+     * Reads the entries of the cache directory the first time the cache is used, least recently used first.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            logger.warning("[BFA] Could not create the scan result cache directory " + directory);
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(SUFFIX)) {
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                totalSize += file.length();
+            } else {
+                // left behind by an interrupted write
+                delete(file);
+            }
+        }
+        delete(evict());
+    }
+
+    /**
+     * Converts found causes to JSON.
+     *
+     * @param found the found causes.
+     * @return the JSON.
+     */
+    static ObjectNode toJson(List<FoundFailureCause> found) {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        ArrayNode causes = node.putArray("causes");
+        for (FoundFailureCause cause : found) {
+            ObjectNode causeNode = causes.addObject();
+            causeNode.put("id", cause.getId());
+            causeNode.put("name", cause.getName());
+            ArrayNode indications = causeNode.putArray("indications");
+            for (FoundIndication indication : cause.getIndications()) {
+                ObjectNode indicationNode = indications.addObject();
+                indicationNode.put("pattern", indication.getPattern());
+                indicationNode.put("file", indication.getMatchingFile());
+                indicationNode.put("line", indication.getMatchingLine());
+                indicationNode.put("match", indication.getMatchingString());
+                indicationNode.put("stage", indication.getStage());
+                indicationNode.put("step", indication.getStep());
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Recreates found causes from JSON.
+     *
+     * @param node the JSON.
+     * @param build the build the causes are found in.
+     * @param causes the causes the build is scanned for.
+     * @return the found causes, or null if a cause is no longer among the causes.
+     */
+    static List<FoundFailureCause> fromJson(JsonNode node, Run build, Collection<FailureCause> causes) {
+        List<FoundFailureCause> found = new ArrayList<FoundFailureCause>();
+        for (JsonNode causeNode : node.path("causes")) {
+            FailureCause cause = CauseEvaluationOrder.findCause(causes, causeNode.path("id").asText(null),
+                    causeNode.path("name").asText(null));
+            if (cause == null) {
+                return null;
+            }
+            List<FoundIndication> indications = new ArrayList<FoundIndication>();
+            for (JsonNode indicationNode : causeNode.path("indications")) {
+                FoundIndication indication = new FoundIndication(build, indicationNode.path("pattern").asText(null),
+                        indicationNode.path("file").asText(null), indicationNode.path("match").asText(null),
+                        indicationNode.path("line").asInt(-1));
+                indication.setStage(indicationNode.path("stage").asText(null));
+                indication.setStep(indicationNode.path("step").asText(null));
+                indications.add(indication);
+            }
+            found.add(new FoundFailureCause(cause, indications));
+        }
+        return found;
+    }
+
+    /**
+     * Sets the maximum total size of the entries, evicting entries if needed.
+     *
+     * @param maxSize the size in bytes.
+     */
+    public void setMaxSize(long maxSize) {
+        List<File> evicted = Collections.emptyList();
+        synchronized (this) {
+            this.maxSize = maxSize;
+            if (loaded) {
+                evicted = evict();
+            }
+        }
+        delete(evicted);
+    }
+
+    /**
+     * The number of results found in the cache.
+     *
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of results not found in the cache.
+     *
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The total size of the entries.
+     *
+     * @return the size in bytes.
+     */
+    public synchronized long getSize() {
+        return totalSize;
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.codahale.metrics.Gauge;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The thread pool that evaluates the indications of the scanned builds.
+ *
+ * Queued tasks are ordered by their {@link ScanPriority}, and the queue is bounded: when it is full new tasks are
+ * rejected, and the {@link BuildFailureScanner} falls back to a cheap scan of the tail of the log instead.
+ * The number of queued and active tasks and the age of the oldest queued task are published as gauges.
+ */
+public final class ScanScheduler {
+
+    /**
+     * Default maximum number of queued scan tasks.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private static final Logger logger = Logger.getLogger(ScanScheduler.class.getName());
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static ScanScheduler instance;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+    private final Lock lock = new ReentrantLock();
+    private final Condition capacityAvailable = lock.newCondition();
+    private final ThreadLocal<Long> startTimes = new ThreadLocal<Long>();
+    private volatile int capacity;
+    private volatile AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Standard constructor.
+     *
+     * @param threads the number of threads.
+     * @param capacity the maximum number of queued tasks.
+     */
+    ScanScheduler(int threads, int capacity) {
+        this.capacity = capacity;
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable target) {
+                        Thread thread = new Thread(target, "BFA-scanner-pool-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable task) {
+                super.beforeExecute(thread, task);
+                // the task has left the queue
+                signalCapacity();
+                AdaptiveConcurrencyLimiter current = limiter;
+                if (current != null) {
+                    current.onStart();
+                    startTimes.set(System.nanoTime());
+                }
+            }
+
+            @Override
+            protected void afterExecute(Runnable task, Throwable throwable) {
+                super.afterExecute(task, throwable);
+                Long start = startTimes.get();
+                startTimes.remove();
+                AdaptiveConcurrencyLimiter current = limiter;
+                long workBytes = 0;
+                if (task instanceof PrioritizedTask) {
+                    workBytes = ((PrioritizedTask)task).priority.getLogSize();
+                }
+                if (current != null && start != null
+                        && current.onComplete(System.nanoTime() - start, workBytes)) {
+                    resize(current.getLimit());
+                }
+            }
+        };
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * The singleton instance, sized from the {@link PluginImpl} configuration.
+     *
+     * @return the instance.
+     */
+    public static synchronized ScanScheduler getInstance() {
+        if (instance == null) {
+            PluginImpl plugin = PluginImpl.getInstance();
+            instance = new ScanScheduler(plugin.getNrOfScanThreads(), plugin.getScanQueueCapacity());
+            instance.configure(plugin);
+            instance.registerGauges();
+        }
+        return instance;
+    }
+
+    /**
+     * Publishes the queue metrics.
+     */
+    private void registerGauges() {
+        try {
+            MetricsManager.registerGauge("scanner.queued", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return getQueuedCount();
+                }
+            });
+            MetricsManager.registerGauge("scanner.active", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return getActiveCount();
+                }
+            });
+            MetricsManager.registerGauge("scanner.oldest_task_age_ms", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return getOldestTaskAge();
+                }
+            });
+            MetricsManager.registerGauge("scanner.concurrency_limit", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return getConcurrencyLimit();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "[BFA] Could not register the scanner metrics", e);
+        }
+    }
+
+    /**
+     * Adjusts the pool to the {@link PluginImpl} configuration, if it has changed.
+     *
+     * @param plugin the configuration.
+     */
+    public void configure(PluginImpl plugin) {
+        if (plugin.isAdaptiveConcurrencyEnabled()) {
+            configureAdaptive(plugin.getMinScanThreads(), plugin.getNrOfScanThreads(), plugin.getScanQueueCapacity());
+        } else {
+            configure(plugin.getNrOfScanThreads(), plugin.getScanQueueCapacity());
+        }
+    }
+
+    /**
+     * Adjusts the pool to a fixed number of threads.
+     *
+     * @param threads the number of threads.
+     * @param queueCapacity the maximum number of queued tasks.
+     */
+    public synchronized void configure(int threads, int queueCapacity) {
+        setCapacity(queueCapacity);
+        limiter = null;
+        resize(threads);
+    }
+
+    /**
+     * Lets an {@link AdaptiveConcurrencyLimiter} adjust the number of threads to the load of the controller.
+     *
+     * @param minThreads the lowest number of threads.
+     * @param maxThreads the highest number of threads.
+     * @param queueCapacity the maximum number of queued tasks.
+     */
+    public synchronized void configureAdaptive(int minThreads, int maxThreads, int queueCapacity) {
+        setCapacity(queueCapacity);
+        if (limiter == null) {
+            limiter = new AdaptiveConcurrencyLimiter(minThreads, maxThreads);
+        } else {
+            limiter.setBounds(minThreads, maxThreads);
+        }
+        resize(limiter.getLimit());
+    }
+
+    /**
+     * Sets the maximum number of queued tasks, waking up waiting threads if it grows.
+     *
+     * @param queueCapacity the maximum number of queued tasks.
+     */
+    private void setCapacity(int queueCapacity) {
+        if (queueCapacity > capacity) {
+            capacity = queueCapacity;
+            signalCapacity();
+        } else {
+            capacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Sets the number of threads of the pool, if it has changed.
+     *
+     * @param threads the number of threads.
+     */
+    private synchronized void resize(int threads) {
+        if (executor.getMaximumPoolSize() == threads) {
+            return;
+        }
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * Checks if the given number of tasks can be queued right now.
+     *
+     * @param tasks the number of tasks.
+     * @return true if there is room in the queue.
+     */
+    public boolean hasCapacity(int tasks) {
+        return executor.getQueue().size() + tasks <= capacity;
+    }
+
+    /**
+     * Waits until the given number of tasks can be queued. Meant for virtual threads, which are cheap to block,
+     * while platform threads should rather scan less than wait.
+     *
+     * @param tasks the number of tasks.
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if there is room in the queue, false if the timeout elapsed first.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitCapacity(int tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!hasCapacity(tasks)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = capacityAvailable.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the threads waiting for room in the queue.
+     */
+    private void signalCapacity() {
+        lock.lock();
+        try {
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param task the task.
+     * @param priority the priority of the task.
+     * @return the future of the task.
+     * @throws RejectedExecutionException if the queue is full or the scheduler is shut down.
+     */
+    public Future<?> submit(Runnable task, ScanPriority priority) throws RejectedExecutionException {
+        if (executor.getQueue().size() >= capacity) {
+            throw new RejectedExecutionException("The scan queue is full");
+        }
+        PrioritizedTask prioritizedTask = new PrioritizedTask(task, priority, sequence.getAndIncrement());
+        executor.execute(prioritizedTask);
+        return prioritizedTask;
+    }
+
+    /**
+     * The number of queued tasks.
+     *
+     * @return the number of tasks waiting for a thread.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * The number of running tasks.
+     *
+     * @return the approximate number of active threads.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * The number of tasks that may run at the same time.
+     *
+     * @return the number of threads of the pool.
+     */
+    public int getConcurrencyLimit() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * The time the oldest queued task has been waiting.
+     *
+     * @return the age in milliseconds, 0 if nothing is queued.
+     */
+    public long getOldestTaskAge() {
+        long oldest = Long.MAX_VALUE;
+        for (Runnable runnable : executor.getQueue().toArray(new Runnable[0])) {
+            if (runnable instanceof PrioritizedTask) {
+                oldest = Math.min(oldest, ((PrioritizedTask)runnable).queuedAt);
+            }
+        }
+        if (oldest == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    /**
+     * Stops the pool, interrupting running tasks.
+     */
+    public static void shutdown() {
+        ScanScheduler scheduler;
+        synchronized (ScanScheduler.class) {
+            scheduler = instance;
+        }
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    /**
+     * Stops this pool, interrupting running tasks.
+     */
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A queued task, ordered by priority class, then by {@link ScanPriority#getDeadline(long) deadline} and then by
+     * the order of submission. The deadline is fixed when the task is queued, so the order of two queued tasks never
+     * changes, as the {@link PriorityBlockingQueue} requires.
+     */
+    static final class PrioritizedTask extends FutureTask<Object> implements Comparable<PrioritizedTask> {
+        private final ScanPriority priority;
+        private final long sequenceNumber;
+        private final long queuedAt;
+        private final long deadline;
+
+        /**
+         * Standard constructor.
+         *
+         * @param task the task to run.
+         * @param priority the priority.
+         * @param sequenceNumber the submission order.
+         */
+        PrioritizedTask(Runnable task, ScanPriority priority, long sequenceNumber) {
+            this(task, priority, sequenceNumber, System.currentTimeMillis());
+        }
+
+        /**
+         * Constructor for a task queued at a given time.
+         *
+         * @param task the task to run.
+         * @param priority the priority.
+         * @param sequenceNumber the submission order.
+         * @param queuedAt the time the task is queued, in milliseconds.
+         */
+        PrioritizedTask(Runnable task, ScanPriority priority, long sequenceNumber, long queuedAt) {
+            super(task, null);
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+            this.queuedAt = queuedAt;
+            this.deadline = priority.getDeadline(queuedAt);
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int result = Integer.compare(priority.getPriorityClass(), other.priority.getPriorityClass());
+            if (result == 0) {
+                result = Long.compare(deadline, other.deadline);
+            }
+            if (result == 0) {
+                result = Long.compare(sequenceNumber, other.sequenceNumber);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequenceNumber);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import jenkins.plugins.slack.StandardSlackService;
 import jenkins.model.Jenkins;
 import java.util.logging.Logger;
 
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.logging.Level;
 
@@ -40,6 +41,7 @@ import java.util.logging.Level;
  */
 public class SlackMessageProvider {
     private static final Logger logger = Logger.getLogger(SlackMessageProvider.class.getName());
+    private static final String MESSAGE_COLOR = "danger";
     private String slackMessageText;
     private String teamDomain;
     private String baseUrl;
@@ -168,6 +170,42 @@ public class SlackMessageProvider {
         logger.log(Level.SEVERE, s.toString());
     }
 
+    /**
+     * The channel to post to.
+     * @return the channel set in the plugin configuration, or the one of the Slack Notifier plugin if none is set
+     */
+    private String getUseRoom() {
+        String customSlackChannel = PluginImpl.getInstance().getSlackChannelName();
+        if (customSlackChannel.equals("")) {
+            // If no slack channel was specified in plugin settings,
+            // use channel specified in Global Slack Notifier Plugin settings
+            return this.room;
+        }
+        return customSlackChannel;
+    }
+
+    /**
+     * Function to send a slack message for the {@link NotificationDispatcher}, telling failures that are worth
+     * retrying apart from missing configurations.
+     *
+     * @param messageText - Content of the slack message.
+     * @return boolean true if message sent successfully, false if the configuration is incomplete
+     * @throws IOException if Slack did not accept the message.
+     */
+    public boolean publish(String messageText) throws IOException {
+        slackMessageText = messageText;
+        if (!checkSlackConfigurationParams()) {
+            reportGenericErrorMessage(null, "Slack Notifier plugin missing configurations.");
+            return false;
+        }
+        SlackService service = new StandardSlackService(baseUrl, teamDomain, authToken,
+                authTokenCredentialId, botUser, getUseRoom());
+        if (!service.publish(messageText, MESSAGE_COLOR)) {
+            throw new IOException("Slack did not accept the message");
+        }
+        return true;
+    }
+
     /**
      * Function to send a slack message to a channel specificed in
      * the plugin configuration. Uses all slack plugin settings except those
@@ -179,17 +217,8 @@ public class SlackMessageProvider {
      */
     public boolean postToSlack(String messageText, PrintStream buildLog) {
         slackMessageText = messageText;
-        String messageColor = "danger";
-        String useRoom;
-
-        String customSlackChannel = PluginImpl.getInstance().getSlackChannelName();
-        if (customSlackChannel.equals("")) {
-            // If no slack channel was specified in plugin settings,
-            // use channel specified in Global Slack Notifier Plugin settings
-            useRoom = this.room;
-        } else {
-            useRoom = customSlackChannel;
-        }
+        String messageColor = MESSAGE_COLOR;
+        String useRoom = getUseRoom();
 
         if (checkSlackConfigurationParams()) {
             SlackService service = new StandardSlackService(baseUrl, teamDomain, authToken,
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.ApplicableCauses;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogRegionPlanner;
+import com.sonyericsson.jenkins.plugins.bfa.model.StreamingScan;
+import hudson.Extension;
+import hudson.console.ConsoleLogFilter;
+import hudson.console.LineTransformationOutputStream;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Feeds the log of running builds to a {@link StreamingScan} when streaming scanning is enabled, so that the
+ * {@link BuildFailureScanner} has the result as soon as the build completes.
+ *
+ * Only applies to builds of classic job types. Pipeline log filters might run on agents, away from the scan state.
+ */
+@Extension
+public class StreamingScanFilter extends ConsoleLogFilter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = Logger.getLogger(StreamingScanFilter.class.getName());
+
+    @Override
+    public OutputStream decorateLogger(Run build, OutputStream stream) throws IOException, InterruptedException {
+        if (!(build instanceof AbstractBuild)
+                || !PluginImpl.getInstance().isStreamingScanEnabled()
+                || !PluginImpl.shouldScan(build)) {
+            return stream;
+        }
+        List<FailureCause> causes;
+        try {
+            causes = new ArrayList<FailureCause>(ApplicableCauses.of(build,
+                    PluginImpl.getInstance().getKnowledgeBase().getCauses()));
+            // scoped indications need the whole log, they are looked for when the build completes
+            causes.removeAll(LogRegionPlanner.getScopedCauses(causes));
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "[BFA] Could not get the causes for the streaming scan of "
+                    + build.getFullDisplayName(), e);
+            return stream;
+        }
+        return new ScanningOutputStream(stream, StreamingScan.start(build, causes), build.getCharset());
+    }
+
+    /**
+     * Splits what {@link LineTransformationOutputStream} considers a line, which only ends at a '\n', into the lines
+     * a {@link java.io.BufferedReader} reads, which also end at a lone '\r', so that the streamed line numbers are
+     * those of a scan of the log.
+     *
+     * @param b the bytes, ending with the line terminator unless the log ended without one.
+     * @param len the number of bytes.
+     * @param charset the charset of the log.
+     * @return the lines, without line terminators.
+     */
+    static List<String> splitLines(byte[] b, int len, Charset charset) {
+        List<String> lines = new ArrayList<String>(1);
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            if (b[i] == '\r' && i + 1 < len && b[i + 1] != '\n') {
+                lines.add(new String(b, start, i - start, charset));
+                start = i + 1;
+            }
+        }
+        int end = len;
+        if (end > start && b[end - 1] == '\n') {
+            end--;
+        }
+        if (end > start && b[end - 1] == '\r') {
+            end--;
+        }
+        lines.add(new String(b, start, end - start, charset));
+        return lines;
+    }
+
+    /**
+     * Passes the log through while feeding each line to the scan.
+     */
+    private static class ScanningOutputStream extends LineTransformationOutputStream.Delegating {
+        private final StreamingScan scan;
+        private final Charset charset;
+
+        /**
+         * Standard constructor.
+         *
+         * @param out the log.
+         * @param scan the scan.
+         * @param charset the charset of the log.
+         */
+        ScanningOutputStream(OutputStream out, StreamingScan scan, Charset charset) {
+            super(out);
+            this.scan = scan;
+            this.charset = charset;
+        }
+
+        @Override
+        protected void eol(byte[] b, int len) throws IOException {
+            out.write(b, 0, len);
+            for (String line : splitLines(b, len, charset)) {
+                scan.addLine(line);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                scan.finish();
+            }
+        }
+    }
+}
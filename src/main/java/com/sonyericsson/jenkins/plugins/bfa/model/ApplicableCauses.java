@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.AbstractBuild;
+import hudson.model.Node;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Picks the causes that apply to a build, see {@link FailureCause#getApplicability()} and
+ * {@link FolderCauseProperty}.
+ *
+ * The subset of each job is computed once, with the patterns of its indications compiled, and kept in a least
+ * recently used cache keyed by the job, the node for causes with label expressions, and the version of the
+ * knowledge base. The version is a hash of the keys, {@link ScanPlan#fingerprint(FailureCause) fingerprints} and
+ * applicability rules of the causes, so it changes when causes are added, removed or changed, also in place, but
+ * not when the knowledge base hands out new instances of the same causes. The generation of the folder
+ * configuration is part of the key as well.
+ */
+public final class ApplicableCauses {
+
+    /**
+     * The maximum number of subsets kept.
+     */
+    static final int CACHE_SIZE = 512;
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final Logger logger = Logger.getLogger(ApplicableCauses.class.getName());
+
+    private static final Map<String, List<FailureCause>> CACHE =
+            new LinkedHashMap<String, List<FailureCause>>(CACHE_SIZE, LOAD_FACTOR, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<FailureCause>> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    /**
+     * Utility class.
+     */
+    private ApplicableCauses() {
+    }
+
+    /**
+     * The causes that apply to a build.
+     *
+     * @param build the build.
+     * @param causes all causes of the knowledge base.
+     * @return the applicable causes, in the order of the knowledge base.
+     */
+    public static List<FailureCause> of(Run build, Collection<FailureCause> causes) {
+        boolean folders = isFoldersAvailable();
+        String key = key(build, causes, folders);
+        synchronized (CACHE) {
+            List<FailureCause> subset = CACHE.get(key);
+            if (subset != null) {
+                return subset;
+            }
+        }
+        List<FailureCause> subset = filter(build, causes, folders);
+        synchronized (CACHE) {
+            CACHE.put(key, subset);
+        }
+        return subset;
+    }
+
+    /**
+     * Filters the causes that apply to a build, and compiles the patterns of their indications.
+     *
+     * @param build the build.
+     * @param causes all causes.
+     * @param folders if the folder properties are checked.
+     * @return the applicable causes.
+     */
+    private static List<FailureCause> filter(Run build, Collection<FailureCause> causes, boolean folders) {
+        List<FailureCause> subset = new ArrayList<FailureCause>();
+        for (FailureCause cause : causes) {
+            if (cause.isApplicable(build)
+                    && (!folders || FolderCauseProperty.isApplicable(cause, build.getParent()))) {
+                for (Indication indication : cause.getIndications()) {
+                    try {
+                        indication.getPattern();
+                    } catch (RuntimeException e) {
+                        logger.log(Level.WARNING, "[BFA] Could not compile an indication of " + cause.getName(), e);
+                    }
+                }
+                subset.add(cause);
+            }
+        }
+        return Collections.unmodifiableList(subset);
+    }
+
+    /**
+     * The key of the subset of a build.
+     *
+     * @param build the build.
+     * @param causes all causes.
+     * @param folders if the folder properties are checked.
+     * @return the key.
+     */
+    private static String key(Run build, Collection<FailureCause> causes, boolean folders) {
+        StringBuilder key = new StringBuilder(build.getParent().getFullName());
+        key.append('\n').append(version(causes));
+        if (folders) {
+            key.append('\n').append(FolderCauseProperty.getGeneration());
+        }
+        if (hasLabelExpression(causes) && build instanceof AbstractBuild) {
+            Node node = ((AbstractBuild)build).getBuiltOn();
+            if (node != null) {
+                key.append('\n').append(node.getNodeName());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The version of the causes, which changes when a cause is added, removed or changed in anything that affects
+     * what is found for it or which builds it applies to.
+     *
+     * @param causes the causes.
+     * @return the version.
+     * @see IncrementalRescan#key(FailureCause)
+     */
+    static String version(Collection<FailureCause> causes) {
+        StringBuilder content = new StringBuilder();
+        for (FailureCause cause : causes) {
+            content.append(IncrementalRescan.key(cause)).append('\0').append(ScanPlan.fingerprint(cause))
+                    .append('\0').append(cause.getApplicability()).append('\n');
+        }
+        return ScanPlan.sha256(content.toString());
+    }
+
+    /**
+     * Checks if any cause depends on the node a build ran on.
+     *
+     * @param causes the causes.
+     * @return true if so.
+     */
+    private static boolean hasLabelExpression(Collection<FailureCause> causes) {
+        for (FailureCause cause : causes) {
+            if (cause.getApplicability() != null && cause.getApplicability().getLabelExpression() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the CloudBees Folders plugin is installed, so that {@link FolderCauseProperty} can be used.
+     *
+     * @return true if so.
+     */
+    public static boolean isFoldersAvailable() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        return jenkins != null && jenkins.getPlugin("cloudbees-folder") != null;
+    }
+
+    /**
+     * Clears the cache.
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+}
@@ -30,6 +30,7 @@ import hudson.model.Run;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.LineNumberReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -66,19 +67,7 @@ public class BuildLogFailureReader extends FailureReader {
         BufferedReader reader = null;
         try {
             reader = new BufferedReader(build.getLogReader());
-            List<FailureCause> causes = new ArrayList<FailureCause>(1);
-            FailureCause fc = new FailureCause("somename", "somedescription");
-            causes.add(fc);
-            fc.addIndication(indication);
-            List<FoundFailureCause> foundFailureCauses = FailureReader.scanSingleLinePatterns(causes,
-                                                                                              build,
-                                                                                              reader,
-                                                                                              "log");
-            if (foundFailureCauses.isEmpty()) {
-                return null;
-            } else {
-                return foundFailureCauses.get(0).getIndications().get(0);
-            }
+            return scanOneFile(build, reader, "log");
         } finally {
             if (reader != null) {
                 try {
@@ -89,4 +78,34 @@ public class BuildLogFailureReader extends FailureReader {
             }
         }
     }
+
+    @Override
+    public FoundIndication scan(Run build, LineNumberReader reader, String currentFile) throws IOException {
+        return scanOneFile(build, reader, currentFile);
+    }
+
+    /**
+     * Scans one file line by line for the indication.
+     *
+     * @param build the build we are processing.
+     * @param reader the reader to read from.
+     * @param currentFile the name of the file that is read.
+     * @return a FoundIndication if the pattern is found, null if not.
+     * @throws IOException if problems occur in the reader handling.
+     */
+    private FoundIndication scanOneFile(Run build, BufferedReader reader, String currentFile) throws IOException {
+        List<FailureCause> causes = new ArrayList<FailureCause>(1);
+        FailureCause fc = new FailureCause("somename", "somedescription");
+        causes.add(fc);
+        fc.addIndication(indication);
+        List<FoundFailureCause> foundFailureCauses = FailureReader.scanSingleLinePatterns(causes,
+                                                                                          build,
+                                                                                          reader,
+                                                                                          currentFile);
+        if (foundFailureCauses.isEmpty()) {
+            return null;
+        } else {
+            return foundFailureCauses.get(0).getIndications().get(0);
+        }
+    }
 }
@@ -0,0 +1,337 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import hudson.Util;
+import hudson.model.AbstractBuild;
+import hudson.model.Job;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.model.Run;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The jobs a {@link FailureCause} applies to. Causes that don't apply to a job are not looked for in its builds.
+ *
+ * All given rules must match: the full name of the job must match one of the job name globs, the job must be in the
+ * folder, the build must have run on a node matching the label expression, and the job must be of one of the job
+ * types. Rules that are not given match all jobs.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CauseApplicability implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = Logger.getLogger(CauseApplicability.class.getName());
+
+    private final List<String> jobNames;
+    private final String folder;
+    private final String labelExpression;
+    private final List<String> jobTypes;
+
+    private transient List<Pattern> jobNamePatterns;
+    private transient Label label;
+
+    /**
+     * Standard constructor.
+     *
+     * @param jobNames globs for the full names of the jobs, where * matches within a folder and ** across folders.
+     * @param folder the full name of the folder the jobs must be in.
+     * @param labelExpression the label expression the node the build ran on must match.
+     * @param jobTypes the simple class names of the job types, like FreeStyleProject or WorkflowJob.
+     */
+    @JsonCreator
+    public CauseApplicability(@JsonProperty("jobNames") List<String> jobNames,
+                              @JsonProperty("folder") String folder,
+                              @JsonProperty("labelExpression") String labelExpression,
+                              @JsonProperty("jobTypes") List<String> jobTypes) {
+        this.jobNames = copy(jobNames);
+        this.folder = Util.fixEmptyAndTrim(folder);
+        this.labelExpression = Util.fixEmptyAndTrim(labelExpression);
+        this.jobTypes = copy(jobTypes);
+    }
+
+    /**
+     * Creates the applicability from the values of a form.
+     *
+     * @param jobNames space or comma separated job name globs.
+     * @param folder the full name of the folder.
+     * @param labelExpression the label expression.
+     * @param jobTypes space or comma separated job type names.
+     * @return the applicability, or null if no rule is given.
+     */
+    public static CauseApplicability fromForm(String jobNames, String folder, String labelExpression,
+                                              String jobTypes) {
+        CauseApplicability applicability = new CauseApplicability(tokenize(jobNames), folder, labelExpression,
+                tokenize(jobTypes));
+        if (applicability.isEmpty()) {
+            return null;
+        }
+        return applicability;
+    }
+
+    /**
+     * Splits a form value on spaces and commas.
+     *
+     * @param value the value.
+     * @return the tokens.
+     */
+    private static List<String> tokenize(String value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(Util.tokenize(value, " \t\n\r\f,"));
+    }
+
+    /**
+     * Copies a list, dropping empty values.
+     *
+     * @param values the values, may be null.
+     * @return the copy.
+     */
+    private static List<String> copy(List<String> values) {
+        List<String> result = new ArrayList<String>();
+        if (values != null) {
+            for (String value : values) {
+                String trimmed = Util.fixEmptyAndTrim(value);
+                if (trimmed != null) {
+                    result.add(trimmed);
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Checks if the cause applies to a build.
+     *
+     * @param build the build.
+     * @return true if all rules match.
+     */
+    public boolean isApplicable(Run build) {
+        Job job = build.getParent();
+        if (!isApplicable(job)) {
+            return false;
+        }
+        if (labelExpression != null && build instanceof AbstractBuild) {
+            Node node = ((AbstractBuild)build).getBuiltOn();
+            Label parsed = getLabel();
+            if (node != null && parsed != null) {
+                return parsed.matches(node);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the cause applies to a job, without the label expression which depends on the build.
+     *
+     * @param job the job.
+     * @return true if the job name, folder and job type rules match.
+     */
+    public boolean isApplicable(Job job) {
+        String fullName = job.getFullName();
+        if (folder != null && !fullName.startsWith(folder + "/")) {
+            return false;
+        }
+        if (!jobTypes.isEmpty() && !matchesJobType(job)) {
+            return false;
+        }
+        if (!jobNames.isEmpty()) {
+            for (Pattern pattern : getJobNamePatterns()) {
+                if (pattern.matcher(fullName).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the job is of one of the job types, or a subclass of one.
+     *
+     * @param job the job.
+     * @return true if so.
+     */
+    private boolean matchesJobType(Job job) {
+        for (Class<?> type = job.getClass(); type != null; type = type.getSuperclass()) {
+            for (String jobType : jobTypes) {
+                if (jobType.equalsIgnoreCase(type.getSimpleName()) || jobType.equals(type.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The compiled job name globs.
+     *
+     * @return the patterns.
+     */
+    private List<Pattern> getJobNamePatterns() {
+        List<Pattern> patterns = jobNamePatterns;
+        if (patterns == null) {
+            patterns = new ArrayList<Pattern>(jobNames.size());
+            for (String glob : jobNames) {
+                patterns.add(toPattern(glob));
+            }
+            jobNamePatterns = patterns;
+        }
+        return patterns;
+    }
+
+    /**
+     * The parsed label expression.
+     *
+     * @return the label, or null if the expression is invalid.
+     */
+    private Label getLabel() {
+        if (label == null) {
+            try {
+                label = Label.parseExpression(labelExpression);
+            } catch (IllegalArgumentException e) {
+                logger.log(Level.WARNING, "[BFA] Invalid label expression " + labelExpression, e);
+            }
+        }
+        return label;
+    }
+
+    /**
+     * Converts a job name glob to a pattern. A * matches any characters but /, a ** also matches / and a ? matches a
+     * single character.
+     *
+     * @param glob the glob.
+     * @return the pattern.
+     */
+    static Pattern toPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i);
+            if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '*') {
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+            i++;
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Checks if no rule is given, in which case the cause applies to all jobs.
+     *
+     * @return true if so.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return jobNames.isEmpty() && folder == null && labelExpression == null && jobTypes.isEmpty();
+    }
+
+    /**
+     * The globs for the full names of the jobs.
+     *
+     * @return the globs, empty for all jobs.
+     */
+    @JsonProperty("jobNames")
+    public List<String> getJobNames() {
+        return jobNames;
+    }
+
+    /**
+     * The globs for the full names of the jobs, for the form.
+     *
+     * @return the space separated globs.
+     */
+    @JsonIgnore
+    public String getJobNamesAsString() {
+        return Util.join(jobNames, " ");
+    }
+
+    /**
+     * The full name of the folder the jobs must be in.
+     *
+     * @return the folder, or null for all folders.
+     */
+    @JsonProperty("folder")
+    public String getFolder() {
+        return folder;
+    }
+
+    /**
+     * The label expression the node the build ran on must match. Only applies to builds that run on one node,
+     * not to Pipelines.
+     *
+     * @return the expression, or null for all nodes.
+     */
+    @JsonProperty("labelExpression")
+    public String getLabelExpression() {
+        return labelExpression;
+    }
+
+    /**
+     * The simple class names of the job types.
+     *
+     * @return the names, empty for all types.
+     */
+    @JsonProperty("jobTypes")
+    public List<String> getJobTypes() {
+        return jobTypes;
+    }
+
+    /**
+     * The simple class names of the job types, for the form.
+     *
+     * @return the space separated names.
+     */
+    @JsonIgnore
+    public String getJobTypesAsString() {
+        return Util.join(jobTypes, " ");
+    }
+
+    @Override
+    public String toString() {
+        return "CauseApplicability{jobNames=" + jobNames + ", folder=" + folder + ", labelExpression="
+                + labelExpression + ", jobTypes=" + jobTypes + "}";
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders the evaluation of causes by their {@link FailureCause#getPriority() priority}, and resolves which of the
+ * found causes are reported.
+ *
+ * All causes are evaluated in one pass over the log, the highest priority first, see {@link LiveCauses}. Once a
+ * {@link FailureCause#isTerminal() terminal} cause is found, causes with a lower priority are no longer looked for,
+ * and neither are causes with a lower priority in the {@link FailureCause#getExclusivityGroup() exclusivity group}
+ * of a found cause.
+ */
+public final class CauseEvaluationOrder {
+
+    private static final Comparator<FailureCause> BY_PRIORITY = new Comparator<FailureCause>() {
+        @Override
+        public int compare(FailureCause a, FailureCause b) {
+            return Integer.compare(b.getPriority(), a.getPriority());
+        }
+    };
+
+    /**
+     * Utility class.
+     */
+    private CauseEvaluationOrder() {
+    }
+
+    /**
+     * Checks if any cause has a priority, an exclusivity group or is terminal, i.e. if evaluating the causes in
+     * order could skip any of them.
+     *
+     * @param causes the causes.
+     * @return true if so.
+     */
+    public static boolean isOrdered(Collection<FailureCause> causes) {
+        for (FailureCause cause : causes) {
+            if (cause.getPriority() != 0 || cause.getExclusivityGroup() != null || cause.isTerminal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders causes by priority, the highest first. The sort is stable, so causes of the same priority keep their
+     * order.
+     *
+     * @param causes the causes.
+     * @return the ordered causes.
+     */
+    public static List<FailureCause> byPriority(Collection<FailureCause> causes) {
+        List<FailureCause> sorted = new ArrayList<FailureCause>(causes);
+        Collections.sort(sorted, BY_PRIORITY);
+        return sorted;
+    }
+
+    /**
+     * Resolves which of the found causes are reported. Causes with a lower priority than a found terminal cause are
+     * dropped, and of each exclusivity group only the cause with the highest priority is kept.
+     *
+     * @param causes the causes that were evaluated.
+     * @param found the found causes.
+     * @return the found causes to report, in their original order.
+     */
+    public static List<FoundFailureCause> resolve(Collection<FailureCause> causes, List<FoundFailureCause> found) {
+        List<FailureCause> foundCauses = new ArrayList<FailureCause>(found.size());
+        Integer terminalPriority = null;
+        for (FoundFailureCause foundCause : found) {
+            FailureCause cause = findCause(causes, foundCause);
+            foundCauses.add(cause);
+            if (cause != null && cause.isTerminal()
+                    && (terminalPriority == null || cause.getPriority() > terminalPriority)) {
+                terminalPriority = cause.getPriority();
+            }
+        }
+        boolean[] keep = new boolean[found.size()];
+        Set<String> groups = new HashSet<String>();
+        for (int index : indexesByPriority(foundCauses)) {
+            FailureCause cause = foundCauses.get(index);
+            if (cause == null) {
+                // not from the evaluated causes, nothing to resolve
+                keep[index] = true;
+            } else if (terminalPriority == null || cause.getPriority() >= terminalPriority) {
+                String group = cause.getExclusivityGroup();
+                keep[index] = group == null || groups.add(group);
+            }
+        }
+        List<FoundFailureCause> resolved = new ArrayList<FoundFailureCause>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            if (keep[i]) {
+                resolved.add(found.get(i));
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * The indexes of causes, ordered by priority, highest first.
+     *
+     * @param causes the causes, possibly with nulls which are placed last.
+     * @return the indexes.
+     */
+    private static List<Integer> indexesByPriority(final List<FailureCause> causes) {
+        List<Integer> order = new ArrayList<Integer>(causes.size());
+        for (int i = 0; i < causes.size(); i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                FailureCause causeA = causes.get(a);
+                FailureCause causeB = causes.get(b);
+                if (causeA == null || causeB == null) {
+                    return Boolean.compare(causeA == null, causeB == null);
+                }
+                return BY_PRIORITY.compare(causeA, causeB);
+            }
+        });
+        return order;
+    }
+
+    /**
+     * Finds the cause a found cause was created from.
+     *
+     * @param causes the causes.
+     * @param foundCause the found cause.
+     * @return the cause, or null if not found.
+     */
+    public static FailureCause findCause(Collection<FailureCause> causes, FoundFailureCause foundCause) {
+        return findCause(causes, foundCause.getId(), foundCause.getName());
+    }
+
+    /**
+     * Finds a cause by its id, or by its name if it has no id.
+     *
+     * @param causes the causes.
+     * @param id the id.
+     * @param name the name.
+     * @return the cause, or null if not found.
+     */
+    public static FailureCause findCause(Collection<FailureCause> causes, String id, String name) {
+        for (FailureCause cause : causes) {
+            if (cause.getId() != null) {
+                if (cause.getId().equals(id)) {
+                    return cause;
+                }
+            } else if (cause.getName().equals(name)) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The causes that are still looked for during a scan. Found causes are reported while the log is read, and
+     * the causes that {@link #resolve(Collection, List)} would drop because of them are no longer looked for.
+     *
+     * Shared by the threads scanning the same log, so safe for concurrent use.
+     */
+    public static final class LiveCauses {
+
+        private final Collection<FailureCause> causes;
+        private final Set<FailureCause> dropped = Collections.newSetFromMap(
+                new ConcurrentHashMap<FailureCause, Boolean>());
+        private final Set<FailureCause> found = new HashSet<FailureCause>();
+
+        /**
+         * Standard constructor.
+         *
+         * @param causes the causes looked for.
+         */
+        public LiveCauses(Collection<FailureCause> causes) {
+            this.causes = causes;
+        }
+
+        /**
+         * Checks if a cause is still looked for.
+         *
+         * @param cause the cause.
+         * @return false if a found cause supersedes it.
+         */
+        public boolean isLive(FailureCause cause) {
+            return !dropped.contains(cause);
+        }
+
+        /**
+         * Reports a found cause. If it is terminal, the causes with a lower priority are dropped, and if it is in an
+         * exclusivity group, the causes of the group with a lower priority are dropped.
+         *
+         * @param cause the found cause.
+         */
+        public synchronized void found(FailureCause cause) {
+            if (!found.add(cause) || (!cause.isTerminal() && cause.getExclusivityGroup() == null)) {
+                return;
+            }
+            for (FailureCause other : causes) {
+                if (other.getPriority() < cause.getPriority()
+                        && (cause.isTerminal() || cause.getExclusivityGroup().equals(other.getExclusivityGroup()))) {
+                    dropped.add(other);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.CauseRevisions;
+import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Run;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link FoundFailureCause} as stored with {@link ResultStorageMode#COMPACT}: the id and revision of the cause and
+ * the positions of the indications. Everything else is resolved when the causes of the build are first asked for,
+ * from the {@link CauseRevisions} shared by all builds and, for the matching text, from the build log.
+ *
+ * Causes that are not in the knowledge base, like failed tests, are stored in full.
+ */
+public class CompactFoundCause {
+
+    private static final Logger logger = Logger.getLogger(CompactFoundCause.class.getName());
+    private static final String LOG_FILE_NAME = "log";
+
+    private String id;
+    private String revision;
+    private String description;
+    private List<Position> indications;
+    private FoundFailureCause full;
+
+    /**
+     * Registers short element names for the compact causes in build.xml.
+     */
+    @Initializer(before = InitMilestone.PLUGINS_STARTED)
+    public static void registerAliases() {
+        Run.XSTREAM2.alias("bfa-found-cause", CompactFoundCause.class);
+        Run.XSTREAM2.alias("bfa-found-indication", Position.class);
+    }
+
+    /**
+     * Compacts the found causes of a build.
+     *
+     * @param build the build.
+     * @param found the found causes.
+     * @param causes the causes the build was scanned for.
+     * @return the compact causes.
+     */
+    public static List<CompactFoundCause> of(Run build, List<FoundFailureCause> found,
+                                             Collection<FailureCause> causes) {
+        return of(build, found, causes, CauseRevisions.getInstance());
+    }
+
+    /**
+     * Compacts the found causes of a build. The matching text of an indication is only left out if it is the line
+     * at its offset in the log, which is read back in one pass to check that.
+     *
+     * @param build the build.
+     * @param found the found causes.
+     * @param causes the causes the build was scanned for.
+     * @param revisions where to store the revisions of the causes.
+     * @return the compact causes.
+     */
+    static List<CompactFoundCause> of(Run build, List<FoundFailureCause> found, Collection<FailureCause> causes,
+                                      CauseRevisions revisions) {
+        Map<String, FailureCause> byId = new HashMap<String, FailureCause>();
+        for (FailureCause cause : causes) {
+            if (cause.getId() != null) {
+                byId.put(cause.getId(), cause);
+            }
+        }
+        Map<Long, String> logLines = readLines(build, offsetsOf(found, byId));
+        List<CompactFoundCause> compact = new ArrayList<CompactFoundCause>(found.size());
+        for (FoundFailureCause foundCause : found) {
+            CompactFoundCause compactCause = new CompactFoundCause();
+            FailureCause cause = null;
+            if (foundCause.getId() != null) {
+                cause = byId.get(foundCause.getId());
+            }
+            if (cause == null) {
+                compactCause.full = foundCause;
+            } else {
+                compactCause.id = cause.getId();
+                compactCause.revision = revisions.record(cause);
+                // only when placeholders were replaced with matched text
+                if (foundCause.getDescription() != null && !foundCause.getDescription().equals(cause.getDescription())) {
+                    compactCause.description = foundCause.getDescription();
+                }
+                compactCause.indications = new ArrayList<Position>();
+                for (FoundIndication indication : foundCause.getIndications()) {
+                    compactCause.indications.add(Position.of(indication, cause, logLines));
+                }
+            }
+            compact.add(compactCause);
+        }
+        return compact;
+    }
+
+    /**
+     * Resolves compact causes.
+     *
+     * @param compact the compact causes.
+     * @param build the build they were found in.
+     * @return the found causes.
+     */
+    public static List<FoundFailureCause> resolve(List<CompactFoundCause> compact, Run build) {
+        return resolve(compact, build, CauseRevisions.getInstance());
+    }
+
+    /**
+     * Resolves compact causes. The matching text left out of the indications is read from the log in one pass.
+     *
+     * @param compact the compact causes.
+     * @param build the build they were found in.
+     * @param revisions the stored revisions of the causes.
+     * @return the found causes.
+     */
+    static List<FoundFailureCause> resolve(List<CompactFoundCause> compact, Run build, CauseRevisions revisions) {
+        List<Long> offsets = new ArrayList<Long>();
+        for (CompactFoundCause compactCause : compact) {
+            if (compactCause.indications != null) {
+                for (Position position : compactCause.indications) {
+                    if (position.text == null && position.offset >= 0) {
+                        offsets.add(position.offset);
+                    }
+                }
+            }
+        }
+        Map<Long, String> logLines = readLines(build, offsets);
+        List<FoundFailureCause> found = new ArrayList<FoundFailureCause>(compact.size());
+        for (CompactFoundCause compactCause : compact) {
+            found.add(compactCause.resolve(build, revisions, logLines));
+        }
+        return found;
+    }
+
+    /**
+     * The offsets of the indications of found causes that might be read back from the log.
+     *
+     * @param found the found causes.
+     * @param byId the causes of the knowledge base, by id.
+     * @return the offsets.
+     */
+    private static List<Long> offsetsOf(List<FoundFailureCause> found, Map<String, FailureCause> byId) {
+        List<Long> offsets = new ArrayList<Long>();
+        for (FoundFailureCause foundCause : found) {
+            FailureCause cause = null;
+            if (foundCause.getId() != null) {
+                cause = byId.get(foundCause.getId());
+            }
+            if (cause != null) {
+                for (FoundIndication indication : foundCause.getIndications()) {
+                    if (Position.isReadableFromLog(indication, cause)) {
+                        offsets.add(indication.getMatchingOffset());
+                    }
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Reads the lines at offsets of the log of a build.
+     *
+     * @param build the build.
+     * @param offsets the offsets.
+     * @return the lines by offset, empty if the log can't be read.
+     */
+    private static Map<Long, String> readLines(Run build, Collection<Long> offsets) {
+        if (build == null || offsets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return LogLineIndex.readLinesAt(build, offsets);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not read the matching lines of " + build.getFullDisplayName(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Resolves this cause from its stored revision, or from the knowledge base if the revision is gone.
+     *
+     * @param build the build it was found in.
+     * @param revisions the stored revisions of the causes.
+     * @param logLines the lines at the offsets of the indications stored without text.
+     * @return the found cause.
+     */
+    FoundFailureCause resolve(Run build, CauseRevisions revisions, Map<Long, String> logLines) {
+        if (full != null) {
+            return full;
+        }
+        CauseRevisions.Revision stored = revisions.get(revision);
+        if (stored == null) {
+            stored = current();
+        }
+        String name = id;
+        String causeDescription = description;
+        List<String> categories = null;
+        List<String> patterns = null;
+        if (stored != null) {
+            name = stored.getName();
+            categories = stored.getCategories();
+            patterns = stored.getPatterns();
+            if (causeDescription == null) {
+                causeDescription = stored.getDescription();
+            }
+        }
+        List<FoundIndication> foundIndications = new ArrayList<FoundIndication>();
+        if (indications != null) {
+            for (Position position : indications) {
+                foundIndications.add(position.resolve(build, patterns, logLines));
+            }
+        }
+        return new FoundFailureCause(id, name, CauseRevisions.intern(causeDescription), categories,
+                foundIndications);
+    }
+
+    /**
+     * The current revision of this cause in the knowledge base.
+     *
+     * @return the revision, or null if the cause was removed.
+     */
+    private CauseRevisions.Revision current() {
+        try {
+            FailureCause cause = PluginImpl.getInstance().getKnowledgeBase().getCause(id);
+            if (cause != null) {
+                return CauseRevisions.Revision.of(cause);
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "[BFA] Could not get cause " + id + " from the knowledge base", e);
+        }
+        return null;
+    }
+
+    /**
+     * The id of the cause.
+     *
+     * @return the id, or null if stored in full.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * The revision of the cause.
+     *
+     * @return the revision, or null if stored in full.
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * The position of a found indication, and what else can't be resolved from the cause revision or the log.
+     */
+    public static class Position {
+        private int index = -1;
+        private String pattern;
+        private String file;
+        private int line;
+        private long offset = -1;
+        private String text;
+        private String stage;
+        private String step;
+
+        /**
+         * Compacts a found indication.
+         *
+         * @param indication the found indication.
+         * @param cause the cause it was found for.
+         * @param logLines the lines of the log at the offsets of the indications.
+         * @return the position.
+         */
+        static Position of(FoundIndication indication, FailureCause cause, Map<Long, String> logLines) {
+            Position position = new Position();
+            List<Indication> causeIndications = cause.getIndications();
+            for (int i = 0; i < causeIndications.size() && position.index < 0; i++) {
+                if (causeIndications.get(i).getPattern().pattern().equals(indication.getPattern())) {
+                    position.index = i;
+                }
+            }
+            if (position.index < 0) {
+                position.pattern = indication.getPattern();
+            }
+            if (!LOG_FILE_NAME.equals(indication.getMatchingFile())) {
+                position.file = indication.getMatchingFile();
+            }
+            position.line = indication.getMatchingLine();
+            position.offset = indication.getMatchingOffset();
+            position.stage = indication.getStage();
+            position.step = indication.getStep();
+            String matchingString = indication.getMatchingString();
+            if (position.index < 0 || !isReadableFromLog(indication, cause)
+                    || matchingString == null || !matchingString.equals(logLines.get(position.offset))) {
+                position.text = matchingString;
+            }
+            return position;
+        }
+
+        /**
+         * Checks if the matching text of an indication might be its whole line at its offset in the log, and so
+         * might be left out of the position.
+         *
+         * @param indication the found indication.
+         * @param cause the cause it was found for.
+         * @return true if so.
+         */
+        static boolean isReadableFromLog(FoundIndication indication, FailureCause cause) {
+            String matchingString = indication.getMatchingString();
+            if (indication.getMatchingOffset() < 0 || indication.getStep() != null || matchingString == null
+                    || matchingString.indexOf('\n') >= 0) {
+                return false;
+            }
+            for (Indication causeIndication : cause.getIndications()) {
+                if (causeIndication.getPattern().pattern().equals(indication.getPattern())) {
+                    return !(causeIndication instanceof MultilineBuildLogIndication);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Resolves the found indication.
+         *
+         * @param build the build it was found in.
+         * @param patterns the patterns of the indications of the cause revision, or null if unknown.
+         * @param logLines the lines at the offsets of the indications stored without text.
+         * @return the found indication, without matching text if it could not be read from the log.
+         */
+        FoundIndication resolve(Run build, List<String> patterns, Map<Long, String> logLines) {
+            String resolvedPattern = pattern;
+            if (resolvedPattern == null && patterns != null && index >= 0 && index < patterns.size()) {
+                resolvedPattern = patterns.get(index);
+            }
+            String resolvedFile = file;
+            if (resolvedFile == null) {
+                resolvedFile = LOG_FILE_NAME;
+            }
+            String resolvedText = text;
+            if (resolvedText == null && offset >= 0) {
+                resolvedText = logLines.get(offset);
+            }
+            FoundIndication indication = new FoundIndication(build, resolvedPattern, resolvedFile, resolvedText, line);
+            if (offset >= 0) {
+                indication.setMatchingOffset(offset);
+            }
+            indication.setStage(CauseRevisions.intern(stage));
+            indication.setStep(CauseRevisions.intern(step));
+            return indication;
+        }
+    }
+}
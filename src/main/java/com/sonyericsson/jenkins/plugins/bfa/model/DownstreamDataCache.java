@@ -0,0 +1,446 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import hudson.Extension;
+import hudson.model.Cause;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import jenkins.model.Jenkins;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the {@link FailureCauseDisplayData} trees built by {@link FailureCauseBuildAction#getFailureCauseDisplayData()}
+ * so that the downstream builds of a build are not looked up and loaded again on every page view. The tree of a
+ * downstream build is kept once and shared by the trees of all its upstream builds.
+ *
+ * The downstream builds found depend on what the user may read, so the trees are kept per user. They are only
+ * softly referenced, so that they don't keep the found causes of {@link ResultStorageMode#SIDECAR} builds in memory.
+ *
+ * A tree is dropped together with the trees of all builds it is part of when its build starts, completes, is
+ * re-scanned or deleted, and when a build it triggered starts or completes.
+ */
+public final class DownstreamDataCache {
+
+    /**
+     * The maximum number of trees kept.
+     */
+    static final int SIZE = 1000;
+
+    /**
+     * The number of dropped builds remembered for each kept tree, to tell if a tree being built got stale.
+     */
+    private static final int DROPPED_PER_TREE = 10;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static DownstreamDataCache instance;
+
+    private final int size;
+    private final Map<Key, Entry> trees;
+    private final Map<String, Set<Key>> keysById = new HashMap<String, Set<Key>>();
+    private final Map<String, Set<Key>> parents = new HashMap<String, Set<Key>>();
+    private final Map<String, Long> dropped;
+    private long clock;
+    private long forgotten;
+
+    /**
+     * Standard constructor.
+     *
+     * @param size the maximum number of trees kept.
+     */
+    DownstreamDataCache(int size) {
+        this.size = size;
+        this.trees = new LinkedHashMap<Key, Entry>(size, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > DownstreamDataCache.this.size) {
+                    unlink(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        final int maxDropped = size * DROPPED_PER_TREE;
+        this.dropped = new LinkedHashMap<String, Long>(maxDropped, LOAD_FACTOR, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > maxDropped) {
+                    // builds forgotten about are taken as dropped then
+                    forgotten = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized DownstreamDataCache getInstance() {
+        if (instance == null) {
+            instance = new DownstreamDataCache(SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * The current time of the cache, to pass to {@link #put(String, int, FailureCauseDisplayData, Collection, long)}
+     * for a tree that was started to be built now.
+     *
+     * @return the generation.
+     */
+    public synchronized long getGeneration() {
+        return clock;
+    }
+
+    /**
+     * Gets the tree of a build built for the current user.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     * @param depth the number of levels of downstream builds needed.
+     * @return the tree, or null if none with at least that many levels is kept.
+     */
+    public FailureCauseDisplayData get(String id, int depth) {
+        return get(id, currentUser(), depth);
+    }
+
+    /**
+     * Gets the tree of a build.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     * @param user the name of the user it was built for.
+     * @param depth the number of levels of downstream builds needed.
+     * @return the tree, or null if none with at least that many levels is kept.
+     */
+    synchronized FailureCauseDisplayData get(String id, String user, int depth) {
+        Key key = new Key(id, user);
+        Entry entry = trees.get(key);
+        if (entry == null) {
+            return null;
+        }
+        FailureCauseDisplayData data = entry.data.get();
+        if (data == null) {
+            // collected
+            trees.remove(key);
+            unlink(key, entry);
+            return null;
+        }
+        if (entry.depth >= depth) {
+            return data;
+        }
+        return null;
+    }
+
+    /**
+     * Keeps the tree of a build built for the current user, unless it or one of its downstream builds was dropped
+     * since it was started to be built.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     * @param depth the number of levels of downstream builds in the tree.
+     * @param data the tree.
+     * @param children the ids of the downstream builds of the build.
+     * @param startGeneration the {@link #getGeneration()} when the tree was started to be built.
+     */
+    public void put(String id, int depth, FailureCauseDisplayData data, Collection<String> children,
+                    long startGeneration) {
+        put(id, currentUser(), depth, data, children, startGeneration);
+    }
+
+    /**
+     * Keeps the tree of a build, unless it or one of its downstream builds was dropped since it was started to be
+     * built. A tree that is not kept counts as dropped, so the trees of its upstream builds are not kept either.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     * @param user the name of the user it was built for.
+     * @param depth the number of levels of downstream builds in the tree.
+     * @param data the tree.
+     * @param children the ids of the downstream builds of the build.
+     * @param startGeneration the {@link #getGeneration()} when the tree was started to be built.
+     */
+    synchronized void put(String id, String user, int depth, FailureCauseDisplayData data,
+                          Collection<String> children, long startGeneration) {
+        boolean stale = droppedAt(id) > startGeneration;
+        for (String child : children) {
+            stale = stale || droppedAt(child) > startGeneration;
+        }
+        if (stale) {
+            clock++;
+            markDropped(id);
+            return;
+        }
+        Key key = new Key(id, user);
+        Entry previous = trees.remove(key);
+        if (previous != null) {
+            unlink(key, previous);
+        }
+        Entry entry = new Entry(depth, data, new HashSet<String>(children));
+        for (String child : entry.children) {
+            Set<Key> childParents = parents.get(child);
+            if (childParents == null) {
+                childParents = new HashSet<Key>();
+                parents.put(child, childParents);
+            }
+            childParents.add(key);
+        }
+        Set<Key> keys = keysById.get(id);
+        if (keys == null) {
+            keys = new HashSet<Key>();
+            keysById.put(id, keys);
+        }
+        keys.add(key);
+        trees.put(key, entry);
+    }
+
+    /**
+     * Remembers that a build was dropped now.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     */
+    private void markDropped(String id) {
+        // the most recently dropped builds are forgotten last
+        dropped.remove(id);
+        dropped.put(id, clock);
+    }
+
+    /**
+     * When a build was last dropped.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     * @return the {@link #getGeneration()} after it was dropped.
+     */
+    private long droppedAt(String id) {
+        Long at = dropped.get(id);
+        if (at == null) {
+            return forgotten;
+        }
+        return at;
+    }
+
+    /**
+     * Drops the trees of a build and the trees of all builds it is part of, together with their
+     * {@link RenderedPayloadCache} payloads.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     */
+    public void invalidate(String id) {
+        RenderedPayloadCache.getInstance().invalidate(drop(id));
+    }
+
+    /**
+     * Drops the trees of a build and the trees of all builds it is part of, for all users.
+     *
+     * @param id the {@link Run#getExternalizableId()} of the build.
+     * @return the ids of the builds.
+     */
+    private synchronized Set<String> drop(String id) {
+        clock++;
+        Deque<String> queue = new ArrayDeque<String>();
+        Set<String> seen = new HashSet<String>();
+        queue.add(id);
+        while (!queue.isEmpty()) {
+            String current = queue.remove();
+            if (!seen.add(current)) {
+                continue;
+            }
+            markDropped(current);
+            Set<Key> keys = keysById.get(current);
+            if (keys != null) {
+                for (Key key : new ArrayList<Key>(keys)) {
+                    Entry entry = trees.remove(key);
+                    if (entry != null) {
+                        unlink(key, entry);
+                    }
+                }
+            }
+            Set<Key> currentParents = parents.remove(current);
+            if (currentParents != null) {
+                for (Key parent : currentParents) {
+                    queue.add(parent.id);
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Drops the tree of a build, the trees of all builds it is part of and the trees of the builds that triggered
+     * it.
+     *
+     * @param build the build.
+     */
+    public void invalidate(Run build) {
+        invalidate(build.getExternalizableId());
+        for (Object cause : build.getCauses()) {
+            if (cause instanceof Cause.UpstreamCause) {
+                Cause.UpstreamCause upstream = (Cause.UpstreamCause)cause;
+                invalidate(upstream.getUpstreamProject() + "#" + upstream.getUpstreamBuild());
+            }
+        }
+    }
+
+    /**
+     * The number of trees kept.
+     *
+     * @return the number of trees.
+     */
+    synchronized int size() {
+        return trees.size();
+    }
+
+    /**
+     * The name of the current user, whose permissions decide which downstream builds are found.
+     *
+     * @return the name.
+     */
+    private static String currentUser() {
+        return Jenkins.getAuthentication2().getName();
+    }
+
+    /**
+     * Removes the edges from the downstream builds of a dropped tree.
+     *
+     * @param key the key of the tree.
+     * @param entry the dropped tree.
+     */
+    private void unlink(Key key, Entry entry) {
+        for (String child : entry.children) {
+            Set<Key> childParents = parents.get(child);
+            if (childParents != null) {
+                childParents.remove(key);
+                if (childParents.isEmpty()) {
+                    parents.remove(child);
+                }
+            }
+        }
+        Set<Key> keys = keysById.get(key.id);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysById.remove(key.id);
+            }
+        }
+    }
+
+    /**
+     * The build and user of a kept tree.
+     */
+    private static final class Key {
+        private final String id;
+        private final String user;
+
+        /**
+         * Standard constructor.
+         *
+         * @param id the {@link Run#getExternalizableId()} of the build.
+         * @param user the name of the user.
+         */
+        private Key(String id, String user) {
+            this.id = id;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return id.equals(other.id) && user.equals(other.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, user);
+        }
+    }
+
+    /**
+     * A kept tree.
+     */
+    private static final class Entry {
+        private final int depth;
+        private final SoftReference<FailureCauseDisplayData> data;
+        private final Set<String> children;
+
+        /**
+         * Standard constructor.
+         *
+         * @param depth the number of levels of downstream builds in the tree.
+         * @param data the tree.
+         * @param children the ids of the downstream builds.
+         */
+        private Entry(int depth, FailureCauseDisplayData data, Set<String> children) {
+            this.depth = depth;
+            this.data = new SoftReference<FailureCauseDisplayData>(data);
+            this.children = children;
+        }
+    }
+
+    /**
+     * Drops the kept trees that changing builds are part of.
+     */
+    @Extension
+    public static class InvalidationListener extends RunListener<Run> {
+
+        @Override
+        public void onStarted(Run run, TaskListener listener) {
+            getInstance().invalidate(run);
+        }
+
+        @Override
+        public void onCompleted(Run run, TaskListener listener) {
+            getInstance().invalidate(run);
+        }
+
+        @Override
+        public void onFinalized(Run run) {
+            getInstance().invalidate(run);
+        }
+
+        @Override
+        public void onDeleted(Run run) {
+            getInstance().invalidate(run);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.sonyericsson.jenkins.plugins.bfa.CauseManagement;
 import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
@@ -41,6 +42,7 @@ import hudson.model.Descriptor;
 import hudson.model.Failure;
 import hudson.model.Hudson;
 import hudson.model.Job;
+import hudson.model.Run;
 import hudson.model.User;
 import hudson.util.FormValidation;
 import jenkins.model.Jenkins;
@@ -79,6 +81,10 @@ public class FailureCause implements Serializable, Action, Describable<FailureCa
     private List<String> categories;
     private List<Indication> indications;
     private List<FailureCauseModification> modifications;
+    private Integer priority;
+    private String exclusivityGroup;
+    private Boolean terminal;
+    private CauseApplicability applicability;
 
     /**
      * Standard data bound constructor.
@@ -286,6 +292,12 @@ public class FailureCause implements Serializable, Action, Describable<FailureCa
         this.description = newDescription;
         this.comment = newComment;
         this.indications = newIndications;
+        setPriority(form.optInt("priority", 0));
+        setExclusivityGroup(form.optString("exclusivityGroup", null));
+        setTerminal(form.optBoolean("terminal", false));
+        setApplicability(CauseApplicability.fromForm(form.optString("applicableJobNames", null),
+                form.optString("applicableFolder", null), form.optString("applicableLabelExpression", null),
+                form.optString("applicableJobTypes", null)));
 
         String user = null;
         User current = User.current();
@@ -557,6 +569,116 @@ public class FailureCause implements Serializable, Action, Describable<FailureCa
         return indications;
     }
 
+    /**
+     * The priority of this cause. Causes with a higher priority are evaluated first, and a {@link #isTerminal()
+     * terminal} cause that is found stops the evaluation of causes with a lower priority.
+     *
+     * @return the priority, 0 by default.
+     * @see CauseEvaluationOrder
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public int getPriority() {
+        if (priority == null) {
+            return 0;
+        }
+        return priority;
+    }
+
+    /**
+     * Sets the priority of this cause.
+     *
+     * @param priority the priority.
+     */
+    public void setPriority(int priority) {
+        if (priority == 0) {
+            this.priority = null;
+        } else {
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * The exclusivity group of this cause. Only one cause of a group is reported for a build, the one with the
+     * highest priority.
+     *
+     * @return the name of the group, or null if the cause is not in a group.
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public String getExclusivityGroup() {
+        return exclusivityGroup;
+    }
+
+    /**
+     * Sets the exclusivity group of this cause.
+     *
+     * @param exclusivityGroup the name of the group, or null.
+     */
+    public void setExclusivityGroup(String exclusivityGroup) {
+        this.exclusivityGroup = Util.fixEmptyAndTrim(exclusivityGroup);
+    }
+
+    /**
+     * If this cause explains the failure on its own when found, like an agent going offline, so that causes with a
+     * lower priority or in the same exclusivity group are not evaluated.
+     *
+     * @return true if so.
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isTerminal() {
+        if (terminal == null) {
+            return false;
+        } else {
+            return terminal;
+        }
+    }
+
+    /**
+     * Sets if this cause explains the failure on its own when found.
+     *
+     * @param terminal true if so.
+     */
+    public void setTerminal(boolean terminal) {
+        if (terminal) {
+            this.terminal = Boolean.TRUE;
+        } else {
+            this.terminal = null;
+        }
+    }
+
+    /**
+     * The jobs this cause applies to. The cause is not looked for in builds of other jobs.
+     *
+     * @return the applicability, or null if the cause applies to all jobs.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public CauseApplicability getApplicability() {
+        return applicability;
+    }
+
+    /**
+     * Sets the jobs this cause applies to.
+     *
+     * @param applicability the applicability, or null for all jobs.
+     */
+    public void setApplicability(CauseApplicability applicability) {
+        if (applicability == null || applicability.isEmpty()) {
+            this.applicability = null;
+        } else {
+            this.applicability = applicability;
+        }
+    }
+
+    /**
+     * Checks if this cause applies to a build.
+     *
+     * @param build the build.
+     * @return true if so.
+     * @see #getApplicability()
+     */
+    public boolean isApplicable(Run build) {
+        return applicability == null || applicability.isApplicable(build);
+    }
+
     //CS IGNORE JavadocMethod FOR NEXT 8 LINES. REASON: The exception can be thrown.
 
     /**
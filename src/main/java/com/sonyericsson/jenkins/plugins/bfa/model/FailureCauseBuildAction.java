@@ -27,18 +27,25 @@ package com.sonyericsson.jenkins.plugins.bfa.model;
 
 import com.sonyericsson.jenkins.plugins.bfa.Messages;
 import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
-import com.sonyericsson.jenkins.plugins.bfa.model.dbf.DownstreamBuildFinder;
+import com.sonyericsson.jenkins.plugins.bfa.model.dbf.DownstreamResolver;
 import hudson.matrix.MatrixRun;
 import hudson.model.BuildBadgeAction;
+import hudson.model.Item;
 import hudson.model.Run;
 import jenkins.model.Jenkins;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest2;
 import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
@@ -56,13 +63,22 @@ import java.util.logging.Logger;
 public class FailureCauseBuildAction implements BuildBadgeAction {
     private transient List<FailureCause> failureCauses;
     private List<FoundFailureCause> foundFailureCauses;
+    private List<CompactFoundCause> compactFoundCauses;
+    private transient List<FoundFailureCause> resolvedFoundFailureCauses;
+    private Boolean storedInSidecar;
+    private transient SoftReference<List<FoundFailureCause>> sidecarFoundFailureCauses;
     /**
      * The url of this action.
      */
     public static final String URL_NAME = "bfa";
     private static final Logger logger = Logger.getLogger(FailureCauseBuildAction.class.getName());
+    /**
+     * The number of lines shown before and after the requested line by {@link #doLogExcerpt(int, StaplerResponse2)}.
+     */
+    private static final int EXCERPT_CONTEXT_LINES = 10;
 
     private Run build;
+    private String scanPlanVersion;
 
     /**
      * Standard constructor.
@@ -103,9 +119,87 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
      */
     @Exported
     public List<FoundFailureCause> getFoundFailureCauses() {
+        if (foundFailureCauses == null && compactFoundCauses != null) {
+            return resolveCompactFoundCauses();
+        }
+        if (foundFailureCauses == null && Boolean.TRUE.equals(storedInSidecar)) {
+            return loadSidecarFoundFailureCauses();
+        }
         return foundFailureCauses;
     }
 
+    /**
+     * Reads the causes stored with {@link ResultStorageMode#SIDECAR}, unless they are still in memory.
+     *
+     * @return the found causes, empty if they can't be read.
+     */
+    private synchronized List<FoundFailureCause> loadSidecarFoundFailureCauses() {
+        List<FoundFailureCause> found = null;
+        if (sidecarFoundFailureCauses != null) {
+            found = sidecarFoundFailureCauses.get();
+        }
+        if (found == null) {
+            try {
+                found = ResultSidecar.read(build);
+                sidecarFoundFailureCauses = new SoftReference<List<FoundFailureCause>>(found);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "[BFA] Could not read the found causes of " + build.getFullDisplayName(), e);
+                found = new LinkedList<FoundFailureCause>();
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Resolves the causes stored with {@link ResultStorageMode#COMPACT} the first time they are asked for.
+     *
+     * @return the found causes.
+     */
+    private synchronized List<FoundFailureCause> resolveCompactFoundCauses() {
+        if (resolvedFoundFailureCauses == null) {
+            resolvedFoundFailureCauses = CompactFoundCause.resolve(compactFoundCauses, build);
+        }
+        return resolvedFoundFailureCauses;
+    }
+
+    /**
+     * Stores the found causes with {@link ResultStorageMode#COMPACT} when the build is saved. Changes made to the
+     * list of found causes after this are not saved.
+     *
+     * @param causes the causes the build was scanned for.
+     */
+    public synchronized void storeCompactly(Collection<FailureCause> causes) {
+        if (foundFailureCauses == null) {
+            return;
+        }
+        compactFoundCauses = CompactFoundCause.of(build, foundFailureCauses, causes);
+        resolvedFoundFailureCauses = foundFailureCauses;
+        foundFailureCauses = null;
+    }
+
+    /**
+     * Stores the found causes with {@link ResultStorageMode#SIDECAR}, leaving only a stub of this action in
+     * build.xml. Keeps them in build.xml if the file can't be written. Changes made to the list of found causes
+     * after this are not saved.
+     *
+     * @param causes the causes the build was scanned for.
+     */
+    public synchronized void storeInSidecar(Collection<FailureCause> causes) {
+        if (foundFailureCauses == null) {
+            return;
+        }
+        try {
+            ResultSidecar.write(build, foundFailureCauses, causes);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not store the found causes of " + build.getFullDisplayName()
+                    + " outside build.xml", e);
+            return;
+        }
+        storedInSidecar = Boolean.TRUE;
+        sidecarFoundFailureCauses = new SoftReference<List<FoundFailureCause>>(foundFailureCauses);
+        foundFailureCauses = null;
+    }
+
     /**
      * Gets the image url for the summary page.
      *
@@ -174,8 +268,9 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
     public FoundFailureCause getDynamic(String token, StaplerRequest2 req, StaplerResponse2 resp) {
         try {
             int causeNumber = Integer.parseInt(token) - 1;
-            if (causeNumber >= 0 && causeNumber < foundFailureCauses.size()) {
-                return foundFailureCauses.get(causeNumber);
+            List<FoundFailureCause> found = getFoundFailureCauses();
+            if (causeNumber >= 0 && causeNumber < found.size()) {
+                return found.get(causeNumber);
             }
         } catch (NumberFormatException nfe) {
             logger.log(Level.WARNING, "[BFA] Failed to parse token for getDynamic: " + token);
@@ -196,6 +291,31 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
         resp.sendRedirect2("../../failure-cause-management");
     }
 
+    /**
+     * Shows the lines of the build log around a line, reading only that part of the log when the build has a
+     * {@link LogLineIndex}, so that found indications can be looked at without loading the whole console.
+     *
+     * @param line the line number, starting at 1.
+     * @param resp the stapler response.
+     * @throws IOException if so.
+     */
+    public void doLogExcerpt(@QueryParameter int line, StaplerResponse2 resp) throws IOException {
+        build.checkPermission(Item.READ);
+        if (line < 1) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid line number: " + line);
+            return;
+        }
+        int from = Math.max(1, line - EXCERPT_CONTEXT_LINES);
+        LogLineIndex index = LogLineIndex.load(build);
+        List<String> lines = LogLineIndex.readLines(build, index, from, line - from + EXCERPT_CONTEXT_LINES + 1);
+        resp.setContentType("text/plain;charset=UTF-8");
+        PrintWriter writer = resp.getWriter();
+        for (int i = 0; i < lines.size(); i++) {
+            writer.printf("%7d  %s%n", from + i, lines.get(i));
+        }
+        writer.flush();
+    }
+
     /**
      * Setter for the build triggering this object.
      *
@@ -214,6 +334,26 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
         return build;
     }
 
+    /**
+     * The version of the causes the build was scanned for, used to re-scan it incrementally when the knowledge base
+     * changes.
+     *
+     * @return the version, or null if the build was scanned before versions were recorded.
+     * @see IncrementalRescan
+     */
+    public String getScanPlanVersion() {
+        return scanPlanVersion;
+    }
+
+    /**
+     * Sets the version of the causes the build was scanned for.
+     *
+     * @param scanPlanVersion the version.
+     */
+    public void setScanPlanVersion(String scanPlanVersion) {
+        this.scanPlanVersion = scanPlanVersion;
+    }
+
     /**
      * Getter for the FailureCauseDisplayData.
      *
@@ -221,8 +361,15 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
      */
     @Exported
     public FailureCauseDisplayData getFailureCauseDisplayData() {
-        FailureCauseDisplayData failureCauseDisplayData
-                = getDownstreamData(this, 0);
+        FailureCauseDisplayData failureCauseDisplayData = null;
+        if (build != null) {
+            DownstreamResolver resolver = DownstreamResolver.start();
+            try {
+                failureCauseDisplayData = getDownstreamData(this, 0, resolver);
+            } finally {
+                resolver.cancel();
+            }
+        }
 
         // Fallback, if no build is stored in in build action,
         if (failureCauseDisplayData == null) {
@@ -240,12 +387,17 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
      * build and then recursively collect data from downstream builds. If
      * buildAction doesn't have a connected build null is returned.
      *
+     * The data of finished builds is kept in the {@link DownstreamDataCache} for the current user and shared with the
+     * data of other upstream builds of the same build. Data that is missing downstream builds, because the
+     * {@link DownstreamResolver} ran out of time or found a cycle, is not kept.
+     *
      * @param buildAction the action to retrieve data from
      * @param depth recursive depth
+     * @param resolver finds the downstream builds
      * @return FailureCauseDisplayData
      */
     private static FailureCauseDisplayData getDownstreamData(
-            final FailureCauseBuildAction buildAction, final int depth) {
+            final FailureCauseBuildAction buildAction, final int depth, final DownstreamResolver resolver) {
 
         final int maxDepth = 10;
 
@@ -253,6 +405,16 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
         // Preventing us to get into a recursive loop
         if (depth < maxDepth && buildAction.getBuild() != null) {
             Run build = buildAction.getBuild();
+            DownstreamDataCache cache = DownstreamDataCache.getInstance();
+            String id = build.getExternalizableId();
+            int levels = maxDepth - depth;
+            if (id != null) {
+                displayData = cache.get(id, levels);
+                if (displayData != null) {
+                    return displayData;
+                }
+            }
+            long generation = cache.getGeneration();
             displayData = new FailureCauseDisplayData(build.getParent().getUrl(),
                     build.getParent().getDisplayName(),
                     build.getUrl(),
@@ -261,11 +423,24 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
             // Add causes from this build
             displayData.setFoundFailureCauses(
                     buildAction.getFoundFailureCauses());
-            for (Run run
-                    : getDownstreamBuilds(buildAction.getBuild())) {
-
-                checkSubFailureCauseBuildAction(
-                        run, displayData, depth);
+            if (!resolver.enter(build)) {
+                return displayData;
+            }
+            List<String> downstreamIds = new ArrayList<String>();
+            try {
+                for (Run run
+                        : getDownstreamBuilds(build, resolver, depth + 1 < maxDepth)) {
+
+                    downstreamIds.add(run.getExternalizableId());
+                    checkSubFailureCauseBuildAction(
+                            run, displayData, depth, resolver);
+                }
+            } finally {
+                resolver.leave(build);
+            }
+            // running builds can get more downstream builds
+            if (id != null && !build.isBuilding() && resolver.isComplete()) {
+                cache.put(id, levels, displayData, downstreamIds, generation);
             }
         }
         return displayData;
@@ -278,15 +453,21 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
      * @param run the build under investigation
      * @param displayData object holding display information
      * @param depth recursive depth
+     * @param resolver finds the downstream builds
      */
     private static void checkSubFailureCauseBuildAction(
             final Run run,
             final FailureCauseDisplayData displayData,
-            final int depth) {
+            final int depth,
+            final DownstreamResolver resolver) {
         FailureCauseBuildAction subAction =
                 run.getAction(FailureCauseBuildAction.class);
         if (subAction != null) {
-            setSubDisplayData(subAction, displayData, depth);
+            FailureCauseDisplayData subDisplayData =
+                    getDownstreamData(subAction, depth + 1, resolver);
+            if (subDisplayData != null) {
+                displayData.addDownstreamFailureCause(subDisplayData);
+            }
         } else {
             // Nested matrix build
             FailureCauseMatrixBuildAction subMatrixAction =
@@ -299,52 +480,42 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
                             FailureCauseBuildAction.class);
                     if (action != null) {
                         FailureCauseDisplayData subDisplayData =
-                                setSubDisplayData(action, displayData, depth);
-                        adjustProjectDisplayName(run, subDisplayData);
+                                getDownstreamData(action, depth + 1, resolver);
+                        if (subDisplayData != null) {
+                            displayData.addDownstreamFailureCause(
+                                    adjustProjectDisplayName(run, subDisplayData));
+                        }
                     }
                 }
             }
         }
     }
 
-    /**
-     * Add display data from the action.
-     *
-     * @param subAction the action under investigation
-     * @param displayData object holding display information
-     * @param depth recursive depth
-     * @return the added display data object
-     */
-    private static FailureCauseDisplayData setSubDisplayData(
-            final FailureCauseBuildAction subAction,
-            final FailureCauseDisplayData displayData,
-            final int depth) {
-        FailureCauseDisplayData subDisplayData =
-                getDownstreamData(subAction, depth + 1);
-        if (subDisplayData != null) {
-            displayData.addDownstreamFailureCause(
-                    subDisplayData);
-        }
-        return subDisplayData;
-    }
-
     /**
      * A matrix project returns for each run a project display name on the form
      * PROJECT » CONFIGURATION #NBR".
      * When nested there is one link to the project and one to the build. The
      * build nbr is removed from the name.
      *
+     * The data of the run may be shared, so a copy is adjusted.
+     *
      * @param run the build generating the build failure
-     * @param subDisplayData the data object to update
+     * @param subDisplayData the data object of the run
+     * @return the adjusted copy
      */
-    private static void adjustProjectDisplayName(
+    private static FailureCauseDisplayData adjustProjectDisplayName(
             final Run run,
             final FailureCauseDisplayData subDisplayData) {
-        if (subDisplayData != null) {
-            subDisplayData.getLinks().setProjectDisplayName(
-                    run.getParent().getFullName() + " » "
-                    + subDisplayData.getLinks().getProjectDisplayName());
+        FailureCauseDisplayData.Links links = subDisplayData.getLinks();
+        FailureCauseDisplayData adjusted = new FailureCauseDisplayData(links.getProjectUrl(),
+                run.getParent().getFullName() + " » " + links.getProjectDisplayName(),
+                links.getBuildUrl(),
+                links.getBuildDisplayName());
+        adjusted.setFoundFailureCauses(subDisplayData.getFoundFailureCauses());
+        for (FailureCauseDisplayData downstream : subDisplayData.getDownstreamFailureCauses()) {
+            adjusted.addDownstreamFailureCause(downstream);
         }
+        return adjusted;
     }
 
     /**
@@ -352,10 +523,12 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
      * ways of collecting downstream builds.
      *
      * @param build collect downstream builds from this
+     * @param resolver finds the downstream builds
+     * @param prefetch if the downstream builds of the found builds will be needed
      * @return a set of downstream builds
      */
     private static Set<Run<?, ?>> getDownstreamBuilds(
-            final Run build) {
+            final Run build, final DownstreamResolver resolver, final boolean prefetch) {
 
         Set<Run<?, ?>> foundDbf = new TreeSet<Run<?, ?>>(new Comparator<Run<?, ?>>() {
             @Override
@@ -369,18 +542,12 @@ public class FailureCauseBuildAction implements BuildBadgeAction {
             }
         });
 
-        for (DownstreamBuildFinder dbf : DownstreamBuildFinder.getAll()) {
-
-            List<Run<?, ?>> downstreamBuilds = dbf.getDownstreamBuilds(build);
-
-            for (Run<?, ?> downstreamBuild : downstreamBuilds) {
-                if (downstreamBuild != null) {
-                    foundDbf.add(downstreamBuild);
-                } else {
-                    logger.log(Level.FINER, "[BFA] Ignoring missing downstream build for " + build.getFullDisplayName());
-                }
+        for (Run<?, ?> downstreamBuild : resolver.getDownstreamBuilds(build, prefetch)) {
+            if (downstreamBuild != null) {
+                foundDbf.add(downstreamBuild);
+            } else {
+                logger.log(Level.FINER, "[BFA] Ignoring missing downstream build for " + build.getFullDisplayName());
             }
-
         }
         return foundDbf;
     }
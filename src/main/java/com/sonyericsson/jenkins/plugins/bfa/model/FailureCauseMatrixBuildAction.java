@@ -36,9 +36,15 @@ import hudson.model.BuildBadgeAction;
 import hudson.model.Cause;
 import hudson.model.TopLevelItem;
 import jenkins.model.Jenkins;
+import jenkins.util.Timer;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,9 +56,19 @@ import java.util.logging.Logger;
 public class FailureCauseMatrixBuildAction implements BuildBadgeAction {
 
     private static final Logger logger = Logger.getLogger(FailureCauseMatrixBuildAction.class.getName());
+
+    /**
+     * How long to wait before saving the build after causes were recorded, so that the causes of many runs
+     * scanned one after the other are saved together.
+     */
+    private static final long SAVE_DELAY_MILLIS = 1000;
+
     private transient List<MatrixRun> runs;
     private List<String> runIds;
     private MatrixBuild build;
+    private MatrixCauseIndex causeIndex;
+    private Set<String> pendingRunIds;
+    private transient boolean savePending;
 
     /**
      * Standard constructor.
@@ -64,6 +80,204 @@ public class FailureCauseMatrixBuildAction implements BuildBadgeAction {
         this.build = build;
         this.runs = runs;
         makeIdList(runs);
+        causeIndex = new MatrixCauseIndex();
+        for (MatrixRun run : runs) {
+            FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
+            if (action != null) {
+                causeIndex.record(combination(run), action.getFoundFailureCauses());
+            }
+        }
+    }
+
+    /**
+     * Constructor for an action that the runs are added to as they finish, see {@link #addRun(MatrixRun)}.
+     *
+     * @param build the build where this action is placed.
+     */
+    public FailureCauseMatrixBuildAction(MatrixBuild build) {
+        this(build, new LinkedList<MatrixRun>());
+    }
+
+    /**
+     * Adds a finished run, and the causes found in it if it is scanned.
+     *
+     * @param run the run.
+     * @return true if causes were found in the run.
+     */
+    public synchronized boolean addRun(MatrixRun run) {
+        String id = combination(run);
+        if (!runIds.contains(id)) {
+            runIds.add(id);
+            if (runs != null) {
+                runs.add(run);
+            }
+        }
+        FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
+        if (action == null) {
+            if (pendingRunIds == null) {
+                pendingRunIds = new HashSet<String>();
+            }
+            pendingRunIds.add(id);
+            return false;
+        }
+        if (pendingRunIds != null) {
+            pendingRunIds.remove(id);
+        }
+        List<FoundFailureCause> found = action.getFoundFailureCauses();
+        causeIndex.record(id, found);
+        return found != null && !found.isEmpty();
+    }
+
+    /**
+     * Records the causes of the added runs that were not scanned yet when they were added, and saves the build if
+     * any were.
+     */
+    public synchronized void addPendingRuns() {
+        if (pendingRunIds == null || build == null) {
+            return;
+        }
+        boolean added = false;
+        for (String id : new ArrayList<String>(pendingRunIds)) {
+            Combination combination = Combination.fromString(id);
+            if (combination != null) {
+                MatrixRun run = build.getRun(combination);
+                if (run != null && run.getAction(FailureCauseBuildAction.class) != null) {
+                    addRun(run);
+                    added = true;
+                }
+            }
+        }
+        if (added) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Records the causes found in a run of a matrix build in the action of the build, if it has one, and saves the
+     * build. Called when a run is scanned after it was added to the action, or re-scanned.
+     *
+     * @param run the run.
+     * @param found the found causes.
+     */
+    public static void recordScan(MatrixRun run, List<FoundFailureCause> found) {
+        MatrixBuild parent = run.getParentBuild();
+        if (parent == null) {
+            return;
+        }
+        FailureCauseMatrixBuildAction action = parent.getAction(FailureCauseMatrixBuildAction.class);
+        if (action != null) {
+            action.record(run, found);
+        }
+    }
+
+    /**
+     * Records the causes found in a run, if this action keeps an index.
+     *
+     * @param run the run.
+     * @param found the found causes.
+     */
+    private synchronized void record(MatrixRun run, List<FoundFailureCause> found) {
+        if (causeIndex != null && runIds != null && runIds.contains(combination(run))) {
+            causeIndex.record(combination(run), found);
+            if (pendingRunIds != null) {
+                pendingRunIds.remove(combination(run));
+            }
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Saves the build a little later, unless a save is already scheduled.
+     */
+    private synchronized void scheduleSave() {
+        if (savePending || build == null) {
+            return;
+        }
+        savePending = true;
+        Timer.get().schedule(new Runnable() {
+            @Override
+            public void run() {
+                save();
+            }
+        }, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Saves the build, with the causes recorded until now.
+     */
+    private void save() {
+        synchronized (this) {
+            savePending = false;
+        }
+        try {
+            build.save();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[BFA] Could not save the failure causes of " + build.getFullDisplayName(), e);
+        }
+    }
+
+    /**
+     * The id of a run in {@link #runIds} and the {@link MatrixCauseIndex}.
+     *
+     * @param run the run.
+     * @return the combination of the run.
+     */
+    private static String combination(MatrixRun run) {
+        return run.getProject().getCombination().toString();
+    }
+
+    /**
+     * Which causes were found in which runs.
+     *
+     * @return the index, or null for actions stored before it was kept.
+     */
+    public MatrixCauseIndex getCauseIndex() {
+        return causeIndex;
+    }
+
+    /**
+     * Gets the runs that a cause was found in.
+     *
+     * @param key the key of the cause, see {@link MatrixCauseIndex#key(FoundFailureCause)}.
+     * @return the runs.
+     */
+    public List<MatrixRun> getRunsWithCause(String key) {
+        if (causeIndex != null) {
+            return loadRuns(causeIndex.getCombinations(key));
+        }
+        List<MatrixRun> returnList = new LinkedList<MatrixRun>();
+        for (MatrixRun run : getRunsWithAction()) {
+            for (FoundFailureCause cause : getFoundFailureCauses(run)) {
+                if (key.equals(MatrixCauseIndex.key(cause))) {
+                    returnList.add(run);
+                    break;
+                }
+            }
+        }
+        return returnList;
+    }
+
+    /**
+     * Loads the runs of configurations of the build.
+     *
+     * @param combinations the configurations.
+     * @return the runs that still exist.
+     */
+    private List<MatrixRun> loadRuns(List<String> combinations) {
+        List<MatrixRun> loaded = new LinkedList<MatrixRun>();
+        if (build == null) {
+            return loaded;
+        }
+        for (String id : combinations) {
+            Combination combination = Combination.fromString(id);
+            if (combination != null) {
+                MatrixRun run = build.getRun(combination);
+                if (run != null) {
+                    loaded.add(run);
+                }
+            }
+        }
+        return loaded;
     }
 
     /**
@@ -113,6 +327,9 @@ public class FailureCauseMatrixBuildAction implements BuildBadgeAction {
      * @return the runs with the action.
      */
     public List<MatrixRun> getRunsWithAction() {
+        if (causeIndex != null && build != null) {
+            return loadRuns(causeIndex.getScannedCombinations());
+        }
         List<MatrixRun> returnList = new LinkedList<MatrixRun>();
         for (MatrixRun run : getRuns()) {
             if (run.getAction(FailureCauseBuildAction.class) != null) {
@@ -149,6 +366,15 @@ public class FailureCauseMatrixBuildAction implements BuildBadgeAction {
      * @return the first cause found.
      */
     public FoundFailureCause getFirstFailureCause() {
+        if (causeIndex != null && build != null) {
+            for (MatrixRun run : loadRuns(causeIndex.getCombinationsWithCauses())) {
+                List<FoundFailureCause> foundFailureCauses = getFoundFailureCauses(run);
+                if (foundFailureCauses != null && !foundFailureCauses.isEmpty()) {
+                    return foundFailureCauses.get(0);
+                }
+            }
+            return null;
+        }
         for (MatrixRun run : getRuns()) {
             FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
             if (action != null) {
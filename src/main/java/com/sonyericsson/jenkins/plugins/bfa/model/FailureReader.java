@@ -71,7 +71,7 @@ public abstract class FailureReader {
      *
      * Can never be larger than BUF_SIZE_BYTES.
      */
-    private static final int OVERLAP_BYTES = 5000;
+    static final int OVERLAP_BYTES = 5000;
 
     /**
      * The read buffer size for scanMultiLineOneFile(). This is also the size
@@ -79,7 +79,7 @@ public abstract class FailureReader {
      * the buildlog. Used when scanning for
      * {@link com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication}.
      */
-    private static final int BUF_SIZE_BYTES = 15000;
+    static final int BUF_SIZE_BYTES = 15000;
 
     /** The indication we are looking for. */
     protected Indication indication;
@@ -152,8 +152,26 @@ public abstract class FailureReader {
         return null;
     }
 
+    /**
+     * Scans the content of a reader for the indication of this FailureReader.
+     * Used for logs that do not belong to a live build, like archived logs scanned offline,
+     * in which case the build is null.
+     *
+     * @param build the build the content belongs to, or null.
+     * @param reader the reader to read from.
+     * @param currentFile the name of the file that is read.
+     * @return a FoundIndication if the pattern is found, null otherwise.
+     * @throws IOException if problems occur in the reader handling.
+     */
+    public FoundIndication scan(Run build, LineNumberReader reader, String currentFile) throws IOException {
+        return scanMultiLineOneFile(build, reader, currentFile);
+    }
+
     /**
      * Checks all patterns one-by-one for entire file.
+     * If the reader is a {@link LineNumberReader}, the line numbers of matches are taken from it, since it might
+     * start in the middle of the log. It is only asked for them on a match, so that regions of the log can count
+     * the lines before them only when needed, see {@link LogRegion#tail(Run, long)}.
      *
      * @param causes list of failure causes that we a looking for.
      * @param build current build.
@@ -166,6 +184,27 @@ public abstract class FailureReader {
                                                               Run build,
                                                               BufferedReader reader,
                                                               String currentFile) throws IOException {
+        return scanSingleLinePatterns(causes, build, reader, currentFile, null);
+    }
+
+    /**
+     * Checks all patterns one-by-one for entire file, skipping the causes superseded by causes found so far.
+     *
+     * @param causes list of failure causes that we a looking for.
+     * @param build current build.
+     * @param reader file reader.
+     * @param currentFile file name.
+     * @param live the causes still looked for, told about the found causes, or null to look for all causes.
+     * @return found indications.
+     * @throws IOException Exception.
+     * @see #scanSingleLinePatterns(List, Run, BufferedReader, String)
+     */
+    public static List<FoundFailureCause> scanSingleLinePatterns(List<FailureCause> causes,
+                                                               Run build,
+                                                               BufferedReader reader,
+                                                               String currentFile,
+                                                               CauseEvaluationOrder.LiveCauses live)
+            throws IOException {
         TimerThread timerThread = new TimerThread(Thread.currentThread(), TIMEOUT_LINE);
         final long adjustedFileTimeout = TIMEOUT_FILE * getTotalNumberOfPatterns(causes);
 
@@ -180,15 +219,21 @@ public abstract class FailureReader {
             while ((line = reader.readLine()) != null) {
                 currentLine++;
                 for (FailureCause cause : causes) {
+                    if (live != null && !live.isLive(cause)) {
+                        continue;
+                    }
                     for (Indication indication : cause.getIndications()) {
                         try {
                             List<Indication> wasBefore = firstOccurrences.get(cause);
                             if (wasBefore == null || !wasBefore.contains(indication)) {
                                 if (processIndication(build, currentFile, resultMap, line, cause, indication,
-                                        currentLine)) {
+                                        reader, currentLine)) {
                                     wasBefore = new ArrayList<Indication>();
                                     wasBefore.add(indication);
                                     firstOccurrences.put(cause, wasBefore);
+                                    if (live != null) {
+                                        live.found(cause);
+                                    }
                                 }
                             }
                         } catch (RuntimeException e) {
@@ -247,7 +292,8 @@ public abstract class FailureReader {
      * @param line line with content
      * @param cause current cause
      * @param indication indication that should be checked
-     * @param lineNumber The line number of the indication
+     * @param reader the reader the line was read from
+     * @param linesRead the number of lines read from the reader
      * @return true if new indication was found
      */
     private static boolean processIndication(Run build,
@@ -256,7 +302,8 @@ public abstract class FailureReader {
                                              String line,
                                              FailureCause cause,
                                              Indication indication,
-                                             int lineNumber) {
+                                             BufferedReader reader,
+                                             int linesRead) {
         Pattern pattern = indication.getPattern();
 
         if (pattern.matcher(new InterruptibleCharSequence(line)).matches()) {
@@ -265,7 +312,7 @@ public abstract class FailureReader {
                                                     pattern.toString(),
                                                     currentFile,
                                                     ConsoleNote.removeNotes(line),
-                                                    lineNumber);
+                                                    getLineNumber(reader, linesRead));
 
 
             putToMapWithList(causeIndicationsMap, cause, foundIndication);
@@ -274,6 +321,20 @@ public abstract class FailureReader {
         return false;
     }
 
+    /**
+     * The line number of the line last read from a reader.
+     *
+     * @param reader the reader.
+     * @param linesRead the number of lines read from the reader.
+     * @return the line number reported by a {@link LineNumberReader}, otherwise the number of lines read.
+     */
+    private static int getLineNumber(BufferedReader reader, int linesRead) {
+        if (reader instanceof LineNumberReader) {
+            return ((LineNumberReader)reader).getLineNumber();
+        }
+        return linesRead;
+    }
+
     /**
      * Put FoundIndication to List of according FailureCause
      * @param causeIndicationsMap result map
@@ -378,7 +439,7 @@ public abstract class FailureReader {
      * @return the input string less console notes. Note the returned string may not contain the same line endings
      * as the input string.
      */
-    private String removeConsoleNotes(final String input) {
+    static String removeConsoleNotes(final String input) {
         final List<String> cleanLines = new LinkedList<String>();
         final Scanner lineTokenizer = new Scanner(input);
         try {
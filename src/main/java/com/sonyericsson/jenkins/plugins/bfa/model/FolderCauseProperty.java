@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import com.cloudbees.hudson.plugins.folder.AbstractFolderProperty;
+import com.cloudbees.hudson.plugins.folder.AbstractFolderPropertyDescriptor;
+import com.sonyericsson.jenkins.plugins.bfa.Messages;
+import hudson.Extension;
+import hudson.Util;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets a folder scope failure causes to its jobs. Causes in a category owned by a folder are only looked for in the
+ * builds of the jobs in that folder, so that teams can keep their own causes without other teams paying for them.
+ * Causes in a category excluded by a folder are not looked for in the builds of the jobs in that folder.
+ *
+ * Only available when the CloudBees Folders plugin is installed, see {@link ApplicableCauses#isFoldersAvailable()}.
+ */
+public class FolderCauseProperty extends AbstractFolderProperty<AbstractFolder<?>> {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+    private static Map<String, List<String>> owners;
+    private static long ownersGeneration = -1;
+
+    private final List<String> ownedCategories;
+    private final List<String> excludedCategories;
+
+    /**
+     * Standard DataBound Constructor.
+     *
+     * @param ownedCategories the space separated categories of the causes only looked for in this folder.
+     * @param excludedCategories the space separated categories of the causes not looked for in this folder.
+     */
+    @DataBoundConstructor
+    public FolderCauseProperty(String ownedCategories, String excludedCategories) {
+        this.ownedCategories = tokenize(ownedCategories);
+        this.excludedCategories = tokenize(excludedCategories);
+    }
+
+    /**
+     * Splits the categories of the form.
+     *
+     * @param categories the space separated categories.
+     * @return the categories.
+     */
+    private static List<String> tokenize(String categories) {
+        if (Util.fixEmptyAndTrim(categories) == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(Util.tokenize(categories))));
+    }
+
+    /**
+     * The categories of the causes only looked for in this folder.
+     *
+     * @return the space separated categories.
+     */
+    public String getOwnedCategories() {
+        return Util.join(ownedCategories, " ");
+    }
+
+    /**
+     * The categories of the causes not looked for in this folder.
+     *
+     * @return the space separated categories.
+     */
+    public String getExcludedCategories() {
+        return Util.join(excludedCategories, " ");
+    }
+
+    /**
+     * A number that changes whenever the configuration of a folder changes, so that the causes applicable to a job
+     * can be cached until then.
+     *
+     * @return the generation.
+     */
+    public static long getGeneration() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Checks if the folders of a job allow a cause to be looked for in its builds.
+     *
+     * @param cause the cause.
+     * @param job the job.
+     * @return false if a folder the job isn't in owns a category of the cause, or a folder the job is in excludes
+     *         one.
+     */
+    public static boolean isApplicable(FailureCause cause, Job job) {
+        List<String> categories = cause.getCategories();
+        if (categories == null || categories.isEmpty()) {
+            return true;
+        }
+        String fullName = job.getFullName();
+        Map<String, List<String>> categoryOwners = getOwners();
+        for (String category : categories) {
+            List<String> folders = categoryOwners.get(category);
+            if (folders != null && !isInAny(fullName, folders)) {
+                return false;
+            }
+        }
+        ItemGroup parent = job.getParent();
+        while (parent instanceof AbstractFolder) {
+            AbstractFolder<?> folder = (AbstractFolder<?>)parent;
+            FolderCauseProperty property = folder.getProperties().get(FolderCauseProperty.class);
+            if (property != null && !Collections.disjoint(property.excludedCategories, categories)) {
+                return false;
+            }
+            parent = folder.getParent();
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a job is in any of the folders.
+     *
+     * @param fullName the full name of the job.
+     * @param folders the full names of the folders.
+     * @return true if so.
+     */
+    private static boolean isInAny(String fullName, List<String> folders) {
+        for (String folder : folders) {
+            if (fullName.startsWith(folder + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The folders owning each category, collected once per {@link #getGeneration() generation}.
+     *
+     * @return the full names of the owning folders by category.
+     */
+    private static synchronized Map<String, List<String>> getOwners() {
+        long generation = GENERATION.get();
+        if (owners == null || ownersGeneration != generation) {
+            Map<String, List<String>> map = new HashMap<String, List<String>>();
+            for (AbstractFolder<?> folder : Jenkins.get().getAllItems(AbstractFolder.class)) {
+                FolderCauseProperty property = folder.getProperties().get(FolderCauseProperty.class);
+                if (property != null) {
+                    for (String category : property.ownedCategories) {
+                        List<String> folders = map.get(category);
+                        if (folders == null) {
+                            folders = new ArrayList<String>();
+                            map.put(category, folders);
+                        }
+                        folders.add(folder.getFullName());
+                    }
+                }
+            }
+            owners = map;
+            ownersGeneration = generation;
+        }
+        return owners;
+    }
+
+    /**
+     * Descriptor for {@link FolderCauseProperty}.
+     */
+    @Extension(optional = true)
+    public static class FolderCausePropertyDescriptor extends AbstractFolderPropertyDescriptor {
+
+        @Override
+        public String getDisplayName() {
+            return Messages.FolderCauseProperty_DisplayName();
+        }
+    }
+
+    /**
+     * Bumps the generation when a folder is saved.
+     */
+    @Extension(optional = true)
+    public static class FolderSaveListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof AbstractFolder) {
+                GENERATION.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Bumps the generation when a folder is moved, renamed or deleted.
+     */
+    @Extension(optional = true)
+    public static class FolderItemListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            if (item instanceof AbstractFolder) {
+                GENERATION.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            if (item instanceof AbstractFolder) {
+                GENERATION.incrementAndGet();
+            }
+        }
+    }
+}
@@ -78,6 +78,26 @@ public class FoundFailureCause implements IFailureCauseMetricData {
         this.description = buildFormattedDescription(originalCause, this.indications, originalCause.getDescription());
     }
 
+    /**
+     * Constructor used when resolving causes stored with {@link ResultStorageMode#COMPACT}, whose description is
+     * already formatted.
+     *
+     * @param id the id of the cause.
+     * @param name the name of the cause.
+     * @param description the formatted description.
+     * @param categories the categories of the cause.
+     * @param indications the indications found that imply this cause.
+     * @see CompactFoundCause
+     */
+    FoundFailureCause(String id, String name, String description, List<String> categories,
+                      List<FoundIndication> indications) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.categories = categories;
+        this.indications = new LinkedList<FoundIndication>(indications);
+    }
+
     /**
      * Getter for the id.
      *
@@ -186,7 +206,8 @@ public class FoundFailureCause implements IFailureCauseMetricData {
                             break;
                         }
                     }
-                    if (foundExpressionIndex) {
+                    // the matching text is unknown if it could not be read back, see ResultStorageMode#COMPACT
+                    if (foundExpressionIndex && firstFoundIndication.getMatchingString() != null) {
                         final int expressionNumber = expressionIndex + 1;
                         // Convert the "${1,2}" tokens in the description to "$2"
                         formattedDescription = convertFormat(formattedDescription, expressionNumber);
@@ -0,0 +1,285 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans the re-scan of a build after the knowledge base changed, so that only what changed is evaluated.
+ *
+ * The indications a build was scanned for are known from the {@link FailureCauseBuildAction#getScanPlanVersion()
+ * version} recorded when it was scanned, see {@link #snapshot(Collection)}. Then:
+ * <ul>
+ *     <li>causes that were not found are only evaluated with their added or modified indications,</li>
+ *     <li>causes that were found and have added, modified or removed indications are evaluated again, since the
+ *     scan doesn't record every indication that matched,</li>
+ *     <li>the results of unchanged causes are kept, and those of removed causes dropped.</li>
+ * </ul>
+ * Causes with priorities are not re-scanned incrementally, since which of them were evaluated depends on what was
+ * found, see {@link CauseEvaluationOrder}. Causes in the fallback categories are always evaluated in full unless they
+ * were kept in the result, since the scan drops them from the result when a more specific cause is found, so a
+ * generic cause missing from the result may have matched.
+ */
+public final class IncrementalRescan {
+
+    /**
+     * The number of characters of the indication fingerprints kept in a snapshot.
+     */
+    static final int FINGERPRINT_LENGTH = 16;
+
+    private final Map<String, FoundFailureCause> kept;
+    private final List<FailureCause> causesToEvaluate;
+    private final Map<String, FailureCause> causes;
+    private final int indicationsToEvaluate;
+
+    /**
+     * Standard constructor.
+     *
+     * @param kept the previous results that are kept, by cause key.
+     * @param causesToEvaluate the causes to evaluate, with only the indications to evaluate.
+     * @param causes all causes, by key.
+     * @param indicationsToEvaluate the number of indications to evaluate.
+     */
+    private IncrementalRescan(Map<String, FoundFailureCause> kept, List<FailureCause> causesToEvaluate,
+                              Map<String, FailureCause> causes, int indicationsToEvaluate) {
+        this.kept = kept;
+        this.causesToEvaluate = causesToEvaluate;
+        this.causes = causes;
+        this.indicationsToEvaluate = indicationsToEvaluate;
+    }
+
+    /**
+     * The key of a cause in a snapshot: its id, or its name if it has none.
+     *
+     * @param cause the cause.
+     * @return the key.
+     */
+    public static String key(FailureCause cause) {
+        if (cause.getId() != null) {
+            return cause.getId();
+        }
+        return cause.getName();
+    }
+
+    /**
+     * The key of a found cause.
+     *
+     * @param cause the found cause.
+     * @return the key.
+     * @see #key(FailureCause)
+     */
+    private static String key(FoundFailureCause cause) {
+        if (cause.getId() != null) {
+            return cause.getId();
+        }
+        return cause.getName();
+    }
+
+    /**
+     * The indications of each cause, to record the causes a build was scanned for.
+     *
+     * @param causes the causes.
+     * @return the shortened fingerprints of the indications, by cause key.
+     * @see ScanPlan#fingerprint(Indication)
+     */
+    public static Map<String, List<String>> snapshot(Collection<FailureCause> causes) {
+        Map<String, List<String>> snapshot = new LinkedHashMap<String, List<String>>();
+        for (FailureCause cause : causes) {
+            List<String> fingerprints = new ArrayList<String>();
+            for (Indication indication : cause.getIndications()) {
+                fingerprints.add(ScanPlan.fingerprint(indication).substring(0, FINGERPRINT_LENGTH));
+            }
+            snapshot.put(key(cause), fingerprints);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Plans the re-scan of a build.
+     *
+     * @param snapshot the indications the build was scanned for, see {@link #snapshot(Collection)}.
+     * @param found the causes found in the build.
+     * @param causes the causes to scan the build for now.
+     * @return the plan, or null if the build has to be scanned from scratch.
+     */
+    public static IncrementalRescan plan(Map<String, List<String>> snapshot, List<FoundFailureCause> found,
+                                         Collection<FailureCause> causes) {
+        return plan(snapshot, found, causes, Collections.<String>emptyList());
+    }
+
+    /**
+     * Plans the re-scan of a build whose result had the causes in the fallback categories removed when a more
+     * specific cause was found.
+     *
+     * @param snapshot the indications the build was scanned for, see {@link #snapshot(Collection)}.
+     * @param found the causes found in the build, after the causes in the fallback categories were removed.
+     * @param causes the causes to scan the build for now.
+     * @param fallbackCategories the fallback categories.
+     * @return the plan, or null if the build has to be scanned from scratch.
+     * @see com.sonyericsson.jenkins.plugins.bfa.PluginImpl#getFallbackCategories()
+     */
+    public static IncrementalRescan plan(Map<String, List<String>> snapshot, List<FoundFailureCause> found,
+                                         Collection<FailureCause> causes, Collection<String> fallbackCategories) {
+        if (snapshot == null || CauseEvaluationOrder.isOrdered(causes)) {
+            return null;
+        }
+        Map<String, FoundFailureCause> foundByKey = new HashMap<String, FoundFailureCause>();
+        if (found != null) {
+            for (FoundFailureCause foundCause : found) {
+                foundByKey.put(key(foundCause), foundCause);
+            }
+        }
+        Map<String, FoundFailureCause> kept = new HashMap<String, FoundFailureCause>();
+        Map<String, FailureCause> byKey = new LinkedHashMap<String, FailureCause>();
+        List<FailureCause> toEvaluate = new ArrayList<FailureCause>();
+        int indications = 0;
+        for (FailureCause cause : causes) {
+            String key = key(cause);
+            byKey.put(key, cause);
+            List<String> previous = snapshot.get(key);
+            FoundFailureCause foundCause = foundByKey.get(key);
+            List<Indication> changed = changedIndications(cause, previous);
+            if (foundCause == null && isFallback(cause, fallbackCategories)) {
+                toEvaluate.add(cause);
+                indications += cause.getIndications().size();
+            } else if (foundCause != null) {
+                if (previous != null && changed.isEmpty() && previous.size() == cause.getIndications().size()) {
+                    kept.put(key, foundCause);
+                } else {
+                    toEvaluate.add(cause);
+                    indications += cause.getIndications().size();
+                }
+            } else if (!changed.isEmpty()) {
+                toEvaluate.add(withIndications(cause, changed));
+                indications += changed.size();
+            }
+        }
+        return new IncrementalRescan(kept, toEvaluate, byKey, indications);
+    }
+
+    /**
+     * Checks if a cause is in one of the fallback categories.
+     *
+     * @param cause the cause.
+     * @param fallbackCategories the fallback categories.
+     * @return true if so.
+     */
+    private static boolean isFallback(FailureCause cause, Collection<String> fallbackCategories) {
+        return cause.getCategories() != null && !Collections.disjoint(cause.getCategories(), fallbackCategories);
+    }
+
+    /**
+     * The indications of a cause that were added or modified since the snapshot.
+     *
+     * @param cause the cause.
+     * @param previous the fingerprints of the indications in the snapshot, null if the cause was added.
+     * @return the indications.
+     */
+    private static List<Indication> changedIndications(FailureCause cause, List<String> previous) {
+        if (previous == null) {
+            return cause.getIndications();
+        }
+        Set<String> known = new HashSet<String>(previous);
+        List<Indication> changed = new ArrayList<Indication>();
+        for (Indication indication : cause.getIndications()) {
+            if (!known.contains(ScanPlan.fingerprint(indication).substring(0, FINGERPRINT_LENGTH))) {
+                changed.add(indication);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * A copy of a cause with only some of its indications.
+     *
+     * @param cause the cause.
+     * @param indications the indications.
+     * @return the copy.
+     */
+    private static FailureCause withIndications(FailureCause cause, List<Indication> indications) {
+        if (indications.size() == cause.getIndications().size()) {
+            return cause;
+        }
+        FailureCause copy = new FailureCause(cause.getId(), cause.getName(), cause.getDescription(),
+                cause.getComment(), null, cause.getCategories(), new ArrayList<Indication>(indications), null);
+        copy.setApplicability(cause.getApplicability());
+        return copy;
+    }
+
+    /**
+     * The causes to evaluate, with only the indications to evaluate.
+     *
+     * @return the causes.
+     */
+    public List<FailureCause> getCausesToEvaluate() {
+        return causesToEvaluate;
+    }
+
+    /**
+     * The number of indications to evaluate.
+     *
+     * @return the number.
+     */
+    public int getIndicationsToEvaluate() {
+        return indicationsToEvaluate;
+    }
+
+    /**
+     * Merges the causes found by evaluating {@link #getCausesToEvaluate()} with the kept results. The found causes
+     * are recreated from the current causes, so that their names, descriptions and categories are up to date.
+     *
+     * @param found the causes found.
+     * @return all found causes.
+     */
+    public List<FoundFailureCause> merge(List<FoundFailureCause> found) {
+        Map<String, FoundFailureCause> foundByKey = new HashMap<String, FoundFailureCause>(kept);
+        List<FoundFailureCause> merged = new ArrayList<FoundFailureCause>();
+        for (FoundFailureCause foundCause : found) {
+            if (causes.containsKey(key(foundCause))) {
+                foundByKey.put(key(foundCause), foundCause);
+            } else {
+                merged.add(foundCause);
+            }
+        }
+        // in the order of the knowledge base, like a full scan
+        for (Map.Entry<String, FailureCause> cause : causes.entrySet()) {
+            FoundFailureCause foundCause = foundByKey.get(cause.getKey());
+            if (foundCause != null) {
+                merged.add(new FoundFailureCause(cause.getValue(), foundCause.getIndications()));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Finds where the lines of a log start, byte by byte, splitting lines the way {@link java.io.BufferedReader}
+ * does: a line ends at a '\n', at a '\r', or at a "\r\n", which counts as one line break.
+ *
+ * The scanners read logs with {@link java.io.LineNumberReader}s, so everything that maps line numbers to byte
+ * offsets must split lines with this class to agree with them, also on logs with carriage return progress output.
+ *
+ * The start of the line after a '\r' is only known when the next byte is seen, so it is returned by
+ * {@link #next(byte)} for that byte, or by {@link #finish()} if the log ends with the '\r'.
+ */
+public final class LineSplitter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private long position;
+    private int lines = 1;
+    private int line;
+    private boolean afterCr;
+
+    /**
+     * Constructor for reading from the start of a log.
+     */
+    public LineSplitter() {
+        this(0);
+    }
+
+    /**
+     * Constructor for reading from an offset of a log. The line numbers are then counted from that offset.
+     *
+     * @param position the offset of the first byte that is read.
+     */
+    public LineSplitter(long position) {
+        this.position = position;
+    }
+
+    /**
+     * Reads the next byte of the log.
+     *
+     * @param b the byte.
+     * @return the offset of a line that became known to start, or -1. See {@link #getLine()} for its number.
+     */
+    public long next(byte b) {
+        long offset = position++;
+        long start = -1;
+        if (afterCr) {
+            afterCr = false;
+            line = lines;
+            if (b == '\n') {
+                return offset + 1;
+            }
+            start = offset;
+        }
+        if (b == '\n') {
+            lines++;
+            line = lines;
+            return offset + 1;
+        }
+        if (b == '\r') {
+            lines++;
+            afterCr = true;
+        }
+        return start;
+    }
+
+    /**
+     * Ends the log.
+     *
+     * @return the offset of the empty line after a '\r' at the end of the log, or -1.
+     */
+    public long finish() {
+        if (afterCr) {
+            afterCr = false;
+            line = lines;
+            return position;
+        }
+        return -1;
+    }
+
+    /**
+     * The number of the line that starts at the offset last returned by {@link #next(byte)} or {@link #finish()}.
+     *
+     * @return the line number, starting at 1.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * The number of lines so far, counting the line being read, which is the empty line after the last line break
+     * at the end of the log.
+     *
+     * @return the number of lines.
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * The offset of the next byte.
+     *
+     * @return the offset.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Reads a stream to its end, or until the listener stops, and tells the listener where lines start.
+     *
+     * @param in the stream, positioned at the offset this splitter was created with.
+     * @param listener the listener.
+     * @return true if the end of the stream was reached, false if the listener stopped.
+     * @throws IOException if the stream can't be read.
+     */
+    public boolean read(InputStream in, Listener listener) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read = in.read(buffer);
+        while (read != -1) {
+            for (int i = 0; i < read; i++) {
+                long start = next(buffer[i]);
+                if (start >= 0 && !listener.lineStarted(line, start)) {
+                    return false;
+                }
+            }
+            read = in.read(buffer);
+        }
+        long start = finish();
+        if (start >= 0) {
+            listener.lineStarted(line, start);
+        }
+        return true;
+    }
+
+    /**
+     * Told where lines start by {@link #read(InputStream, Listener)}.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a line starts, except the first line of the stream.
+         *
+         * @param line the number of the line, starting at 1.
+         * @param offset the offset of the line.
+         * @return true to go on reading, false to stop.
+         */
+        boolean lineStarted(int line, long offset);
+    }
+}
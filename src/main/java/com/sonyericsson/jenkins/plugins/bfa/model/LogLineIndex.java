@@ -0,0 +1,417 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.google.common.io.ByteStreams;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.console.ConsoleNote;
+import hudson.model.Run;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The byte offsets of every {@link #getInterval() n:th} line of a build log, kept in a small file next to the
+ * build so that the lines around a found indication can be read without reading the log from the start.
+ *
+ * The index is written after a build is scanned, in the same pass that records the exact offsets of the found
+ * indications, see {@link FoundIndication#getMatchingOffset()}.
+ */
+public final class LogLineIndex {
+
+    /**
+     * The name of the index file in the build directory.
+     */
+    public static final String FILE_NAME = "bfa-line-index";
+
+    /**
+     * The default number of lines between the sampled offsets.
+     */
+    static final int DEFAULT_INTERVAL = 1024;
+
+    /**
+     * Version 1 split lines on '\n' only, so its offsets are wrong for logs with a lone '\r'.
+     */
+    private static final int FORMAT_VERSION = 2;
+    private static final int INITIAL_SAMPLES = 64;
+    private static final String LOG_FILE_NAME = "log";
+
+    private final int interval;
+    private final long[] samples;
+    private final int lineCount;
+
+    /**
+     * Standard constructor.
+     *
+     * @param interval the number of lines between the samples.
+     * @param samples the offsets of line 1, 1 + interval, 1 + 2 * interval and so on.
+     * @param lineCount the number of lines in the log.
+     */
+    LogLineIndex(int interval, long[] samples, int lineCount) {
+        this.interval = interval;
+        this.samples = samples;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Indexes the log of a build, sets the offsets of the found indications in it and writes the index to the
+     * build directory.
+     *
+     * @param build the build.
+     * @param found the causes found in the log.
+     * @return the index.
+     * @throws IOException if the log can't be read or the index written.
+     */
+    public static LogLineIndex write(Run build, Collection<FoundFailureCause> found) throws IOException {
+        LogLineIndex index;
+        try (InputStream log = build.getLogInputStream()) {
+            index = create(log, DEFAULT_INTERVAL, indicationsByLine(found));
+        }
+        File file = new File(build.getRootDir(), FILE_NAME);
+        File temp = new File(build.getRootDir(), FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            index.writeTo(out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return index;
+    }
+
+    /**
+     * Checks if any of the found causes has an indication in the build log, which an index helps finding.
+     *
+     * @param found the found causes.
+     * @return true if so.
+     */
+    public static boolean isUseful(Collection<FoundFailureCause> found) {
+        return !indicationsByLine(found).isEmpty();
+    }
+
+    /**
+     * The indications found in the build log, outside of Pipeline step logs, by line number.
+     *
+     * @param found the found causes.
+     * @return the indications.
+     */
+    private static Map<Integer, List<FoundIndication>> indicationsByLine(Collection<FoundFailureCause> found) {
+        Map<Integer, List<FoundIndication>> byLine = new HashMap<Integer, List<FoundIndication>>();
+        for (FoundFailureCause cause : found) {
+            for (FoundIndication indication : cause.getIndications()) {
+                // the lines of step logs are numbered within the step
+                if (indication.getMatchingLine() > 0 && indication.getStep() == null
+                        && LOG_FILE_NAME.equals(indication.getMatchingFile())) {
+                    List<FoundIndication> onLine = byLine.get(indication.getMatchingLine());
+                    if (onLine == null) {
+                        onLine = new ArrayList<FoundIndication>();
+                        byLine.put(indication.getMatchingLine(), onLine);
+                    }
+                    onLine.add(indication);
+                }
+            }
+        }
+        return byLine;
+    }
+
+    /**
+     * Indexes a log. Lines are split like the readers of the scan split them, see {@link LineSplitter}.
+     *
+     * @param log the log.
+     * @param interval the number of lines between the samples.
+     * @param indications the indications to set the offsets of, by line number.
+     * @return the index.
+     * @throws IOException if the log can't be read.
+     */
+    static LogLineIndex create(InputStream log, int interval, Map<Integer, List<FoundIndication>> indications)
+            throws IOException {
+        Samples samples = new Samples(interval, indications);
+        setOffset(indications, 1, 0);
+        LineSplitter lines = new LineSplitter();
+        lines.read(log, samples);
+        return new LogLineIndex(interval, samples.toArray(), lines.getLines());
+    }
+
+    /**
+     * Sets the offset of the indications on a line.
+     *
+     * @param indications the indications by line number.
+     * @param line the line number.
+     * @param offset the offset of the line.
+     */
+    private static void setOffset(Map<Integer, List<FoundIndication>> indications, int line, long offset) {
+        List<FoundIndication> onLine = indications.get(line);
+        if (onLine != null) {
+            for (FoundIndication indication : onLine) {
+                indication.setMatchingOffset(offset);
+            }
+        }
+    }
+
+    /**
+     * Loads the index of the log of a build.
+     *
+     * @param build the build.
+     * @return the index, or null if the build has none.
+     * @throws IOException if the index can't be read.
+     */
+    public static LogLineIndex load(Run build) throws IOException {
+        File file = new File(build.getRootDir(), FILE_NAME);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readFrom(in);
+        }
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if so.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(interval);
+        out.writeInt(lineCount);
+        out.writeInt(samples.length);
+        for (long sample : samples) {
+            out.writeLong(sample);
+        }
+    }
+
+    /**
+     * Reads an index.
+     *
+     * @param in the stream to read from.
+     * @return the index, or null if it was written in an unknown format.
+     * @throws IOException if so.
+     */
+    static LogLineIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+        int interval = in.readInt();
+        int lineCount = in.readInt();
+        long[] samples = new long[in.readInt()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = in.readLong();
+        }
+        return new LogLineIndex(interval, samples, lineCount);
+    }
+
+    /**
+     * The region of the log from the closest sampled line at or before a line to the end of the log.
+     *
+     * @param line the line number, starting at 1.
+     * @return the region.
+     */
+    public LogRegion from(int line) {
+        int sample = Math.min(Math.max(0, line - 1) / interval, samples.length - 1);
+        return new LogRegion(samples[sample], LogRegion.END_OF_LOG, sample * interval);
+    }
+
+    /**
+     * Counts the lines before an offset of the log of a build, reading from the closest sampled line at or before
+     * the offset.
+     *
+     * @param build the build.
+     * @param offset the offset.
+     * @return the number of line breaks before the offset.
+     * @throws IOException if the log can't be read.
+     */
+    public int countLines(Run build, long offset) throws IOException {
+        int sample = Arrays.binarySearch(samples, offset);
+        if (sample < 0) {
+            sample = Math.max(0, -sample - 2);
+        }
+        LineSplitter lines = new LineSplitter(samples[sample]);
+        try (InputStream log = build.getLogInputStream()) {
+            ByteStreams.skipFully(log, samples[sample]);
+            lines.read(ByteStreams.limit(log, Math.max(0, offset - samples[sample])), (line, start) -> true);
+        }
+        return sample * interval + lines.getLines() - 1;
+    }
+
+    /**
+     * Reads lines of the log of a build, seeking to the closest sampled line of the index if there is one.
+     *
+     * @param build the build.
+     * @param index the index of the log, or null to read from the start.
+     * @param from the number of the first line, starting at 1.
+     * @param count the maximum number of lines.
+     * @return the lines, without console notes.
+     * @throws IOException if the log can't be read.
+     */
+    public static List<String> readLines(Run build, LogLineIndex index, int from, int count) throws IOException {
+        LogRegion region = LogRegion.whole();
+        if (index != null) {
+            region = index.from(from);
+        }
+        List<String> lines = new ArrayList<String>();
+        try (LineNumberReader reader = region.open(build)) {
+            String line = reader.readLine();
+            while (line != null && lines.size() < count) {
+                if (reader.getLineNumber() >= from) {
+                    lines.add(ConsoleNote.removeNotes(line));
+                }
+                line = reader.readLine();
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the lines of the log of a build that start at some offsets, in one pass over the log.
+     *
+     * @param build the build.
+     * @param offsets the offsets of the lines.
+     * @return the lines without console notes, by offset, empty for offsets at the end of the log and left out for
+     * offsets past it.
+     * @throws IOException if the log can't be read.
+     */
+    public static Map<Long, String> readLinesAt(Run build, Collection<Long> offsets) throws IOException {
+        Map<Long, String> lines = new HashMap<Long, String>();
+        if (offsets.isEmpty()) {
+            return lines;
+        }
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (InputStream log = new BufferedInputStream(build.getLogInputStream())) {
+            long position = 0;
+            for (long offset : new TreeSet<Long>(offsets)) {
+                if (offset < position) {
+                    // not the start of a line
+                    continue;
+                }
+                try {
+                    ByteStreams.skipFully(log, offset - position);
+                } catch (EOFException e) {
+                    // the log is shorter than the offset
+                    break;
+                }
+                position = offset;
+                line.reset();
+                int b = log.read();
+                while (b != -1 && b != '\n' && b != '\r') {
+                    line.write(b);
+                    b = log.read();
+                }
+                position += line.size();
+                if (b != -1) {
+                    position++;
+                }
+                lines.put(offset, ConsoleNote.removeNotes(new String(line.toByteArray(), build.getCharset())));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * The number of lines between the sampled offsets.
+     *
+     * @return the number of lines.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * The number of lines in the log, counting the empty line after a trailing newline.
+     *
+     * @return the number of lines.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Collects the sampled line offsets while a log is indexed.
+     */
+    private static final class Samples implements LineSplitter.Listener {
+
+        private final int interval;
+        private final Map<Integer, List<FoundIndication>> indications;
+        private long[] offsets = new long[INITIAL_SAMPLES];
+        private int count = 1;
+
+        /**
+         * Standard constructor.
+         *
+         * @param interval the number of lines between the samples.
+         * @param indications the indications to set the offsets of, by line number.
+         */
+        Samples(int interval, Map<Integer, List<FoundIndication>> indications) {
+            this.interval = interval;
+            this.indications = indications;
+        }
+
+        /**
+         * Samples the start of a line if it is an n:th line, and sets the offsets of the indications on it.
+         *
+         * @param line the line number.
+         * @param offset the offset of the line.
+         * @return true.
+         */
+        @Override
+        public boolean lineStarted(int line, long offset) {
+            if ((line - 1) % interval == 0) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[count++] = offset;
+            }
+            if (!indications.isEmpty()) {
+                setOffset(indications, line, offset);
+            }
+            return true;
+        }
+
+        /**
+         * The sampled offsets.
+         *
+         * @return the offsets of line 1, 1 + interval, 1 + 2 * interval and so on.
+         */
+        long[] toArray() {
+            return Arrays.copyOf(offsets, count);
+        }
+    }
+}
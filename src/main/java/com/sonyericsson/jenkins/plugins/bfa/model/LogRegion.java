@@ -0,0 +1,535 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.google.common.io.ByteStreams;
+import hudson.console.ConsoleNote;
+import hudson.model.Run;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * A part of a build log, from a line start to an end offset, that can be scanned instead of the whole log.
+ *
+ * The region knows how many lines precede it, so the readers it opens report the line numbers of the whole log.
+ */
+public final class LogRegion {
+
+    /**
+     * The offset used as end of regions that last until the end of the log.
+     */
+    public static final long END_OF_LOG = Long.MAX_VALUE;
+
+    /**
+     * The line number of regions whose preceding lines are not counted yet.
+     */
+    public static final int UNKNOWN_LINE = -1;
+
+    private static final Logger logger = Logger.getLogger(LogRegion.class.getName());
+
+    private static final LogRegion WHOLE = new LogRegion(0, END_OF_LOG, 0);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Lines are only matched against markers up to this length.
+     */
+    private static final int MAX_MARKER_LINE = 64 * 1024;
+
+    private final long start;
+    private final long end;
+    private final int firstLine;
+    private final LinesBefore linesBefore;
+
+    /**
+     * Standard constructor.
+     *
+     * @param start the offset of the first byte of the region, at the start of a line.
+     * @param end the offset after the last byte of the region, or {@link #END_OF_LOG}.
+     * @param firstLine the number of lines before the region.
+     */
+    public LogRegion(long start, long end, int firstLine) {
+        this.start = start;
+        this.end = end;
+        this.firstLine = firstLine;
+        this.linesBefore = null;
+    }
+
+    /**
+     * Constructor for regions whose preceding lines are counted when first needed.
+     *
+     * @param start the offset of the first byte of the region.
+     * @param end the offset after the last byte of the region, or {@link #END_OF_LOG}.
+     * @param linesBefore counts the lines before the region, shared by the regions cut from this one.
+     */
+    private LogRegion(long start, long end, LinesBefore linesBefore) {
+        this.start = start;
+        this.end = end;
+        this.firstLine = UNKNOWN_LINE;
+        this.linesBefore = linesBefore;
+    }
+
+    /**
+     * The region covering the whole log.
+     *
+     * @return the region.
+     */
+    public static LogRegion whole() {
+        return WHOLE;
+    }
+
+    /**
+     * The region covering the last complete lines of the log that fit in the given number of bytes.
+     * The log is only read from where the region may start, and the lines before the region are counted when a
+     * reader of the region is first asked for a line number, which the scanners only do for a match.
+     * If the last line alone is larger than the region, only its end is in the region.
+     *
+     * @param build the build.
+     * @param maxBytes the maximum size of the region.
+     * @return the region.
+     * @throws IOException if the log can't be read.
+     */
+    public static LogRegion tail(Run build, long maxBytes) throws IOException {
+        long length = build.getLogText().length();
+        if (length <= maxBytes) {
+            return WHOLE;
+        }
+        long skip = length - maxBytes;
+        final long[] start = {skip};
+        InputStream in = build.getLogInputStream();
+        try {
+            ByteStreams.skipFully(in, skip);
+            new LineSplitter(skip).read(in, (line, offset) -> {
+                start[0] = offset;
+                return false;
+            });
+        } finally {
+            in.close();
+        }
+        return new LogRegion(start[0], END_OF_LOG, new LinesBefore(start[0]));
+    }
+
+    /**
+     * The region covering the first complete lines of the log that fit in the given number of bytes.
+     *
+     * @param build the build.
+     * @param maxBytes the maximum size of the region.
+     * @return the region.
+     * @throws IOException if the log can't be read.
+     */
+    public static LogRegion head(Run build, final long maxBytes) throws IOException {
+        if (build.getLogText().length() <= maxBytes) {
+            return WHOLE;
+        }
+        final long[] end = {0};
+        InputStream in = build.getLogInputStream();
+        try {
+            new LineSplitter().read(in, (line, offset) -> {
+                if (offset > maxBytes) {
+                    return false;
+                }
+                end[0] = offset;
+                return true;
+            });
+        } finally {
+            in.close();
+        }
+        return new LogRegion(0, end[0], 0);
+    }
+
+    /**
+     * The region covering the last lines of the log.
+     *
+     * @param build the build.
+     * @param lines the number of lines.
+     * @return the region.
+     * @throws IOException if the log can't be read.
+     */
+    public static LogRegion lastLines(Run build, int lines) throws IOException {
+        if (lines < 1) {
+            long length = build.getLogText().length();
+            return new LogRegion(length, length, 0);
+        }
+        // the starts of the last lines + 1 lines, since the last start might be after a trailing line break
+        final long[] starts = new long[lines + 1];
+        final int[] count = {1};
+        LineSplitter splitter = new LineSplitter();
+        InputStream in = build.getLogInputStream();
+        try {
+            splitter.read(in, (line, offset) -> {
+                starts[count[0] % starts.length] = offset;
+                count[0]++;
+                return true;
+            });
+        } finally {
+            in.close();
+        }
+        int total = count[0];
+        if (starts[(total - 1) % starts.length] == splitter.getPosition()) {
+            total--;
+        }
+        if (total <= lines) {
+            return WHOLE;
+        }
+        int first = total - lines;
+        return new LogRegion(starts[first % starts.length], END_OF_LOG, first);
+    }
+
+    /**
+     * The region from the first line matching a start marker to the next line matching an end marker, both
+     * included. The markers are matched against single lines without console notes.
+     *
+     * @param build the build.
+     * @param startMarker the start marker, or null to start at the beginning of the log.
+     * @param endMarker the end marker, or null to end at the end of the log.
+     * @return the region, empty if the start marker is not found.
+     * @throws IOException if the log can't be read.
+     */
+    public static LogRegion between(Run build, Pattern startMarker, Pattern endMarker) throws IOException {
+        MarkerSearch search = new MarkerSearch(build.getCharset(), startMarker, endMarker);
+        LineSplitter lines = new LineSplitter();
+        InputStream in = build.getLogInputStream();
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = in.read(buffer);
+            while (read != -1) {
+                for (int i = 0; i < read; i++) {
+                    long lineStart = lines.next(buffer[i]);
+                    if (lineStart >= 0 && search.lineEnded(lineStart)) {
+                        return search.getRegion();
+                    }
+                    search.append(buffer[i]);
+                }
+                read = in.read(buffer);
+            }
+        } finally {
+            in.close();
+        }
+        long lineStart = lines.finish();
+        if (lineStart >= 0 && search.lineEnded(lineStart)) {
+            return search.getRegion();
+        }
+        return search.endOfLog(lines.getPosition());
+    }
+
+    /**
+     * Counts the lines before an offset of the log.
+     *
+     * @param build the build.
+     * @param offset the offset.
+     * @return the number of line breaks before the offset.
+     * @throws IOException if the log can't be read.
+     */
+    static int countLines(Run build, long offset) throws IOException {
+        LineSplitter lines = new LineSplitter();
+        InputStream in = ByteStreams.limit(build.getLogInputStream(), offset);
+        try {
+            lines.read(in, (line, start) -> true);
+        } finally {
+            in.close();
+        }
+        return lines.getLines() - 1;
+    }
+
+    /**
+     * The part of this region that is also part of another region.
+     *
+     * @param other the other region.
+     * @return the overlap, empty if the regions don't overlap.
+     */
+    public LogRegion intersect(LogRegion other) {
+        LogRegion later = this;
+        if (other.start > start) {
+            later = other;
+        }
+        long overlapEnd = Math.max(later.start, Math.min(end, other.end));
+        if (later.linesBefore != null) {
+            return new LogRegion(later.start, overlapEnd, later.linesBefore);
+        }
+        return new LogRegion(later.start, overlapEnd, later.firstLine);
+    }
+
+    /**
+     * Opens a reader over the region of the log of the build.
+     *
+     * @param build the build.
+     * @return a reader positioned at the start of the region, that reports the line numbers of the whole log.
+     * @throws IOException if the log can't be read.
+     */
+    public LineNumberReader open(Run build) throws IOException {
+        InputStream in = build.getLogInputStream();
+        try {
+            ByteStreams.skipFully(in, start);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        if (end != END_OF_LOG) {
+            in = ByteStreams.limit(in, end - start);
+        }
+        if (linesBefore != null) {
+            return new CountingReader(new InputStreamReader(in, build.getCharset()), build, linesBefore);
+        }
+        LineNumberReader reader = new LineNumberReader(new InputStreamReader(in, build.getCharset()));
+        reader.setLineNumber(firstLine);
+        return reader;
+    }
+
+    /**
+     * The offset of the first byte of the region.
+     *
+     * @return the offset.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * The offset after the last byte of the region.
+     *
+     * @return the offset, or {@link #END_OF_LOG}.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * The number of lines before the region.
+     *
+     * @return the number of lines, or {@link #UNKNOWN_LINE} if they are only counted when a reader of the region
+     * is asked for a line number, see {@link #tail(Run, long)}.
+     */
+    public int getFirstLine() {
+        if (linesBefore != null) {
+            return linesBefore.getCounted();
+        }
+        return firstLine;
+    }
+
+    /**
+     * If this region covers the whole log.
+     *
+     * @return true if so.
+     */
+    public boolean isWhole() {
+        return start == 0 && end == END_OF_LOG;
+    }
+
+    /**
+     * If this region has nothing in it.
+     *
+     * @return true if so.
+     */
+    public boolean isEmpty() {
+        return end <= start;
+    }
+
+    @Override
+    public String toString() {
+        return "LogRegion{start=" + start + ", end=" + end + ", firstLine=" + getFirstLine() + "}";
+    }
+
+    /**
+     * Counts the lines before a region once, the first time a line number in it is asked for.
+     */
+    private static final class LinesBefore {
+
+        private final long offset;
+        private int count = UNKNOWN_LINE;
+
+        /**
+         * Standard constructor.
+         *
+         * @param offset the start of the region.
+         */
+        LinesBefore(long offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * Counts the lines, unless already counted.
+         *
+         * @param build the build.
+         * @return the number of lines, or {@link #UNKNOWN_LINE} if the log can't be read.
+         */
+        synchronized int get(Run build) {
+            if (count == UNKNOWN_LINE) {
+                try {
+                    count = countLines(build, offset);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "[BFA] Could not count the lines of the log of "
+                            + build.getFullDisplayName(), e);
+                }
+            }
+            return count;
+        }
+
+        /**
+         * The number of lines, if counted.
+         *
+         * @return the number of lines, or {@link #UNKNOWN_LINE}.
+         */
+        synchronized int getCounted() {
+            return count;
+        }
+    }
+
+    /**
+     * A reader of a region whose line numbers include the lines before the region, counted when first asked for.
+     */
+    private static final class CountingReader extends LineNumberReader {
+
+        private final Run build;
+        private final LinesBefore linesBefore;
+
+        /**
+         * Standard constructor.
+         *
+         * @param in the region.
+         * @param build the build.
+         * @param linesBefore counts the lines before the region.
+         */
+        CountingReader(Reader in, Run build, LinesBefore linesBefore) {
+            super(in);
+            this.build = build;
+            this.linesBefore = linesBefore;
+        }
+
+        @Override
+        public int getLineNumber() {
+            int before = linesBefore.get(build);
+            if (before == UNKNOWN_LINE) {
+                return UNKNOWN_LINE;
+            }
+            return before + super.getLineNumber();
+        }
+    }
+
+    /**
+     * Looks for the lines matching the markers of {@link #between(Run, Pattern, Pattern)}, one line at a time.
+     */
+    private static final class MarkerSearch {
+
+        private final Charset charset;
+        private final Pattern startMarker;
+        private final Pattern endMarker;
+        private final byte[] line = new byte[MAX_MARKER_LINE];
+        private int length;
+        private boolean started;
+        private long start;
+        private int firstLine;
+        private long lineStart;
+        private int lineNumber;
+        private LogRegion region;
+
+        /**
+         * Standard constructor.
+         *
+         * @param charset the charset of the log.
+         * @param startMarker the start marker, or null to start at the beginning of the log.
+         * @param endMarker the end marker, or null to end at the end of the log.
+         */
+        MarkerSearch(Charset charset, Pattern startMarker, Pattern endMarker) {
+            this.charset = charset;
+            this.startMarker = startMarker;
+            this.endMarker = endMarker;
+            this.started = startMarker == null;
+        }
+
+        /**
+         * Adds a byte to the current line, leaving out line breaks and keeping at most {@link #MAX_MARKER_LINE}
+         * bytes.
+         *
+         * @param b the byte.
+         */
+        void append(byte b) {
+            if (b != '\n' && b != '\r' && length < line.length) {
+                line[length++] = b;
+            }
+        }
+
+        /**
+         * Matches the line that ended against the markers.
+         *
+         * @param nextStart the offset of the next line.
+         * @return true if the end marker matched, see {@link #getRegion()}.
+         */
+        boolean lineEnded(long nextStart) {
+            String text = toText();
+            if (!started && startMarker.matcher(text).find()) {
+                started = true;
+                start = lineStart;
+                firstLine = lineNumber;
+            } else if (started && endMarker != null && endMarker.matcher(text).find()) {
+                region = new LogRegion(start, nextStart, firstLine);
+                return true;
+            }
+            length = 0;
+            lineNumber++;
+            lineStart = nextStart;
+            return false;
+        }
+
+        /**
+         * The region found when the end marker matched.
+         *
+         * @return the region.
+         */
+        LogRegion getRegion() {
+            return region;
+        }
+
+        /**
+         * The region when the end of the log is reached without a match of the end marker.
+         *
+         * @param position the end of the log.
+         * @return the region from the start marker to the end of the log, empty if the start marker did not match.
+         */
+        LogRegion endOfLog(long position) {
+            if (!started && lineStart < position && startMarker.matcher(toText()).find()) {
+                return new LogRegion(lineStart, END_OF_LOG, lineNumber);
+            }
+            if (!started) {
+                return new LogRegion(position, position, lineNumber);
+            }
+            return new LogRegion(start, END_OF_LOG, firstLine);
+        }
+
+        /**
+         * Decodes the current line for marker matching.
+         *
+         * @return the line without console notes.
+         */
+        private String toText() {
+            return ConsoleNote.removeNotes(new String(line, 0, length, charset));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.Run;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which regions of a build log are scanned, and in which order, so that huge logs can be analyzed at a
+ * bounded cost.
+ *
+ * The log is scanned in one or more passes, see {@link ScanStrategy}. When {@link #isStopAtFirstMatch()} is set,
+ * the passes after the first pass that found something are skipped, also for the causes that were not found, so
+ * causes that would only be found in a skipped pass are not reported. Indications with a scope, i.e. a number of
+ * last lines or start and end markers, are only looked for in the part of each pass that is in their scope.
+ */
+public final class LogRegionPlanner {
+
+    /**
+     * The default number of megabytes at the beginning of the log scanned for oversized logs.
+     */
+    public static final int DEFAULT_HEAD_SIZE = 1;
+
+    /**
+     * The default number of megabytes at the end of the log scanned first.
+     */
+    public static final int DEFAULT_TAIL_SIZE = 5;
+
+    private final Run build;
+    private final List<LogRegion> passes;
+    private final boolean stopAtFirstMatch;
+    private final Map<Indication, LogRegion> scopes = new IdentityHashMap<Indication, LogRegion>();
+
+    /**
+     * Standard constructor.
+     *
+     * @param build the build.
+     * @param passes the regions to scan, in order.
+     * @param stopAtFirstMatch if the remaining passes are skipped when a pass finds something.
+     */
+    private LogRegionPlanner(Run build, List<LogRegion> passes, boolean stopAtFirstMatch) {
+        this.build = build;
+        this.passes = Collections.unmodifiableList(passes);
+        this.stopAtFirstMatch = stopAtFirstMatch;
+    }
+
+    /**
+     * Plans the scan of the whole log in one pass.
+     *
+     * @param build the build.
+     * @return the plan.
+     */
+    public static LogRegionPlanner whole(Run build) {
+        return new LogRegionPlanner(build, Collections.singletonList(LogRegion.whole()), false);
+    }
+
+    /**
+     * Plans the scan of a build log.
+     *
+     * @param build the build.
+     * @param strategy the strategy.
+     * @param headBytes the size of the beginning of the log to scan when oversized.
+     * @param tailBytes the size of the end of the log to scan first.
+     * @param oversized if the log is larger than the maximum log size.
+     * @return the plan.
+     * @throws IOException if the log can't be read.
+     */
+    public static LogRegionPlanner plan(Run build, ScanStrategy strategy, long headBytes, long tailBytes,
+                                        boolean oversized) throws IOException {
+        if (strategy == null || strategy == ScanStrategy.FULL) {
+            return whole(build);
+        }
+        LogRegion tail = LogRegion.tail(build, tailBytes);
+        if (tail.isWhole()) {
+            return whole(build);
+        }
+        List<LogRegion> passes = new ArrayList<LogRegion>();
+        passes.add(tail);
+        if (strategy == ScanStrategy.HEAD_AND_TAIL && oversized) {
+            LogRegion head = LogRegion.head(build, headBytes);
+            if (head.getEnd() >= tail.getStart()) {
+                return whole(build);
+            }
+            passes.add(head);
+            return new LogRegionPlanner(build, passes, false);
+        }
+        passes.add(new LogRegion(0, tail.getStart(), 0));
+        return new LogRegionPlanner(build, passes, true);
+    }
+
+    /**
+     * The causes that have indications that are only looked for in a part of the log.
+     *
+     * @param causes the causes.
+     * @return the causes with scoped indications.
+     * @see Indication#isScoped()
+     */
+    public static List<FailureCause> getScopedCauses(Collection<FailureCause> causes) {
+        List<FailureCause> scoped = new ArrayList<FailureCause>();
+        for (FailureCause cause : causes) {
+            for (Indication indication : cause.getIndications()) {
+                if (indication.isScoped()) {
+                    scoped.add(cause);
+                    break;
+                }
+            }
+        }
+        return scoped;
+    }
+
+    /**
+     * The regions to scan, in order.
+     *
+     * @return the regions.
+     */
+    public List<LogRegion> getPasses() {
+        return passes;
+    }
+
+    /**
+     * If the remaining passes are skipped when a pass finds something.
+     *
+     * @return true if so.
+     */
+    public boolean isStopAtFirstMatch() {
+        return stopAtFirstMatch;
+    }
+
+    /**
+     * The region an indication is looked for in during a pass.
+     *
+     * @param indication the indication.
+     * @param pass the region of the pass.
+     * @return the region, possibly empty.
+     * @throws IOException if the log can't be read to find the scope of the indication.
+     */
+    public LogRegion regionFor(Indication indication, LogRegion pass) throws IOException {
+        if (!indication.isScoped()) {
+            return pass;
+        }
+        return getScope(indication).intersect(pass);
+    }
+
+    /**
+     * The part of the log an indication is looked for in, found once per scan.
+     *
+     * @param indication the indication.
+     * @return the region.
+     * @throws IOException if the log can't be read.
+     */
+    private synchronized LogRegion getScope(Indication indication) throws IOException {
+        LogRegion scope = scopes.get(indication);
+        if (scope == null) {
+            scope = LogRegion.whole();
+            if (indication.getStartMarker() != null || indication.getEndMarker() != null) {
+                scope = LogRegion.between(build, indication.getStartMarkerPattern(),
+                        indication.getEndMarkerPattern());
+            }
+            if (indication.getLastLines() != null && !scope.isEmpty()) {
+                scope = scope.intersect(LogRegion.lastLines(build, indication.getLastLines()));
+            }
+            scopes.put(indication, scope);
+        }
+        return scope;
+    }
+}
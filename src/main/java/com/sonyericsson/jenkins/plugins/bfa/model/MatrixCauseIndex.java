@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which causes were found in which configurations of a matrix build, kept by the
+ * {@link FailureCauseMatrixBuildAction} as the configuration runs are scanned, so that it doesn't have to load the
+ * actions of all runs to show the causes.
+ *
+ * Configurations are identified by {@link hudson.matrix.Combination#toString()} and causes by their id, or by their
+ * name for causes that are not in the knowledge base.
+ */
+public final class MatrixCauseIndex {
+
+    private final Map<String, List<String>> causesByCombination = new LinkedHashMap<String, List<String>>();
+    private final Map<String, List<String>> combinationsByCause = new LinkedHashMap<String, List<String>>();
+    private final Map<String, String> causeNames = new HashMap<String, String>();
+
+    /**
+     * The key of a found cause in the index.
+     *
+     * @param cause the cause.
+     * @return the id of the cause, or its name if it has no id.
+     */
+    public static String key(FoundFailureCause cause) {
+        if (cause.getId() != null) {
+            return cause.getId();
+        }
+        return cause.getName();
+    }
+
+    /**
+     * Records the causes found in a configuration, replacing those found before.
+     *
+     * @param combination the configuration.
+     * @param causes the found causes, null or empty if none.
+     */
+    public synchronized void record(String combination, List<FoundFailureCause> causes) {
+        List<String> previous = causesByCombination.remove(combination);
+        if (previous != null) {
+            for (String key : previous) {
+                List<String> combinations = combinationsByCause.get(key);
+                combinations.remove(combination);
+                if (combinations.isEmpty()) {
+                    combinationsByCause.remove(key);
+                    causeNames.remove(key);
+                }
+            }
+        }
+        List<String> keys = new ArrayList<String>();
+        if (causes != null) {
+            for (FoundFailureCause cause : causes) {
+                String key = key(cause);
+                if (key == null || keys.contains(key)) {
+                    continue;
+                }
+                keys.add(key);
+                List<String> combinations = combinationsByCause.get(key);
+                if (combinations == null) {
+                    combinations = new ArrayList<String>();
+                    combinationsByCause.put(key, combinations);
+                }
+                combinations.add(combination);
+                causeNames.put(key, cause.getName());
+            }
+        }
+        causesByCombination.put(combination, keys);
+    }
+
+    /**
+     * The configurations that were scanned, in the order they were recorded.
+     *
+     * @return the configurations.
+     */
+    public synchronized List<String> getScannedCombinations() {
+        return new ArrayList<String>(causesByCombination.keySet());
+    }
+
+    /**
+     * The configurations that causes were found in, in the order they were recorded.
+     *
+     * @return the configurations.
+     */
+    public synchronized List<String> getCombinationsWithCauses() {
+        List<String> combinations = new ArrayList<String>();
+        for (Map.Entry<String, List<String>> entry : causesByCombination.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                combinations.add(entry.getKey());
+            }
+        }
+        return combinations;
+    }
+
+    /**
+     * The keys of the causes found in any configuration, in the order they were first found.
+     *
+     * @return the keys.
+     * @see #key(FoundFailureCause)
+     */
+    public synchronized List<String> getCauses() {
+        return new ArrayList<String>(combinationsByCause.keySet());
+    }
+
+    /**
+     * The configurations a cause was found in.
+     *
+     * @param key the key of the cause.
+     * @return the configurations, empty if the cause was not found.
+     */
+    public synchronized List<String> getCombinations(String key) {
+        List<String> combinations = combinationsByCause.get(key);
+        if (combinations == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<String>(combinations);
+    }
+
+    /**
+     * The name of a found cause.
+     *
+     * @param key the key of the cause.
+     * @return the name, or null if the cause was not found.
+     */
+    public synchronized String getCauseName(String key) {
+        return causeNames.get(key);
+    }
+
+    /**
+     * Checks if a configuration was scanned.
+     *
+     * @param combination the configuration.
+     * @return true if so.
+     */
+    public synchronized boolean isScanned(String combination) {
+        return causesByCombination.containsKey(combination);
+    }
+}
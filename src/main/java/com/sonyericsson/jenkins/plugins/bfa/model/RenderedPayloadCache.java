@@ -0,0 +1,311 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the failure causes of builds as rendered for notifications, so that the token macro, Gerrit, MQ and Slack
+ * messages of a build are not rendered again every time they are asked for.
+ *
+ * The payload of a build is made from its {@link FailureCauseBuildAction#getFailureCauseDisplayData()} when the scan
+ * finishes, and each format is rendered from it the first time it is asked for. Payloads are kept per user, as the
+ * display data only holds the downstream builds the user may see. A payload is dropped whenever the
+ * {@link DownstreamDataCache} drops the tree of its build, so when the build is re-scanned or one of its downstream
+ * builds changes, and the least recently used payloads are dropped when the rendered formats of all payloads exceed
+ * {@link #MAX_CHARS}.
+ */
+public final class RenderedPayloadCache {
+
+    /**
+     * The maximum number of payloads kept.
+     */
+    static final int SIZE = 500;
+
+    /**
+     * The maximum number of characters of rendered formats kept.
+     */
+    static final long MAX_CHARS = 4L * 1024 * 1024;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static RenderedPayloadCache instance;
+
+    private final int size;
+    private final long maxChars;
+    private final LinkedHashMap<Key, Payload> payloads;
+    private long chars;
+    private long generation;
+
+    /**
+     * Standard constructor.
+     *
+     * @param size the maximum number of payloads kept.
+     * @param maxChars the maximum number of characters of rendered formats kept.
+     */
+    RenderedPayloadCache(int size, long maxChars) {
+        this.size = size;
+        this.maxChars = maxChars;
+        this.payloads = new LinkedHashMap<Key, Payload>(size, LOAD_FACTOR, true);
+    }
+
+    /**
+     * The singleton instance.
+     *
+     * @return the instance.
+     */
+    public static synchronized RenderedPayloadCache getInstance() {
+        if (instance == null) {
+            instance = new RenderedPayloadCache(SIZE, MAX_CHARS);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the payload of the build of an action for the current user, making it from the display data of the action
+     * if it is not kept.
+     *
+     * @param action the action.
+     * @return the payload.
+     */
+    public Payload get(FailureCauseBuildAction action) {
+        return get(action, Jenkins.getAuthentication2().getName());
+    }
+
+    /**
+     * Gets the payload of the build of an action for a user, making it from the display data of the action if it is
+     * not kept.
+     *
+     * @param action the action.
+     * @param user the name of the user the display data is made for.
+     * @return the payload.
+     */
+    Payload get(FailureCauseBuildAction action, String user) {
+        String id = null;
+        if (action.getBuild() != null) {
+            id = action.getBuild().getExternalizableId();
+        }
+        if (id == null) {
+            return new Payload(this, action.getFailureCauseDisplayData());
+        }
+        Key key = new Key(id, user);
+        long startGeneration;
+        synchronized (this) {
+            Payload payload = payloads.get(key);
+            if (payload != null) {
+                return payload;
+            }
+            startGeneration = generation;
+        }
+        Payload payload = new Payload(this, action.getFailureCauseDisplayData());
+        synchronized (this) {
+            if (startGeneration != generation) {
+                // the display data may already be stale
+                payload.chars = -1;
+                return payload;
+            }
+            Payload previous = payloads.put(key, payload);
+            if (previous != null) {
+                chars -= previous.chars;
+            }
+            evict();
+        }
+        return payload;
+    }
+
+    /**
+     * Drops the payloads of builds, for all users.
+     *
+     * @param ids the {@link Run#getExternalizableId()}s of the builds.
+     */
+    public synchronized void invalidate(Collection<String> ids) {
+        generation++;
+        Iterator<Map.Entry<Key, Payload>> iterator = payloads.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Payload> entry = iterator.next();
+            if (ids.contains(entry.getKey().id)) {
+                iterator.remove();
+                chars -= entry.getValue().chars;
+                entry.getValue().chars = -1;
+            }
+        }
+    }
+
+    /**
+     * Drops the payload of a build.
+     *
+     * @param build the build.
+     */
+    public void invalidate(Run build) {
+        String id = build.getExternalizableId();
+        if (id != null) {
+            invalidate(Collections.singleton(id));
+        }
+    }
+
+    /**
+     * The number of payloads kept.
+     *
+     * @return the number of payloads.
+     */
+    synchronized int size() {
+        return payloads.size();
+    }
+
+    /**
+     * The number of characters of the rendered formats kept.
+     *
+     * @return the number of characters.
+     */
+    synchronized long getChars() {
+        return chars;
+    }
+
+    /**
+     * Counts a format rendered for a payload, dropping other payloads if there are too many characters.
+     *
+     * @param payload the payload.
+     * @param length the length of the format.
+     */
+    private synchronized void added(Payload payload, int length) {
+        if (payload.chars < 0) {
+            return;
+        }
+        payload.chars += length;
+        chars += length;
+        evict();
+    }
+
+    /**
+     * Drops the least recently used payloads while over the limits.
+     */
+    private void evict() {
+        Iterator<Payload> iterator = payloads.values().iterator();
+        while (iterator.hasNext() && (payloads.size() > size || chars > maxChars)) {
+            Payload eldest = iterator.next();
+            iterator.remove();
+            chars -= eldest.chars;
+            // not counted if rendered later
+            eldest.chars = -1;
+        }
+    }
+
+    /**
+     * Identifies the payload of a build for a user.
+     */
+    private static final class Key {
+        private final String id;
+        private final String user;
+
+        /**
+         * Standard constructor.
+         *
+         * @param id the {@link Run#getExternalizableId()} of the build.
+         * @param user the name of the user.
+         */
+        private Key(String id, String user) {
+            this.id = id;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return id.equals(other.id) && Objects.equals(user, other.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, user);
+        }
+    }
+
+    /**
+     * The display data of a build and the formats rendered from it.
+     */
+    public static final class Payload {
+        private final RenderedPayloadCache cache;
+        private final FailureCauseDisplayData data;
+        private final Map<String, String> formats = new ConcurrentHashMap<String, String>();
+        private long chars;
+
+        /**
+         * Standard constructor.
+         *
+         * @param cache the cache keeping the payload.
+         * @param data the display data.
+         */
+        private Payload(RenderedPayloadCache cache, FailureCauseDisplayData data) {
+            this.cache = cache;
+            this.data = data;
+        }
+
+        /**
+         * The display data the formats are rendered from.
+         *
+         * @return the display data.
+         */
+        public FailureCauseDisplayData getData() {
+            return data;
+        }
+
+        /**
+         * Gets a format, rendering it the first time.
+         *
+         * @param key identifies the format and all options it is rendered with.
+         * @param renderer renders the format from the display data.
+         * @return the rendered format.
+         */
+        public String format(String key, Function<FailureCauseDisplayData, String> renderer) {
+            String rendered = formats.get(key);
+            if (rendered == null) {
+                rendered = renderer.apply(data);
+                if (rendered == null) {
+                    return null;
+                }
+                if (formats.putIfAbsent(key, rendered) == null) {
+                    cache.added(this, rendered.length());
+                }
+            }
+            return rendered;
+        }
+    }
+}
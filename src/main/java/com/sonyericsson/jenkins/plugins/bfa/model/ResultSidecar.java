@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.CauseRevisions;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.model.Run;
+import hudson.util.XStream2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The file in the build directory that the causes found in a build are stored in with
+ * {@link ResultStorageMode#SIDECAR}, so that they are not read together with build.xml.
+ *
+ * The causes are written as {@link CompactFoundCause}s and gzipped.
+ */
+public final class ResultSidecar {
+
+    /**
+     * The name of the file in the build directory.
+     */
+    public static final String FILE_NAME = "bfa-results.xml.gz";
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("found-causes", ArrayList.class);
+        XSTREAM.alias("found-cause", CompactFoundCause.class);
+        XSTREAM.alias("found-indication", CompactFoundCause.Position.class);
+        // set again when read, see read(Run, CauseRevisions)
+        XSTREAM.omitField(FoundIndication.class, "build");
+    }
+
+    /**
+     * Utility class.
+     */
+    private ResultSidecar() {
+    }
+
+    /**
+     * Writes the found causes of a build to its directory.
+     *
+     * @param build the build.
+     * @param found the found causes.
+     * @param causes the causes the build was scanned for.
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(Run build, List<FoundFailureCause> found, Collection<FailureCause> causes)
+            throws IOException {
+        write(build, CompactFoundCause.of(build, found, causes));
+    }
+
+    /**
+     * Writes compact causes to the directory of a build.
+     *
+     * @param build the build.
+     * @param compact the compact causes.
+     * @throws IOException if the file can't be written.
+     */
+    static void write(Run build, List<CompactFoundCause> compact) throws IOException {
+        File file = new File(build.getRootDir(), FILE_NAME);
+        File temp = new File(build.getRootDir(), FILE_NAME + ".tmp");
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(new BufferedOutputStream(
+                new FileOutputStream(temp))), StandardCharsets.UTF_8)) {
+            XSTREAM.toXML(new ArrayList<CompactFoundCause>(compact), out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads the found causes of a build.
+     *
+     * @param build the build.
+     * @return the found causes.
+     * @throws IOException if the file can't be read.
+     */
+    public static List<FoundFailureCause> read(Run build) throws IOException {
+        return read(build, CauseRevisions.getInstance());
+    }
+
+    /**
+     * Reads the found causes of a build.
+     *
+     * @param build the build.
+     * @param revisions the stored revisions of the causes.
+     * @return the found causes.
+     * @throws IOException if the file can't be read.
+     */
+    @SuppressWarnings("unchecked")
+    static List<FoundFailureCause> read(Run build, CauseRevisions revisions) throws IOException {
+        File file = new File(build.getRootDir(), FILE_NAME);
+        List<CompactFoundCause> compact;
+        try (Reader in = new InputStreamReader(new GZIPInputStream(new BufferedInputStream(
+                new FileInputStream(file))), StandardCharsets.UTF_8)) {
+            compact = (List<CompactFoundCause>)XSTREAM.fromXML(in);
+        }
+        List<FoundFailureCause> found = CompactFoundCause.resolve(compact, build, revisions);
+        for (FoundFailureCause cause : found) {
+            for (FoundIndication indication : cause.getIndications()) {
+                if (indication.getBuild() == null) {
+                    indication.setBuild(build);
+                }
+            }
+        }
+        return found;
+    }
+}
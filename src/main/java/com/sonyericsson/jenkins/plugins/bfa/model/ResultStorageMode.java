@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+/**
+ * How the causes found in a build are stored with it, see {@link FailureCauseBuildAction}.
+ */
+public enum ResultStorageMode {
+    /**
+     * Full copies of the found causes and indications in build.xml.
+     */
+    FULL,
+    /**
+     * Only the cause ids, the revisions of the causes and the positions of the indications in build.xml. The names,
+     * descriptions and categories are shared by all builds and read from the stored revisions of the causes, and
+     * the matching text of the indications is read from the log when needed.
+     */
+    COMPACT,
+    /**
+     * The found causes stored as with {@link #COMPACT} in a file of their own in the build directory, see
+     * {@link ResultSidecar}, and read when first asked for. build.xml only keeps a stub action, so loading the
+     * builds of a job does not load their found causes.
+     */
+    SIDECAR
+}
@@ -0,0 +1,202 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The set of causes to evaluate against a log, pre-split the way the scanning engine consumes them.
+ *
+ * Causes that only have single line indications are evaluated together in one pass over the log, while causes
+ * with at least one multi-line indication, or an indication only looked for in a part of the log, are evaluated one
+ * by one.
+ */
+public final class ScanPlan {
+
+    private static final int HEX_SHIFT = 4;
+    private static final int HEX_MASK = 0xf;
+    private static final int HEX_RADIX = 16;
+
+    private final List<FailureCause> singleLineCauses;
+    private final List<FailureCause> multiLineCauses;
+
+    /**
+     * Standard constructor.
+     *
+     * @param singleLineCauses the causes that only have single line indications.
+     * @param multiLineCauses the causes that have at least one multi-line or scoped indication.
+     */
+    private ScanPlan(List<FailureCause> singleLineCauses, List<FailureCause> multiLineCauses) {
+        this.singleLineCauses = Collections.unmodifiableList(singleLineCauses);
+        this.multiLineCauses = Collections.unmodifiableList(multiLineCauses);
+    }
+
+    /**
+     * Creates a plan for the given causes.
+     *
+     * @param causes the causes to evaluate.
+     * @return the plan.
+     */
+    public static ScanPlan of(Collection<FailureCause> causes) {
+        List<FailureCause> singleLine = new ArrayList<FailureCause>();
+        List<FailureCause> multiLine = new ArrayList<FailureCause>();
+        for (FailureCause cause : causes) {
+            if (isSingleLineOnly(cause)) {
+                singleLine.add(cause);
+            } else {
+                multiLine.add(cause);
+            }
+        }
+        return new ScanPlan(singleLine, multiLine);
+    }
+
+    /**
+     * Checks if all indications of the cause can be evaluated one line at a time over the whole log.
+     *
+     * @param cause the cause to check.
+     * @return true if the cause has no multi-line or scoped indication.
+     * @see Indication#isScoped()
+     */
+    public static boolean isSingleLineOnly(FailureCause cause) {
+        for (Indication indication : cause.getIndications()) {
+            if (indication instanceof MultilineBuildLogIndication || indication.isScoped()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The version of a set of causes: a hash that changes whenever a cause is added or removed, or anything that
+     * affects what is found for it or how it is reported changes.
+     *
+     * @param causes the causes.
+     * @return the version, as a hex string.
+     */
+    public static String version(Collection<FailureCause> causes) {
+        StringBuilder content = new StringBuilder();
+        for (FailureCause cause : causes) {
+            content.append(fingerprint(cause)).append('\n');
+        }
+        return sha256(content.toString());
+    }
+
+    /**
+     * The fingerprint of a cause, which changes when anything that affects what is found for it or how it is
+     * reported changes.
+     *
+     * @param cause the cause.
+     * @return the fingerprint, as a hex string.
+     */
+    public static String fingerprint(FailureCause cause) {
+        StringBuilder content = new StringBuilder();
+        content.append(cause.getId()).append('\0').append(cause.getName()).append('\0')
+                .append(cause.getDescription()).append('\0').append(cause.getCategories()).append('\0')
+                .append(cause.getPriority()).append('\0').append(cause.getExclusivityGroup()).append('\0')
+                .append(cause.isTerminal());
+        for (Indication indication : cause.getIndications()) {
+            content.append('\0').append(fingerprint(indication));
+        }
+        return sha256(content.toString());
+    }
+
+    /**
+     * The fingerprint of an indication, which changes when its type, pattern or scope changes.
+     *
+     * @param indication the indication.
+     * @return the fingerprint, as a hex string.
+     */
+    public static String fingerprint(Indication indication) {
+        return sha256(indication.getClass().getName() + '\0' + indication.getUserProvidedExpression() + '\0'
+                + indication.getLastLines() + '\0' + indication.getStartMarker() + '\0'
+                + indication.getEndMarker());
+    }
+
+    /**
+     * Hashes a string with SHA-256.
+     *
+     * @param content the string.
+     * @return the hash, as a hex string.
+     */
+    static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return toHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Formats bytes as a hex string.
+     *
+     * @param bytes the bytes.
+     * @return the hex string.
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> HEX_SHIFT) & HEX_MASK, HEX_RADIX))
+                    .append(Character.forDigit(b & HEX_MASK, HEX_RADIX));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The causes that only have single line indications.
+     *
+     * @return the causes.
+     */
+    public List<FailureCause> getSingleLineCauses() {
+        return singleLineCauses;
+    }
+
+    /**
+     * The causes that have at least one multi-line or scoped indication.
+     *
+     * @return the causes.
+     */
+    public List<FailureCause> getMultiLineCauses() {
+        return multiLineCauses;
+    }
+
+    /**
+     * Checks if there is nothing to evaluate.
+     *
+     * @return true if the plan has no causes.
+     */
+    public boolean isEmpty() {
+        return singleLineCauses.isEmpty() && multiLineCauses.isEmpty();
+    }
+}
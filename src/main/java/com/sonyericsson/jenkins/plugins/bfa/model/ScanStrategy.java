@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+/**
+ * The order in which the regions of a build log are scanned, see {@link LogRegionPlanner}.
+ */
+public enum ScanStrategy {
+    /**
+     * The whole log in one pass. Logs over the maximum log size are not scanned.
+     */
+    FULL,
+    /**
+     * The end of the log first, and the rest only if nothing was found at the end.
+     * When a cause is found at the end, causes that are only found before the end are not reported, so this trades
+     * completeness for speed; use {@link #FULL} when every cause must be reported.
+     * Logs over the maximum log size are not scanned.
+     */
+    TAIL_FIRST,
+    /**
+     * Like {@link #TAIL_FIRST}, but logs over the maximum log size have their beginning and end scanned instead of
+     * not being scanned at all.
+     */
+    HEAD_AND_TAIL
+}
@@ -0,0 +1,483 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
+import hudson.console.ConsoleNote;
+import hudson.model.Run;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scans the log of a build while it is written, so that the scan when the build completes doesn't have to read
+ * the log again.
+ *
+ * The lines are collected in batches that are matched on a separate thread, so a slow pattern never holds up the
+ * build. Only the state of each indication is kept: the first match, and for multi-line indications a sliding
+ * window with the same size and overlap as {@link FailureReader} uses. If the matching falls too far behind the
+ * build, the streaming scan gives up and the build is scanned after completion as usual.
+ */
+public final class StreamingScan {
+
+    /**
+     * The number of lines matched together.
+     */
+    static final int BATCH_LINES = 1000;
+
+    /**
+     * The number of characters that may wait for matching before the streaming scan gives up.
+     */
+    static final long MAX_PENDING_CHARS = 32L * 1024 * 1024;
+
+    private static final Logger logger = Logger.getLogger(StreamingScan.class.getName());
+    private static final String LOG_FILE_NAME = "log";
+    private static final long TIMEOUT_LINE = 1000;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final ConcurrentMap<String, StreamingScan> SCANS = new ConcurrentHashMap<String, StreamingScan>();
+    private static ExecutorService executor;
+
+    private final Run build;
+    private final ScanPlan plan;
+    private final List<FailureCause> causes;
+    private final Map<String, String> fingerprints = new HashMap<String, String>();
+    private final Queue<List<String>> batches = new ConcurrentLinkedQueue<List<String>>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong pendingChars = new AtomicLong();
+    private final CompletableFuture<List<FoundFailureCause>> result =
+            new CompletableFuture<List<FoundFailureCause>>();
+    private final Map<FailureCause, List<FoundIndication>> found =
+            new LinkedHashMap<FailureCause, List<FoundIndication>>();
+    private final Set<Indication> foundIndications =
+            Collections.newSetFromMap(new IdentityHashMap<Indication, Boolean>());
+    private final StringBuilder window = new StringBuilder();
+    private List<String> batch = new ArrayList<String>(BATCH_LINES);
+    private long batchChars;
+    private int lineNumber;
+    private volatile boolean abandoned;
+    private volatile boolean finished;
+
+    /**
+     * Standard constructor.
+     *
+     * @param build the build whose log is scanned.
+     * @param causes the causes to look for.
+     */
+    StreamingScan(Run build, List<FailureCause> causes) {
+        this.build = build;
+        this.causes = causes;
+        this.plan = ScanPlan.of(causes);
+        for (FailureCause cause : causes) {
+            fingerprints.put(IncrementalRescan.key(cause), ScanPlan.fingerprint(cause));
+        }
+    }
+
+    /**
+     * Starts a streaming scan of a build.
+     *
+     * @param build the build.
+     * @param causes the causes to look for.
+     * @return the scan to feed the lines of the log to.
+     */
+    public static StreamingScan start(Run build, List<FailureCause> causes) {
+        StreamingScan scan = new StreamingScan(build, causes);
+        StreamingScan previous = SCANS.put(build.getExternalizableId(), scan);
+        if (previous != null) {
+            previous.abandon();
+        }
+        return scan;
+    }
+
+    /**
+     * Takes the streaming scan of a build out of the registry.
+     *
+     * @param build the build.
+     * @return the scan, or null if the build wasn't scanned while running.
+     */
+    public static StreamingScan remove(Run build) {
+        return SCANS.remove(build.getExternalizableId());
+    }
+
+    /**
+     * The causes that were not looked for as they are now, since they were added or changed in the knowledge base
+     * after the build started, or were left out of the streaming scan. These have to be looked for in the log.
+     *
+     * @param current the causes to look for now.
+     * @return the causes of current that were not streamed unchanged, in their order.
+     * @see ScanPlan#fingerprint(FailureCause)
+     */
+    public List<FailureCause> getChanged(Collection<FailureCause> current) {
+        List<FailureCause> changed = new ArrayList<FailureCause>();
+        for (FailureCause cause : current) {
+            if (!ScanPlan.fingerprint(cause).equals(fingerprints.get(IncrementalRescan.key(cause)))) {
+                changed.add(cause);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The streamed found causes that are still valid: their cause is still among the causes to look for, and
+     * unchanged since the build started.
+     *
+     * @param found the found causes, from {@link #await(long, TimeUnit)}.
+     * @param current the causes to look for now.
+     * @param changed the changed causes, from {@link #getChanged(Collection)}.
+     * @return the valid found causes, in their order.
+     */
+    public static List<FoundFailureCause> getUnchanged(List<FoundFailureCause> found, Collection<FailureCause> current,
+                                                       List<FailureCause> changed) {
+        List<FoundFailureCause> unchanged = new ArrayList<FoundFailureCause>(found.size());
+        for (FoundFailureCause foundCause : found) {
+            FailureCause cause = CauseEvaluationOrder.findCause(current, foundCause);
+            if (cause != null && !changed.contains(cause)) {
+                unchanged.add(foundCause);
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * Adds a line of the log. Called by the thread writing the log.
+     *
+     * @param line the line, without line terminator.
+     */
+    public synchronized void addLine(String line) {
+        if (abandoned || finished) {
+            return;
+        }
+        batch.add(line);
+        batchChars += line.length();
+        if (batch.size() >= BATCH_LINES) {
+            flush();
+        }
+    }
+
+    /**
+     * Signals that the log is complete. Called when the log is closed, or when the build has completed.
+     */
+    public synchronized void finish() {
+        if (finished) {
+            return;
+        }
+        flush();
+        finished = true;
+        // the empty batch marks the end of the log
+        batches.add(Collections.<String>emptyList());
+        schedule();
+    }
+
+    /**
+     * Waits for the matching to catch up with the end of the log. The build must have completed, since the
+     * log is considered complete.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     * @return the found causes, or null if the streaming scan didn't complete.
+     */
+    public List<FoundFailureCause> await(long timeout, TimeUnit unit) {
+        // the log is closed after the build has been reported as completed
+        finish();
+        try {
+            return result.get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            abandon();
+            return null;
+        }
+    }
+
+    /**
+     * Gives up the streaming scan, the build will be scanned after completion.
+     */
+    public void abandon() {
+        abandoned = true;
+        batches.clear();
+        result.complete(null);
+    }
+
+    /**
+     * Hands the collected lines over to be matched, or gives up if the matching is too far behind.
+     */
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (pendingChars.addAndGet(batchChars) > MAX_PENDING_CHARS) {
+            logger.log(Level.FINE, "[BFA] Streaming scan of {0} is too far behind, scanning after completion",
+                    build.getFullDisplayName());
+            abandon();
+            return;
+        }
+        batches.add(batch);
+        batch = new ArrayList<String>(BATCH_LINES);
+        batchChars = 0;
+        schedule();
+    }
+
+    /**
+     * Makes sure a thread is matching the queued batches, one at a time and in order.
+     */
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                getExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                abandon();
+            }
+        }
+    }
+
+    /**
+     * Matches the queued batches.
+     */
+    private void drain() {
+        try {
+            List<String> lines = batches.poll();
+            while (lines != null && !abandoned) {
+                if (lines.isEmpty()) {
+                    matchWindow();
+                    result.complete(toFoundFailureCauses());
+                } else {
+                    match(lines);
+                }
+                lines = batches.poll();
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "[BFA] Streaming scan of " + build.getFullDisplayName() + " failed", e);
+            abandon();
+        } finally {
+            draining.set(false);
+        }
+        if (!batches.isEmpty() && !abandoned) {
+            schedule();
+        }
+    }
+
+    /**
+     * Matches a batch of lines.
+     *
+     * @param lines the lines.
+     */
+    private void match(List<String> lines) {
+        FailureReader.TimerThread timerThread = new FailureReader.TimerThread(Thread.currentThread(), TIMEOUT_LINE);
+        timerThread.start();
+        try {
+            long chars = 0;
+            for (String line : lines) {
+                lineNumber++;
+                chars += line.length();
+                for (FailureCause cause : causes) {
+                    for (Indication indication : cause.getIndications()) {
+                        if (!(indication instanceof MultilineBuildLogIndication)
+                                && !foundIndications.contains(indication)) {
+                            matchLine(cause, indication, line);
+                            timerThread.touch();
+                        }
+                    }
+                }
+                if (!plan.getMultiLineCauses().isEmpty()) {
+                    window.append(line).append('\n');
+                    if (window.length() >= FailureReader.BUF_SIZE_BYTES) {
+                        matchWindow();
+                        window.delete(0, window.length() - FailureReader.OVERLAP_BYTES);
+                    }
+                }
+            }
+            pendingChars.addAndGet(-chars);
+        } finally {
+            timerThread.requestStop();
+            timerThread.interrupt();
+            try {
+                timerThread.join();
+                //CS IGNORE EmptyBlock FOR NEXT 2 LINES. REASON: unimportant exception
+            } catch (InterruptedException eIgnore) {
+            }
+            // reset the interrupt
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Matches a single-line indication against a line.
+     *
+     * @param cause the cause of the indication.
+     * @param indication the indication.
+     * @param line the line.
+     */
+    private void matchLine(FailureCause cause, Indication indication, String line) {
+        Pattern pattern = indication.getPattern();
+        try {
+            if (pattern.matcher(new FailureReader.InterruptibleCharSequence(line)).matches()) {
+                addFound(cause, indication, new FoundIndication(build, pattern.toString(), LOG_FILE_NAME,
+                        ConsoleNote.removeNotes(line), lineNumber));
+            }
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                logger.warning("Timeout scanning for indication '" + indication + "' for file "
+                        + LOG_FILE_NAME + ":" + lineNumber);
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Matches the multi-line indications that haven't been found yet against the window.
+     */
+    private void matchWindow() {
+        if (window.length() == 0) {
+            return;
+        }
+        String text = window.toString();
+        for (FailureCause cause : plan.getMultiLineCauses()) {
+            for (Indication indication : cause.getIndications()) {
+                if (indication instanceof MultilineBuildLogIndication && !foundIndications.contains(indication)) {
+                    Pattern pattern = indication.getPattern();
+                    try {
+                        Matcher matcher = pattern.matcher(new FailureReader.InterruptibleCharSequence(text));
+                        if (matcher.find()) {
+                            addFound(cause, indication, new FoundIndication(build, pattern.pattern(), LOG_FILE_NAME,
+                                    FailureReader.removeConsoleNotes(matcher.group()), lineNumber));
+                        }
+                    } catch (RuntimeException e) {
+                        if (e.getCause() instanceof InterruptedException) {
+                            logger.warning("Timeout scanning for indication '" + indication + "' for file "
+                                    + LOG_FILE_NAME);
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the first match of an indication.
+     *
+     * @param cause the cause of the indication.
+     * @param indication the indication.
+     * @param foundIndication the match.
+     */
+    private void addFound(FailureCause cause, Indication indication, FoundIndication foundIndication) {
+        foundIndications.add(indication);
+        List<FoundIndication> list = found.get(cause);
+        if (list == null) {
+            list = new ArrayList<FoundIndication>();
+            found.put(cause, list);
+        }
+        list.add(foundIndication);
+    }
+
+    /**
+     * The result of the scan.
+     *
+     * @return the found causes.
+     */
+    private List<FoundFailureCause> toFoundFailureCauses() {
+        List<FoundFailureCause> foundFailureCauses = new ArrayList<FoundFailureCause>(found.size());
+        for (Map.Entry<FailureCause, List<FoundIndication>> entry : found.entrySet()) {
+            foundFailureCauses.add(new FoundFailureCause(entry.getKey(), entry.getValue()));
+        }
+        return foundFailureCauses;
+    }
+
+    /**
+     * The shared threads matching the streamed lines.
+     *
+     * @return the executor.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable target) {
+                            Thread thread = new Thread(target, "BFA-streaming-scanner-" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the matching threads and gives up all streaming scans.
+     */
+    public static synchronized void shutdown() {
+        for (StreamingScan scan : SCANS.values()) {
+            scan.abandon();
+        }
+        SCANS.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import hudson.model.Fingerprint;
 import hudson.model.Job;
 import hudson.model.Run;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -74,4 +75,31 @@ public class CoreDBF extends DownstreamBuildFinder {
 
         return foundBuilds;
     }
+
+    /**
+     * Return references to all downstream builds originating from provided build, from the fingerprints of the
+     * build. The builds are not loaded, so their results are not known, and {@link DownstreamResolver} loads them
+     * in parallel.
+     *
+     * @param build get the downstream build(s) relative this build
+     * @return a list with references to the downstream builds
+     */
+    @Override
+    public List<DownstreamBuildReference> getDownstreamBuildReferences(final Run build) {
+        Map<Job, Fingerprint.RangeSet> buildMap = null;
+        if (build instanceof AbstractBuild) {
+            buildMap = ((AbstractBuild)build).getDownstreamBuilds();
+        }
+        List<DownstreamBuildReference> references = new ArrayList<DownstreamBuildReference>();
+        if (buildMap != null && !buildMap.isEmpty()) {
+            for (Map.Entry<Job, Fingerprint.RangeSet> entry
+                    : buildMap.entrySet()) {
+                String jobFullName = entry.getKey().getFullName();
+                for (Integer buildId : entry.getValue().listNumbers()) {
+                    references.add(new DownstreamBuildReference(jobFullName, buildId, null));
+                }
+            }
+        }
+        return references;
+    }
 }
@@ -31,6 +31,7 @@ import hudson.model.AbstractBuild;
 import hudson.model.Hudson;
 import hudson.model.Run;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -81,6 +82,28 @@ public abstract class DownstreamBuildFinder implements ExtensionPoint {
         return null;
     }
 
+    /**
+     * Return references to all downstream builds originating from provided build, so that callers can skip builds
+     * before loading them. Override this when the downstream builds, and preferably their results, are known without
+     * loading them. The default implementation wraps {@link #getDownstreamBuilds(hudson.model.Run)}.
+     *
+     * @param build get the downstream build(s) relative this build
+     * @return a list with references to the downstream builds
+     */
+    public List<DownstreamBuildReference> getDownstreamBuildReferences(final Run build) {
+        List<Run<?, ?>> builds = getDownstreamBuilds(build);
+        if (builds == null) {
+            return Collections.emptyList();
+        }
+        List<DownstreamBuildReference> references = new ArrayList<DownstreamBuildReference>(builds.size());
+        for (Run<?, ?> downstream : builds) {
+            if (downstream != null) {
+                references.add(DownstreamBuildReference.of(downstream));
+            }
+        }
+        return references;
+    }
+
     /**
      * Return a list of all registered DownstreamBuildFinder of this type.
      *
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model.dbf;
+
+import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+
+/**
+ * A downstream build found by a {@link DownstreamBuildFinder}, that is not loaded until needed, see
+ * {@link DownstreamBuildFinder#getDownstreamBuildReferences(Run)}.
+ */
+public final class DownstreamBuildReference {
+
+    private final String jobFullName;
+    private final int number;
+    private final Result result;
+    private Run<?, ?> build;
+
+    /**
+     * Standard constructor.
+     *
+     * @param jobFullName the full name of the job.
+     * @param number the number of the build.
+     * @param result the result of the build, or null if not known without loading it.
+     */
+    public DownstreamBuildReference(String jobFullName, int number, Result result) {
+        this.jobFullName = jobFullName;
+        this.number = number;
+        this.result = result;
+    }
+
+    /**
+     * A reference to a loaded build.
+     *
+     * @param build the build.
+     * @return the reference.
+     */
+    public static DownstreamBuildReference of(Run<?, ?> build) {
+        DownstreamBuildReference reference = new DownstreamBuildReference(build.getParent().getFullName(),
+                build.getNumber(), build.getResult());
+        reference.build = build;
+        return reference;
+    }
+
+    /**
+     * The full name of the job.
+     *
+     * @return the name.
+     */
+    public String getJobFullName() {
+        return jobFullName;
+    }
+
+    /**
+     * The number of the build.
+     *
+     * @return the number.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * The result of the build.
+     *
+     * @return the result, or null if not known without loading the build.
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * Checks if the build may have been scanned for failure causes, so that it needs to be loaded to show them.
+     *
+     * @return false if the result of the build is known and is not analyzed.
+     * @see PluginImpl#needToAnalyze(Result)
+     */
+    public boolean mayHaveFailureCauses() {
+        return result == null || PluginImpl.needToAnalyze(result);
+    }
+
+    /**
+     * Loads the build.
+     *
+     * @return the build, or null if it or its job no longer exists.
+     */
+    public Run<?, ?> load() {
+        if (build == null) {
+            Job<?, ?> job = Jenkins.get().getItemByFullName(jobFullName, Job.class);
+            if (job != null) {
+                build = job.getBuildByNumber(number);
+            }
+        }
+        return build;
+    }
+
+    @Override
+    public String toString() {
+        return jobFullName + " #" + number;
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model.dbf;
+
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Finds the downstream builds of the builds in one tree of downstream builds, calling the
+ * {@link DownstreamBuildFinder}s on a few shared threads instead of one after the other.
+ *
+ * The finders are asked for {@link DownstreamBuildReference}s, and only the builds that may have failure causes
+ * are loaded, several at a time on other threads, since the results of most references are not known. When the downstream builds of a build are found, the lookups of their own downstream builds are
+ * started at once, so that they run while the tree is built. Each build is looked up once per tree, builds already
+ * on the path from the root are not entered again, and lookups that are not done when the deadline of the tree has
+ * passed are given up on, so that a slow finder can't stall a page.
+ */
+public final class DownstreamResolver {
+
+    /**
+     * The number of threads calling the finders.
+     */
+    static final int PARALLELISM = 4;
+
+    /**
+     * The time given to find all downstream builds of a tree.
+     */
+    static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private static final Logger logger = Logger.getLogger(DownstreamResolver.class.getName());
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static ExecutorService executor;
+    private static ExecutorService loadExecutor;
+
+    private final ExecutorService lookups;
+    private final ExecutorService loads;
+    private final Collection<DownstreamBuildFinder> finders;
+    private final long deadline;
+    private final Authentication authentication;
+    private final Map<String, List<Future<List<Run<?, ?>>>>> started =
+            new HashMap<String, List<Future<List<Run<?, ?>>>>>();
+    private final Set<String> path = new HashSet<String>();
+    private volatile boolean complete = true;
+
+    /**
+     * Standard constructor.
+     *
+     * @param lookups the threads to call the finders on.
+     * @param loads the threads to load the found builds on, not the same as the lookups as those wait for them.
+     * @param finders the finders.
+     * @param timeoutMillis the time given to find all downstream builds.
+     */
+    DownstreamResolver(ExecutorService lookups, ExecutorService loads, Collection<DownstreamBuildFinder> finders,
+                       long timeoutMillis) {
+        this.lookups = lookups;
+        this.loads = loads;
+        this.finders = finders;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.authentication = Jenkins.getAuthentication2();
+    }
+
+    /**
+     * Starts finding the downstream builds of a tree, with all registered finders.
+     *
+     * @return the resolver for the tree.
+     */
+    public static DownstreamResolver start() {
+        return new DownstreamResolver(getExecutor(), getLoadExecutor(), DownstreamBuildFinder.getAll(),
+                DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Enters a build of the tree, unless it is already on the path from the root.
+     *
+     * @param build the build.
+     * @return true if entered, false if the tree has a cycle here.
+     */
+    public boolean enter(Run build) {
+        String id = build.getExternalizableId();
+        if (id != null && !path.add(id)) {
+            logger.log(Level.FINE, "[BFA] Downstream builds of " + id + " lead back to it");
+            complete = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Leaves a build entered with {@link #enter(Run)}.
+     *
+     * @param build the build.
+     */
+    public void leave(Run build) {
+        String id = build.getExternalizableId();
+        if (id != null) {
+            path.remove(id);
+        }
+    }
+
+    /**
+     * Finds the downstream builds of a build.
+     *
+     * @param build the build.
+     * @param prefetch if the lookups of the downstream builds of the found builds should be started.
+     * @return the builds found by all finders that were done before the deadline, may contain null.
+     */
+    public List<Run<?, ?>> getDownstreamBuilds(Run build, boolean prefetch) {
+        String id = build.getExternalizableId();
+        List<Future<List<Run<?, ?>>>> futures = null;
+        if (id != null) {
+            futures = started.remove(id);
+        }
+        if (futures == null) {
+            futures = startLookup(build);
+        }
+        List<Run<?, ?>> found = new ArrayList<Run<?, ?>>();
+        for (Future<List<Run<?, ?>>> future : futures) {
+            List<Run<?, ?>> builds = await(build, future);
+            if (builds != null) {
+                found.addAll(builds);
+            }
+        }
+        if (prefetch) {
+            for (Run<?, ?> downstream : found) {
+                if (downstream != null && downstream.getExternalizableId() != null
+                        && !started.containsKey(downstream.getExternalizableId())) {
+                    started.put(downstream.getExternalizableId(), startLookup(downstream));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * If all lookups so far were done in time and the tree had no cycles.
+     *
+     * @return true if so.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Gives up on the lookups that were started but never asked for.
+     */
+    public void cancel() {
+        for (List<Future<List<Run<?, ?>>>> futures : started.values()) {
+            for (Future<List<Run<?, ?>>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        started.clear();
+    }
+
+    /**
+     * Starts calling all finders for a build.
+     *
+     * @param build the build.
+     * @return the calls.
+     */
+    private List<Future<List<Run<?, ?>>>> startLookup(final Run build) {
+        List<Future<List<Run<?, ?>>>> futures = new ArrayList<Future<List<Run<?, ?>>>>(finders.size());
+        for (final DownstreamBuildFinder finder : finders) {
+            futures.add(lookups.submit(new Callable<List<Run<?, ?>>>() {
+                @Override
+                public List<Run<?, ?>> call() {
+                    try (ACLContext context = ACL.as2(authentication)) {
+                        return load(finder.getDownstreamBuildReferences(build));
+                    }
+                }
+            }));
+        }
+        return futures;
+    }
+
+    /**
+     * Loads the referenced builds that may have failure causes to show. When there is more than one, they are
+     * loaded in parallel, and those that are not loaded before the deadline are left out.
+     *
+     * @param references the references.
+     * @return the builds, null for those that no longer exist.
+     */
+    List<Run<?, ?>> load(List<DownstreamBuildReference> references) {
+        List<Run<?, ?>> builds = new ArrayList<Run<?, ?>>();
+        if (references == null) {
+            return builds;
+        }
+        List<DownstreamBuildReference> toLoad = new ArrayList<DownstreamBuildReference>();
+        for (DownstreamBuildReference reference : references) {
+            if (reference.mayHaveFailureCauses()) {
+                toLoad.add(reference);
+            }
+        }
+        if (toLoad.size() == 1) {
+            builds.add(toLoad.get(0).load());
+            return builds;
+        }
+        List<Future<Run<?, ?>>> futures = new ArrayList<Future<Run<?, ?>>>(toLoad.size());
+        for (final DownstreamBuildReference reference : toLoad) {
+            futures.add(loads.submit(new Callable<Run<?, ?>>() {
+                @Override
+                public Run<?, ?> call() {
+                    try (ACLContext context = ACL.as2(authentication)) {
+                        return reference.load();
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Run<?, ?>> future = futures.get(i);
+            try {
+                builds.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                complete = false;
+                logger.log(Level.WARNING, "[BFA] Gave up loading the downstream build " + toLoad.get(i));
+            } catch (ExecutionException e) {
+                logger.log(Level.WARNING, "[BFA] Could not load the downstream build " + toLoad.get(i),
+                        e.getCause());
+            } catch (InterruptedException e) {
+                for (Future<Run<?, ?>> remaining : futures.subList(i, futures.size())) {
+                    remaining.cancel(true);
+                }
+                complete = false;
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return builds;
+    }
+
+    /**
+     * Waits for a call to a finder until the deadline.
+     *
+     * @param build the build the finder was called for.
+     * @param future the call.
+     * @return the found builds, or null if the call failed or was not done in time.
+     */
+    private List<Run<?, ?>> await(Run build, Future<List<Run<?, ?>>> future) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            complete = false;
+            logger.log(Level.WARNING, "[BFA] Gave up finding the downstream builds of " + build.getFullDisplayName());
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "[BFA] Could not find the downstream builds of " + build.getFullDisplayName(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            complete = false;
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * The shared threads calling the finders.
+     *
+     * @return the executor.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = newExecutor("BFA-downstream-resolver-");
+        }
+        return executor;
+    }
+
+    /**
+     * The shared threads loading the found builds.
+     *
+     * @return the executor.
+     */
+    private static synchronized ExecutorService getLoadExecutor() {
+        if (loadExecutor == null) {
+            loadExecutor = newExecutor("BFA-downstream-loader-");
+        }
+        return loadExecutor;
+    }
+
+    /**
+     * Creates {@link #PARALLELISM} daemon threads that end when idle.
+     *
+     * @param prefix the prefix of the names of the threads.
+     * @return the executor.
+     */
+    private static ExecutorService newExecutor(final String prefix) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable target) {
+                        Thread thread = new Thread(target, prefix + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -26,10 +26,13 @@ package com.sonyericsson.jenkins.plugins.bfa.model.dbf;
 
 import hudson.Extension;
 import hudson.model.Action;
+import hudson.model.Result;
 import hudson.model.Run;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -45,6 +48,7 @@ public class ParameterizedTriggerDBF extends DownstreamBuildFinder {
 
     private static final Logger logger = Logger.
             getLogger(ParameterizedTriggerDBF.class.getName());
+    private static final String ACTION_CLASS_NAME = "hudson.plugins.parameterizedtrigger.BuildInfoExporterAction";
 
     /**
      * Return a list of all downstream builds originating from provided build.
@@ -63,8 +67,7 @@ public class ParameterizedTriggerDBF extends DownstreamBuildFinder {
         }
 
         // The action class to examine for downstream builds
-        String className =
-                "hudson.plugins.parameterizedtrigger.BuildInfoExporterAction";
+        String className = ACTION_CLASS_NAME;
         // The method returning triggered builds
         String methodName = "getTriggeredBuilds";
 
@@ -99,4 +102,55 @@ public class ParameterizedTriggerDBF extends DownstreamBuildFinder {
             return EMPTY;
         }
     }
+
+    /**
+     * Return references to all downstream builds originating from provided build, from the build references kept
+     * by the parameterized trigger plugin, which include the results of the builds. Falls back to
+     * {@link #getDownstreamBuilds(Run)} if the plugin has no build references.
+     *
+     * @param build get the downstream build(s) relative this build
+     * @return a list with references to the downstream builds
+     */
+    @Override
+    public List<DownstreamBuildReference> getDownstreamBuildReferences(final Run build) {
+        if (build == null) {
+            return Collections.emptyList();
+        }
+        try {
+            Action action = build.getAction(Class.forName(ACTION_CLASS_NAME).asSubclass(Action.class));
+            if (action == null) {
+                return Collections.emptyList();
+            }
+            return getBuildReferences(action);
+        } catch (ClassNotFoundException e) {
+            return Collections.emptyList();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            logger.log(Level.FINER, "Build references of " + ACTION_CLASS_NAME + " not available, "
+                    + "loading the downstream builds", e);
+            return super.getDownstreamBuildReferences(build);
+        }
+    }
+
+    /**
+     * Reads the build references of the action of the parameterized trigger plugin, only through its public API:
+     * the getBuildRefs() method, and the public final fields of the BuildReference class.
+     * ParameterizedTriggerDBFTest checks that the plugin still has them.
+     *
+     * @param action the BuildInfoExporterAction.
+     * @return the references.
+     * @throws ReflectiveOperationException if the plugin no longer has the API.
+     */
+    static List<DownstreamBuildReference> getBuildReferences(Action action) throws ReflectiveOperationException {
+        List<DownstreamBuildReference> references = new ArrayList<DownstreamBuildReference>();
+        for (Object buildRef : (List)action.getClass().getMethod("getBuildRefs").invoke(action)) {
+            Class refClass = buildRef.getClass();
+            String projectName = (String)refClass.getField("projectName").get(buildRef);
+            int buildNumber = ((Number)refClass.getField("buildNumber").get(buildRef)).intValue();
+            Result buildResult = (Result)refClass.getField("buildResult").get(buildRef);
+            if (projectName != null) {
+                references.add(new DownstreamBuildReference(projectName, buildNumber, buildResult));
+            }
+        }
+        return references;
+    }
 }
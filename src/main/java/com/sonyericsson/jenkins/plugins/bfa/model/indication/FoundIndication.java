@@ -41,6 +41,9 @@ import static java.lang.Math.max;
 /**
  * Found Indication of an unsuccessful build.
  *
+ * An indication found in the log of a Pipeline step, see {@link #getStep()}, has its line number counted from the
+ * start of the log of that step, not of the build log, and has no byte offset.
+ *
  * @author Tomas Westling &lt;tomas.westling@sonymobile.com&gt;
  */
 @ExportedBean
@@ -56,6 +59,9 @@ public class FoundIndication {
     private Run build;
     private String matchingString;
     private Integer matchingLine;
+    private Long matchingOffset;
+    private String stage;
+    private String step;
 
     /**
      * Standard constructor.
@@ -154,10 +160,20 @@ public class FoundIndication {
         return build;
     }
 
+    /**
+     * Sets the build, for indications that were not read as part of it.
+     *
+     * @param build the build of this indication.
+     */
+    public void setBuild(Run build) {
+        this.build = build;
+    }
+
     /**
      * Getter for the matching String.
      *
-     * @return the matching String.
+     * @return the matching String, or null if it was stored without it and could not be read from the build log,
+     * see {@link com.sonyericsson.jenkins.plugins.bfa.model.ResultStorageMode#COMPACT}.
      */
     @Exported
     public String getMatchingString() {
@@ -166,11 +182,14 @@ public class FoundIndication {
 
     /**
      * Getter for the first matching line (useful with multi-line build log indications.
-     * @return the first line from {@code getMatchingString()}.
+     * @return the first line from {@code getMatchingString()}, or null if it is not known.
      */
     @Exported
     public String getFirstMatchingLine() {
-        final Scanner scanner = new Scanner(matchingString);
+        if (matchingString == null) {
+            return null;
+        }
+        final Scanner scanner = new Scanner(getMatchingString());
         try {
             scanner.useDelimiter(Pattern.compile("[\\n\\r]"));
             return scanner.next();
@@ -207,7 +226,7 @@ public class FoundIndication {
     }
 
     /**
-     * The matching line number.
+     * The matching line number, in the build log, or in the log of the step if {@link #getStep()} is set.
      *
      * @return the matching line number.
      */
@@ -220,6 +239,81 @@ public class FoundIndication {
         }
     }
 
+    /**
+     * The byte offset of the matching line in the build log.
+     *
+     * @return the offset, or -1 if not known.
+     * @see com.sonyericsson.jenkins.plugins.bfa.model.LogLineIndex
+     */
+    @Exported
+    public long getMatchingOffset() {
+        if (matchingOffset != null) {
+            return matchingOffset;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Sets the byte offset of the matching line in the build log.
+     *
+     * @param matchingOffset the offset.
+     */
+    public void setMatchingOffset(long matchingOffset) {
+        this.matchingOffset = matchingOffset;
+    }
+
+    /**
+     * Replaces {@link #matchingString} with the text of the line at {@link #matchingLine}, if non null.
+     *
+     * @param line the text of the line.
+     * @see #convertFromLineNumber(List)
+     */
+    public void convertFromLine(String line) {
+        if (matchingLine != null && line != null) {
+            matchingString = line;
+        }
+    }
+
+    /**
+     * The Pipeline stage the indication was found in.
+     *
+     * @return the name of the stage, or null if not found in a Pipeline stage.
+     */
+    @Exported
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * Sets the Pipeline stage the indication was found in.
+     *
+     * @param stage the name of the stage.
+     */
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * The Pipeline step the indication was found in. If set, {@link #getMatchingLine()} is relative to the start of
+     * the log of the step.
+     *
+     * @return the function name of the step, or null if not found in the log of a Pipeline step.
+     */
+    @Exported
+    public String getStep() {
+        return step;
+    }
+
+    /**
+     * Sets the Pipeline step the indication was found in.
+     *
+     * @param step the function name of the step.
+     */
+    public void setStep(String step) {
+        this.step = step;
+    }
+
     /**
      * The hash-code of the {@link #matchingString}.
      * Convenience method mostly for jelly.
@@ -228,8 +322,9 @@ public class FoundIndication {
      */
     @Exported
     public int getMatchingHash() {
-        if (matchingString != null) {
-            return matchingString.hashCode();
+        String text = getMatchingString();
+        if (text != null) {
+            return text.hashCode();
         } else {
             return 0;
         }
@@ -27,17 +27,21 @@ package com.sonyericsson.jenkins.plugins.bfa.model.indication;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureReader;
 import hudson.ExtensionList;
+import hudson.Util;
 import hudson.model.Describable;
 import hudson.model.Descriptor;
 import hudson.model.Hudson;
 import hudson.util.FormValidation;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -54,6 +58,24 @@ public abstract class Indication implements Describable<Indication>, Serializabl
      */
     private String pattern;
 
+    /**
+     * The number of lines at the end of the log to look in, null for all.
+     */
+    private Integer lastLines;
+
+    /**
+     * The pattern of the line to start looking at, null for the beginning of the log.
+     */
+    private String startMarker;
+
+    /**
+     * The pattern of the line to stop looking at, null for the end of the log.
+     */
+    private String endMarker;
+
+    private transient Pattern compiledStartMarker;
+    private transient Pattern compiledEndMarker;
+
     /**
      * @param pattern the String value.
      */
@@ -70,6 +92,116 @@ public abstract class Indication implements Describable<Indication>, Serializabl
         return pattern;
     }
 
+    /**
+     * The number of lines at the end of the log this indication is looked for in.
+     *
+     * @return the number of lines, or null for the whole log.
+     */
+    @JsonProperty("lastLines")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getLastLines() {
+        return lastLines;
+    }
+
+    /**
+     * Sets the number of lines at the end of the log this indication is looked for in.
+     *
+     * @param lastLines the number of lines, null or less than 1 for the whole log.
+     */
+    @DataBoundSetter
+    @JsonProperty("lastLines")
+    public void setLastLines(Integer lastLines) {
+        if (lastLines == null || lastLines < 1) {
+            this.lastLines = null;
+        } else {
+            this.lastLines = lastLines;
+        }
+    }
+
+    /**
+     * The pattern of the first line of the part of the log this indication is looked for in.
+     *
+     * @return the pattern, or null to start at the beginning of the log.
+     */
+    @JsonProperty("startMarker")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getStartMarker() {
+        return startMarker;
+    }
+
+    /**
+     * Sets the pattern of the first line of the part of the log this indication is looked for in.
+     *
+     * @param startMarker the pattern, or null.
+     */
+    @DataBoundSetter
+    @JsonProperty("startMarker")
+    public void setStartMarker(String startMarker) {
+        this.startMarker = Util.fixEmpty(startMarker);
+        this.compiledStartMarker = null;
+    }
+
+    /**
+     * The pattern of the last line of the part of the log this indication is looked for in.
+     *
+     * @return the pattern, or null to end at the end of the log.
+     */
+    @JsonProperty("endMarker")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getEndMarker() {
+        return endMarker;
+    }
+
+    /**
+     * Sets the pattern of the last line of the part of the log this indication is looked for in.
+     *
+     * @param endMarker the pattern, or null.
+     */
+    @DataBoundSetter
+    @JsonProperty("endMarker")
+    public void setEndMarker(String endMarker) {
+        this.endMarker = Util.fixEmpty(endMarker);
+        this.compiledEndMarker = null;
+    }
+
+    /**
+     * The compiled start marker.
+     *
+     * @return the pattern, or null if there is no start marker.
+     * @see #getStartMarker()
+     */
+    @JsonIgnore
+    public Pattern getStartMarkerPattern() {
+        if (compiledStartMarker == null && startMarker != null) {
+            compiledStartMarker = Pattern.compile(startMarker);
+        }
+        return compiledStartMarker;
+    }
+
+    /**
+     * The compiled end marker.
+     *
+     * @return the pattern, or null if there is no end marker.
+     * @see #getEndMarker()
+     */
+    @JsonIgnore
+    public Pattern getEndMarkerPattern() {
+        if (compiledEndMarker == null && endMarker != null) {
+            compiledEndMarker = Pattern.compile(endMarker);
+        }
+        return compiledEndMarker;
+    }
+
+    /**
+     * Checks if this indication is only looked for in a part of the log.
+     *
+     * @return true if the indication has a number of last lines or a marker.
+     */
+    @JsonIgnore
+    public boolean isScoped() {
+        return lastLines != null || startMarker != null || endMarker != null;
+    }
+
     /**
      * Gets a FailureReader used for finding this indication.
      * @return a FailureReader.
@@ -85,7 +217,13 @@ public abstract class Indication implements Describable<Indication>, Serializabl
      * @see IndicationDescriptor#doHelp(org.kohsuke.stapler.StaplerRequest2, org.kohsuke.stapler.StaplerResponse2)
      */
     public FormValidation validate() {
-        return IndicationDescriptor.checkPattern(getUserProvidedExpression());
+        FormValidation validation = IndicationDescriptor.checkPattern(getUserProvidedExpression());
+        if (validation.kind != FormValidation.Kind.OK) {
+            return validation;
+        }
+        return FormValidation.aggregate(Arrays.asList(
+                IndicationDescriptor.checkMarker(startMarker),
+                IndicationDescriptor.checkMarker(endMarker)));
     }
 
     /**
@@ -136,6 +274,39 @@ public abstract class Indication implements Describable<Indication>, Serializabl
             }
         }
 
+        /**
+         * Checks that an optional marker is a valid regexp.
+         *
+         * @param value the marker to check, may be empty.
+         * @return {@link hudson.util.FormValidation#ok()} if everything is well.
+         */
+        public static FormValidation checkMarker(@QueryParameter String value) {
+            if (value == null || value.isEmpty()) {
+                return FormValidation.ok();
+            }
+            return checkPattern(value);
+        }
+
+        /**
+         * Checks that the start marker is a valid regexp.
+         *
+         * @param value the marker to check.
+         * @return {@link hudson.util.FormValidation#ok()} if everything is well.
+         */
+        public FormValidation doCheckStartMarker(@QueryParameter String value) {
+            return checkMarker(value);
+        }
+
+        /**
+         * Checks that the end marker is a valid regexp.
+         *
+         * @param value the marker to check.
+         * @return {@link hudson.util.FormValidation#ok()} if everything is well.
+         */
+        public FormValidation doCheckEndMarker(@QueryParameter String value) {
+            return checkMarker(value);
+        }
+
         /**
          * Checks that the pattern is a valid regexp.
          *
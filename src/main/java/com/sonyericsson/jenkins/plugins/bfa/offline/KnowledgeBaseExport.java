@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.offline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sonyericsson.jenkins.plugins.bfa.model.CauseApplicability;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
+import hudson.Util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Reads failure causes from a JSON export of a knowledge base.
+ *
+ * Both a JSON array and one document per line, as written by {@code mongoexport}, are accepted.
+ * Only the fields needed for scanning are read; ids in the extended JSON form <code>{"$oid": "..."}</code> are
+ * unwrapped.
+ */
+public final class KnowledgeBaseExport {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Utility class.
+     */
+    private KnowledgeBaseExport() {
+    }
+
+    /**
+     * Reads all causes from an export file.
+     *
+     * @param file the export.
+     * @return the causes.
+     * @throws IOException if the file can't be read or isn't a valid export.
+     */
+    public static List<FailureCause> read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads all causes from an export.
+     *
+     * @param in the export.
+     * @return the causes.
+     * @throws IOException if the stream can't be read or isn't a valid export.
+     */
+    public static List<FailureCause> read(InputStream in) throws IOException {
+        List<FailureCause> causes = new ArrayList<FailureCause>();
+        try (MappingIterator<JsonNode> documents = OBJECT_MAPPER.readerFor(JsonNode.class).readValues(in)) {
+            while (documents.hasNext()) {
+                JsonNode document = documents.next();
+                if (document.isArray()) {
+                    for (JsonNode element : document) {
+                        causes.add(toCause(element));
+                    }
+                } else {
+                    causes.add(toCause(document));
+                }
+            }
+        }
+        return causes;
+    }
+
+    /**
+     * Converts one exported document into a cause.
+     *
+     * @param node the document.
+     * @return the cause.
+     * @throws IOException if the document isn't a cause.
+     */
+    static FailureCause toCause(JsonNode node) throws IOException {
+        if (!node.isObject() || !node.hasNonNull("name")) {
+            throw new IOException("Not a failure cause: " + node);
+        }
+        List<Indication> indications = new LinkedList<Indication>();
+        JsonNode indicationNodes = node.path("indications");
+        for (JsonNode indicationNode : indicationNodes) {
+            indications.add(toIndication(indicationNode));
+        }
+        FailureCause cause = new FailureCause(readId(node), node.get("name").asText(),
+                node.path("description").asText(""), node.path("comment").asText(""), null,
+                readCategories(node.path("categories")), indications, null);
+        cause.setPriority(node.path("priority").asInt(0));
+        cause.setExclusivityGroup(node.path("exclusivityGroup").asText(null));
+        cause.setTerminal(node.path("terminal").asBoolean(false));
+        JsonNode applicability = node.path("applicability");
+        if (applicability.isObject()) {
+            cause.setApplicability(new CauseApplicability(readCategories(applicability.path("jobNames")),
+                    applicability.path("folder").asText(null), applicability.path("labelExpression").asText(null),
+                    readCategories(applicability.path("jobTypes"))));
+        }
+        return cause;
+    }
+
+    /**
+     * Reads the id of a document, unwrapping the extended JSON form of an ObjectId.
+     *
+     * @param node the document.
+     * @return the id or null if there is none.
+     */
+    private static String readId(JsonNode node) {
+        JsonNode id = node.get("_id");
+        if (id == null) {
+            id = node.get("id");
+        }
+        if (id == null || id.isNull()) {
+            return null;
+        }
+        if (id.has("$oid")) {
+            return id.get("$oid").asText();
+        }
+        return id.asText();
+    }
+
+    /**
+     * Reads the categories, either as an array or as a space separated string.
+     *
+     * @param node the categories node.
+     * @return the categories, possibly empty.
+     */
+    private static List<String> readCategories(JsonNode node) {
+        if (node.isArray()) {
+            List<String> categories = new ArrayList<String>();
+            for (JsonNode category : node) {
+                categories.add(category.asText());
+            }
+            return categories;
+        }
+        if (node.isTextual()) {
+            return Arrays.asList(Util.tokenize(node.asText()));
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Converts an exported indication.
+     *
+     * @param node the indication document.
+     * @return the indication.
+     * @throws IOException if the indication type is unknown.
+     */
+    private static Indication toIndication(JsonNode node) throws IOException {
+        String pattern = node.path("pattern").asText(null);
+        if (pattern == null) {
+            throw new IOException("Indication without pattern: " + node);
+        }
+        String type = node.path("@class").asText(BuildLogIndication.class.getName());
+        if (BuildLogIndication.class.getName().equals(type)) {
+            return new BuildLogIndication(pattern);
+        }
+        if (MultilineBuildLogIndication.class.getName().equals(type)) {
+            return new MultilineBuildLogIndication(pattern);
+        }
+        try {
+            return Class.forName(type).asSubclass(Indication.class).getConstructor(String.class).newInstance(pattern);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IOException("Unsupported indication type " + type, e);
+        }
+    }
+}
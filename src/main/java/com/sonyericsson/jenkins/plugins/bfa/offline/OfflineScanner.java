@@ -0,0 +1,364 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.offline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureReader;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Scans a directory tree of log files with the same engine as the {@link
+ * com.sonyericsson.jenkins.plugins.bfa.BuildFailureScanner}, without a Jenkins instance.
+ *
+ * Found causes are written as one JSON document per log file (NDJSON) and a throughput summary is printed when
+ * all files are scanned, which makes it usable both for trying out a knowledge base on archived logs and as a
+ * macro benchmark of the engine. Run it with the plugin classpath, e.g.
+ * <code>mvn -P offline-scanner exec:java -Dexec.args="causes.json /path/to/logs"</code>.
+ */
+public final class OfflineScanner {
+
+    private static final Logger logger = Logger.getLogger(OfflineScanner.class.getName());
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final double BYTES_IN_MEGABYTE = 1024 * 1024;
+    private static final double NANOS_IN_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int ARG_KNOWLEDGE_BASE = 0;
+    private static final int ARG_LOG_DIRECTORY = 1;
+    private static final int ARG_THREADS = 2;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ScanPlan plan;
+    private final int threads;
+
+    /**
+     * Standard constructor.
+     *
+     * @param plan the causes to look for.
+     * @param threads the number of files to scan in parallel.
+     */
+    public OfflineScanner(ScanPlan plan, int threads) {
+        this.plan = plan;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Command line entry point.
+     * Usage: <code>OfflineScanner &lt;knowledge base export&gt; &lt;log directory&gt; [threads]</code>.
+     *
+     * @param args the arguments.
+     * @throws Exception if the scan fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length <= ARG_LOG_DIRECTORY || args.length > ARG_THREADS + 1) {
+            System.err.println("Usage: OfflineScanner <knowledge base export (json)> <log directory> [threads]");
+            System.exit(1);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > ARG_THREADS) {
+            threads = Integer.parseInt(args[ARG_THREADS]);
+        }
+        List<FailureCause> causes = KnowledgeBaseExport.read(new File(args[ARG_KNOWLEDGE_BASE]));
+        OfflineScanner scanner = new OfflineScanner(ScanPlan.of(causes), threads);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        Summary summary = scanner.scan(Paths.get(args[ARG_LOG_DIRECTORY]), out);
+        System.err.println(causes.size() + " causes, " + threads + " threads: " + summary);
+    }
+
+    /**
+     * Scans all regular files below the root directory and writes one JSON line per file to the output.
+     *
+     * @param root the directory to scan.
+     * @param out where to write the found causes.
+     * @return the throughput summary.
+     * @throws IOException if the directory can't be listed or the output can't be written.
+     * @throws InterruptedException if interrupted while waiting for the scans.
+     */
+    public Summary scan(final Path root, final Writer out) throws IOException, InterruptedException {
+        final List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicInteger filesWithCauses = new AtomicInteger();
+        int failed = 0;
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable target) {
+                Thread thread = new Thread(target, "BFA-offline-scanner-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<?>> tasks = new ArrayList<Future<?>>(files.size());
+            for (final Path file : files) {
+                tasks.add(pool.submit(() -> {
+                    List<FoundFailureCause> found = scanFile(file);
+                    bytes.addAndGet(Files.size(file));
+                    if (!found.isEmpty()) {
+                        filesWithCauses.incrementAndGet();
+                    }
+                    String line = toJson(root.relativize(file).toString(), found);
+                    synchronized (out) {
+                        out.write(line);
+                        out.write('\n');
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    tasks.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    logger.log(Level.WARNING, "[BFA] Failed to scan " + files.get(i), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        return new Summary(files.size(), failed, filesWithCauses.get(), bytes.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Scans one log file for all causes in the plan.
+     *
+     * @param file the log file, gzipped if the name ends with .gz.
+     * @return the found causes, could be empty.
+     * @throws IOException if the file can't be read.
+     */
+    public List<FoundFailureCause> scanFile(Path file) throws IOException {
+        String name = file.toString();
+        List<FoundFailureCause> found = new ArrayList<FoundFailureCause>();
+        if (!plan.getSingleLineCauses().isEmpty()) {
+            try (BufferedReader reader = new BufferedReader(open(file))) {
+                found.addAll(FailureReader.scanSingleLinePatterns(plan.getSingleLineCauses(), null, reader, name));
+            }
+        }
+        for (FailureCause cause : plan.getMultiLineCauses()) {
+            List<FoundIndication> foundIndications = new ArrayList<FoundIndication>();
+            for (Indication indication : cause.getIndications()) {
+                try (LineNumberReader reader = new LineNumberReader(open(file))) {
+                    FoundIndication foundIndication = indication.getReader().scan(null, reader, name);
+                    if (foundIndication != null) {
+                        foundIndications.add(foundIndication);
+                    }
+                }
+            }
+            if (!foundIndications.isEmpty()) {
+                found.add(new FoundFailureCause(cause, foundIndications));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Opens a log file for reading, decompressing it if needed.
+     * Malformed input is replaced rather than failing the scan, like Jenkins does when reading build logs.
+     *
+     * @param file the file.
+     * @return a reader of the file content.
+     * @throws IOException if the file can't be opened.
+     */
+    private static Reader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(GZIP_SUFFIX)) {
+            in = new GZIPInputStream(in);
+        }
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats the result of one file as a single JSON line.
+     *
+     * @param file the name of the file.
+     * @param found the causes found in the file.
+     * @return the JSON line.
+     * @throws IOException if the JSON can't be written.
+     */
+    static String toJson(String file, List<FoundFailureCause> found) throws IOException {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("file", file);
+        ArrayNode causes = node.putArray("causes");
+        for (FoundFailureCause cause : found) {
+            ObjectNode causeNode = causes.addObject();
+            causeNode.put("id", cause.getId());
+            causeNode.put("name", cause.getName());
+            ArrayNode categories = causeNode.putArray("categories");
+            if (cause.getCategories() != null) {
+                for (String category : cause.getCategories()) {
+                    categories.add(category);
+                }
+            }
+            ArrayNode indications = causeNode.putArray("indications");
+            for (FoundIndication indication : cause.getIndications()) {
+                ObjectNode indicationNode = indications.addObject();
+                indicationNode.put("pattern", indication.getPattern());
+                indicationNode.put("line", indication.getMatchingLine());
+                indicationNode.put("match", indication.getMatchingString());
+            }
+        }
+        return OBJECT_MAPPER.writeValueAsString(node);
+    }
+
+    /**
+     * Throughput figures of one offline scan.
+     */
+    public static final class Summary {
+        private final int files;
+        private final int failedFiles;
+        private final int filesWithCauses;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        /**
+         * Standard constructor.
+         *
+         * @param files the number of scanned files.
+         * @param failedFiles the number of files that could not be scanned.
+         * @param filesWithCauses the number of files where at least one cause was found.
+         * @param bytes the total size of the scanned files.
+         * @param elapsedNanos the wall clock time of the scan.
+         */
+        Summary(int files, int failedFiles, int filesWithCauses, long bytes, long elapsedNanos) {
+            this.files = files;
+            this.failedFiles = failedFiles;
+            this.filesWithCauses = filesWithCauses;
+            this.bytes = bytes;
+            this.elapsedNanos = Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * The number of scanned files.
+         *
+         * @return the number of files.
+         */
+        public int getFiles() {
+            return files;
+        }
+
+        /**
+         * The number of files that could not be scanned.
+         *
+         * @return the number of files.
+         */
+        public int getFailedFiles() {
+            return failedFiles;
+        }
+
+        /**
+         * The number of files where at least one cause was found.
+         *
+         * @return the number of files.
+         */
+        public int getFilesWithCauses() {
+            return filesWithCauses;
+        }
+
+        /**
+         * The total size of the scanned files, as stored on disk.
+         *
+         * @return the size in bytes.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * The wall clock time of the scan.
+         *
+         * @return the time in milliseconds.
+         */
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * The scan throughput.
+         *
+         * @return megabytes per second.
+         */
+        public double getMegabytesPerSecond() {
+            return bytes / BYTES_IN_MEGABYTE / (elapsedNanos / NANOS_IN_SECOND);
+        }
+
+        /**
+         * The scan throughput.
+         *
+         * @return files per second.
+         */
+        public double getFilesPerSecond() {
+            return files / (elapsedNanos / NANOS_IN_SECOND);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH,
+                    "%d files (%d with causes, %d failed), %.1f MB in %d ms: %.1f MB/s, %.1f files/s",
+                    files, filesWithCauses, failedFiles, bytes / BYTES_IN_MEGABYTE, getElapsedMillis(),
+                    getMegabytesPerSecond(), getFilesPerSecond());
+        }
+    }
+}
@@ -23,8 +23,11 @@
  */
 package com.sonyericsson.jenkins.plugins.bfa.providers;
 
+import com.sonyericsson.jenkins.plugins.bfa.ScanCoordinator;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseDisplayData;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.RenderedPayloadCache;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
 import hudson.Extension;
 import hudson.model.Run;
@@ -44,28 +47,40 @@ public class FailureCauseProvider extends MQDataProvider {
 
     @Override
     public void provideCompletedRunData(Run run, JSONObject json) {
+        ScanCoordinator.awaitScan(run);
         FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
         if (action != null) {
-            List<FoundFailureCause> foundFailureCausesList = action.getFoundFailureCauses();
-            JSONArray failureCausesJSONArray = new JSONArray();
-            for (FoundFailureCause foundFailureCause : foundFailureCausesList) {
-                JSONObject failureCauseJSONObject = new JSONObject();
-                failureCauseJSONObject.put("id", foundFailureCause.getId());
-                failureCauseJSONObject.put("name", foundFailureCause.getName());
-                failureCauseJSONObject.put("description", foundFailureCause.getDescription());
-                failureCauseJSONObject.put("categories", foundFailureCause.getCategories());
-                JSONArray foundIndicationsJSONArray = new JSONArray();
-                for (FoundIndication indication : foundFailureCause.getIndications()) {
-                    JSONObject foundIndicationJSONObject = new JSONObject();
-                    foundIndicationJSONObject.put("pattern", indication.getPattern());
-                    foundIndicationJSONObject.put("matchingString", indication.getMatchingString());
-                    foundIndicationJSONObject.put("matchingLine", indication.getMatchingLine());
-                    foundIndicationsJSONArray.add(foundIndicationJSONObject);
-                }
-                failureCauseJSONObject.put("indications", foundIndicationsJSONArray);
-                failureCausesJSONArray.add(failureCauseJSONObject);
+            String failureCauses = RenderedPayloadCache.getInstance().get(action).format("mq", this::render);
+            json.put("failurecauses", JSONArray.fromObject(failureCauses));
+        }
+    }
+
+    /**
+     * Renders the failure causes of a build.
+     *
+     * @param data the failure causes.
+     * @return the JSON array of the failure causes.
+     */
+    private String render(FailureCauseDisplayData data) {
+        List<FoundFailureCause> foundFailureCausesList = data.getFoundFailureCauses();
+        JSONArray failureCausesJSONArray = new JSONArray();
+        for (FoundFailureCause foundFailureCause : foundFailureCausesList) {
+            JSONObject failureCauseJSONObject = new JSONObject();
+            failureCauseJSONObject.put("id", foundFailureCause.getId());
+            failureCauseJSONObject.put("name", foundFailureCause.getName());
+            failureCauseJSONObject.put("description", foundFailureCause.getDescription());
+            failureCauseJSONObject.put("categories", foundFailureCause.getCategories());
+            JSONArray foundIndicationsJSONArray = new JSONArray();
+            for (FoundIndication indication : foundFailureCause.getIndications()) {
+                JSONObject foundIndicationJSONObject = new JSONObject();
+                foundIndicationJSONObject.put("pattern", indication.getPattern());
+                foundIndicationJSONObject.put("matchingString", indication.getMatchingString());
+                foundIndicationJSONObject.put("matchingLine", indication.getMatchingLine());
+                foundIndicationsJSONArray.add(foundIndicationJSONObject);
             }
-            json.put("failurecauses", failureCausesJSONArray);
+            failureCauseJSONObject.put("indications", foundIndicationsJSONArray);
+            failureCausesJSONArray.add(failureCauseJSONObject);
         }
+        return failureCausesJSONArray.toString();
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Takes the builds to scan from many jobs in turn, one build from each job, so that the builds of a big job don't
+ * have to be scanned before those of the jobs after it.
+ *
+ * Only a window of jobs is taken from at a time, so that the builds of thousands of jobs are not looked up at once.
+ * When the builds of a job run out, the next job takes its place. With {@link #next(Predicate)} a job that may not
+ * be taken from right now is passed over until its next turn, so that it doesn't hold back the others.
+ */
+final class RoundRobinRuns implements Iterator<Run> {
+
+    /**
+     * The number of jobs taken from at a time.
+     */
+    static final int WINDOW = 32;
+
+    private final Iterator<? extends Job> jobs;
+    private final Function<Job, Iterator<Run>> runsOf;
+    private final int window;
+    private final Deque<JobRuns> active = new ArrayDeque<JobRuns>();
+
+    /**
+     * Standard constructor.
+     *
+     * @param jobs the jobs.
+     * @param runsOf the builds to scan of a job, looked up when the job enters the window.
+     * @param window the number of jobs taken from at a time.
+     */
+    RoundRobinRuns(Iterator<? extends Job> jobs, Function<Job, Iterator<Run>> runsOf, int window) {
+        this.jobs = jobs;
+        this.runsOf = runsOf;
+        this.window = window;
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        while (!active.isEmpty()) {
+            if (active.peekFirst().runs.hasNext()) {
+                return true;
+            }
+            active.removeFirst();
+            fill();
+        }
+        return false;
+    }
+
+    @Override
+    public Run next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JobRuns first = active.removeFirst();
+        active.addLast(first);
+        return first.runs.next();
+    }
+
+    /**
+     * Takes the next build of the first job in turn that is admitted. The jobs that are not admitted are moved to
+     * the end of the window, without taking a build from them.
+     *
+     * @param admit tells if a build of a job may be taken now.
+     * @return the build, or null if no job in the window was admitted or there are no more builds.
+     */
+    Run next(Predicate<Job> admit) {
+        Set<Job> refused = new HashSet<Job>();
+        while (hasNext()) {
+            JobRuns first = active.peekFirst();
+            if (refused.contains(first.job)) {
+                return null;
+            }
+            active.addLast(active.removeFirst());
+            if (admit.test(first.job)) {
+                return first.runs.next();
+            }
+            refused.add(first.job);
+        }
+        return null;
+    }
+
+    /**
+     * Lets jobs into the window until it is full or there are no more jobs.
+     */
+    private void fill() {
+        while (active.size() < window && jobs.hasNext()) {
+            Job job = jobs.next();
+            active.addLast(new JobRuns(job, runsOf.apply(job)));
+        }
+    }
+
+    /**
+     * The builds left to take from a job in the window.
+     */
+    private static final class JobRuns {
+        private final Job job;
+        private final Iterator<Run> runs;
+
+        /**
+         * Standard constructor.
+         *
+         * @param job the job.
+         * @param runs the builds left.
+         */
+        private JobRuns(Job job, Iterator<Run> runs) {
+            this.job = job;
+            this.runs = runs;
+        }
+    }
+}
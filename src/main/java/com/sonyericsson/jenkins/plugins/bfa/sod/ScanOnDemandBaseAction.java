@@ -25,8 +25,11 @@ package com.sonyericsson.jenkins.plugins.bfa.sod;
 
 import com.sonyericsson.jenkins.plugins.bfa.Messages;
 import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
+import com.sonyericsson.jenkins.plugins.bfa.model.ApplicableCauses;
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseMatrixBuildAction;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
@@ -34,7 +37,6 @@ import hudson.ExtensionList;
 import hudson.ExtensionPoint;
 import hudson.Functions;
 import hudson.matrix.MatrixBuild;
-import hudson.matrix.MatrixRun;
 import hudson.model.Action;
 import hudson.model.Item;
 import hudson.model.Job;
@@ -43,19 +45,27 @@ import hudson.model.Result;
 import hudson.model.Run;
 import hudson.util.Iterators;
 import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
 import org.springframework.security.access.AccessDeniedException;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.Ancestor;
 import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
 import org.kohsuke.stapler.Stapler;
 import org.kohsuke.stapler.StaplerRequest2;
 import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.interceptor.RequirePOST;
 
 import jakarta.servlet.ServletException;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandBaseAction.ScanMode.BFA_SOD_BUILD_TYPE;
 import static org.apache.commons.lang.StringUtils.isBlank;
@@ -67,6 +77,8 @@ import static org.apache.commons.lang.StringUtils.isBlank;
  */
 public class ScanOnDemandBaseAction implements Action {
 
+    private static final Logger logger = Logger.getLogger(ScanOnDemandBaseAction.class.getName());
+
     /** The project. */
     private Job project;
 
@@ -159,19 +171,40 @@ public class ScanOnDemandBaseAction implements Action {
      * @param build the MatrixBuild.
      */
     public void removeRunActions(MatrixBuild build) {
-        List<MatrixRun> runs = build.getRuns();
-        for (MatrixRun run : runs) {
-            if (run.getNumber() == build.getNumber()) {
-                FailureCauseBuildAction fcba = run.getAction(FailureCauseBuildAction.class);
-                if (fcba != null) {
-                    run.getActions().remove(fcba);
-                }
-                FailureCauseMatrixBuildAction fcmba = run.getAction(FailureCauseMatrixBuildAction.class);
-                if (fcmba != null) {
-                    run.getActions().remove(fcmba);
-                }
-            }
+        ScanOnDemandTask.removeRunActions(build);
+    }
+
+    /**
+     * The progress of the last scan started for the project, as JSON with the number of builds queued, done and
+     * failed, and the estimated number of seconds left.
+     *
+     * @return the progress, or an empty object if no scan was started.
+     */
+    public HttpResponse doProgress() {
+        checkPermission();
+        ScanOnDemandEnumeration enumeration = ScanOnDemandEnumeration.get(project);
+        if (enumeration == null) {
+            return HttpResponses.okJSON(new JSONObject());
+        }
+        return HttpResponses.okJSON(enumeration.toJson());
+    }
+
+    /**
+     * Cancels the scan running for the project. The builds being scanned are finished, the others are left as they
+     * are.
+     *
+     * @param request the request.
+     * @param response the response.
+     * @throws IOException if the redirect failed.
+     */
+    @RequirePOST
+    public void doCancelScan(StaplerRequest2 request, StaplerResponse2 response) throws IOException {
+        checkPermission();
+        ScanOnDemandEnumeration enumeration = ScanOnDemandEnumeration.get(project);
+        if (enumeration != null) {
+            enumeration.cancel();
         }
+        response.sendRedirect2(Functions.joinPath("/", request.getContextPath(), project.getUrl()));
     }
 
     /**
@@ -307,7 +340,29 @@ public class ScanOnDemandBaseAction implements Action {
          * @return an iterator of the matching builds
          */
         @NonNull
-        abstract Iterator<Run> getRuns(Job job);
+        Iterator<Run> getRuns(Job job) {
+            return getRuns(job, job.getBuilds().iterator());
+        }
+
+        /**
+         * Filters some of the {@link Run}s of the provided job to those that match this scan mode.
+         *
+         * @param job the job the builds belong to
+         * @param builds the builds to filter, newest first
+         * @return an iterator of the matching builds
+         */
+        @NonNull
+        abstract Iterator<Run> getRuns(Job job, Iterator<Run> builds);
+
+        /**
+         * If the builds are re-scanned incrementally, only evaluating what changed in the knowledge base since they
+         * were scanned.
+         *
+         * @return true if so, false by default.
+         */
+        boolean isIncremental() {
+            return false;
+        }
 
         /**
          * Sets this scan mode as the default for this user on future page visits.
@@ -349,7 +404,8 @@ public class ScanOnDemandBaseAction implements Action {
         }
 
         /**
-         * Submit method for running build scan.
+         * Submit method for running build scan. The builds are looked up and queued by a
+         * {@link ScanOnDemandEnumeration} in the background, so this returns at once.
          *
          * @param action the action we have as an ancestor
          * @param request  StaplerRequest2
@@ -363,22 +419,7 @@ public class ScanOnDemandBaseAction implements Action {
                                   StaplerRequest2 request, StaplerResponse2 response)
                 throws ServletException, IOException, InterruptedException {
             action.checkPermission();
-            Iterator<Run> runIterator = getRuns(action.getProject());
-            while (runIterator.hasNext()) {
-                Run run = runIterator.next();
-                FailureCauseBuildAction fcba = run.getAction(FailureCauseBuildAction.class);
-                if (fcba != null) {
-                    run.getActions().remove(fcba); //TODO Replace instead
-                }
-                FailureCauseMatrixBuildAction fcmba = run.getAction(FailureCauseMatrixBuildAction.class);
-                if (run instanceof MatrixBuild
-                        && fcmba != null) {
-                    run.getActions().remove(fcmba); //TODO Replace instead
-                    action.removeRunActions((MatrixBuild)run);
-                }
-                ScanOnDemandTask task = new ScanOnDemandTask(run);
-                ScanOnDemandQueue.queue(task);
-            }
+            ScanOnDemandEnumeration.start(action.getProject(), this);
             response.sendRedirect2(Functions.joinPath("/", request.getContextPath(), getParent().getProject().getUrl()));
         }
 
@@ -419,8 +460,8 @@ public class ScanOnDemandBaseAction implements Action {
 
         @NonNull
         @Override
-        Iterator<Run> getRuns(Job job) {
-            return new Iterators.FilterIterator<Run>(job.getBuilds().iterator()) {
+        Iterator<Run> getRuns(Job job, Iterator<Run> builds) {
+            return new Iterators.FilterIterator<Run>(builds) {
                 @Override
                 protected boolean filter(Run run) {
                     final Result result = run.getResult();
@@ -453,8 +494,8 @@ public class ScanOnDemandBaseAction implements Action {
 
         @NonNull
         @Override
-        Iterator<Run> getRuns(Job job) {
-            return new Iterators.FilterIterator<Run>(job.getBuilds().iterator()) {
+        Iterator<Run> getRuns(Job job, Iterator<Run> builds) {
+            return new Iterators.FilterIterator<Run>(builds) {
                 @Override
                 protected boolean filter(Run run) {
                     final Result result = run.getResult();
@@ -464,4 +505,64 @@ public class ScanOnDemandBaseAction implements Action {
             };
         }
     }
+
+    /**
+     * ScanMode that re-scans the builds scanned before the knowledge base changed, only evaluating what changed.
+     */
+    @Extension
+    @Restricted(NoExternalUse.class)
+    public static class ChangedCauses extends ScanMode {
+        @NonNull
+        @Override
+        public String getUrlName() {
+            return "changed";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.ScanOnDemandBaseAction_ChangedCauses_DisplayName();
+        }
+
+        @Override
+        boolean isIncremental() {
+            return true;
+        }
+
+        @NonNull
+        @Override
+        Iterator<Run> getRuns(Job job, Iterator<Run> builds) {
+            final Collection<FailureCause> causes;
+            try {
+                causes = PluginImpl.getInstance().getKnowledgeBase().getCauses();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "[BFA] Could not get the causes from the knowledge base", e);
+                return Collections.emptyIterator();
+            }
+            return new Iterators.FilterIterator<Run>(builds) {
+                // the builds of a job mostly have the same applicable causes
+                private List<FailureCause> lastCauses;
+                private String lastVersion;
+
+                @Override
+                protected boolean filter(Run run) {
+                    final Result result = run.getResult();
+                    if (result == null || !PluginImpl.needToAnalyze(result)
+                            || !run.getActions(FailureCauseMatrixBuildAction.class).isEmpty()) {
+                        return false;
+                    }
+                    FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
+                    if (action == null) {
+                        return true;
+                    }
+                    List<FailureCause> applicable = ApplicableCauses.of(run, causes);
+                    if (applicable != lastCauses) {
+                        lastCauses = applicable;
+                        lastVersion = ScanPlan.version(applicable);
+                    }
+                    return !lastVersion.equals(action.getScanPlanVersion());
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,490 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import hudson.matrix.MatrixBuild;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Looks up the builds of a job, or of all jobs in a folder, to scan on demand in the background, instead of in the
+ * request that started the scan.
+ *
+ * The builds are looked up one by one, for a job from {@link ScanOnDemandBaseAction.ScanMode#getRuns(Job)} and for a
+ * folder from a {@link RoundRobinRuns}, and queued as {@link ScanOnDemandTask}s that only know the job name and build
+ * number, so that the builds can be unloaded again while they wait. Tasks are queued in batches of
+ * {@link #BATCH_SIZE}, and the next batch is not looked up until half of the previous one is scanned. When scanning a
+ * folder, each task is let through by the {@link ScanOnDemandThrottle} before it is queued, and the jobs it holds
+ * back are passed over until their next turn. The last enumeration of each job and folder is kept to
+ * report its progress, and can be cancelled, which leaves the builds that were not scanned yet as they are.
+ */
+public final class ScanOnDemandEnumeration implements Runnable {
+
+    /**
+     * The number of tasks queued at a time.
+     */
+    static final int BATCH_SIZE = 100;
+
+    /**
+     * The number of jobs enumerated at the same time.
+     */
+    static final int PARALLELISM = 2;
+
+    private static final Logger logger = Logger.getLogger(ScanOnDemandEnumeration.class.getName());
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final Map<String, ScanOnDemandEnumeration> enumerations =
+            new ConcurrentHashMap<String, ScanOnDemandEnumeration>();
+    private static ExecutorService executor;
+
+    private final String key;
+    private final Supplier<? extends Iterator<Run>> source;
+    private final boolean incremental;
+    private final int batchSize;
+    private final ScanOnDemandThrottle throttle;
+    private final Predicate<ScanOnDemandTask> queue;
+    private final Authentication authentication;
+    private final long started = System.currentTimeMillis();
+    private volatile boolean cancelled;
+    private boolean enumerating = true;
+    private int queued;
+    private int done;
+    private int failed;
+    private int skipped;
+
+    /**
+     * Standard constructor.
+     *
+     * @param key identifies the job or folder.
+     * @param source looks up the builds to scan, null if there are none.
+     * @param incremental true to only evaluate what changed in the knowledge base since the builds were scanned.
+     * @param batchSize the number of tasks queued at a time.
+     * @param throttle limits how fast the tasks of a {@link RoundRobinRuns} are queued, null to not limit it.
+     * @param queue queues a task, returning false if it could not be queued.
+     */
+    ScanOnDemandEnumeration(String key, Supplier<? extends Iterator<Run>> source, boolean incremental, int batchSize,
+                            ScanOnDemandThrottle throttle, Predicate<ScanOnDemandTask> queue) {
+        this.key = key;
+        this.source = source;
+        this.incremental = incremental;
+        this.batchSize = batchSize;
+        this.throttle = throttle;
+        this.queue = queue;
+        this.authentication = Jenkins.getAuthentication2();
+    }
+
+    /**
+     * Starts scanning the builds of a job in the background, unless a scan of the job is already running. The builds
+     * are not throttled, as they are all of the same job.
+     *
+     * @param job the job.
+     * @param mode selects the builds to scan.
+     * @return the started or the already running enumeration.
+     */
+    static ScanOnDemandEnumeration start(Job job, final ScanOnDemandBaseAction.ScanMode mode) {
+        final String jobFullName = job.getFullName();
+        return start(jobFullName, () -> {
+            Job current = Jenkins.get().getItemByFullName(jobFullName, Job.class);
+            if (current == null) {
+                return null;
+            }
+            return mode.getRuns(current);
+        }, mode.isIncremental(), null);
+    }
+
+    /**
+     * Starts scanning the builds of many jobs in the background, throttled by the {@link ScanOnDemandThrottle},
+     * unless a scan with the same key is already running.
+     *
+     * @param key identifies the folder.
+     * @param source looks up the builds to scan, as the user starting the scan.
+     * @param incremental true to only evaluate what changed in the knowledge base since the builds were scanned.
+     * @return the started or the already running enumeration.
+     */
+    static ScanOnDemandEnumeration start(String key, Supplier<RoundRobinRuns> source, boolean incremental) {
+        return start(key, source, incremental, ScanOnDemandThrottle.getInstance());
+    }
+
+    /**
+     * Starts scanning builds in the background, unless a scan with the same key is already running.
+     *
+     * @param key identifies the job or folder.
+     * @param source looks up the builds to scan, as the user starting the scan.
+     * @param incremental true to only evaluate what changed in the knowledge base since the builds were scanned.
+     * @param throttle limits how fast the tasks are queued, null to not limit it.
+     * @return the started or the already running enumeration.
+     */
+    private static synchronized ScanOnDemandEnumeration start(String key, Supplier<? extends Iterator<Run>> source,
+                                                              boolean incremental, ScanOnDemandThrottle throttle) {
+        ScanOnDemandEnumeration current = enumerations.get(key);
+        if (current != null && !current.isFinished()) {
+            return current;
+        }
+        ScanOnDemandEnumeration enumeration = new ScanOnDemandEnumeration(key, source, incremental, BATCH_SIZE,
+                throttle, ScanOnDemandQueue::queue);
+        enumerations.put(key, enumeration);
+        getExecutor().execute(enumeration);
+        return enumeration;
+    }
+
+    /**
+     * The last enumeration started for a job.
+     *
+     * @param job the job.
+     * @return the enumeration, or null if none was started.
+     */
+    public static ScanOnDemandEnumeration get(Job job) {
+        return get(job.getFullName());
+    }
+
+    /**
+     * The last enumeration started with a key.
+     *
+     * @param key identifies the job or folder.
+     * @return the enumeration, or null if none was started.
+     */
+    public static ScanOnDemandEnumeration get(String key) {
+        return enumerations.get(key);
+    }
+
+    /**
+     * Waits for the running enumerations to queue all their builds, and cancels those that didn't in time.
+     *
+     * @param timeoutSeconds the time to wait.
+     */
+    static void awaitAll(long timeoutSeconds) {
+        long deadline = System.currentTimeMillis() + timeoutSeconds * MILLIS_PER_SECOND;
+        List<ScanOnDemandEnumeration> running = new ArrayList<ScanOnDemandEnumeration>(enumerations.values());
+        try {
+            for (ScanOnDemandEnumeration enumeration : running) {
+                enumeration.awaitEnumerated(deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ScanOnDemandEnumeration enumeration : running) {
+            if (enumeration.isEnumerating()) {
+                enumeration.cancel();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try (ACLContext context = ACL.as2(authentication)) {
+            Iterator<Run> runs = source.get();
+            if (runs != null) {
+                enumerate(runs);
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "[BFA] Could not look up the builds of " + key + " to scan", e);
+        } finally {
+            synchronized (this) {
+                enumerating = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Queues tasks for the builds, a batch at a time.
+     *
+     * @param runs the builds to scan.
+     * @throws InterruptedException if interrupted while waiting for a batch to be scanned or for the throttle.
+     */
+    void enumerate(Iterator<Run> runs) throws InterruptedException {
+        while (!cancelled && runs.hasNext()) {
+            awaitRoom();
+            for (int i = 0; i < batchSize && !cancelled && runs.hasNext(); i++) {
+                Run run = next(runs);
+                if (run == null) {
+                    break;
+                }
+                String jobFullName = run.getParent().getFullName();
+                // the previous result of a matrix build is not used to re-scan incrementally
+                ScanOnDemandTask task = new ScanOnDemandTask(jobFullName, run.getNumber(),
+                        incremental && !(run instanceof MatrixBuild), this);
+                synchronized (this) {
+                    queued++;
+                }
+                if (!queue.test(task)) {
+                    taskFinished(jobFullName, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the next build to queue. The builds of a {@link RoundRobinRuns} are let through by the throttle, passing
+     * over the jobs at their cap, and this only waits when no job in its window may be scanned right now.
+     *
+     * @param runs the builds to scan.
+     * @return the build, or null if the enumeration was cancelled or there are no more builds.
+     * @throws InterruptedException if interrupted while waiting for the throttle.
+     */
+    private Run next(Iterator<Run> runs) throws InterruptedException {
+        if (throttle == null || !(runs instanceof RoundRobinRuns)) {
+            return runs.next();
+        }
+        RoundRobinRuns rotation = (RoundRobinRuns)runs;
+        while (!cancelled && rotation.hasNext()) {
+            Run run = rotation.next(job -> throttle.tryAcquire(job.getFullName()));
+            if (run != null) {
+                return run;
+            }
+            throttle.awaitChange();
+        }
+        return null;
+    }
+
+    /**
+     * Waits until at most half a batch of the queued tasks is left.
+     *
+     * @throws InterruptedException if interrupted.
+     */
+    private synchronized void awaitRoom() throws InterruptedException {
+        while (!cancelled && queued - getFinished() > batchSize / 2) {
+            wait();
+        }
+    }
+
+    /**
+     * Waits until all builds are queued.
+     *
+     * @param deadline the time to give up waiting at.
+     * @throws InterruptedException if interrupted.
+     */
+    private synchronized void awaitEnumerated(long deadline) throws InterruptedException {
+        long left = deadline - System.currentTimeMillis();
+        while (enumerating && left > 0) {
+            wait(left);
+            left = deadline - System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Called when a task of this enumeration was run.
+     *
+     * @param jobFullName the full name of the job of the task.
+     * @param taskFailed true if the build could not be scanned.
+     */
+    synchronized void taskFinished(String jobFullName, boolean taskFailed) {
+        release(jobFullName);
+        if (taskFailed) {
+            failed++;
+        } else {
+            done++;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Called when a task of this enumeration was not run because the enumeration is cancelled.
+     *
+     * @param jobFullName the full name of the job of the task.
+     */
+    synchronized void taskSkipped(String jobFullName) {
+        release(jobFullName);
+        skipped++;
+        notifyAll();
+    }
+
+    /**
+     * Counts a task as no longer scanning in the throttle, if it was let through by it.
+     *
+     * @param jobFullName the full name of the job of the task.
+     */
+    private void release(String jobFullName) {
+        if (throttle != null) {
+            throttle.release(jobFullName);
+        }
+    }
+
+    /**
+     * Stops queueing builds and skips the queued tasks that have not started.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * If the enumeration is cancelled.
+     *
+     * @return true if so.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * If builds are still being looked up.
+     *
+     * @return true if so.
+     */
+    public synchronized boolean isEnumerating() {
+        return enumerating;
+    }
+
+    /**
+     * If all builds are looked up and all queued tasks are done.
+     *
+     * @return true if so.
+     */
+    public synchronized boolean isFinished() {
+        return !enumerating && getFinished() == queued;
+    }
+
+    /**
+     * The number of tasks queued so far.
+     *
+     * @return the number.
+     */
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    /**
+     * The number of builds scanned.
+     *
+     * @return the number.
+     */
+    public synchronized int getDone() {
+        return done;
+    }
+
+    /**
+     * The number of builds that could not be scanned.
+     *
+     * @return the number.
+     */
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    /**
+     * The number of builds not scanned because the enumeration was cancelled.
+     *
+     * @return the number.
+     */
+    public synchronized int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Estimates the time left to scan the builds queued so far, from the time spent on the ones scanned.
+     *
+     * @return the estimated number of seconds, or -1 if no build was scanned yet.
+     */
+    public synchronized long getEtaSeconds() {
+        int left = queued - getFinished();
+        if (left == 0) {
+            return 0;
+        }
+        int scanned = done + failed;
+        if (scanned == 0) {
+            return -1;
+        }
+        long elapsed = System.currentTimeMillis() - started;
+        return elapsed * left / scanned / MILLIS_PER_SECOND;
+    }
+
+    /**
+     * The progress, as returned by {@link ScanOnDemandBaseAction#doProgress()}.
+     *
+     * @return the progress.
+     */
+    synchronized JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("queued", queued);
+        json.put("done", done);
+        json.put("failed", failed);
+        json.put("skipped", skipped);
+        json.put("enumerating", enumerating);
+        json.put("cancelled", cancelled);
+        json.put("finished", isFinished());
+        json.put("etaSeconds", getEtaSeconds());
+        return json;
+    }
+
+    /**
+     * The number of tasks that were run or skipped.
+     *
+     * @return the number.
+     */
+    private int getFinished() {
+        return done + failed + skipped;
+    }
+
+    /**
+     * The shared threads looking up the builds.
+     *
+     * @return the executor.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable target) {
+                            Thread thread = new Thread(target, "BFA-sod-enumeration-" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+}
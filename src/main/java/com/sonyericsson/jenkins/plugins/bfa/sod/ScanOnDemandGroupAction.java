@@ -0,0 +1,360 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import com.sonyericsson.jenkins.plugins.bfa.Messages;
+import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
+import hudson.Extension;
+import hudson.model.AbstractItem;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Items;
+import hudson.model.Job;
+import hudson.model.Project;
+import hudson.model.Result;
+import hudson.model.RootAction;
+import hudson.model.Run;
+import hudson.util.Iterators;
+import jenkins.model.Jenkins;
+import jenkins.model.TransientActionFactory;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans the builds of all jobs in a folder, or in all of Jenkins, on demand.
+ *
+ * The builds can be limited to some results and to the last days, besides the {@link ScanOnDemandBaseAction.ScanMode}
+ * that selects them in each job. The jobs are taken from in turn by a {@link RoundRobinRuns}, and the
+ * {@link ScanOnDemandThrottle} keeps one job from taking all scan-on-demand threads.
+ */
+public class ScanOnDemandGroupAction implements Action {
+
+    /**
+     * The results that can be selected to scan.
+     */
+    public static final List<Result> RESULTS = Collections.unmodifiableList(
+            Arrays.asList(Result.FAILURE, Result.UNSTABLE, Result.ABORTED, Result.NOT_BUILT));
+
+    private final ItemGroup<?> group;
+
+    /**
+     * Standard constructor.
+     *
+     * @param group the folder, or Jenkins for all jobs.
+     */
+    public ScanOnDemandGroupAction(ItemGroup<?> group) {
+        this.group = group;
+    }
+
+    @Override
+    public String getIconFileName() {
+        if (hasPermission()) {
+            return PluginImpl.getDefaultIcon();
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public String getDisplayName() {
+        if (hasPermission()) {
+            return Messages.FailureScan_DisplayName();
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public String getUrlName() {
+        if (hasPermission()) {
+            return "scan-on-demand";
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * The folder, or Jenkins for all jobs.
+     *
+     * @return the group.
+     */
+    public ItemGroup<?> getGroup() {
+        return group;
+    }
+
+    /**
+     * Checks if the current user may scan the builds of the group: {@link Jenkins#ADMINISTER} for all of Jenkins,
+     * and {@link Item#CONFIGURE} or {@link Project#BUILD} on a folder.
+     *
+     * @return true if so.
+     */
+    public boolean hasPermission() {
+        if (group instanceof Item) {
+            Item item = (Item)group;
+            return item.hasPermission(Item.CONFIGURE) || item.hasPermission(Project.BUILD);
+        }
+        return Jenkins.get().hasPermission(Jenkins.ADMINISTER);
+    }
+
+    /**
+     * Checks the permission of {@link #hasPermission()}.
+     */
+    public void checkPermission() {
+        if (group instanceof Item) {
+            if (!hasPermission()) {
+                throw new AccessDeniedException(
+                        Messages.SodAccessDeniedException(Jenkins.getAuthentication2().getName(),
+                                Item.CONFIGURE.name, Project.BUILD.name));
+            }
+        } else {
+            Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        }
+    }
+
+    /**
+     * The key of the scans of the group in {@link ScanOnDemandEnumeration#get(String)}.
+     *
+     * @return the key.
+     */
+    String getKey() {
+        return "group:" + group.getFullName();
+    }
+
+    /**
+     * The last scan started for the group.
+     *
+     * @return the scan, or null if none was started.
+     */
+    public ScanOnDemandEnumeration getEnumeration() {
+        return ScanOnDemandEnumeration.get(getKey());
+    }
+
+    /**
+     * The url name of the scan mode selected when the page is opened.
+     *
+     * @return the url name.
+     */
+    public String getDefaultMode() {
+        return ScanOnDemandBaseAction.NonScanned.URL;
+    }
+
+    /**
+     * Starts scanning the builds of the jobs in the group in the background.
+     *
+     * @param request the request, with the url name of the scan mode as "mode", the results to scan as "result" and
+     * the number of days to look back as "days", 0 for all builds.
+     * @param response the response.
+     * @throws IOException if the redirect failed.
+     */
+    @RequirePOST
+    public void doPerformScan(StaplerRequest2 request, StaplerResponse2 response) throws IOException {
+        checkPermission();
+        final ScanOnDemandBaseAction.ScanMode mode = getMode(request.getParameter("mode"));
+        final Set<Result> results = getResults(request.getParameterValues("result"));
+        final long since = getSince(request.getParameter("days"), System.currentTimeMillis());
+        ScanOnDemandEnumeration.start(getKey(), () -> new RoundRobinRuns(
+                Items.allItems(group, Job.class).iterator(),
+                job -> getRuns(job, mode, results, since),
+                RoundRobinRuns.WINDOW), mode.isIncremental());
+        response.sendRedirect2(".");
+    }
+
+    /**
+     * The progress of the last scan started for the group, as JSON.
+     *
+     * @return the progress, or an empty object if no scan was started.
+     * @see ScanOnDemandEnumeration#toJson()
+     */
+    public HttpResponse doProgress() {
+        checkPermission();
+        ScanOnDemandEnumeration enumeration = getEnumeration();
+        if (enumeration == null) {
+            return HttpResponses.okJSON(new JSONObject());
+        }
+        return HttpResponses.okJSON(enumeration.toJson());
+    }
+
+    /**
+     * Cancels the scan running for the group.
+     *
+     * @param request the request.
+     * @param response the response.
+     * @throws IOException if the redirect failed.
+     */
+    @RequirePOST
+    public void doCancelScan(StaplerRequest2 request, StaplerResponse2 response) throws IOException {
+        checkPermission();
+        ScanOnDemandEnumeration enumeration = getEnumeration();
+        if (enumeration != null) {
+            enumeration.cancel();
+        }
+        response.sendRedirect2(".");
+    }
+
+    /**
+     * Finds the scan mode with a url name, or the default one.
+     *
+     * @param url the url name.
+     * @return the mode.
+     */
+    private static ScanOnDemandBaseAction.ScanMode getMode(String url) {
+        ScanOnDemandBaseAction.ScanMode fallback = null;
+        for (ScanOnDemandBaseAction.ScanMode mode : ScanOnDemandBaseAction.ScanMode.all()) {
+            if (mode.getUrlName().equals(url)) {
+                return mode;
+            }
+            if (mode.getUrlName().equals(ScanOnDemandBaseAction.NonScanned.URL)) {
+                fallback = mode;
+            }
+        }
+        if (fallback == null) {
+            throw HttpResponses.error(StaplerResponse2.SC_BAD_REQUEST, "Unknown scan mode " + url);
+        }
+        return fallback;
+    }
+
+    /**
+     * Parses the selected results.
+     *
+     * @param names the names of the results, null if none was selected.
+     * @return the results, all of {@link #RESULTS} if none was selected.
+     */
+    static Set<Result> getResults(String[] names) {
+        Set<Result> results = new HashSet<Result>();
+        if (names != null) {
+            for (String name : names) {
+                results.add(Result.fromString(name));
+            }
+        }
+        if (results.isEmpty()) {
+            results.addAll(RESULTS);
+        }
+        return results;
+    }
+
+    /**
+     * Parses the number of days to look back.
+     *
+     * @param days the number of days, blank or 0 for all builds.
+     * @param now the current time.
+     * @return the time of the oldest build to scan, 0 for all builds.
+     */
+    static long getSince(String days, long now) {
+        long number = 0;
+        if (days != null && !days.trim().isEmpty()) {
+            try {
+                number = Long.parseLong(days.trim());
+            } catch (NumberFormatException e) {
+                throw HttpResponses.error(StaplerResponse2.SC_BAD_REQUEST, "Not a number of days: " + days);
+            }
+        }
+        if (number <= 0) {
+            return 0;
+        }
+        return now - TimeUnit.DAYS.toMillis(number);
+    }
+
+    /**
+     * The builds of a job to scan. Builds older than the limit and with other results are left out before the scan
+     * mode looks at them, and the builds are loaded newest first, so no build older than the limit is loaded.
+     *
+     * @param job the job.
+     * @param mode selects the builds in the job.
+     * @param results the results to scan.
+     * @param since the time of the oldest build to scan, 0 for all builds.
+     * @return the builds.
+     */
+    static Iterator<Run> getRuns(Job job, ScanOnDemandBaseAction.ScanMode mode, final Set<Result> results,
+                                 final long since) {
+        if (!PluginImpl.shouldScan(job)
+                || !(job.hasPermission(Item.CONFIGURE) || job.hasPermission(Project.BUILD))) {
+            return Collections.emptyIterator();
+        }
+        Iterator<Run> builds = job.getBuilds().iterator();
+        if (since > 0) {
+            builds = Iterators.limit(builds, (index, run) -> run.getTimeInMillis() >= since);
+        }
+        builds = new Iterators.FilterIterator<Run>(builds) {
+            @Override
+            protected boolean filter(Run run) {
+                return results.contains(run.getResult());
+            }
+        };
+        return mode.getRuns(job, builds);
+    }
+
+    /**
+     * Scans the builds of all jobs.
+     */
+    @Extension
+    public static class Root extends ScanOnDemandGroupAction implements RootAction {
+
+        /**
+         * Standard constructor.
+         */
+        public Root() {
+            super(Jenkins.get());
+        }
+    }
+
+    /**
+     * Adds the action to folders, or any other item that contains jobs.
+     */
+    @Extension
+    public static class Factory extends TransientActionFactory<AbstractItem> {
+
+        @Override
+        public Class<AbstractItem> type() {
+            return AbstractItem.class;
+        }
+
+        @Override
+        public Collection<? extends Action> createFor(AbstractItem target) {
+            if (target instanceof ItemGroup && !(target instanceof Job)) {
+                ScanOnDemandGroupAction action = new ScanOnDemandGroupAction((ItemGroup<?>)target);
+                if (action.hasPermission()) {
+                    return Collections.singletonList(action);
+                }
+            }
+            return Collections.emptyList();
+        }
+    }
+}
@@ -23,11 +23,18 @@
  */
 package com.sonyericsson.jenkins.plugins.bfa.sod;
 
+import com.codahale.metrics.Gauge;
+import com.sonyericsson.jenkins.plugins.bfa.AdaptiveConcurrencyLimiter;
+import com.sonyericsson.jenkins.plugins.bfa.MetricsManager;
 import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
+import com.sonyericsson.jenkins.plugins.bfa.VirtualThreads;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +48,12 @@ public final class ScanOnDemandQueue {
     private static final Logger logger = LoggerFactory.getLogger(ScanOnDemandQueue.class);
     private static ScanOnDemandQueue instance;
     private ThreadPoolExecutor executor = null;
+    private ExecutorService virtualExecutor = null;
+    private final AtomicInteger virtualTasks = new AtomicInteger();
+    private final ResizableSemaphore virtualPermits = new ResizableSemaphore();
+    private int virtualLimit = 0;
+    private final ThreadLocal<Long> startTimes = new ThreadLocal<Long>();
+    private volatile AdaptiveConcurrencyLimiter limiter = null;
     /**
      * Private Default constructor.
      */
@@ -67,7 +80,7 @@ public final class ScanOnDemandQueue {
      */
     public static int getQueueSize() {
         if (instance != null && instance.executor != null) {
-            return instance.executor.getQueue().size();
+            return instance.executor.getQueue().size() + instance.virtualTasks.get();
         } else {
             return 0;
         }
@@ -77,9 +90,10 @@ public final class ScanOnDemandQueue {
      * Adds a sod-task to the singleton instance's queue.
      *
      * @param task the task to do.
+     * @return true if queued, false if the queue is shut down.
      */
-    public static void queue(ScanOnDemandTask task) {
-        getInstance().queueTask(task);
+    public static boolean queue(ScanOnDemandTask task) {
+        return getInstance().queueTask(task);
     }
 
     /**
@@ -94,39 +108,183 @@ public final class ScanOnDemandQueue {
                     pluginImpl.getSodVariables().getMinimumSodWorkerThreads(),
                     pluginImpl.getSodVariables().getMinimumSodWorkerThreads(),
                     pluginImpl.getSodVariables().getSodThreadKeepAliveTime(), TimeUnit.MINUTES,
-                    new LinkedBlockingQueue<>());
+                    new LinkedBlockingQueue<>()) {
+                @Override
+                protected void beforeExecute(Thread thread, Runnable task) {
+                    super.beforeExecute(thread, task);
+                    AdaptiveConcurrencyLimiter current = limiter;
+                    if (current != null) {
+                        current.onStart();
+                        startTimes.set(System.nanoTime());
+                    }
+                }
+
+                @Override
+                protected void afterExecute(Runnable task, Throwable throwable) {
+                    super.afterExecute(task, throwable);
+                    Long start = startTimes.get();
+                    startTimes.remove();
+                    AdaptiveConcurrencyLimiter current = limiter;
+                    long workBytes = 0;
+                    if (task instanceof ScanOnDemandTask) {
+                        workBytes = ((ScanOnDemandTask)task).getScannedBytes();
+                    }
+                    if (current != null && start != null
+                            && current.onComplete(System.nanoTime() - start, workBytes)) {
+                        setLimit(current.getLimit());
+                    }
+                }
+            };
             executor.allowCoreThreadTimeOut(true);
             executor.prestartCoreThread();
+            registerGauge();
             logger.info("SendQueue started! Current pool size: {}", executor.getPoolSize());
         }
         executor.setMaximumPoolSize(pluginImpl.getSodVariables().getMaximumSodWorkerThreads());
-        executor.setCorePoolSize(pluginImpl.getSodVariables().getSodCorePoolNumberOfThreads());
+        if (pluginImpl.isAdaptiveConcurrencyEnabled()) {
+            // the queue is unbounded, so the pool never grows beyond the core size
+            AdaptiveConcurrencyLimiter current = limiter;
+            if (current == null) {
+                current = new AdaptiveConcurrencyLimiter(
+                        pluginImpl.getSodVariables().getMinimumSodWorkerThreads(),
+                        pluginImpl.getSodVariables().getSodCorePoolNumberOfThreads());
+                limiter = current;
+            }
+            current.setBounds(pluginImpl.getSodVariables().getMinimumSodWorkerThreads(),
+                    pluginImpl.getSodVariables().getMaximumSodWorkerThreads());
+            setLimit(current.getLimit());
+        } else {
+            limiter = null;
+            setLimit(pluginImpl.getSodVariables().getSodCorePoolNumberOfThreads());
+        }
         logger.debug("SendQueue running. Current pool size: {}. Current Queue size: {}",
                 executor.getPoolSize(), getQueueSize());
         logger.debug("Nr of active pool-threads: {}", executor.getActiveCount());
     }
 
+    /**
+     * Sets the number of tasks that may run at the same time, both on the thread pool and on virtual threads.
+     *
+     * @param limit the number of tasks.
+     */
+    private synchronized void setLimit(int limit) {
+        executor.setCorePoolSize(limit);
+        virtualPermits.resize(limit - virtualLimit);
+        virtualLimit = limit;
+    }
+
+    /**
+     * Publishes the number of tasks that may run at the same time.
+     */
+    private void registerGauge() {
+        try {
+            MetricsManager.registerGauge("sod.concurrency_limit", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return executor.getCorePoolSize();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not register the scan on demand metrics", e);
+        }
+    }
+
     /**
      * Adds a task to the queue.
      *
      * @param task the task to do.
-     * @see java.util.concurrent.ThreadPoolExecutor#submit(Runnable)
+     * @return true if queued, false if the queue is shut down.
+     * @see java.util.concurrent.ThreadPoolExecutor#execute(Runnable)
      */
-    public void queueTask(ScanOnDemandTask task) {
+    public boolean queueTask(final ScanOnDemandTask task) {
         try {
             logger.debug("Queueing task {}", task);
-            executor.submit(task);
+            ExecutorService virtual = getVirtualExecutor();
+            if (virtual != null) {
+                virtualTasks.incrementAndGet();
+                try {
+                    virtual.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                runLimited(task);
+                            } finally {
+                                virtualTasks.decrementAndGet();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    virtualTasks.decrementAndGet();
+                    throw e;
+                }
+            } else {
+                // not wrapped in a future, so that the limiter can see how much the task scanned
+                executor.execute(task);
+            }
+            return true;
         } catch (RejectedExecutionException e) {
             logger.error("Unable to submit/queue a sod-task! ", task, e);
+            return false;
+        }
+    }
+
+    /**
+     * Runs a task on a virtual thread once fewer tasks than the limit are running, reporting it to the limiter as the
+     * thread pool does. The task waits for as long as it takes, since a scan on demand is never given up.
+     *
+     * @param task the task to run.
+     */
+    private void runLimited(ScanOnDemandTask task) {
+        virtualPermits.acquireUninterruptibly();
+        try {
+            AdaptiveConcurrencyLimiter current = limiter;
+            long start = System.nanoTime();
+            if (current != null) {
+                current.onStart();
+            }
+            try {
+                task.run();
+            } finally {
+                if (current != null && current.onComplete(System.nanoTime() - start, task.getScannedBytes())) {
+                    setLimit(current.getLimit());
+                }
+            }
+        } finally {
+            virtualPermits.release();
+        }
+    }
+
+    /**
+     * The executor starting a virtual thread for each task, if virtual threads are enabled and supported.
+     * The tasks mostly wait for log I/O, the database and the scanner threads, so they don't need a pool of their own,
+     * but no more of them run at the same time than the thread pool would run.
+     *
+     * @return the executor, or null if the thread pool should be used.
+     */
+    private synchronized ExecutorService getVirtualExecutor() {
+        if (!VirtualThreads.isEnabled()) {
+            return null;
+        }
+        if (virtualExecutor == null) {
+            virtualExecutor = VirtualThreads.newExecutor("BFA-sod-virtual-");
         }
+        return virtualExecutor;
     }
 
     /**
-     * Shuts down the executor(s).
+     * Shuts down the executor(s), after the running {@link ScanOnDemandEnumeration}s have queued their builds.
      * Gracefully waits for {@link ScanOnDemandVariables#getSodWaitForJobShutdownTimeout()}
      * seconds for all jobs to finish before forcefully shutting them down.
      */
     public static void shutdown() {
+        ScanOnDemandEnumeration.awaitAll(PluginImpl.getInstance().getSodVariables().getSodWaitForJobShutdownTimeout());
+        if (instance != null) {
+            synchronized (instance) {
+                if (instance.virtualExecutor != null) {
+                    instance.virtualExecutor.shutdown();
+                }
+            }
+        }
         if (instance != null && instance.executor != null) {
             ThreadPoolExecutor pool = instance.executor;
             pool.shutdown(); // Disable new tasks from being submitted
@@ -151,4 +309,33 @@ public final class ScanOnDemandQueue {
             }
         }
     }
+
+    /**
+     * A semaphore whose number of permits can be changed while they are taken.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Standard constructor, without permits.
+         */
+        private ResizableSemaphore() {
+            super(0);
+        }
+
+        /**
+         * Adds or removes permits. Removing more permits than are available makes the next acquirers wait until
+         * enough are released.
+         *
+         * @param delta the number of permits to add, negative to remove.
+         */
+        private void resize(int delta) {
+            if (delta > 0) {
+                release(delta);
+            } else if (delta < 0) {
+                reducePermits(-delta);
+            }
+        }
+    }
 }
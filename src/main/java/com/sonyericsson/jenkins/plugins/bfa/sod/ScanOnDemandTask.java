@@ -30,7 +30,11 @@ import com.sonyericsson.jenkins.plugins.bfa.BuildFailureScanner;
 import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
 import hudson.matrix.MatrixBuild;
 import hudson.matrix.MatrixRun;
+import hudson.model.Job;
 import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -50,6 +54,12 @@ public class ScanOnDemandTask implements Runnable {
 
     private static final Logger logger = Logger.getLogger(ScanOnDemandTask.class.getName());
     private Run build;
+    private final boolean incremental;
+    private final String jobFullName;
+    private final int number;
+    private final ScanOnDemandEnumeration enumeration;
+    private boolean failed;
+    private volatile long scannedBytes;
 
     /**
      * SODExecutor constructor.
@@ -57,11 +67,128 @@ public class ScanOnDemandTask implements Runnable {
      * @param build the build to analyze.
      */
     public ScanOnDemandTask(final Run build) {
+        this(build, false);
+    }
+
+    /**
+     * SODExecutor constructor.
+     *
+     * @param build the build to analyze.
+     * @param incremental true to only evaluate what changed in the knowledge base since the build was scanned.
+     * @see BuildFailureScanner#rescanIncrementally(Run, PrintStream)
+     */
+    public ScanOnDemandTask(final Run build, final boolean incremental) {
         this.build = build;
+        this.incremental = incremental;
+        this.jobFullName = null;
+        this.number = 0;
+        this.enumeration = null;
+    }
+
+    /**
+     * Constructor for the tasks of a {@link ScanOnDemandEnumeration}, which only loads the build when the task runs
+     * and removes its previous results first unless re-scanning incrementally.
+     *
+     * @param jobFullName the full name of the job of the build to analyze.
+     * @param number the number of the build.
+     * @param incremental true to only evaluate what changed in the knowledge base since the build was scanned.
+     * @param enumeration the enumeration to report to.
+     */
+    ScanOnDemandTask(final String jobFullName, final int number, final boolean incremental,
+                     final ScanOnDemandEnumeration enumeration) {
+        this.jobFullName = jobFullName;
+        this.number = number;
+        this.incremental = incremental;
+        this.enumeration = enumeration;
     }
 
     @Override
     public void run() {
+        if (enumeration == null) {
+            scan();
+            return;
+        }
+        if (enumeration.isCancelled()) {
+            enumeration.taskSkipped(jobFullName);
+            return;
+        }
+        try {
+            build = load();
+            if (build == null) {
+                logger.log(Level.FINE, "[BFA] " + jobFullName + " #" + number + " no longer exists");
+                failed = true;
+            } else {
+                if (!incremental) {
+                    removeActions(build);
+                }
+                scan();
+            }
+        } finally {
+            enumeration.taskFinished(jobFullName, failed);
+            // the enumeration keeps the finished tasks until it is replaced
+            build = null;
+        }
+    }
+
+    /**
+     * Loads the build of an enumerated task.
+     *
+     * @return the build, or null if it or its job no longer exists.
+     */
+    private Run load() {
+        // the permission to scan was checked when the enumeration was started
+        try (ACLContext context = ACL.as2(ACL.SYSTEM2)) {
+            Job job = Jenkins.get().getItemByFullName(jobFullName, Job.class);
+            if (job == null) {
+                return null;
+            }
+            return job.getBuildByNumber(number);
+        }
+    }
+
+    /**
+     * Removes the results of a build before it is scanned again.
+     *
+     * @param run the build.
+     */
+    static void removeActions(Run run) {
+        FailureCauseBuildAction fcba = run.getAction(FailureCauseBuildAction.class);
+        if (fcba != null) {
+            run.getActions().remove(fcba); //TODO Replace instead
+        }
+        FailureCauseMatrixBuildAction fcmba = run.getAction(FailureCauseMatrixBuildAction.class);
+        if (run instanceof MatrixBuild
+                && fcmba != null) {
+            run.getActions().remove(fcmba); //TODO Replace instead
+            removeRunActions((MatrixBuild)run);
+        }
+    }
+
+    /**
+     * Removes the results of the runs of a matrix build.
+     *
+     * @param matrixBuild the matrix build.
+     */
+    static void removeRunActions(MatrixBuild matrixBuild) {
+        List<MatrixRun> runs = matrixBuild.getRuns();
+        for (MatrixRun run : runs) {
+            if (run.getNumber() == matrixBuild.getNumber()) {
+                FailureCauseBuildAction fcba = run.getAction(FailureCauseBuildAction.class);
+                if (fcba != null) {
+                    run.getActions().remove(fcba);
+                }
+                FailureCauseMatrixBuildAction fcmba = run.getAction(FailureCauseMatrixBuildAction.class);
+                if (fcmba != null) {
+                    run.getActions().remove(fcmba);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the build, and the runs of a matrix build.
+     */
+    private void scan() {
         try {
             if (build instanceof MatrixBuild) {
                 List<MatrixRun> runs = ((MatrixBuild)build).getRuns();
@@ -78,6 +205,7 @@ public class ScanOnDemandTask implements Runnable {
                 scanBuild(build);
             }
         } catch (Exception e) {
+            failed = true;
             logger.log(Level.WARNING, "Failed to add a FailureScanner to "
                     + build.getParent().getFullDisplayName(), e);
         }
@@ -101,22 +229,46 @@ public class ScanOnDemandTask implements Runnable {
         build.save();
     }
 
+    /**
+     * The size of the logs scanned by the task, for the concurrency limiter.
+     *
+     * @return the number of bytes.
+     */
+    long getScannedBytes() {
+        return scannedBytes;
+    }
+
     /**
      * Scan the non scanned old build.
      *
      * @param run the non-scanned/scanned build to scan/rescan.
      */
     public void scanBuild(Run run) {
+        scannedBytes += run.getLogText().length();
         File file = new File(run.getRootDir(), ScanLogAction.FILE_NAME);
+        ScanLogAction previousScanLog = run.getAction(ScanLogAction.class);
+        BuildFailureScanner.setOnDemand(true);
         try (
                 FileOutputStream fos = new FileOutputStream(file, true);
                 PrintStream buildLog = new PrintStream(fos, true, "UTF8")
         ) {
-            PluginImpl.getInstance().getKnowledgeBase().removeBuildfailurecause(run);
-            BuildFailureScanner.scanIfNotScanned(run, buildLog);
+            if (incremental) {
+                BuildFailureScanner.rescanIncrementally(run, buildLog);
+            } else {
+                PluginImpl.getInstance().getKnowledgeBase().removeBuildfailurecause(run);
+                BuildFailureScanner.scanIfNotScanned(run, buildLog);
+            }
+            // the scanner reports its errors in the scan log
+            ScanLogAction scanLog = run.getAction(ScanLogAction.class);
+            if (scanLog != null && scanLog != previousScanLog && scanLog.getExceptionMessage() != null) {
+                failed = true;
+            }
             run.save();
         } catch (Exception e) {
+            failed = true;
             logger.log(Level.SEVERE, "Could not get the causes from the knowledge base", e);
+        } finally {
+            BuildFailureScanner.setOnDemand(false);
         }
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import com.sonyericsson.jenkins.plugins.bfa.PluginImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how fast the {@link ScanOnDemandEnumeration}s hand their builds to the {@link ScanOnDemandQueue}, so that
+ * the scan of one big job can't take all scan-on-demand threads and a scan of many jobs doesn't swamp the scanners.
+ *
+ * At most {@link ScanOnDemandVariables#getSodMaxScansPerJob()} builds of each job are queued or scanning at the same
+ * time, and scans are started at most {@link ScanOnDemandVariables#getSodMaxScansPerSecond()} times per second, with
+ * bursts of up to a second worth of scans. Only the scans of folders are throttled, a scan of a single job is
+ * queued as fast as its builds are looked up.
+ */
+public final class ScanOnDemandThrottle {
+
+    /**
+     * The longest time waited before checking again if the scan was cancelled.
+     */
+    static final long MAX_WAIT_MILLIS = 1000;
+
+    private static ScanOnDemandThrottle instance;
+
+    private final Map<String, Integer> running = new HashMap<String, Integer>();
+    private int maxPerJob;
+    private int maxPerSecond;
+    private double tokens;
+    private long refilled = System.nanoTime();
+
+    /**
+     * Standard constructor.
+     *
+     * @param maxPerJob the number of builds of one job scanned at the same time.
+     * @param maxPerSecond the number of scans started per second.
+     */
+    ScanOnDemandThrottle(int maxPerJob, int maxPerSecond) {
+        configure(maxPerJob, maxPerSecond);
+        this.tokens = maxPerSecond;
+    }
+
+    /**
+     * The singleton instance, configured from {@link PluginImpl#getSodVariables()}.
+     *
+     * @return the instance.
+     */
+    public static synchronized ScanOnDemandThrottle getInstance() {
+        ScanOnDemandVariables variables = PluginImpl.getInstance().getSodVariables();
+        if (instance == null) {
+            instance = new ScanOnDemandThrottle(variables.getSodMaxScansPerJob(),
+                    variables.getSodMaxScansPerSecond());
+        } else {
+            instance.configure(variables.getSodMaxScansPerJob(), variables.getSodMaxScansPerSecond());
+        }
+        return instance;
+    }
+
+    /**
+     * Changes the limits.
+     *
+     * @param perJob the number of builds of one job scanned at the same time.
+     * @param perSecond the number of scans started per second.
+     */
+    synchronized void configure(int perJob, int perSecond) {
+        this.maxPerJob = perJob;
+        this.maxPerSecond = perSecond;
+        tokens = Math.min(tokens, perSecond);
+        notifyAll();
+    }
+
+    /**
+     * Counts a build of a job as scanning if the job is below its cap and a scan may be started now.
+     *
+     * @param jobFullName the full name of the job.
+     * @return true if the build may be scanned, false if it has to wait.
+     */
+    public synchronized boolean tryAcquire(String jobFullName) {
+        refill();
+        int scanning = getRunning(jobFullName);
+        if (scanning < maxPerJob && tokens >= 1) {
+            tokens--;
+            running.put(jobFullName, scanning + 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Waits until a build is released, the limits change or the next scan may be started, after no build could be
+     * acquired with {@link #tryAcquire(String)}. Returns after at most {@link #MAX_WAIT_MILLIS} so that the caller
+     * can check if it was cancelled.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public synchronized void awaitChange() throws InterruptedException {
+        refill();
+        long waitMillis = MAX_WAIT_MILLIS;
+        if (tokens < 1) {
+            // the time until the next token
+            waitMillis = Math.min(waitMillis, (long)Math.ceil((1 - tokens) * TimeUnit.SECONDS.toMillis(1)
+                    / maxPerSecond));
+        }
+        wait(Math.max(1, waitMillis));
+    }
+
+    /**
+     * Counts a build acquired with {@link #tryAcquire(String)} as no longer scanning.
+     *
+     * @param jobFullName the full name of the job.
+     */
+    public synchronized void release(String jobFullName) {
+        int scanning = getRunning(jobFullName);
+        if (scanning <= 1) {
+            running.remove(jobFullName);
+        } else {
+            running.put(jobFullName, scanning - 1);
+        }
+        notifyAll();
+    }
+
+    /**
+     * The number of builds of a job queued or scanning.
+     *
+     * @param jobFullName the full name of the job.
+     * @return the number.
+     */
+    public synchronized int getRunning(String jobFullName) {
+        Integer scanning = running.get(jobFullName);
+        if (scanning == null) {
+            return 0;
+        }
+        return scanning;
+    }
+
+    /**
+     * Adds the tokens earned since the last refill, up to a second worth of them.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxPerSecond, tokens + (double)(now - refilled) * maxPerSecond / TimeUnit.SECONDS.toNanos(1));
+        refilled = now;
+    }
+}
@@ -56,6 +56,14 @@ public class ScanOnDemandVariables extends AbstractDescribableImpl<ScanOnDemandV
      * Number of Core pool Threads.
      */
     public static final int DEFAULT_SOD_COREPOOL_THREADS = 5;
+    /**
+     * Number of builds of one job scanned at the same time.
+     */
+    public static final int DEFAULT_SOD_MAX_SCANS_PER_JOB = 2;
+    /**
+     * Number of scans started per second.
+     */
+    public static final int DEFAULT_SOD_MAX_SCANS_PER_SECOND = 10;
 
     /**
      * ScanOnDemand feature thread values.
@@ -65,6 +73,8 @@ public class ScanOnDemandVariables extends AbstractDescribableImpl<ScanOnDemandV
     private int sodThreadKeepAliveTime;
     private int sodWaitForJobShutdownTimeout;
     private int sodCorePoolNumberOfThreads;
+    private int sodMaxScansPerJob;
+    private int sodMaxScansPerSecond;
 
     /**
      * Data bound constructor (used by jcasc).
@@ -120,6 +130,26 @@ public class ScanOnDemandVariables extends AbstractDescribableImpl<ScanOnDemandV
         this.sodWaitForJobShutdownTimeout = sodWaitForJobShutdownTimeout;
     }
 
+    /**
+     * Set the number of builds of one job scanned at the same time.
+     *
+     * @param sodMaxScansPerJob value.
+     */
+    @DataBoundSetter
+    public void setSodMaxScansPerJob(int sodMaxScansPerJob) {
+        this.sodMaxScansPerJob = sodMaxScansPerJob;
+    }
+
+    /**
+     * Set the number of scans started per second.
+     *
+     * @param sodMaxScansPerSecond value.
+     */
+    @DataBoundSetter
+    public void setSodMaxScansPerSecond(int sodMaxScansPerSecond) {
+        this.sodMaxScansPerSecond = sodMaxScansPerSecond;
+    }
+
      /**
      * Returns the corepool number of threads.
      *
@@ -182,6 +212,32 @@ public class ScanOnDemandVariables extends AbstractDescribableImpl<ScanOnDemandV
         return sodWaitForJobShutdownTimeout;
     }
 
+    /**
+     * Returns the number of builds of one job scanned at the same time.
+     *
+     * @return the int value.
+     */
+    public int getSodMaxScansPerJob() {
+        if (sodMaxScansPerJob < 1) {
+            return DEFAULT_SOD_MAX_SCANS_PER_JOB;
+        }
+
+        return sodMaxScansPerJob;
+    }
+
+    /**
+     * Returns the number of scans started per second.
+     *
+     * @return the int value.
+     */
+    public int getSodMaxScansPerSecond() {
+        if (sodMaxScansPerSecond < 1) {
+            return DEFAULT_SOD_MAX_SCANS_PER_SECOND;
+        }
+
+        return sodMaxScansPerSecond;
+    }
+
     /**
      * Descriptor for {@link ScanOnDemandVariables}.
      */
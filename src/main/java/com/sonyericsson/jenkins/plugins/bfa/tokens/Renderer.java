@@ -27,6 +27,7 @@ import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseDisplayData;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseMatrixBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.RenderedPayloadCache;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
 import hudson.matrix.MatrixRun;
 import jenkins.model.Jenkins;
@@ -143,7 +144,25 @@ public class Renderer {
      * @return The formatted causes.
      */
     public String render(FailureCauseBuildAction action) {
-        final FailureCauseDisplayData data = action.getFailureCauseDisplayData();
+        return RenderedPayloadCache.getInstance().get(action).format(getFormatKey(), this::render);
+    }
+
+    /**
+     * Identifies the format this renderer renders, for {@link RenderedPayloadCache.Payload#format}.
+     *
+     * @return the class and all options of the renderer.
+     */
+    protected String getFormatKey() {
+        return getClass().getName() + ":" + includeIndications + ":" + useHtmlFormat + ":" + includeTitle + ":"
+                + wrapWidth + ":" + escapeHtml + ":" + noFailureText;
+    }
+
+    /**
+     * Renders the causes of a build.
+     * @param data The causes
+     * @return The formatted causes.
+     */
+    protected String render(final FailureCauseDisplayData data) {
         if (data.getFoundFailureCauses().isEmpty() && data.getDownstreamFailureCauses().isEmpty()) {
             logger.info("there were no causes");
             if (!useHtmlFormat && escapeHtml) {
@@ -23,6 +23,7 @@
  */
 package com.sonyericsson.jenkins.plugins.bfa.tokens;
 
+import com.sonyericsson.jenkins.plugins.bfa.ScanCoordinator;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseMatrixBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandTask;
@@ -118,8 +119,11 @@ public class Token extends DataBoundTokenMacro {
      */
     private String evaluate(final Run<?, ?> run) {
 
-        // Scan the build now.
-        new ScanOnDemandTask(run).run();
+        // Wait for a scan in progress, or scan the build now. A scan that is still running after the timeout is
+        // not started a second time next to it, whatever it has found so far is rendered.
+        if (ScanCoordinator.awaitScan(run)) {
+            new ScanOnDemandTask(run).run();
+        }
 
 
         renderer.setEscapeHtml(this.escapeHtml);
@@ -27,13 +27,17 @@ package com.sonyericsson.jenkins.plugins.bfa.utils;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseMatrixBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogLineIndex;
+import com.sonyericsson.jenkins.plugins.bfa.model.LogRegion;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
 
 import hudson.Extension;
+import hudson.console.ConsoleNote;
 import hudson.model.Run;
 import hudson.model.listeners.ItemListener;
 
 import java.io.IOException;
+import java.io.LineNumberReader;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -73,11 +78,17 @@ public final class OldDataConverter extends ItemListener {
      */
     public static final int SCHEDULE_DELAY = 3;
 
+    /**
+     * The maximum number of builds waiting for their {@link FoundIndication}s to be converted.
+     */
+    public static final int MAX_QUEUED_BUILDS = 1000;
+
     private static final Logger logger = Logger.getLogger(OldDataConverter.class.getName());
     private static OldDataConverter instance;
 
 
     private Set<Run> performedBuilds;
+    private Set<Run> queuedBuilds;
     private Map<String, List<FailureCauseMatrixBuildAction>> actionsToConvert;
     private ScheduledThreadPoolExecutor executor;
     //Has the call from Jenkins arrived that all items are loaded?
@@ -104,6 +115,7 @@ public final class OldDataConverter extends ItemListener {
      */
     public OldDataConverter() {
         performedBuilds = Collections.synchronizedSet(new HashSet<Run>());
+        queuedBuilds = Collections.synchronizedSet(new HashSet<Run>());
         actionsToConvert = Collections.synchronizedMap(new HashMap<String, List<FailureCauseMatrixBuildAction>>());
         executor = (ScheduledThreadPoolExecutor)Executors.newScheduledThreadPool(POOL_SIZE);
     }
@@ -114,12 +126,25 @@ public final class OldDataConverter extends ItemListener {
      *
      * @param build the build to convert.
      */
-    public void convertFoundIndications(Run build) {
-        //Just a convenience first check, because of the delay in scheduling
-        // we will still get the same build multiple times in the executor, but the run method takes care of that.
-        if (!performedBuilds.contains(build)) {
-            executor.schedule(new FoundIndicationWork(build, performedBuilds), SCHEDULE_DELAY, TimeUnit.SECONDS);
+    public void convertFoundIndications(final Run build) {
+        //Every indication of the build asks for the conversion while it is loaded, only queue it once.
+        if (performedBuilds.contains(build) || !queuedBuilds.add(build)) {
+            return;
         }
+        if (queuedBuilds.size() > MAX_QUEUED_BUILDS) {
+            //It is converted the next time it is loaded instead.
+            queuedBuilds.remove(build);
+            logger.log(Level.FINE, "Too many builds to convert, skipping {0} for now", build.getFullDisplayName());
+            return;
+        }
+        final FoundIndicationWork work = new FoundIndicationWork(build, performedBuilds);
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                queuedBuilds.remove(build);
+                work.run();
+            }
+        }, SCHEDULE_DELAY, TimeUnit.SECONDS);
     }
 
     /**
@@ -231,13 +256,11 @@ public final class OldDataConverter extends ItemListener {
                 FailureCauseBuildAction action = build.getAction(FailureCauseBuildAction.class);
                 if (action != null) {
                     try {
-                        List<String> log = build.getLog(Integer.MAX_VALUE);
-                        for (FoundFailureCause cause : action.getFoundFailureCauses()) {
-                            for (FoundIndication indication : cause.getIndications()) {
-                                indication.convertFromLineNumber(log);
-                            }
+                        Map<Integer, List<FoundIndication>> indications = indicationsToConvert(action);
+                        if (!indications.isEmpty()) {
+                            convert(build, indications);
+                            build.save();
                         }
-                        build.save();
                     } catch (IOException e) {
                         logger.log(Level.SEVERE, "Failed to convert FoundIndications in "
                                 + build.getFullDisplayName(), e);
@@ -245,5 +268,63 @@ public final class OldDataConverter extends ItemListener {
                 }
             }
         }
+
+        /**
+         * The indications that only have a line number, by line number.
+         *
+         * @param action the action of the build.
+         * @return the indications.
+         */
+        private static Map<Integer, List<FoundIndication>> indicationsToConvert(FailureCauseBuildAction action) {
+            Map<Integer, List<FoundIndication>> byLine = new TreeMap<Integer, List<FoundIndication>>();
+            for (FoundFailureCause cause : action.getFoundFailureCauses()) {
+                for (FoundIndication indication : cause.getIndications()) {
+                    String matchingString = indication.getMatchingString();
+                    if (indication.getMatchingLine() >= 0 && (matchingString == null || matchingString.isEmpty())) {
+                        //Log line numbering starts on 1
+                        int line = Math.max(1, indication.getMatchingLine());
+                        List<FoundIndication> onLine = byLine.get(line);
+                        if (onLine == null) {
+                            onLine = new LinkedList<FoundIndication>();
+                            byLine.put(line, onLine);
+                        }
+                        onLine.add(indication);
+                    }
+                }
+            }
+            return byLine;
+        }
+
+        /**
+         * Reads the lines of the indications from the log in one pass, starting at the closest line in the
+         * {@link LogLineIndex} if the build has one and stopping after the last line needed, so that only the
+         * needed lines are kept in memory.
+         *
+         * @param run the build.
+         * @param indications the indications to convert, by line number.
+         * @throws IOException if the log can't be read.
+         */
+        static void convert(Run run, Map<Integer, List<FoundIndication>> indications) throws IOException {
+            LogRegion region = LogRegion.whole();
+            LogLineIndex index = LogLineIndex.load(run);
+            if (index != null) {
+                region = index.from(Collections.min(indications.keySet()));
+            }
+            int remaining = indications.size();
+            try (LineNumberReader reader = region.open(run)) {
+                String line = reader.readLine();
+                while (line != null && remaining > 0) {
+                    List<FoundIndication> onLine = indications.get(reader.getLineNumber());
+                    if (onLine != null) {
+                        String text = ConsoleNote.removeNotes(line);
+                        for (FoundIndication indication : onLine) {
+                            indication.convertFromLine(text);
+                        }
+                        remaining--;
+                    }
+                    line = reader.readLine();
+                }
+            }
+        }
     }
 }
@@ -71,6 +71,35 @@ l.layout(permission: PluginImpl.UPDATE_PERMISSION) {
       f.entry(title: _("Categories"), field: "categories") {
         f.textbox(value: my.getCategoriesAsString(), autoCompleteDelimChar: " ")
       }
+      f.advanced() {
+        f.entry(title: _("Priority"), field: "priority", description: _("priorityDescription")) {
+          f.number(value: my.getPriority())
+        }
+        f.entry(title: _("Exclusivity group"), field: "exclusivityGroup",
+                description: _("exclusivityGroupDescription")) {
+          f.textbox(value: my.getExclusivityGroup())
+        }
+        f.entry(title: _("Terminal"), field: "terminal", description: _("terminalDescription")) {
+          f.checkbox(checked: my.isTerminal())
+        }
+        def applicability = my.getApplicability()
+        f.entry(title: _("Applicable jobs"), field: "applicableJobNames",
+                description: _("applicableJobNamesDescription")) {
+          f.textbox(value: applicability?.getJobNamesAsString())
+        }
+        f.entry(title: _("Applicable folder"), field: "applicableFolder",
+                description: _("applicableFolderDescription")) {
+          f.textbox(value: applicability?.getFolder())
+        }
+        f.entry(title: _("Applicable label expression"), field: "applicableLabelExpression",
+                description: _("applicableLabelExpressionDescription")) {
+          f.textbox(value: applicability?.getLabelExpression())
+        }
+        f.entry(title: _("Applicable job types"), field: "applicableJobTypes",
+                description: _("applicableJobTypesDescription")) {
+          f.textbox(value: applicability?.getJobTypesAsString())
+        }
+      }
       f.section(title: _("Indications")) {
         f.block {
           f.hetero_list(
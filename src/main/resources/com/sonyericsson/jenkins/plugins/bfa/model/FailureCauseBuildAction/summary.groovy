@@ -129,6 +129,20 @@ def displayCauses(cause, indent, links) {
                         a(href: "${rootURL}/${links.buildUrl}" + "consoleFull#" + indication.matchingHash + cause.id) {
                             text(_("Indication") + " " + (index++))
                         }
+                        if (indication.matchingString == null) {
+                            text(" (" + _("matching line unavailable") + ")")
+                        }
+                        if (indication.matchingOffset >= 0) {
+                            text(" ")
+                            a(href: "${rootURL}/${links.buildUrl}bfa/logExcerpt?line=" + indication.matchingLine) {
+                                text("(" + _("excerpt") + ")")
+                            }
+                        }
+                        if (indication.stage != null) {
+                            text(" (" + indication.stage + " / " + indication.step + ")")
+                        } else if (indication.step != null) {
+                            text(" (" + indication.step + ")")
+                        }
                         text(" ")
                     }
                 }
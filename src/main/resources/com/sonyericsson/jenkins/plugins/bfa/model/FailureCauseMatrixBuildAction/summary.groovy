@@ -137,6 +137,9 @@ def displayCauses(cause, run, indent, links) {
                         a(href: "${rootURL}/${links.buildUrl}" + "consoleFull#" + indication.matchingHash + cause.id) {
                             text(_("Indication") + " " + (index++))
                     }
+                    if (indication.matchingString == null) {
+                        text(" (" + _("matching line unavailable") + ")")
+                    }
                     text(" ")
                 }
                 br {}
@@ -24,6 +24,7 @@
  */
 
 import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandBaseAction
+import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandEnumeration
 
 def l = namespace(lib.LayoutTagLib)
 def st = namespace("jelly:stapler")
@@ -59,6 +60,27 @@ l.layout(title: _("Failure Scan Options"), norefresh: true) {
                 }
             }
         }
+        ScanOnDemandEnumeration enumeration = ScanOnDemandEnumeration.get(mode.parent.project)
+        if (enumeration != null && !enumeration.finished) {
+            f.section(title: _("Scan in progress")) {
+                f.block {
+                    text(_("progress", enumeration.queued, enumeration.done, enumeration.failed))
+                    if (enumeration.etaSeconds >= 0) {
+                        text(" ")
+                        text(_("eta", enumeration.etaSeconds))
+                    }
+                }
+            }
+            if (!enumeration.cancelled) {
+                f.form(method: "POST", action: "../cancelScan") {
+                    f.section {
+                        f.block {
+                            f.submit(value: _("Cancel scan"))
+                        }
+                    }
+                }
+            }
+        }
         if (!mode.hasAnyRun(mode.parent.project)) {
             f.section(title: _("No build found")) {
                 f.block {
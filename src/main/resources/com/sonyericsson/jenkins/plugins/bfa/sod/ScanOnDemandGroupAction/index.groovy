@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandBaseAction
+import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandEnumeration
+import com.sonyericsson.jenkins.plugins.bfa.sod.ScanOnDemandGroupAction
+
+def l = namespace(lib.LayoutTagLib)
+def st = namespace("jelly:stapler")
+def f = namespace(lib.FormTagLib)
+
+ScanOnDemandGroupAction action = my;
+
+l.layout(title: _("Failure Scan Options"), norefresh: true) {
+    l.header {
+        action.checkPermission()
+    }
+    st.include(it: action.group, page: "sidepanel.jelly", optional: true)
+    l.'main-panel' {
+        ScanOnDemandEnumeration enumeration = action.enumeration
+        if (enumeration != null && !enumeration.finished) {
+            f.section(title: _("Scan in progress")) {
+                f.block {
+                    text(_("progress", enumeration.queued, enumeration.done, enumeration.failed))
+                    if (enumeration.etaSeconds >= 0) {
+                        text(" ")
+                        text(_("eta", enumeration.etaSeconds))
+                    }
+                }
+            }
+            if (!enumeration.cancelled) {
+                f.form(method: "POST", action: "cancelScan") {
+                    f.section {
+                        f.block {
+                            f.submit(value: _("Cancel scan"))
+                        }
+                    }
+                }
+            }
+        }
+        f.form(method: "POST", action: "performScan") {
+            f.section(title: _("Select the option and scan the builds of all jobs")) {
+                ScanOnDemandBaseAction.ScanMode.all().each { ScanOnDemandBaseAction.ScanMode option ->
+                    f.entry(help: "/plugin/build-failure-analyzer/help/sod/${option.urlName}.html") {
+                        f.radio(name: "mode",
+                                value: option.urlName,
+                                checked: option.urlName == action.defaultMode,
+                                title: option.displayName)
+                    }
+                }
+            }
+            f.section(title: _("Only scan builds")) {
+                f.entry(title: _("With the results")) {
+                    ScanOnDemandGroupAction.RESULTS.each { result ->
+                        label {
+                            input(type: "checkbox", name: "result", value: result.toString(), checked: "checked")
+                            text(" ${result} ")
+                        }
+                    }
+                }
+                f.entry(title: _("From the last days"), help: "/plugin/build-failure-analyzer/help/sod/days.html") {
+                    input(type: "number", name: "days", value: "0", min: "0", class: "jenkins-input setting-input")
+                }
+            }
+            f.block {
+                f.submit(value: _("Scan"))
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link AdaptiveConcurrencyLimiter}.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private double load;
+    private long gcTime;
+    private long now;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Creates a limiter between 2 and 8 on an idle controller.
+     */
+    @BeforeEach
+    void setUp() {
+        load = 0.1;
+        gcTime = 0;
+        now = 0;
+        limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Probe() {
+            @Override
+            public double getLoadPerProcessor() {
+                return load;
+            }
+
+            @Override
+            public long getGcTimeMillis() {
+                return gcTime;
+            }
+        }, 2, 8, now);
+    }
+
+    /**
+     * Runs one task of the given duration and moves the clock to the next interval.
+     *
+     * @param latencyMillis the duration of the task.
+     * @return if the limit changed.
+     */
+    private boolean runTask(long latencyMillis) {
+        return runTask(latencyMillis, 0);
+    }
+
+    /**
+     * Runs one task of the given duration and log size and moves the clock to the next interval.
+     *
+     * @param latencyMillis the duration of the task.
+     * @param workBytes the size of the log of the task.
+     * @return if the limit changed.
+     */
+    private boolean runTask(long latencyMillis, long workBytes) {
+        now += AdaptiveConcurrencyLimiter.INTERVAL_NANOS;
+        limiter.onStart();
+        return limiter.onComplete(latencyMillis * MS, workBytes, now);
+    }
+
+    /**
+     * Tests that a high load lowers the limit multiplicatively, never below the minimum.
+     */
+    @Test
+    void testDecreaseOnLoad() {
+        assertEquals(8, limiter.getLimit());
+        load = 2.0;
+        assertTrue(runTask(100));
+        assertEquals(6, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            runTask(100);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    /**
+     * Tests that garbage collection pauses lower the limit.
+     */
+    @Test
+    void testDecreaseOnGc() {
+        gcTime = 500;
+        assertTrue(runTask(100));
+        assertEquals(6, limiter.getLimit());
+    }
+
+    /**
+     * Tests that tasks getting much slower than usual lower the limit.
+     */
+    @Test
+    void testDecreaseOnLatency() {
+        for (int i = 0; i < 5; i++) {
+            runTask(100);
+        }
+        assertEquals(8, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            runTask(2000);
+        }
+        assertTrue(limiter.getLimit() < 8);
+    }
+
+    /**
+     * Tests that larger logs taking proportionally longer don't lower the limit.
+     */
+    @Test
+    void testLatencyPerMegabyte() {
+        for (int i = 0; i < 5; i++) {
+            runTask(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertFalse(runTask(2000, 20 * AdaptiveConcurrencyLimiter.MIN_WORK_BYTES));
+        }
+        assertEquals(8, limiter.getLimit());
+    }
+
+    /**
+     * Tests that the usual time moves towards a lasting slowdown, so the limit stops being lowered for it.
+     */
+    @Test
+    void testBaselineDecays() {
+        for (int i = 0; i < 5; i++) {
+            runTask(100);
+        }
+        for (int i = 0; i < 20; i++) {
+            now += AdaptiveConcurrencyLimiter.BASELINE_HALF_LIFE_NANOS;
+            runTask(300);
+        }
+        assertTrue(limiter.getBaseline() > 250);
+        int limit = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            runTask(300);
+        }
+        assertEquals(limit, limiter.getLimit());
+    }
+
+    /**
+     * Tests that the limit grows by one when all permitted tasks were running, and not when the pool was idle.
+     */
+    @Test
+    void testIncreaseWhenSaturated() {
+        load = 2.0;
+        runTask(100);
+        runTask(100);
+        runTask(100);
+        int low = limiter.getLimit();
+        assertEquals(3, low);
+        load = 0.1;
+        assertFalse(runTask(100));
+        assertEquals(low, limiter.getLimit());
+        for (int i = 0; i < low; i++) {
+            limiter.onStart();
+        }
+        now += AdaptiveConcurrencyLimiter.INTERVAL_NANOS;
+        assertTrue(limiter.onComplete(100 * MS, 0, now));
+        assertEquals(low + 1, limiter.getLimit());
+    }
+
+    /**
+     * Tests that changing the bounds clamps the limit.
+     */
+    @Test
+    void testSetBounds() {
+        limiter.setBounds(1, 4);
+        assertEquals(4, limiter.getLimit());
+        limiter.setBounds(5, 3);
+        assertEquals(5, limiter.getLimit());
+    }
+}
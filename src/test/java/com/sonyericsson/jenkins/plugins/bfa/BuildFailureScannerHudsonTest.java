@@ -35,6 +35,7 @@ import com.sonyericsson.jenkins.plugins.bfa.db.LocalFileKnowledgeBase;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
 import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanStrategy;
 import com.sonyericsson.jenkins.plugins.bfa.model.ScannerJobProperty;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
 import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
@@ -156,6 +157,35 @@ public class BuildFailureScannerHudsonTest {
         assertEquals(1, metricRegistry.counter("jenkins_bfa.cause.Error").getCount());
     }
 
+    /**
+     * Tests that a background scan finds the cause and persists it with the build.
+     *
+     * @param jenkins
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testAsynchronousScan(JenkinsRule jenkins) throws Exception {
+        PluginImpl.getInstance().setAsynchronousScanningEnabled(true);
+        FreeStyleProject project = createProject(jenkins);
+
+        FailureCause failureCause = configureCauseAndIndication();
+
+        FreeStyleBuild build = project.scheduleBuild2(0, new Cause.UserIdCause()).get(10, TimeUnit.SECONDS);
+        jenkins.assertBuildStatus(Result.FAILURE, build);
+
+        assertTrue(ScanCoordinator.getInstance().await(build, 10, TimeUnit.SECONDS));
+        assertFalse(ScanCoordinator.getInstance().isPending(build));
+        FailureCauseBuildAction action = build.getAction(FailureCauseBuildAction.class);
+        assertNotNull(action);
+        assertTrue(findCauseInList(action.getFoundFailureCauses(), failureCause));
+
+        build.reload();
+        action = build.getAction(FailureCauseBuildAction.class);
+        assertNotNull(action);
+        assertTrue(findCauseInList(action.getFoundFailureCauses(), failureCause));
+    }
+
     /**
      * Test when an exception occurred during scan.
      *
@@ -926,6 +956,50 @@ public class BuildFailureScannerHudsonTest {
     }
 
 
+    /**
+     * Tests that tail-first skips the rest of the log once something is found at the end, so that causes only
+     * found before the end are not reported.
+     *
+     * @param jenkins
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testTailFirstSkipsTheRestAfterAMatch(JenkinsRule jenkins) throws Exception {
+        PluginImpl.getInstance().setScanStrategy(ScanStrategy.TAIL_FIRST);
+        PluginImpl.getInstance().setTailScanSize(1);
+        FreeStyleProject project = createProject(jenkins,
+                "head problem\n" + createHugeString(1536 * 1024) + "\ntail problem");
+        FailureCause head = configureCauseAndIndication("Head", DESCRIPTION, new BuildLogIndication(".*head problem.*"));
+        FailureCause tail = configureCauseAndIndication("Tail", DESCRIPTION, new BuildLogIndication(".*tail problem.*"));
+        FreeStyleBuild build = project.scheduleBuild2(0, new Cause.UserIdCause()).get(10, TimeUnit.SECONDS);
+        jenkins.assertBuildStatus(Result.FAILURE, build);
+        List<FoundFailureCause> found = build.getAction(FailureCauseBuildAction.class).getFoundFailureCauses();
+        assertEquals(1, found.size());
+        assertTrue(findCauseInList(found, tail));
+        assertFalse(findCauseInList(found, head));
+    }
+
+    /**
+     * Tests that tail-first scans the rest of the log when nothing is found at the end.
+     *
+     * @param jenkins
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testTailFirstScansTheRestWithoutAMatch(JenkinsRule jenkins) throws Exception {
+        PluginImpl.getInstance().setScanStrategy(ScanStrategy.TAIL_FIRST);
+        PluginImpl.getInstance().setTailScanSize(1);
+        FreeStyleProject project = createProject(jenkins,
+                "head problem\n" + createHugeString(1536 * 1024) + "\nno problem");
+        FailureCause head = configureCauseAndIndication("Head", DESCRIPTION, new BuildLogIndication(".*head problem.*"));
+        FreeStyleBuild build = project.scheduleBuild2(0, new Cause.UserIdCause()).get(10, TimeUnit.SECONDS);
+        jenkins.assertBuildStatus(Result.FAILURE, build);
+        List<FoundFailureCause> found = build.getAction(FailureCauseBuildAction.class).getFoundFailureCauses();
+        assertTrue(findCauseInList(found, head));
+    }
+
     /**
      * Create a string with any length than contains only 'a' letters
      *
@@ -23,12 +23,15 @@
  */
 package com.sonyericsson.jenkins.plugins.bfa;
 
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseMatrixBuildAction;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.test.utils.MatrixSupport;
 import hudson.matrix.Axis;
 import hudson.matrix.AxisList;
 import hudson.matrix.MatrixBuild;
 import hudson.matrix.MatrixProject;
+import hudson.matrix.MatrixRun;
 import hudson.model.Action;
 import hudson.model.Cause;
 import hudson.model.Result;
@@ -38,14 +41,19 @@ import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.MockBuilder;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-//CS IGNORE MagicNumber FOR NEXT 100 LINES. REASON: TestData.
+//CS IGNORE MagicNumber FOR NEXT 140 LINES. REASON: TestData.
 
 /**
  * Tests for the FailureCauseMatrixAggregator.
@@ -112,4 +120,34 @@ class FailureCauseMatrixAggregatorTest {
         FailureCauseMatrixBuildAction matrixAction = build.getAction(FailureCauseMatrixBuildAction.class);
         assertNull(matrixAction);
     }
+
+    /**
+     * Tests that the causes recorded when a run is re-scanned are saved with the matrix build.
+     *
+     * @param jenkins
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testRecordScanIsSaved(JenkinsRule jenkins) throws Exception {
+        MatrixProject matrix = MatrixSupport.createMatrixProject(jenkins);
+        Axis axis = new Axis("Axel", "Foley", "Rose");
+        matrix.setAxes(new AxisList(axis));
+        matrix.getBuildersList().add(new MockBuilder(Result.FAILURE));
+        QueueTaskFuture<MatrixBuild> future = matrix.scheduleBuild2(0, new Cause.UserIdCause());
+        MatrixBuild build = future.get(10, TimeUnit.SECONDS);
+        MatrixRun run = build.getExactRuns().get(0);
+        FoundFailureCause found = new FoundFailureCause(new FailureCause("rescanned cause", "description"));
+        FailureCauseMatrixBuildAction.recordScan(run, Collections.singletonList(found));
+
+        File buildXml = new File(build.getRootDir(), "build.xml");
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        boolean saved = false;
+        while (!saved && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            saved = new String(Files.readAllBytes(buildXml.toPath()), StandardCharsets.UTF_8)
+                    .contains("rescanned cause");
+        }
+        assertTrue(saved);
+    }
 }
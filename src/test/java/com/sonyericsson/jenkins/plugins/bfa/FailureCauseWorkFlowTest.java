@@ -23,7 +23,11 @@
  */
 package com.sonyericsson.jenkins.plugins.bfa;
 
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
 import com.sonyericsson.jenkins.plugins.bfa.model.FailureCauseBuildAction;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
 import hudson.model.Result;
 import hudson.model.queue.QueueTaskFuture;
 import org.hamcrest.Matchers;
@@ -34,7 +38,10 @@ import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
+import java.util.List;
+
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -63,6 +70,68 @@ class FailureCauseWorkFlowTest {
         assertNotNull(action);
     }
 
+    /**
+     * Tests that only the stage with the failed step is scanned when scanning by failed steps, and that the found
+     * indication records the stage and step.
+     *
+     * @param j
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testScanFailedStages(JenkinsRule j) throws Exception {
+        PluginImpl.getInstance().setPipelineScanEnabled(true);
+        PluginImpl.getInstance().setPipelineScanIncludeStages(true);
+        addCause("Compilation", ".*COMPILE FAILED.*");
+        addCause("Noise", ".*NOISE ERROR.*");
+        WorkflowJob proj = j.jenkins.createProject(WorkflowJob.class, "proj");
+        proj.setDefinition(new CpsFlowDefinition("stage('Setup') { echo 'NOISE ERROR' }\n"
+                + "stage('Build') { echo 'COMPILE FAILED'; error('boom') }", true));
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, proj.scheduleBuild2(0));
+        FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
+        assertNotNull(action);
+        List<FoundFailureCause> causes = action.getFoundFailureCauses();
+        assertEquals(1, causes.size());
+        assertEquals("Compilation", causes.get(0).getName());
+        FoundIndication indication = causes.get(0).getIndications().get(0);
+        assertEquals("Build", indication.getStage());
+        assertEquals("echo", indication.getStep());
+    }
+
+    /**
+     * Tests that the whole log is scanned when nothing is found in the logs of the failed steps.
+     *
+     * @param j
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testScanFailedStepsFallsBackToWholeLog(JenkinsRule j) throws Exception {
+        PluginImpl.getInstance().setPipelineScanEnabled(true);
+        addCause("Compilation", ".*COMPILE FAILED.*");
+        addCause("Noise", ".*NOISE ERROR.*");
+        WorkflowJob proj = j.jenkins.createProject(WorkflowJob.class, "proj");
+        proj.setDefinition(new CpsFlowDefinition("stage('Setup') { echo 'NOISE ERROR' }\n"
+                + "stage('Build') { echo 'COMPILE FAILED'; error('boom') }", true));
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, proj.scheduleBuild2(0));
+        FailureCauseBuildAction action = run.getAction(FailureCauseBuildAction.class);
+        assertNotNull(action);
+        assertEquals(2, action.getFoundFailureCauses().size());
+    }
+
+    /**
+     * Adds a cause with one build log indication to the knowledge base.
+     *
+     * @param name the name of the cause.
+     * @param pattern the pattern of the indication.
+     * @throws Exception if so.
+     */
+    private static void addCause(String name, String pattern) throws Exception {
+        FailureCause cause = new FailureCause(name, name);
+        cause.addIndication(new BuildLogIndication(pattern));
+        PluginImpl.getInstance().getKnowledgeBase().addCause(cause);
+    }
+
     /**
      * Tests that no action is added if all builds are successful.
      *
@@ -0,0 +1,248 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 190 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link NotificationDispatcher}, sending to a local HTTP stub.
+ */
+class NotificationDispatcherTest {
+
+    private HttpServer server;
+    private final List<String> received = new CopyOnWriteArrayList<String>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private NotificationDispatcher dispatcher;
+
+    /**
+     * Starts the stub, answering 500 while failuresLeft is positive and 200 after that.
+     *
+     * @throws IOException if the stub could not be started.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hook", exchange -> {
+            String body = read(exchange.getRequestBody());
+            int status = 200;
+            if (failuresLeft.getAndDecrement() > 0) {
+                status = 500;
+            } else {
+                received.add(body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    /**
+     * Stops the stub and the dispatcher.
+     */
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        server.stop(0);
+    }
+
+    /**
+     * Creates a dispatcher posting to the stub.
+     *
+     * @param capacity the queue capacity.
+     * @param batchWindowMillis the batch window.
+     * @return the dispatcher.
+     */
+    private NotificationDispatcher dispatcher(int capacity, long batchWindowMillis) {
+        final String url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + "/hook";
+        dispatcher = new NotificationDispatcher(message -> {
+            HttpURLConnection connection = (HttpURLConnection)new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(message.getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            connection.disconnect();
+            if (status != 200) {
+                throw new IOException("Status " + status);
+            }
+            return true;
+        }, capacity, batchWindowMillis, 10);
+        return dispatcher;
+    }
+
+    /**
+     * Reads a request body.
+     *
+     * @param in the body.
+     * @return the body as a string.
+     * @throws IOException if it could not be read.
+     */
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read = in.read(buffer);
+        while (read >= 0) {
+            out.write(buffer, 0, read);
+            read = in.read(buffer);
+        }
+        return out.toString("UTF-8");
+    }
+
+    /**
+     * Waits until a condition holds.
+     *
+     * @param condition the condition.
+     * @throws InterruptedException if interrupted.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Tests that a few notifications are sent one by one.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testSendsEach() throws Exception {
+        NotificationDispatcher notifications = dispatcher(10, 50);
+        assertTrue(notifications.submit("first"));
+        assertTrue(notifications.submit("second"));
+
+        await(() -> notifications.getSentCount() == 2);
+        assertEquals(Arrays.asList("first", "second"), received);
+    }
+
+    /**
+     * Tests that many notifications within the window are sent as digests.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testDigest() throws Exception {
+        NotificationDispatcher notifications = dispatcher(100, 200);
+        for (int i = 0; i < 25; i++) {
+            notifications.submit("build " + i);
+        }
+
+        await(() -> notifications.getSentCount() == 2);
+        assertEquals(2, received.size());
+        assertTrue(received.get(0).startsWith("*20 builds failed:*"));
+        assertTrue(received.get(0).contains("build 19"));
+        assertTrue(received.get(1).startsWith("*5 builds failed:*"));
+    }
+
+    /**
+     * Tests that failed posts are retried.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testRetry() throws Exception {
+        failuresLeft.set(2);
+        NotificationDispatcher notifications = dispatcher(10, 10);
+        notifications.submit("flaky");
+
+        await(() -> notifications.getSentCount() == 1);
+        assertEquals(2, notifications.getRetriedCount());
+        assertEquals(0, notifications.getFailedCount());
+        assertEquals(Arrays.asList("flaky"), received);
+    }
+
+    /**
+     * Tests that sending is given up after the maximum number of attempts.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testGiveUp() throws Exception {
+        failuresLeft.set(NotificationDispatcher.MAX_ATTEMPTS);
+        NotificationDispatcher notifications = dispatcher(10, 10);
+        notifications.submit("lost");
+
+        await(() -> notifications.getFailedCount() == 1);
+        assertEquals(NotificationDispatcher.MAX_ATTEMPTS - 1, notifications.getRetriedCount());
+        assertTrue(received.isEmpty());
+    }
+
+    /**
+     * Tests that notifications are dropped when the queue is full.
+     */
+    @Test
+    void testDropWhenFull() {
+        NotificationDispatcher notifications = dispatcher(2, 60000);
+        assertTrue(notifications.submit("one"));
+        assertTrue(notifications.submit("two"));
+        assertFalse(notifications.submit("three"));
+        assertEquals(1, notifications.getDroppedCount());
+        assertEquals(2, notifications.getQueuedCount());
+    }
+
+    /**
+     * Tests the exponential backoff.
+     */
+    @Test
+    void testBackoff() {
+        NotificationDispatcher notifications = new NotificationDispatcher(message -> true, 1,
+                NotificationDispatcher.BATCH_WINDOW_MILLIS, NotificationDispatcher.INITIAL_BACKOFF_MILLIS);
+        dispatcher = notifications;
+        assertEquals(1000, notifications.getBackoff(1));
+        assertEquals(2000, notifications.getBackoff(2));
+        assertEquals(8000, notifications.getBackoff(4));
+        assertEquals(NotificationDispatcher.MAX_BACKOFF_MILLIS, notifications.getBackoff(20));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import org.jenkinsci.plugins.workflow.actions.LabelAction;
+import org.jenkinsci.plugins.workflow.actions.ThreadNameAction;
+import org.jenkinsci.plugins.workflow.graph.BlockEndNode;
+import org.jenkinsci.plugins.workflow.graph.BlockStartNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link PipelineLogScanner}.
+ */
+class PipelineLogScannerTest {
+
+    /**
+     * Tests that a step is attributed to the innermost stage around it, and the end of a stage to the stage itself,
+     * not to the stage around it.
+     */
+    @Test
+    void testGetStage() {
+        BlockStartNode outer = stage("outer");
+        BlockStartNode inner = stage("inner");
+        when(inner.getEnclosingBlocks()).thenReturn(Collections.singletonList(outer));
+        BlockStartNode branch = stage("branch");
+        when(branch.getAction(ThreadNameAction.class)).thenReturn(mock(ThreadNameAction.class));
+
+        FlowNode step = mock(FlowNode.class);
+        when(step.getEnclosingBlocks()).thenReturn(Arrays.asList(branch, inner, outer));
+        assertSame(inner, PipelineLogScanner.getStage(step));
+
+        BlockEndNode end = mock(BlockEndNode.class);
+        when(end.getStartNode()).thenReturn(inner);
+        when(end.getEnclosingBlocks()).thenReturn(Collections.singletonList(outer));
+        assertSame(inner, PipelineLogScanner.getStage(end));
+
+        BlockStartNode block = mock(BlockStartNode.class);
+        when(block.getEnclosingBlocks()).thenReturn(Collections.singletonList(inner));
+        BlockEndNode blockEnd = mock(BlockEndNode.class);
+        when(blockEnd.getStartNode()).thenReturn(block);
+        assertSame(inner, PipelineLogScanner.getStage(blockEnd));
+
+        assertNull(PipelineLogScanner.getStage(mock(FlowNode.class)));
+    }
+
+    /**
+     * Mocks the start node of a stage.
+     *
+     * @param name the name of the stage.
+     * @return the node.
+     */
+    private static BlockStartNode stage(String name) {
+        BlockStartNode node = mock(BlockStartNode.class);
+        when(node.getAction(LabelAction.class)).thenReturn(new LabelAction(name));
+        return node;
+    }
+}
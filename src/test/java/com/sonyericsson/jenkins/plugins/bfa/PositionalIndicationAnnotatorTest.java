@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.MarkupText;
+import hudson.console.ConsoleAnnotator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PositionalIndicationAnnotator}.
+ */
+class PositionalIndicationAnnotatorTest {
+
+    /**
+     * Tests that only the line the indication was found on is annotated, not other lines with the same text, and
+     * that the annotator stops after the last matching line.
+     */
+    @Test
+    void testAnnotatesByLineNumber() {
+        ConsoleAnnotator annotator = new PositionalIndicationAnnotator(causes(
+                new FoundIndication("error", "log", "error", 2)));
+
+        MarkupText first = new MarkupText("error\n");
+        annotator = annotator.annotate(null, first);
+        assertFalse(first.toString(false).contains("<span"));
+
+        MarkupText second = new MarkupText("error\n");
+        annotator = annotator.annotate(null, second);
+        assertTrue(second.toString(false).contains("<span"));
+        assertNull(annotator);
+    }
+
+    /**
+     * Tests that pieces of the log with lines ended by a lone carriage return are counted as several lines, and
+     * that only the matching line of a piece is annotated.
+     */
+    @Test
+    void testCarriageReturns() {
+        List<FoundIndication> indications = new ArrayList<FoundIndication>();
+        indications.add(new FoundIndication("error", "log", "error", 3));
+        indications.add(new FoundIndication("failed", "log", "failed", 5));
+        ConsoleAnnotator annotator = new PositionalIndicationAnnotator(causes(indications));
+
+        MarkupText progress = new MarkupText("progress 1\rprogress 2\r\n");
+        annotator = annotator.annotate(null, progress);
+        assertFalse(progress.toString(false).contains("<span"));
+
+        MarkupText error = new MarkupText("error\rdone\r\n");
+        annotator = annotator.annotate(null, error);
+        assertTrue(error.toString(false).contains("<span"));
+        assertTrue(error.toString(false).endsWith("</span>\rdone\r\n"));
+
+        MarkupText failed = new MarkupText("failed\n");
+        assertNull(annotator.annotate(null, failed));
+        assertTrue(failed.toString(false).contains("<span"));
+    }
+
+    /**
+     * Tests that the annotation can start in the middle of the log.
+     */
+    @Test
+    void testFirstLine() {
+        List<FoundIndication> indications = new ArrayList<FoundIndication>();
+        indications.add(new FoundIndication("error", "log", "error", 2));
+        indications.add(new FoundIndication("error", "log", "error", 11));
+        ConsoleAnnotator annotator = new PositionalIndicationAnnotator(causes(indications), 10);
+
+        MarkupText partial = new MarkupText("rror\n");
+        annotator = annotator.annotate(null, partial);
+        assertFalse(partial.toString(false).contains("<span"));
+
+        MarkupText error = new MarkupText("error\n");
+        assertNull(annotator.annotate(null, error));
+        assertTrue(error.toString(false).contains("<span"));
+    }
+
+    /**
+     * Tests that lines whose text changed since the scan are not annotated.
+     */
+    @Test
+    void testChangedLine() {
+        ConsoleAnnotator annotator = new PositionalIndicationAnnotator(causes(
+                new FoundIndication("error", "log", "error", 1)));
+        MarkupText text = new MarkupText("other\n");
+        assertNull(annotator.annotate(null, text));
+        assertFalse(text.toString(false).contains("<span"));
+    }
+
+    /**
+     * Tests that indications spanning several lines are annotated by their text.
+     */
+    @Test
+    void testFallback() {
+        List<FoundIndication> indications = new ArrayList<FoundIndication>();
+        indications.add(new FoundIndication("first", "log", "first", 1));
+        indications.add(new FoundIndication("multi", "log", "multi\nline", 1));
+        ConsoleAnnotator annotator = new PositionalIndicationAnnotator(causes(indications));
+
+        ConsoleAnnotator next = annotator.annotate(null, new MarkupText("first\n"));
+        MarkupText multi = new MarkupText("multi\n");
+        assertSame(next, next.annotate(null, multi));
+        assertTrue(multi.toString(false).contains("<span"));
+    }
+
+    /**
+     * Creates a found cause with one indication.
+     *
+     * @param indication the indication.
+     * @return the found causes.
+     */
+    private static List<FoundFailureCause> causes(FoundIndication indication) {
+        return causes(Collections.singletonList(indication));
+    }
+
+    /**
+     * Creates a found cause.
+     *
+     * @param indications the indications.
+     * @return the found causes.
+     */
+    private static List<FoundFailureCause> causes(List<FoundIndication> indications) {
+        return Collections.singletonList(new FoundFailureCause(new FailureCause("cause", "description"),
+                indications));
+    }
+}
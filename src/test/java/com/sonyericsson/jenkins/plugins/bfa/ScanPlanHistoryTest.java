@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 80 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link ScanPlanHistory}.
+ */
+class ScanPlanHistoryTest {
+
+    @TempDir
+    private File directory;
+
+    /**
+     * Tests that a snapshot that is still used survives pruning, and the least recently used one is deleted.
+     */
+    @Test
+    void testPrunesLeastRecentlyUsed() {
+        ScanPlanHistory history = new ScanPlanHistory(directory, 2);
+        List<FailureCause> used = causes("used");
+        List<FailureCause> unused = causes("unused");
+        String usedVersion = history.record(used);
+        String unusedVersion = history.record(unused);
+        long past = System.currentTimeMillis() - 2 * ScanPlanHistory.TOUCH_INTERVAL_MILLIS;
+        file(usedVersion).setLastModified(past - 1000);
+        file(unusedVersion).setLastModified(past);
+
+        // after a restart the used snapshot is recorded again, before a new one is added
+        history = new ScanPlanHistory(directory, 2);
+        assertEquals(usedVersion, history.record(used));
+        String newVersion = history.record(causes("new"));
+
+        assertNotNull(history.get(usedVersion));
+        assertNotNull(history.get(newVersion));
+        assertNull(history.get(unusedVersion));
+    }
+
+    /**
+     * Tests that reading a snapshot for a re-scan marks it as used.
+     */
+    @Test
+    void testGetTouches() {
+        ScanPlanHistory history = new ScanPlanHistory(directory, 2);
+        String version = history.record(causes("rescanned"));
+        long past = System.currentTimeMillis() - 2 * ScanPlanHistory.TOUCH_INTERVAL_MILLIS;
+        file(version).setLastModified(past);
+
+        assertNotNull(new ScanPlanHistory(directory, 2).get(version));
+        assertTrue(file(version).lastModified() > past);
+    }
+
+    /**
+     * The file of a snapshot.
+     *
+     * @param version the version.
+     * @return the file.
+     */
+    private File file(String version) {
+        return new File(directory, version + ".json");
+    }
+
+    /**
+     * Creates a cause list with one cause.
+     *
+     * @param pattern the pattern of the indication of the cause.
+     * @return the causes.
+     */
+    private static List<FailureCause> causes(String pattern) {
+        FailureCause cause = new FailureCause(pattern, "description");
+        cause.getIndications().add(new BuildLogIndication(pattern));
+        return Collections.singletonList(cause);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 260 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link ScanResultCache}.
+ */
+class ScanResultCacheTest {
+
+    @TempDir
+    private File directory;
+
+    /**
+     * Tests that the key depends on the content of the log and on the causes.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testKey() throws Exception {
+        List<FailureCause> causes = Collections.singletonList(cause("error"));
+        String key = ScanResultCache.key(digest("a\nerror\n"), causes, "FULL");
+        assertEquals(key, ScanResultCache.key(digest("a\nerror\n"), causes, "FULL"));
+        assertNotEquals(key, ScanResultCache.key(digest("b\nerror\n"), causes, "FULL"));
+        assertNotEquals(key, ScanResultCache.key(digest("a\nerror\n"), causes, "TAIL_FIRST"));
+        causes.get(0).getIndications().add(new BuildLogIndication("failure"));
+        assertNotEquals(key, ScanResultCache.key(digest("a\nerror\n"), causes, "FULL"));
+    }
+
+    /**
+     * Tests that the result of a build is found for another build with an identical log before that build is
+     * scanned, and that the hash is kept for both builds.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testIdenticalLogs() throws Exception {
+        List<FailureCause> causes = Collections.singletonList(cause("error"));
+        Run first = buildWithLogFile("first", "a\nerror\n");
+        Run retry = buildWithLogFile("retry", "a\nerror\n");
+        ScanResultCache cache = new ScanResultCache(new File(directory, "cache"), 1024 * 1024);
+
+        String key = ScanResultCache.key(ScanResultCache.getLogDigest(first), causes, "FULL");
+        assertNull(cache.get(key, first, causes));
+        List<FoundIndication> indications = new ArrayList<FoundIndication>();
+        indications.add(new FoundIndication(first, "error", "log", "error", 2));
+        cache.put(key, Collections.singletonList(new FoundFailureCause(causes.get(0), indications)));
+
+        assertNull(ScanResultCache.readLogDigest(retry));
+        String retryDigest = ScanResultCache.getLogDigest(retry);
+        assertEquals(digest("a\nerror\n"), retryDigest);
+        assertEquals(retryDigest, ScanResultCache.readLogDigest(retry));
+        assertEquals(retryDigest, ScanResultCache.readLogDigest(first));
+        List<FoundFailureCause> found = cache.get(ScanResultCache.key(retryDigest, causes, "FULL"), retry, causes);
+        assertNotNull(found);
+        assertEquals("error", found.get(0).getName());
+        assertEquals(2, found.get(0).getIndications().get(0).getMatchingLine());
+        assertEquals(1, cache.getHits());
+    }
+
+    /**
+     * Tests that the hash of a log is kept for the build until the log changes.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testKeptLogDigest() throws Exception {
+        File buildDir = new File(directory, "build");
+        assertTrue(buildDir.mkdirs());
+        File log = new File(buildDir, "log");
+        Files.write(log.toPath(), "error\n".getBytes(StandardCharsets.UTF_8));
+        Run build = mock(Run.class);
+        when(build.getRootDir()).thenReturn(buildDir);
+        when(build.getLogFile()).thenReturn(log);
+
+        assertNull(ScanResultCache.readLogDigest(build));
+        ScanResultCache.writeLogDigest(build, "abc");
+        assertEquals("abc", ScanResultCache.readLogDigest(build));
+        Files.write(log.toPath(), "error\nmore\n".getBytes(StandardCharsets.UTF_8));
+        assertNull(ScanResultCache.readLogDigest(build));
+    }
+
+    /**
+     * Tests that a cached result recreates the found causes and their indications.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testHit() throws Exception {
+        FailureCause cause = cause("error");
+        List<FailureCause> causes = Collections.singletonList(cause);
+        Run build = mockBuild("error\n");
+        List<FoundIndication> indications = new ArrayList<FoundIndication>();
+        FoundIndication indication = new FoundIndication(build, "error", "log", "error", 1);
+        indication.setStage("Build");
+        indications.add(indication);
+
+        ScanResultCache cache = new ScanResultCache(directory, 1024 * 1024);
+        assertNull(cache.get("key", build, causes));
+        cache.put("key", Collections.singletonList(new FoundFailureCause(cause, indications)));
+
+        List<FoundFailureCause> found = new ScanResultCache(directory, 1024 * 1024).get("key", build, causes);
+        assertNotNull(found);
+        assertEquals(1, found.size());
+        assertEquals("error", found.get(0).getName());
+        FoundIndication foundIndication = found.get(0).getIndications().get(0);
+        assertEquals("error", foundIndication.getMatchingString());
+        assertEquals(1, foundIndication.getMatchingLine());
+        assertEquals("Build", foundIndication.getStage());
+        assertNull(foundIndication.getStep());
+        assertEquals(1, cache.getMisses());
+
+        assertNull(cache.get("key", build, Collections.singletonList(cause("other"))));
+    }
+
+    /**
+     * Tests that the least recently used results are evicted when the cache gets too large.
+     */
+    @Test
+    void testEviction() {
+        Run build = mock(Run.class);
+        List<FoundFailureCause> found = Collections.emptyList();
+        ScanResultCache cache = new ScanResultCache(directory, 30);
+        cache.put("a", found);
+        cache.put("b", found);
+        assertNotNull(cache.get("a", build, Collections.<FailureCause>emptyList()));
+        cache.put("c", found);
+        assertTrue(cache.getSize() <= 30);
+        assertNull(cache.get("b", build, Collections.<FailureCause>emptyList()));
+        assertNotNull(cache.get("a", build, Collections.<FailureCause>emptyList()));
+        assertNotNull(cache.get("c", build, Collections.<FailureCause>emptyList()));
+    }
+
+    /**
+     * Creates a cause with one indication.
+     *
+     * @param pattern the pattern of the indication, also used as name and id.
+     * @return the cause.
+     */
+    private static FailureCause cause(String pattern) {
+        List<Indication> indications = new ArrayList<Indication>();
+        indications.add(new BuildLogIndication(pattern));
+        return new FailureCause(pattern, pattern, "description", "", null, new ArrayList<String>(), indications,
+                null);
+    }
+
+    /**
+     * Hashes a log.
+     *
+     * @param log the log.
+     * @return the hash.
+     * @throws IOException if so.
+     */
+    private static String digest(String log) throws IOException {
+        return ScanResultCache.digest(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Mocks a build with a log file in a build directory of its own.
+     *
+     * @param name the name of the build directory.
+     * @param log the log.
+     * @return the build.
+     * @throws IOException if so.
+     */
+    private Run buildWithLogFile(String name, String log) throws IOException {
+        File buildDir = new File(directory, name);
+        assertTrue(buildDir.mkdirs());
+        final File logFile = new File(buildDir, "log");
+        Files.write(logFile.toPath(), log.getBytes(StandardCharsets.UTF_8));
+        Run build = mock(Run.class);
+        when(build.getRootDir()).thenReturn(buildDir);
+        when(build.getLogFile()).thenReturn(logFile);
+        when(build.getLogInputStream()).thenAnswer(invocation -> Files.newInputStream(logFile.toPath()));
+        return build;
+    }
+
+    /**
+     * Mocks a build with a log.
+     *
+     * @param log the log.
+     * @return the build.
+     * @throws IOException if so.
+     */
+    private static Run mockBuild(String log) throws IOException {
+        final byte[] bytes = log.getBytes(StandardCharsets.UTF_8);
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(bytes));
+        return build;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link ScanScheduler}.
+ */
+class ScanSchedulerTest {
+
+    private ScanScheduler scheduler;
+    private CountDownLatch release;
+    private CountDownLatch blocked;
+
+    /**
+     * Creates a scheduler with one thread that is busy until {@link #release} is counted down.
+     *
+     * @throws Exception if so.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        scheduler = new ScanScheduler(1, 3);
+        release = new CountDownLatch(1);
+        blocked = new CountDownLatch(1);
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, ScanPriority.DEFAULT);
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Stops the scheduler.
+     */
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.stop();
+    }
+
+    /**
+     * Tests that gating builds are scanned first, and then smaller logs before larger ones.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testPriorityOrder() throws Exception {
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        futures.add(scheduler.submit(record(order, "large"), new ScanPriority(ScanPriority.CLASS_NORMAL, 50000000)));
+        futures.add(scheduler.submit(record(order, "small"), new ScanPriority(ScanPriority.CLASS_NORMAL, 10)));
+        futures.add(scheduler.submit(record(order, "gating"), new ScanPriority(ScanPriority.CLASS_GATING, 9000)));
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("gating", "small", "large"), order);
+    }
+
+    /**
+     * Tests that a large log goes after smaller logs queued at about the same time, but not after those queued
+     * once it has waited long enough.
+     */
+    @Test
+    void testAging() {
+        Runnable noop = () -> { };
+        long now = 1000000;
+        ScanPriority large = new ScanPriority(ScanPriority.CLASS_NORMAL, 1024L * 1024 * 1024);
+        ScanPriority small = new ScanPriority(ScanPriority.CLASS_NORMAL, 10);
+        ScanScheduler.PrioritizedTask waiting = new ScanScheduler.PrioritizedTask(noop, large, 0, now);
+        assertTrue(waiting.compareTo(new ScanScheduler.PrioritizedTask(noop, small, 1, now + 1000)) > 0);
+        long later = now + ScanPriority.MAX_WAIT_MILLIS + 1;
+        assertTrue(waiting.compareTo(new ScanScheduler.PrioritizedTask(noop, small, 2, later)) < 0);
+        ScanPriority gating = new ScanPriority(ScanPriority.CLASS_GATING, 10);
+        assertTrue(waiting.compareTo(new ScanScheduler.PrioritizedTask(noop, gating, 3, later)) > 0);
+    }
+
+    /**
+     * Tests that tasks are rejected when the queue is full, and that the queue gauges follow.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testBackpressure() throws Exception {
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(0, scheduler.getOldestTaskAge());
+        assertEquals(1, scheduler.getActiveCount());
+        List<String> order = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(record(order, "task" + i), ScanPriority.DEFAULT);
+        }
+        assertEquals(3, scheduler.getQueuedCount());
+        assertFalse(scheduler.hasCapacity(1));
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit(record(order, "rejected"),
+                ScanPriority.DEFAULT));
+        Thread.sleep(20);
+        assertTrue(scheduler.getOldestTaskAge() >= 20);
+
+        scheduler.configure(1, 10);
+        assertTrue(scheduler.hasCapacity(7));
+        assertFalse(scheduler.hasCapacity(8));
+    }
+
+    /**
+     * Tests that waiting for capacity returns when a queued task is taken by a thread, and times out otherwise.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testAwaitCapacity() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(record(order, "task" + i), ScanPriority.DEFAULT);
+        }
+        assertFalse(scheduler.awaitCapacity(1, 10, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(scheduler.awaitCapacity(3, 10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * A task that records its name when run.
+     *
+     * @param order the list to record to.
+     * @param name the name.
+     * @return the task.
+     */
+    private static Runnable record(final List<String> order, final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link StreamingScanFilter}.
+ */
+class StreamingScanFilterTest {
+
+    /**
+     * Tests that the lines written to the log are split where {@link java.io.BufferedReader} splits them.
+     */
+    @Test
+    void testSplitLines() {
+        assertEquals(Arrays.asList("line"), split("line\n"));
+        assertEquals(Arrays.asList("line"), split("line\r\n"));
+        assertEquals(Arrays.asList("line"), split("line"));
+        assertEquals(Arrays.asList("progress 1", "progress 2", "done"), split("progress 1\rprogress 2\rdone\n"));
+        assertEquals(Arrays.asList("", "", "last"), split("\r\rlast\r\n"));
+        assertEquals(Arrays.asList("end"), split("end\r"));
+    }
+
+    /**
+     * Splits a line written to the log.
+     *
+     * @param written the line, as the log writes it.
+     * @return the lines.
+     */
+    private static List<String> split(String written) {
+        byte[] bytes = written.getBytes(StandardCharsets.UTF_8);
+        return StreamingScanFilter.splitLines(bytes, bytes.length, StandardCharsets.UTF_8);
+    }
+}
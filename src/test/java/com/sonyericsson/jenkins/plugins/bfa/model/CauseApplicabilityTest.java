@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link CauseApplicability} and {@link ApplicableCauses}.
+ */
+class CauseApplicabilityTest {
+
+    /**
+     * Clears the cache of applicable causes.
+     */
+    @AfterEach
+    void tearDown() {
+        ApplicableCauses.clear();
+    }
+
+    /**
+     * Tests that * matches within a folder and ** across folders.
+     */
+    @Test
+    void testJobNameGlobs() {
+        CauseApplicability applicability = CauseApplicability.fromForm("team-a/*-build, release-??", null, null,
+                null);
+        assertTrue(applicability.isApplicable(job("team-a/app-build")));
+        assertFalse(applicability.isApplicable(job("team-a/sub/app-build")));
+        assertTrue(applicability.isApplicable(job("release-42")));
+        assertFalse(applicability.isApplicable(job("release-123")));
+
+        applicability = CauseApplicability.fromForm("team-a/**", null, null, null);
+        assertTrue(applicability.isApplicable(job("team-a/sub/app-build")));
+        assertFalse(applicability.isApplicable(job("team-b/app")));
+    }
+
+    /**
+     * Tests the folder and job type rules, and that no rules means no applicability.
+     */
+    @Test
+    void testFolderAndJobType() {
+        CauseApplicability applicability = CauseApplicability.fromForm("", "team-a", null, "FreeStyleProject");
+        assertTrue(applicability.isApplicable(job("team-a/app")));
+        assertFalse(applicability.isApplicable(job("team-ab/app")));
+        assertFalse(applicability.isApplicable(job("team-a")));
+
+        applicability = CauseApplicability.fromForm(null, null, null, "WorkflowJob");
+        assertFalse(applicability.isApplicable(job("team-a/app")));
+
+        assertNull(CauseApplicability.fromForm(" ", "", null, ","));
+    }
+
+    /**
+     * Tests that the applicable causes of a job are cached until the causes change.
+     */
+    @Test
+    void testApplicableCausesCache() {
+        FailureCause everywhere = new FailureCause("everywhere", "description");
+        FailureCause teamA = new FailureCause("team a", "description");
+        teamA.setApplicability(CauseApplicability.fromForm(null, "team-a", null, null));
+        List<FailureCause> causes = Arrays.asList(everywhere, teamA);
+
+        Run buildA = build(job("team-a/app"));
+        List<FailureCause> subset = ApplicableCauses.of(buildA, causes);
+        assertEquals(causes, subset);
+        assertSame(subset, ApplicableCauses.of(buildA, causes));
+
+        assertEquals(Collections.singletonList(everywhere), ApplicableCauses.of(build(job("team-b/app")), causes));
+
+        teamA.setApplicability(CauseApplicability.fromForm(null, "team-b", null, null));
+        List<FailureCause> changed = ApplicableCauses.of(buildA, causes);
+        assertNotSame(subset, changed);
+        assertEquals(Collections.singletonList(everywhere), changed);
+    }
+
+    /**
+     * Tests that the cache is keyed by the content of the causes: new instances of the same causes find the cached
+     * subset, and an indication changed in place doesn't.
+     */
+    @Test
+    void testApplicableCausesCacheKey() {
+        FailureCause cause = new FailureCause("id", "cause", "description", "", null, "", null, null);
+        cause.getIndications().add(new BuildLogIndication("error"));
+        Run build = build(job("team-a/app"));
+        List<FailureCause> subset = ApplicableCauses.of(build, Collections.singletonList(cause));
+
+        FailureCause copy = new FailureCause("id", "cause", "description", "", null, "", null, null);
+        copy.getIndications().add(new BuildLogIndication("error"));
+        assertSame(subset, ApplicableCauses.of(build, Collections.singletonList(copy)));
+
+        cause.getIndications().set(0, new BuildLogIndication("failure"));
+        assertNotSame(subset, ApplicableCauses.of(build, Collections.singletonList(cause)));
+    }
+
+    /**
+     * Mocks a job.
+     *
+     * @param fullName the full name.
+     * @return the job.
+     */
+    private static Job job(String fullName) {
+        Job job = mock(FreeStyleProject.class);
+        when(job.getFullName()).thenReturn(fullName);
+        return job;
+    }
+
+    /**
+     * Mocks a build.
+     *
+     * @param job the job.
+     * @return the build.
+     */
+    private static Run build(Job job) {
+        Run build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        return build;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 150 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link CauseEvaluationOrder}.
+ */
+class CauseEvaluationOrderTest {
+
+    /**
+     * Tests that causes are ordered by priority, keeping their order within a priority.
+     */
+    @Test
+    void testByPriority() {
+        FailureCause a = cause("a", 0, null, false);
+        FailureCause b = cause("b", 10, null, true);
+        FailureCause c = cause("c", 0, null, false);
+        FailureCause d = cause("d", 5, null, false);
+        assertEquals(Arrays.asList(b, d, a, c), CauseEvaluationOrder.byPriority(Arrays.asList(a, b, c, d)));
+        assertTrue(CauseEvaluationOrder.isOrdered(Arrays.asList(a, b)));
+        assertFalse(CauseEvaluationOrder.isOrdered(Arrays.asList(a, c)));
+    }
+
+    /**
+     * Tests that a found terminal cause drops the causes with a lower priority, and that a found cause in a group
+     * drops the causes of the group with a lower priority.
+     */
+    @Test
+    void testLiveCauses() {
+        FailureCause found = cause("found", 10, "infra", false);
+        FailureCause sameGroup = cause("same", 0, "infra", false);
+        FailureCause samePriority = cause("same priority", 10, "infra", false);
+        FailureCause otherGroup = cause("other", 0, "tests", false);
+        FailureCause terminal = cause("terminal", 5, null, true);
+        FailureCause noGroup = cause("none", 0, null, false);
+        CauseEvaluationOrder.LiveCauses live = new CauseEvaluationOrder.LiveCauses(
+                Arrays.asList(found, sameGroup, samePriority, otherGroup, terminal, noGroup));
+
+        live.found(found);
+        assertFalse(live.isLive(sameGroup));
+        assertTrue(live.isLive(samePriority));
+        assertTrue(live.isLive(otherGroup));
+        assertTrue(live.isLive(noGroup));
+
+        live.found(terminal);
+        assertFalse(live.isLive(otherGroup));
+        assertFalse(live.isLive(noGroup));
+        assertTrue(live.isLive(found));
+        assertTrue(live.isLive(samePriority));
+    }
+
+    /**
+     * Tests that a terminal cause hides causes with a lower priority, and that only the cause with the highest
+     * priority of a group is kept.
+     */
+    @Test
+    void testResolve() {
+        FailureCause offline = cause("offline", 10, null, true);
+        FailureCause disk = cause("disk", 10, "infra", false);
+        FailureCause network = cause("network", 20, "infra", false);
+        FailureCause compilation = cause("compilation", 0, null, false);
+        List<FailureCause> causes = Arrays.asList(offline, disk, network, compilation);
+
+        List<FoundFailureCause> found = new ArrayList<FoundFailureCause>();
+        found.add(new FoundFailureCause(compilation));
+        found.add(new FoundFailureCause(disk));
+        found.add(new FoundFailureCause(offline));
+        found.add(new FoundFailureCause(network));
+        FoundFailureCause test = new FoundFailureCause(new FailureCause("failed test", ""));
+        found.add(test);
+
+        List<FoundFailureCause> resolved = CauseEvaluationOrder.resolve(causes, found);
+        assertEquals(3, resolved.size());
+        assertEquals("offline", resolved.get(0).getName());
+        assertEquals("network", resolved.get(1).getName());
+        assertSame(test, resolved.get(2));
+    }
+
+    /**
+     * Creates a cause.
+     *
+     * @param name the name, also used as id.
+     * @param priority the priority.
+     * @param group the exclusivity group.
+     * @param terminal if terminal.
+     * @return the cause.
+     */
+    private static FailureCause cause(String name, int priority, String group, boolean terminal) {
+        FailureCause cause = new FailureCause(name, "description");
+        cause.setId(name);
+        cause.setPriority(priority);
+        cause.setExclusivityGroup(group);
+        cause.setTerminal(terminal);
+        return cause;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.CauseRevisions;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 150 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link CompactFoundCause}.
+ */
+class CompactFoundCauseTest {
+
+    @TempDir
+    private File directory;
+
+    /**
+     * Tests that compact causes are resolved from the stored revision and the matching text from the log.
+     */
+    @Test
+    void testCompactAndResolve() {
+        final byte[] log = "line one\nline two\nerror here\n".getBytes(StandardCharsets.UTF_8);
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(log));
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+
+        List<Indication> indications = new ArrayList<Indication>();
+        indications.add(new BuildLogIndication("error.*"));
+        FailureCause cause = new FailureCause("id", "name", "description", "", null,
+                Arrays.asList("category"), indications, null);
+        FoundIndication foundIndication = new FoundIndication(build, "error.*", "log", "error here", 3);
+        foundIndication.setMatchingOffset(18);
+        FoundFailureCause found = new FoundFailureCause(cause, Collections.singletonList(foundIndication));
+        FoundFailureCause test = new FoundFailureCause(new FailureCause("failed test", "description"));
+
+        CauseRevisions revisions = new CauseRevisions(directory);
+        List<CompactFoundCause> compact = CompactFoundCause.of(build, Arrays.asList(found, test),
+                Collections.singletonList(cause), revisions);
+        assertEquals("id", compact.get(0).getId());
+        assertEquals(CauseRevisions.revision(cause), compact.get(0).getRevision());
+        assertNull(compact.get(1).getId());
+
+        List<FoundFailureCause> resolved = CompactFoundCause.resolve(compact, build, new CauseRevisions(directory));
+        FoundFailureCause resolvedCause = resolved.get(0);
+        assertEquals("name", resolvedCause.getName());
+        assertEquals("description", resolvedCause.getDescription());
+        assertEquals(Collections.singletonList("category"), resolvedCause.getCategories());
+        FoundIndication resolvedIndication = resolvedCause.getIndications().get(0);
+        assertEquals("error.*", resolvedIndication.getPattern());
+        assertEquals(3, resolvedIndication.getMatchingLine());
+        assertEquals("error here", resolvedIndication.getMatchingString());
+        assertSame(test, resolved.get(1));
+    }
+
+    /**
+     * Tests that the matching text is kept when it is not the line at its offset in the log.
+     */
+    @Test
+    void testKeepsTextThatIsNotTheLogLine() {
+        final byte[] log = "line one\nline two\nerror here, then more\n".getBytes(StandardCharsets.UTF_8);
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(log));
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+        FailureCause cause = new FailureCause("id", "name", "description", "", null,
+                Arrays.asList("category"), Collections.<Indication>singletonList(new BuildLogIndication("error.*")),
+                null);
+        FoundIndication foundIndication = new FoundIndication(build, "error.*", "log", "error here", 3);
+        foundIndication.setMatchingOffset(18);
+        FoundFailureCause found = new FoundFailureCause(cause, Collections.singletonList(foundIndication));
+
+        List<CompactFoundCause> compact = CompactFoundCause.of(build, Collections.singletonList(found),
+                Collections.singletonList(cause), new CauseRevisions(directory));
+        List<FoundFailureCause> resolved = CompactFoundCause.resolve(compact, build, new CauseRevisions(directory));
+        assertEquals("error here", resolved.get(0).getIndications().get(0).getMatchingString());
+    }
+
+    /**
+     * Tests that the matching text is left unknown, and not cached as empty, when the log can't be read back.
+     */
+    @Test
+    void testUnreadableLog() throws Exception {
+        final byte[] log = "line one\nline two\nerror here\n".getBytes(StandardCharsets.UTF_8);
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(log));
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+        FailureCause cause = new FailureCause("id", "name", "description", "", null,
+                Arrays.asList("category"), Collections.<Indication>singletonList(new BuildLogIndication("error.*")),
+                null);
+        FoundIndication foundIndication = new FoundIndication(build, "error.*", "log", "error here", 3);
+        foundIndication.setMatchingOffset(18);
+        FoundFailureCause found = new FoundFailureCause(cause, Collections.singletonList(foundIndication));
+        List<CompactFoundCause> compact = CompactFoundCause.of(build, Collections.singletonList(found),
+                Collections.singletonList(cause), new CauseRevisions(directory));
+
+        Run deleted = mock(Run.class);
+        doThrow(new IOException("gone")).when(deleted).getLogInputStream();
+        when(deleted.getFullDisplayName()).thenReturn("deleted #1");
+        List<FoundFailureCause> resolved = CompactFoundCause.resolve(compact, deleted, new CauseRevisions(directory));
+        FoundIndication resolvedIndication = resolved.get(0).getIndications().get(0);
+        assertNull(resolvedIndication.getMatchingString());
+        assertNull(resolvedIndication.getFirstMatchingLine());
+        assertEquals(3, resolvedIndication.getMatchingLine());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+//CS IGNORE MagicNumber FOR NEXT 140 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link DownstreamDataCache}.
+ */
+class DownstreamDataCacheTest {
+
+    private static final String USER = "alice";
+
+    /**
+     * Tests that invalidating a build drops the trees of all builds upstream of it, but not of others.
+     */
+    @Test
+    void testInvalidateUpstream() {
+        DownstreamDataCache cache = new DownstreamDataCache(DownstreamDataCache.SIZE);
+        FailureCauseDisplayData top = new FailureCauseDisplayData();
+        FailureCauseDisplayData middle = new FailureCauseDisplayData();
+        FailureCauseDisplayData bottom = new FailureCauseDisplayData();
+        FailureCauseDisplayData other = new FailureCauseDisplayData();
+        cache.put("bottom#1", USER, 8, bottom, Collections.<String>emptyList(), cache.getGeneration());
+        cache.put("middle#1", USER, 9, middle, Collections.singletonList("bottom#1"), cache.getGeneration());
+        cache.put("top#1", USER, 10, top, Collections.singletonList("middle#1"), cache.getGeneration());
+        cache.put("other#1", USER, 10, other, Collections.<String>emptyList(), cache.getGeneration());
+        assertSame(middle, cache.get("middle#1", USER, 9));
+
+        cache.invalidate("bottom#1");
+        assertNull(cache.get("bottom#1", USER, 8));
+        assertNull(cache.get("middle#1", USER, 9));
+        assertNull(cache.get("top#1", USER, 10));
+        assertSame(other, cache.get("other#1", USER, 10));
+    }
+
+    /**
+     * Tests that trees with fewer levels than asked for are not used.
+     */
+    @Test
+    void testDepth() {
+        DownstreamDataCache cache = new DownstreamDataCache(DownstreamDataCache.SIZE);
+        FailureCauseDisplayData data = new FailureCauseDisplayData();
+        cache.put("job#1", USER, 9, data, Collections.<String>emptyList(), cache.getGeneration());
+        assertSame(data, cache.get("job#1", USER, 8));
+        assertNull(cache.get("job#1", USER, 10));
+    }
+
+    /**
+     * Tests that a tree started before an invalidation is not kept.
+     */
+    @Test
+    void testStaleTreeNotKept() {
+        DownstreamDataCache cache = new DownstreamDataCache(DownstreamDataCache.SIZE);
+        long generation = cache.getGeneration();
+        cache.invalidate("downstream#1");
+        cache.put("job#1", USER, 10, new FailureCauseDisplayData(), Collections.singletonList("downstream#1"),
+                generation);
+        assertNull(cache.get("job#1", USER, 10));
+    }
+
+    /**
+     * Tests that the least recently used trees are dropped when the cache is full.
+     */
+    @Test
+    void testSizeBound() {
+        DownstreamDataCache cache = new DownstreamDataCache(2);
+        cache.put("a#1", USER, 1, new FailureCauseDisplayData(), Collections.<String>emptyList(), cache.getGeneration());
+        cache.put("b#1", USER, 1, new FailureCauseDisplayData(), Collections.<String>emptyList(), cache.getGeneration());
+        cache.get("a#1", USER, 1);
+        cache.put("c#1", USER, 1, new FailureCauseDisplayData(), Collections.<String>emptyList(), cache.getGeneration());
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b#1", USER, 1));
+    }
+
+    /**
+     * Tests that a tree built for one user is not given to another, and that invalidating a build drops the trees
+     * of all users.
+     */
+    @Test
+    void testPerUser() {
+        DownstreamDataCache cache = new DownstreamDataCache(DownstreamDataCache.SIZE);
+        FailureCauseDisplayData data = new FailureCauseDisplayData();
+        FailureCauseDisplayData other = new FailureCauseDisplayData();
+        cache.put("job#1", USER, 10, data, Collections.singletonList("downstream#1"), cache.getGeneration());
+        cache.put("job#1", "bob", 10, other, Collections.<String>emptyList(), cache.getGeneration());
+        assertSame(data, cache.get("job#1", USER, 10));
+        assertSame(other, cache.get("job#1", "bob", 10));
+        assertNull(cache.get("job#1", "SYSTEM", 10));
+
+        cache.invalidate("job#1");
+        assertNull(cache.get("job#1", USER, 10));
+        assertNull(cache.get("job#1", "bob", 10));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Tests that a tree is kept when only other builds were invalidated while it was built, and that a tree that
+     * was not kept keeps the trees of its upstream builds from being kept.
+     */
+    @Test
+    void testOnlyStaleTreesNotKept() {
+        DownstreamDataCache cache = new DownstreamDataCache(DownstreamDataCache.SIZE);
+        long generation = cache.getGeneration();
+        cache.invalidate("other#1");
+        cache.invalidate("bottom#1");
+        FailureCauseDisplayData job = new FailureCauseDisplayData();
+        cache.put("job#1", USER, 10, job, Collections.<String>emptyList(), generation);
+        assertSame(job, cache.get("job#1", USER, 10));
+
+        cache.put("middle#1", USER, 9, new FailureCauseDisplayData(), Collections.singletonList("bottom#1"),
+                generation);
+        cache.put("top#1", USER, 10, new FailureCauseDisplayData(), Collections.singletonList("middle#1"),
+                generation);
+        assertNull(cache.get("middle#1", USER, 9));
+        assertNull(cache.get("top#1", USER, 10));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link IncrementalRescan}.
+ */
+class IncrementalRescanTest {
+
+    /**
+     * Tests that only the added indications of causes that were not found are evaluated, and that the results of
+     * unchanged causes are kept.
+     */
+    @Test
+    void testOnlyChangedIndicationsEvaluated() {
+        FailureCause found = cause("found", "error");
+        FailureCause notFound = cause("not found", "failure");
+        Map<String, List<String>> snapshot = IncrementalRescan.snapshot(Arrays.asList(found, notFound));
+        FoundFailureCause previous = found(found);
+
+        notFound.getIndications().add(new BuildLogIndication("crash"));
+        FailureCause added = cause("added", "timeout");
+        IncrementalRescan rescan = IncrementalRescan.plan(snapshot, Collections.singletonList(previous),
+                Arrays.asList(found, notFound, added));
+
+        List<FailureCause> toEvaluate = rescan.getCausesToEvaluate();
+        assertEquals(2, toEvaluate.size());
+        assertEquals("not found", toEvaluate.get(0).getName());
+        assertEquals(1, toEvaluate.get(0).getIndications().size());
+        assertEquals("crash", toEvaluate.get(0).getIndications().get(0).getUserProvidedExpression());
+        assertSame(added, toEvaluate.get(1));
+        assertEquals(2, rescan.getIndicationsToEvaluate());
+
+        List<FoundFailureCause> merged = rescan.merge(Collections.singletonList(found(added)));
+        assertEquals(2, merged.size());
+        assertEquals("found", merged.get(0).getName());
+        assertEquals("added", merged.get(1).getName());
+    }
+
+    /**
+     * Tests that found causes with changed indications are evaluated again and that removed causes are dropped.
+     */
+    @Test
+    void testChangedAndRemovedCauses() {
+        FailureCause changed = cause("changed", "error");
+        FailureCause removed = cause("removed", "failure");
+        Map<String, List<String>> snapshot = IncrementalRescan.snapshot(Arrays.asList(changed, removed));
+        List<FoundFailureCause> previous = Arrays.asList(found(changed), found(removed));
+
+        changed.getIndications().clear();
+        changed.getIndications().add(new BuildLogIndication("other error"));
+        IncrementalRescan rescan = IncrementalRescan.plan(snapshot, previous, Collections.singletonList(changed));
+
+        assertEquals(Collections.singletonList(changed), rescan.getCausesToEvaluate());
+        assertEquals(0, rescan.merge(Collections.<FoundFailureCause>emptyList()).size());
+    }
+
+    /**
+     * Tests that a generic cause hidden by a specific cause is evaluated in full when the specific cause is removed,
+     * so that it is found like in a full scan.
+     */
+    @Test
+    void testHiddenFallbackCauseEvaluated() {
+        FailureCause generic = cause("generic", "error");
+        generic.setCategories(Collections.singletonList("generic"));
+        FailureCause specific = cause("specific", "error: disk full");
+        Map<String, List<String>> snapshot = IncrementalRescan.snapshot(Arrays.asList(generic, specific));
+        // the scan removed the generic cause from the result, since the specific one was found
+        List<FoundFailureCause> previous = Collections.singletonList(found(specific));
+
+        IncrementalRescan rescan = IncrementalRescan.plan(snapshot, previous, Collections.singletonList(generic),
+                Collections.singletonList("generic"));
+
+        assertEquals(Collections.singletonList(generic), rescan.getCausesToEvaluate());
+        List<FoundFailureCause> merged = rescan.merge(Collections.singletonList(found(generic)));
+        assertEquals(1, merged.size());
+        assertEquals("generic", merged.get(0).getName());
+
+        rescan = IncrementalRescan.plan(snapshot, previous, Collections.singletonList(generic));
+        assertEquals(0, rescan.getCausesToEvaluate().size());
+    }
+
+    /**
+     * Tests that builds are scanned from scratch when the snapshot is not known or the causes have priorities.
+     */
+    @Test
+    void testFullScanNeeded() {
+        FailureCause cause = cause("cause", "error");
+        List<FailureCause> causes = Collections.singletonList(cause);
+        assertNull(IncrementalRescan.plan(null, Collections.<FoundFailureCause>emptyList(), causes));
+
+        Map<String, List<String>> snapshot = IncrementalRescan.snapshot(causes);
+        cause.setPriority(1);
+        assertNull(IncrementalRescan.plan(snapshot, Collections.<FoundFailureCause>emptyList(), causes));
+    }
+
+    /**
+     * Creates a cause with one indication.
+     *
+     * @param name the name, also used as id.
+     * @param pattern the pattern of the indication.
+     * @return the cause.
+     */
+    private static FailureCause cause(String name, String pattern) {
+        List<Indication> indications = new ArrayList<Indication>();
+        indications.add(new BuildLogIndication(pattern));
+        return new FailureCause(name, name, "description", "", null, new ArrayList<String>(), indications, null);
+    }
+
+    /**
+     * Creates the result of finding a cause by its first indication.
+     *
+     * @param cause the cause.
+     * @return the found cause.
+     */
+    private static FoundFailureCause found(FailureCause cause) {
+        List<FoundIndication> indications = new ArrayList<FoundIndication>();
+        String pattern = cause.getIndications().get(0).getUserProvidedExpression();
+        indications.add(new FoundIndication(mock(Run.class), pattern, "log", pattern, 1));
+        return new FoundFailureCause(cause, indications);
+    }
+}
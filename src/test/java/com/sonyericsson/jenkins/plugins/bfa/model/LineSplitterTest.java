@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+//CS IGNORE MagicNumber FOR NEXT 100 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link LineSplitter}.
+ */
+class LineSplitterTest {
+
+    /**
+     * Tests that the lines start where {@link BufferedReader} starts them, with '\n', '\r' and "\r\n" breaks.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testSplitsLikeBufferedReader() throws Exception {
+        for (String log : Arrays.asList("a\nb\n", "a\rb\rc", "a\r\nb\r\n", "progress 1\rprogress 2\rdone\nnext\n",
+                "\r\r\n\n\r", "one\r\rtwo\n\r\nthree")) {
+            final byte[] bytes = log.getBytes(StandardCharsets.UTF_8);
+            final List<String> expected = readLines(new BufferedReader(new StringReader(log)));
+            final List<Integer> numbers = new ArrayList<Integer>();
+            LineSplitter splitter = new LineSplitter();
+            splitter.read(new ByteArrayInputStream(bytes), (line, offset) -> {
+                numbers.add(line);
+                List<String> rest = readLines(new BufferedReader(new InputStreamReader(
+                        new ByteArrayInputStream(bytes, (int)offset, bytes.length - (int)offset),
+                        StandardCharsets.UTF_8)));
+                assertEquals(expected.subList(Math.min(line - 1, expected.size()), expected.size()), rest, log);
+                return true;
+            });
+            for (int i = 0; i < numbers.size(); i++) {
+                assertEquals(i + 2, (int)numbers.get(i), log);
+            }
+            assertEquals(numbers.size(), splitter.getLines() - 1, log);
+        }
+    }
+
+    /**
+     * Tests that the start of the line after a '\r' at the end of the log is returned by finish.
+     */
+    @Test
+    void testTrailingCarriageReturn() {
+        LineSplitter splitter = new LineSplitter();
+        assertEquals(-1, splitter.next((byte)'a'));
+        assertEquals(-1, splitter.next((byte)'\r'));
+        assertEquals(2, splitter.finish());
+        assertEquals(2, splitter.getLine());
+        assertEquals(-1, splitter.finish());
+    }
+
+    /**
+     * Tests that reading stops when the listener says so.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testStop() throws Exception {
+        final List<Long> starts = new ArrayList<Long>();
+        boolean end = new LineSplitter(10).read(new ByteArrayInputStream("a\rb\nc\n".getBytes(StandardCharsets.UTF_8)),
+                (line, offset) -> {
+                    starts.add(offset);
+                    return false;
+                });
+        assertFalse(end);
+        assertEquals(Arrays.asList(12L), starts);
+    }
+
+    /**
+     * Reads all lines of a reader.
+     *
+     * @param reader the reader.
+     * @return the lines.
+     */
+    private static List<String> readLines(BufferedReader reader) {
+        List<String> lines = new ArrayList<String>();
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                lines.add(line);
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 100 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link LogLineIndex}.
+ */
+class LogLineIndexTest {
+
+    private static final String LOG = "one\ntwo\nthree\nfour\nfive\n";
+
+    /**
+     * Tests that every n:th line is sampled and that the offsets of the indications are set.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testCreate() throws Exception {
+        FoundIndication three = new FoundIndication(mock(Run.class), "three", "log", "three", 3);
+        Map<Integer, List<FoundIndication>> indications = Collections.singletonMap(3, Collections.singletonList(three));
+        LogLineIndex index = LogLineIndex.create(stream(LOG), 2, indications);
+
+        assertEquals(6, index.getLineCount());
+        assertEquals(8, three.getMatchingOffset());
+        LogRegion region = index.from(4);
+        assertEquals(8, region.getStart());
+        assertEquals(2, region.getFirstLine());
+        assertEquals(0, index.from(1).getStart());
+        assertEquals(19, index.from(100).getStart());
+    }
+
+    /**
+     * Tests that a written index is read back.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testWriteAndRead() throws Exception {
+        LogLineIndex index = LogLineIndex.create(stream(LOG), 2,
+                Collections.<Integer, List<FoundIndication>>emptyMap());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        LogLineIndex read = LogLineIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, read.getInterval());
+        assertEquals(6, read.getLineCount());
+        assertEquals(index.from(5).getStart(), read.from(5).getStart());
+    }
+
+    /**
+     * Tests that lines are read from the closest sample, with or without an index.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testReadLines() throws Exception {
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> stream(LOG));
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+        LogLineIndex index = LogLineIndex.create(stream(LOG), 2,
+                Collections.<Integer, List<FoundIndication>>emptyMap());
+
+        assertEquals(Arrays.asList("four", "five"), LogLineIndex.readLines(build, index, 4, 2));
+        assertEquals(Arrays.asList("three"), LogLineIndex.readLines(build, index, 3, 1));
+        assertEquals(Arrays.asList("four", "five"), LogLineIndex.readLines(build, null, 4, 5));
+    }
+
+    /**
+     * Tests that lines ended by a lone carriage return are counted like {@link java.io.BufferedReader} counts them.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testCarriageReturns() throws Exception {
+        String log = "one\rtwo\r\nthree\rfour\n";
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> stream(log));
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+        FoundIndication three = new FoundIndication(mock(Run.class), "three", "log", "three", 3);
+        Map<Integer, List<FoundIndication>> indications = Collections.singletonMap(3, Collections.singletonList(three));
+        LogLineIndex index = LogLineIndex.create(stream(log), 2, indications);
+
+        assertEquals(5, index.getLineCount());
+        assertEquals(9, three.getMatchingOffset());
+        assertEquals(9, index.from(4).getStart());
+        assertEquals(Arrays.asList("four"), LogLineIndex.readLines(build, index, 4, 2));
+        assertEquals(Arrays.asList("two", "three"), LogLineIndex.readLines(build, index, 2, 2));
+    }
+
+    /**
+     * Tests that the lines before an offset are counted from the closest sample.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testCountLines() throws Exception {
+        Run build = mock(Run.class);
+        when(build.getLogInputStream()).thenAnswer(invocation -> stream(LOG));
+        LogLineIndex index = LogLineIndex.create(stream(LOG), 2,
+                Collections.<Integer, List<FoundIndication>>emptyMap());
+
+        assertEquals(0, index.countLines(build, 0));
+        assertEquals(1, index.countLines(build, 5));
+        assertEquals(2, index.countLines(build, 8));
+        assertEquals(2, index.countLines(build, 10));
+        assertEquals(3, index.countLines(build, 14));
+        assertEquals(5, index.countLines(build, 100));
+    }
+
+    /**
+     * A stream of a log.
+     *
+     * @param log the log.
+     * @return the stream.
+     */
+    private static ByteArrayInputStream stream(String log) {
+        return new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import hudson.console.AnnotatedLargeText;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link LogRegionPlanner} and the regions it plans.
+ */
+class LogRegionPlannerTest {
+
+    /**
+     * Tests that the last lines of a log are found with their line numbers.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testLastLines() throws Exception {
+        Run build = mockBuild(numberedLog(10));
+        LogRegion region = LogRegion.lastLines(build, 3);
+        assertEquals(7, region.getFirstLine());
+        assertEquals(List.of("line 8", "line 9", "line 10"), lines(region.open(build)));
+        assertEquals(8, readFirstLineNumber(region.open(build)));
+        assertTrue(LogRegion.lastLines(build, 10).isWhole());
+    }
+
+    /**
+     * Tests that the region between markers includes the marker lines, and is empty when the start marker is
+     * missing.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testBetweenMarkers() throws Exception {
+        Run build = mockBuild("a\nBEGIN tests\nb\nEND tests\nc\n");
+        LogRegion region = LogRegion.between(build, Pattern.compile("BEGIN"), Pattern.compile("END"));
+        assertEquals(1, region.getFirstLine());
+        assertEquals(List.of("BEGIN tests", "b", "END tests"), lines(region.open(build)));
+
+        LogRegion open = LogRegion.between(build, Pattern.compile("^b$"), null);
+        assertEquals(List.of("b", "END tests", "c"), lines(open.open(build)));
+
+        assertTrue(LogRegion.between(build, Pattern.compile("missing"), null).isEmpty());
+    }
+
+    /**
+     * Tests that regions of a log with lines ended by lone carriage returns start and are numbered where
+     * {@link LineNumberReader} would have them.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testCarriageReturns() throws Exception {
+        Run build = mockBuild("a\rb\r\nc\rd\re\n");
+        LogRegion last = LogRegion.lastLines(build, 2);
+        assertEquals(3, last.getFirstLine());
+        assertEquals(List.of("d", "e"), lines(last.open(build)));
+        assertEquals(4, readFirstLineNumber(last.open(build)));
+
+        LogRegion region = LogRegion.between(build, Pattern.compile("^c$"), Pattern.compile("^d$"));
+        assertEquals(2, region.getFirstLine());
+        assertEquals(List.of("c", "d"), lines(region.open(build)));
+
+        LogRegion head = LogRegion.head(build, 6);
+        assertEquals(5, head.getEnd());
+        assertEquals(List.of("a", "b"), lines(head.open(build)));
+    }
+
+    /**
+     * Tests that the tail starts at the first line inside the last bytes, and only counts the lines before it when
+     * a line number is asked for.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testTailCountsLinesLazily() throws Exception {
+        Run build = mockBuild("a\rb\r\nc\rd\re\n");
+        LogRegion tail = LogRegion.tail(build, 4);
+        assertEquals(9, tail.getStart());
+        assertEquals(LogRegion.UNKNOWN_LINE, tail.getFirstLine());
+        assertEquals(List.of("e"), lines(tail.open(build)));
+        assertEquals(5, readFirstLineNumber(tail.open(build)));
+        assertEquals(4, tail.getFirstLine());
+    }
+
+    /**
+     * Tests that tail-first plans the end of the log and then the rest, without overlap.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testTailFirst() throws Exception {
+        String log = numberedLog(100);
+        Run build = mockBuild(log);
+        LogRegionPlanner planner = LogRegionPlanner.plan(build, ScanStrategy.TAIL_FIRST, 0, 100, false);
+        assertTrue(planner.isStopAtFirstMatch());
+        assertEquals(2, planner.getPasses().size());
+        LogRegion tail = planner.getPasses().get(0);
+        LogRegion rest = planner.getPasses().get(1);
+        assertEquals(tail.getStart(), rest.getEnd());
+        List<String> all = new ArrayList<String>(lines(rest.open(build)));
+        all.addAll(lines(tail.open(build)));
+        assertEquals(100, all.size());
+        assertEquals("line 100", all.get(99));
+
+        assertEquals(1, LogRegionPlanner.plan(build, ScanStrategy.FULL, 0, 100, true).getPasses().size());
+    }
+
+    /**
+     * Tests that oversized logs only get their beginning and end planned with head and tail.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testHeadAndTail() throws Exception {
+        Run build = mockBuild(numberedLog(1000));
+        LogRegionPlanner planner = LogRegionPlanner.plan(build, ScanStrategy.HEAD_AND_TAIL, 100, 100, true);
+        assertFalse(planner.isStopAtFirstMatch());
+        assertEquals(2, planner.getPasses().size());
+        LogRegion head = planner.getPasses().get(1);
+        assertEquals(0, head.getStart());
+        assertTrue(head.getEnd() <= 100);
+        assertEquals("line 1", lines(head.open(build)).get(0));
+        assertEquals(LogRegion.END_OF_LOG, planner.getPasses().get(0).getEnd());
+
+        planner = LogRegionPlanner.plan(build, ScanStrategy.HEAD_AND_TAIL, 100, 100, false);
+        assertTrue(planner.isStopAtFirstMatch());
+    }
+
+    /**
+     * Tests that the scope of an indication combines its markers and last lines, and is cut to the pass.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testScopedIndication() throws Exception {
+        Run build = mockBuild("BEGIN\na\nb\nEND\nc\nd\n");
+        BuildLogIndication indication = new BuildLogIndication(".*");
+        indication.setEndMarker("END");
+        indication.setLastLines(4);
+        assertTrue(indication.isScoped());
+        LogRegionPlanner planner = LogRegionPlanner.whole(build);
+        LogRegion region = planner.regionFor(indication, LogRegion.whole());
+        assertEquals(List.of("b", "END"), lines(region.open(build)));
+        assertEquals(2, region.getFirstLine());
+
+        LogRegion pass = new LogRegion(0, region.getStart(), 0);
+        assertTrue(planner.regionFor(indication, pass).isEmpty());
+    }
+
+    /**
+     * Creates a log with numbered lines.
+     *
+     * @param count the number of lines.
+     * @return the log.
+     */
+    private static String numberedLog(int count) {
+        StringBuilder log = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            log.append("line ").append(i).append('\n');
+        }
+        return log.toString();
+    }
+
+    /**
+     * Reads all lines of a reader and closes it.
+     *
+     * @param reader the reader.
+     * @return the lines.
+     * @throws IOException if so.
+     */
+    private static List<String> lines(LineNumberReader reader) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                lines.add(line);
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the first line of a reader and closes it.
+     *
+     * @param reader the reader.
+     * @return the line number of the first line of the reader.
+     * @throws IOException if so.
+     */
+    private static int readFirstLineNumber(LineNumberReader reader) throws IOException {
+        try {
+            reader.readLine();
+            return reader.getLineNumber();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Mocks a build with a log.
+     *
+     * @param log the log.
+     * @return the build.
+     * @throws IOException if so.
+     */
+    private static Run mockBuild(String log) throws IOException {
+        final byte[] bytes = log.getBytes(StandardCharsets.UTF_8);
+        Run build = mock(Run.class);
+        AnnotatedLargeText text = mock(AnnotatedLargeText.class);
+        when(text.length()).thenReturn((long)bytes.length);
+        when(build.getLogText()).thenReturn(text);
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+        when(build.getLogInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(bytes));
+        return build;
+    }
+}
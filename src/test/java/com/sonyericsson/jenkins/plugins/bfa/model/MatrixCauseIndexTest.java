@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MatrixCauseIndex}.
+ */
+class MatrixCauseIndexTest {
+
+    /**
+     * Tests that the configurations of each cause are indexed, and replaced when a configuration is re-scanned.
+     */
+    @Test
+    void testRecord() {
+        FoundFailureCause compile = new FoundFailureCause(new FailureCause("compile", "compile", "", "", null,
+                Collections.<String>emptyList(), null, null));
+        FoundFailureCause test = new FoundFailureCause(new FailureCause("failed test", "description"));
+        MatrixCauseIndex index = new MatrixCauseIndex();
+        index.record("os=linux", Arrays.asList(compile, test));
+        index.record("os=mac", Collections.singletonList(compile));
+        index.record("os=windows", null);
+
+        assertEquals(Arrays.asList("os=linux", "os=mac", "os=windows"), index.getScannedCombinations());
+        assertEquals(Arrays.asList("os=linux", "os=mac"), index.getCombinationsWithCauses());
+        assertEquals(Arrays.asList("compile", "failed test"), index.getCauses());
+        assertEquals(Arrays.asList("os=linux", "os=mac"), index.getCombinations("compile"));
+        assertEquals(Collections.singletonList("os=linux"), index.getCombinations("failed test"));
+        assertTrue(index.isScanned("os=windows"));
+        assertFalse(index.isScanned("os=solaris"));
+
+        index.record("os=linux", Collections.singletonList(compile));
+        assertEquals(Arrays.asList("os=mac", "os=linux"), index.getCombinations("compile"));
+        assertTrue(index.getCombinations("failed test").isEmpty());
+        assertNull(index.getCauseName("failed test"));
+        assertEquals("compile", index.getCauseName("compile"));
+    }
+}
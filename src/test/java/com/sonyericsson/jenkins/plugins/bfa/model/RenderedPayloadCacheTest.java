@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 130 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link RenderedPayloadCache}.
+ */
+class RenderedPayloadCacheTest {
+
+    private static final String USER = "user";
+
+    /**
+     * Creates an action of a build.
+     *
+     * @param id the externalizable id of the build.
+     * @return the action.
+     */
+    private FailureCauseBuildAction action(String id) {
+        Run build = mock(Run.class);
+        when(build.getExternalizableId()).thenReturn(id);
+        FailureCauseBuildAction action = mock(FailureCauseBuildAction.class);
+        when(action.getBuild()).thenReturn(build);
+        when(action.getFailureCauseDisplayData()).thenReturn(new FailureCauseDisplayData());
+        return action;
+    }
+
+    /**
+     * Tests that the display data is made once and each format is rendered once.
+     */
+    @Test
+    void testFormatRenderedOnce() {
+        RenderedPayloadCache cache = new RenderedPayloadCache(RenderedPayloadCache.SIZE,
+                RenderedPayloadCache.MAX_CHARS);
+        FailureCauseBuildAction action = action("job#1");
+        AtomicInteger renders = new AtomicInteger();
+
+        RenderedPayloadCache.Payload payload = cache.get(action, USER);
+        assertEquals("plain1", payload.format("plain", data -> "plain" + renders.incrementAndGet()));
+        assertSame(payload, cache.get(action, USER));
+        assertEquals("plain1", cache.get(action, USER).format("plain", data -> "plain" + renders.incrementAndGet()));
+        assertEquals("html2", cache.get(action, USER).format("html", data -> "html" + renders.incrementAndGet()));
+        verify(action, times(1)).getFailureCauseDisplayData();
+        assertEquals(11, cache.getChars());
+    }
+
+    /**
+     * Tests that an invalidated payload is made again.
+     */
+    @Test
+    void testInvalidate() {
+        RenderedPayloadCache cache = new RenderedPayloadCache(RenderedPayloadCache.SIZE,
+                RenderedPayloadCache.MAX_CHARS);
+        FailureCauseBuildAction action = action("job#1");
+        RenderedPayloadCache.Payload payload = cache.get(action, USER);
+        payload.format("plain", data -> "text");
+
+        cache.invalidate(Collections.singleton("job#1"));
+        assertEquals(0, cache.getChars());
+        RenderedPayloadCache.Payload made = cache.get(action, USER);
+        assertNotSame(payload, made);
+        assertEquals("again", made.format("plain", data -> "again"));
+        // rendering with the dropped payload doesn't count
+        payload.format("html", data -> "html");
+        assertEquals(5, cache.getChars());
+    }
+
+    /**
+     * Tests that each user gets a payload of their own, and that invalidating a build drops the payloads of all users.
+     */
+    @Test
+    void testPerUser() {
+        RenderedPayloadCache cache = new RenderedPayloadCache(RenderedPayloadCache.SIZE,
+                RenderedPayloadCache.MAX_CHARS);
+        FailureCauseBuildAction action = action("job#1");
+        RenderedPayloadCache.Payload payload = cache.get(action, USER);
+        RenderedPayloadCache.Payload other = cache.get(action, "other");
+        assertNotSame(payload, other);
+        assertSame(other, cache.get(action, "other"));
+        assertEquals(2, cache.size());
+        verify(action, times(2)).getFailureCauseDisplayData();
+
+        cache.invalidate(Collections.singleton("job#1"));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Tests that the least recently used payloads are dropped when the formats have too many characters.
+     */
+    @Test
+    void testEvictByChars() {
+        RenderedPayloadCache cache = new RenderedPayloadCache(RenderedPayloadCache.SIZE, 10);
+        FailureCauseBuildAction first = action("job#1");
+        FailureCauseBuildAction second = action("job#2");
+        cache.get(first, USER).format("plain", data -> "123456");
+        cache.get(second, USER).format("plain", data -> "123456");
+
+        assertEquals(1, cache.size());
+        assertEquals(6, cache.getChars());
+        verify(second, times(1)).getFailureCauseDisplayData();
+        cache.get(first, USER);
+        verify(first, times(2)).getFailureCauseDisplayData();
+    }
+
+    /**
+     * Tests that no more payloads than the size are kept.
+     */
+    @Test
+    void testEvictBySize() {
+        RenderedPayloadCache cache = new RenderedPayloadCache(2, RenderedPayloadCache.MAX_CHARS);
+        cache.get(action("job#1"), USER);
+        cache.get(action("job#2"), USER);
+        cache.get(action("job#3"), USER);
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Tests that the payloads of builds without an id are not kept.
+     */
+    @Test
+    void testNoId() {
+        RenderedPayloadCache cache = new RenderedPayloadCache(RenderedPayloadCache.SIZE,
+                RenderedPayloadCache.MAX_CHARS);
+        FailureCauseBuildAction action = action(null);
+        assertNotSame(cache.get(action, USER), cache.get(action, USER));
+        assertEquals(0, cache.size());
+    }
+}
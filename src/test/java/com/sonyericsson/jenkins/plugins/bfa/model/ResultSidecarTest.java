@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.CauseRevisions;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.Indication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ResultSidecar}.
+ */
+class ResultSidecarTest {
+
+    @TempDir
+    private File buildDir;
+
+    @TempDir
+    private File revisionDir;
+
+    /**
+     * Tests that the found causes are read back as written, and that the build is not written to the file.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testWriteAndRead() throws Exception {
+        Run build = mock(Run.class);
+        when(build.getRootDir()).thenReturn(buildDir);
+
+        List<Indication> indications = new ArrayList<Indication>();
+        indications.add(new BuildLogIndication("error.*"));
+        FailureCause cause = new FailureCause("id", "name", "description", "", null,
+                Arrays.asList("category"), indications, null);
+        FoundFailureCause found = new FoundFailureCause(cause, Collections.singletonList(
+                new FoundIndication(build, "error.*", "log", "error here", 2)));
+        FoundFailureCause test = new FoundFailureCause(new FailureCause("failed test", "description"),
+                Collections.singletonList(new FoundIndication(build, "test", "log", "test failed", 1)));
+
+        CauseRevisions revisions = new CauseRevisions(revisionDir);
+        ResultSidecar.write(build, CompactFoundCause.of(build, Arrays.asList(found, test),
+                Collections.singletonList(cause), revisions));
+        assertTrue(new File(buildDir, ResultSidecar.FILE_NAME).isFile());
+        assertEquals(1, buildDir.list().length);
+
+        List<FoundFailureCause> read = ResultSidecar.read(build, revisions);
+        assertEquals(2, read.size());
+        assertEquals("id", read.get(0).getId());
+        assertEquals("name", read.get(0).getName());
+        assertEquals("error here", read.get(0).getIndications().get(0).getMatchingString());
+        assertNull(read.get(1).getId());
+        assertEquals("failed test", read.get(1).getName());
+        FoundIndication testIndication = read.get(1).getIndications().get(0);
+        assertEquals("test failed", testIndication.getMatchingString());
+        assertSame(build, testIndication.getBuild());
+    }
+}
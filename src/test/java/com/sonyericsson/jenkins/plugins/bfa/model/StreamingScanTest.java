@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link StreamingScan}.
+ */
+class StreamingScanTest {
+
+    /**
+     * Tests that single-line and multi-line indications are found with the line numbers a full scan reports,
+     * across several batches and windows.
+     */
+    @Test
+    void testStreamedLog() {
+        List<FailureCause> causes = new ArrayList<FailureCause>();
+        FailureCause compilation = new FailureCause("compilation", "description");
+        compilation.addIndication(new BuildLogIndication(".*COMPILATION ERROR.*"));
+        causes.add(compilation);
+        FailureCause offline = new FailureCause("offline", "description");
+        offline.addIndication(new MultilineBuildLogIndication("Agent went offline\\s+during the build"));
+        causes.add(offline);
+        FailureCause missing = new FailureCause("missing", "description");
+        missing.addIndication(new BuildLogIndication(".*never printed.*"));
+        causes.add(missing);
+
+        StreamingScan scan = new StreamingScan(mock(Run.class), causes);
+        int lines = StreamingScan.BATCH_LINES * 3;
+        for (int i = 1; i <= lines; i++) {
+            if (i == 1500) {
+                scan.addLine("[ERROR] COMPILATION ERROR : Foo.java");
+            } else if (i == 2500) {
+                scan.addLine("Agent went offline");
+            } else if (i == 2501) {
+                scan.addLine("  during the build");
+            } else {
+                scan.addLine("line " + i);
+            }
+        }
+        List<FoundFailureCause> found = scan.await(10, TimeUnit.SECONDS);
+        assertNotNull(found);
+        assertEquals(2, found.size());
+        FoundIndication compilationFound = found.get(0).getIndications().get(0);
+        assertEquals("compilation", found.get(0).getName());
+        assertEquals(1500, compilationFound.getMatchingLine());
+        assertEquals("[ERROR] COMPILATION ERROR : Foo.java", compilationFound.getMatchingString());
+        assertEquals("offline", found.get(1).getName());
+        assertTrue(found.get(1).getIndications().get(0).getMatchingLine() >= 2501);
+    }
+
+    /**
+     * Tests that causes added or changed after the scan started are reported as changed, and that only found causes
+     * of unchanged causes are kept.
+     */
+    @Test
+    void testChangedCauses() {
+        FailureCause kept = new FailureCause("kept", "description");
+        kept.addIndication(new BuildLogIndication(".*kept.*"));
+        FailureCause edited = new FailureCause("edited", "description");
+        edited.addIndication(new BuildLogIndication(".*old.*"));
+        FailureCause removed = new FailureCause("removed", "description");
+        removed.addIndication(new BuildLogIndication(".*removed.*"));
+        StreamingScan scan = new StreamingScan(mock(Run.class), Arrays.asList(kept, edited, removed));
+
+        FailureCause newVersion = new FailureCause("edited", "description");
+        newVersion.addIndication(new BuildLogIndication(".*new.*"));
+        FailureCause added = new FailureCause("added", "description");
+        added.addIndication(new BuildLogIndication(".*added.*"));
+        List<FailureCause> current = Arrays.asList(kept, newVersion, added);
+        List<FailureCause> changed = scan.getChanged(current);
+        assertEquals(Arrays.asList(newVersion, added), changed);
+
+        List<FoundFailureCause> found = Arrays.asList(new FoundFailureCause(kept), new FoundFailureCause(edited),
+                new FoundFailureCause(removed));
+        List<FoundFailureCause> unchanged = StreamingScan.getUnchanged(found, current, changed);
+        assertEquals(1, unchanged.size());
+        assertEquals("kept", unchanged.get(0).getName());
+    }
+
+    /**
+     * Tests that an abandoned scan has no result.
+     */
+    @Test
+    void testAbandoned() {
+        List<FailureCause> causes = new ArrayList<FailureCause>();
+        FailureCause cause = new FailureCause("cause", "description");
+        cause.addIndication(new BuildLogIndication(".*ERROR.*"));
+        causes.add(cause);
+        StreamingScan scan = new StreamingScan(mock(Run.class), causes);
+        scan.addLine("ERROR");
+        scan.abandon();
+        assertNull(scan.await(10, TimeUnit.SECONDS));
+    }
+}
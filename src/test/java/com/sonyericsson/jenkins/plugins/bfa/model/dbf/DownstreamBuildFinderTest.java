@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model.dbf;
+
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 40 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link DownstreamBuildFinder}.
+ */
+class DownstreamBuildFinderTest {
+
+    /**
+     * Tests that the default references wrap the builds of finders that only find loaded builds.
+     */
+    @Test
+    void testDefaultReferences() {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn("folder/job");
+        final Run build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        when(build.getNumber()).thenReturn(42);
+        when(build.getResult()).thenReturn(Result.FAILURE);
+        DownstreamBuildFinder finder = new DownstreamBuildFinder() {
+            @Override
+            public List<Run<?, ?>> getDownstreamBuilds(Run upstream) {
+                return Arrays.<Run<?, ?>>asList(build, null);
+            }
+        };
+
+        List<DownstreamBuildReference> references = finder.getDownstreamBuildReferences(mock(Run.class));
+        assertEquals(1, references.size());
+        DownstreamBuildReference reference = references.get(0);
+        assertEquals("folder/job", reference.getJobFullName());
+        assertEquals(42, reference.getNumber());
+        assertSame(Result.FAILURE, reference.getResult());
+        assertSame(build, reference.load());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model.dbf;
+
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 110 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link DownstreamResolver}.
+ */
+class DownstreamResolverTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    /**
+     * Shuts down the test threads.
+     */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that the builds found by a fast finder are returned when a slow finder misses the deadline.
+     */
+    @Test
+    void testDeadline() {
+        final Run upstream = run("upstream#1");
+        final Run downstream = run("downstream#1");
+        final CountDownLatch never = new CountDownLatch(1);
+        DownstreamBuildFinder fast = new DownstreamBuildFinder() {
+            @Override
+            public List<Run<?, ?>> getDownstreamBuilds(Run build) {
+                return Collections.<Run<?, ?>>singletonList(downstream);
+            }
+        };
+        DownstreamBuildFinder slow = new DownstreamBuildFinder() {
+            @Override
+            public List<Run<?, ?>> getDownstreamBuilds(Run build) {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return EMPTY;
+            }
+        };
+        DownstreamResolver resolver = new DownstreamResolver(executor, executor, Arrays.asList(fast, slow), 100);
+        List<Run<?, ?>> found = resolver.getDownstreamBuilds(upstream, false);
+        assertEquals(Collections.singletonList(downstream), found);
+        assertFalse(resolver.isComplete());
+    }
+
+    /**
+     * Tests that a build already on the path is not entered again.
+     */
+    @Test
+    void testCycle() {
+        DownstreamResolver resolver = new DownstreamResolver(executor, executor,
+                Collections.<DownstreamBuildFinder>emptyList(), 1000);
+        Run build = run("job#1");
+        assertTrue(resolver.enter(build));
+        assertFalse(resolver.enter(build));
+        assertFalse(resolver.isComplete());
+        resolver.leave(build);
+        assertTrue(resolver.enter(build));
+    }
+
+    /**
+     * Tests that the builds whose results are not known are loaded on the load threads, in the order of the
+     * references, and that builds that are not analyzed are left out.
+     */
+    @Test
+    void testLoad() {
+        ThreadPoolExecutor loads = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        try {
+            Run first = run("job#1");
+            Run second = run("job#2");
+            Run passed = run("job#3");
+            when(passed.getResult()).thenReturn(Result.SUCCESS);
+            DownstreamResolver resolver = new DownstreamResolver(executor, loads,
+                    Collections.<DownstreamBuildFinder>emptyList(), 1000);
+            List<Run<?, ?>> builds = resolver.load(Arrays.asList(DownstreamBuildReference.of(first),
+                    DownstreamBuildReference.of(passed), DownstreamBuildReference.of(second)));
+            assertEquals(Arrays.<Run<?, ?>>asList(first, second), builds);
+            assertEquals(2, loads.getTaskCount());
+            assertTrue(resolver.isComplete());
+        } finally {
+            loads.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a build.
+     *
+     * @param id the externalizable id.
+     * @return the build.
+     */
+    private static Run run(String id) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(id.substring(0, id.indexOf('#')));
+        Run run = mock(Run.class);
+        when(run.getParent()).thenReturn(job);
+        when(run.getExternalizableId()).thenReturn(id);
+        when(run.getFullDisplayName()).thenReturn(id);
+        return run;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.model.dbf;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.BlockingBehaviour;
+import hudson.plugins.parameterizedtrigger.BuildInfoExporterAction;
+import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.FailureBuilder;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link ParameterizedTriggerDBF}.
+ */
+@WithJenkins
+class ParameterizedTriggerDBFTest {
+
+    /**
+     * Tests that the build references, with their results, are read through the API of the parameterized trigger
+     * plugin, so that a change of the plugin doesn't silently make the finder load all downstream builds.
+     *
+     * @param jenkins the Jenkins instance.
+     * @throws Exception if so.
+     */
+    @Test
+    void testBuildReferences(JenkinsRule jenkins) throws Exception {
+        FreeStyleProject child = jenkins.createFreeStyleProject("child");
+        child.getBuildersList().add(new FailureBuilder());
+        FreeStyleProject parent = jenkins.createFreeStyleProject("parent");
+        parent.getBuildersList().add(new TriggerBuilder(new BlockableBuildTriggerConfig(child.getName(),
+                new BlockingBehaviour(Result.FAILURE, Result.FAILURE, Result.FAILURE), new ArrayList<>())));
+        FreeStyleBuild build = parent.scheduleBuild2(0).get();
+
+        BuildInfoExporterAction action = build.getAction(BuildInfoExporterAction.class);
+        assertNotNull(action);
+        List<DownstreamBuildReference> references = ParameterizedTriggerDBF.getBuildReferences(action);
+        assertEquals(1, references.size());
+        assertEquals("child", references.get(0).getJobFullName());
+        assertEquals(1, references.get(0).getNumber());
+        assertSame(Result.FAILURE, references.get(0).getResult());
+        assertEquals(references.size(), new ParameterizedTriggerDBF().getDownstreamBuildReferences(build).size());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.offline;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.FailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.FoundFailureCause;
+import com.sonyericsson.jenkins.plugins.bfa.model.ScanPlan;
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 200 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link OfflineScanner} and {@link KnowledgeBaseExport}.
+ */
+class OfflineScannerTest {
+
+    private static final String EXPORT = "[{\"_id\": {\"$oid\": \"5f0c\"}, \"name\": \"Compilation\","
+            + " \"description\": \"Did not compile\", \"categories\": [\"code\"],"
+            + " \"indications\": [{\"@class\": "
+            + "\"com.sonyericsson.jenkins.plugins.bfa.model.indication.BuildLogIndication\","
+            + " \"pattern\": \".*COMPILATION ERROR.*\"}]},"
+            + " {\"id\": \"abc\", \"name\": \"Agent lost\", \"categories\": \"infra\","
+            + " \"indications\": [{\"@class\": "
+            + "\"com.sonyericsson.jenkins.plugins.bfa.model.indication.MultilineBuildLogIndication\","
+            + " \"pattern\": \"Agent went offline\\\\s+during the build\"}]}]";
+
+    @TempDir
+    Path logs;
+
+    /**
+     * Tests that an export with both id forms and both indication types is read.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testReadExport() throws Exception {
+        List<FailureCause> causes = readExport();
+        assertEquals(2, causes.size());
+        assertEquals("5f0c", causes.get(0).getId());
+        assertEquals("code", causes.get(0).getCategories().get(0));
+        assertEquals("abc", causes.get(1).getId());
+        assertEquals("infra", causes.get(1).getCategories().get(0));
+        assertTrue(causes.get(1).getIndications().get(0) instanceof MultilineBuildLogIndication);
+    }
+
+    /**
+     * Tests that one JSON line is written per file, including gzipped files, and that the causes are found.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testScanDirectory() throws Exception {
+        Files.write(logs.resolve("a.log"), "line\n[ERROR] COMPILATION ERROR :\nmore\n".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(logs.resolve("sub"));
+        Files.write(logs.resolve("sub/b.log"), "nothing to see\n".getBytes(StandardCharsets.UTF_8));
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(logs.resolve("sub/c.log.gz")))) {
+            out.write("start\nAgent went offline\n  during the build\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        OfflineScanner scanner = new OfflineScanner(ScanPlan.of(readExport()), 2);
+        StringWriter out = new StringWriter();
+        OfflineScanner.Summary summary = scanner.scan(logs, out);
+
+        assertEquals(3, summary.getFiles());
+        assertEquals(0, summary.getFailedFiles());
+        assertEquals(2, summary.getFilesWithCauses());
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        String output = out.toString();
+        assertTrue(output.contains("{\"file\":\"a.log\",\"causes\":[{\"id\":\"5f0c\",\"name\":\"Compilation\""));
+        assertTrue(output.contains("\"line\":2,\"match\":\"[ERROR] COMPILATION ERROR :\""));
+        assertTrue(output.contains("{\"file\":\"sub" + logs.getFileSystem().getSeparator() + "b.log\",\"causes\":[]}"));
+        assertTrue(output.contains("\"name\":\"Agent lost\""));
+    }
+
+    /**
+     * Tests scanning of a single file.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testScanFile() throws Exception {
+        Path log = logs.resolve("single.log");
+        Files.write(log, "Agent went offline during the build\n".getBytes(StandardCharsets.UTF_8));
+        List<FoundFailureCause> found = new OfflineScanner(ScanPlan.of(readExport()), 1).scanFile(log);
+        assertEquals(1, found.size());
+        assertEquals("Agent lost", found.get(0).getName());
+    }
+
+    /**
+     * Reads the test export.
+     *
+     * @return the causes.
+     * @throws IOException if so.
+     */
+    private static List<FailureCause> readExport() throws IOException {
+        return KnowledgeBaseExport.read(new ByteArrayInputStream(EXPORT.getBytes(StandardCharsets.UTF_8)));
+    }
+}
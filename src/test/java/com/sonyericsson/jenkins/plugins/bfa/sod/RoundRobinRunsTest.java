@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 110 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link RoundRobinRuns}.
+ */
+class RoundRobinRunsTest {
+
+    private final Map<Job, List<Run>> builds = new HashMap<Job, List<Run>>();
+    private final List<Job> lookedUp = new ArrayList<Job>();
+
+    /**
+     * Creates a job with builds.
+     *
+     * @param numbers the numbers of the builds.
+     * @return the job.
+     */
+    private Job job(Integer... numbers) {
+        Job job = mock(Job.class);
+        List<Run> runs = new ArrayList<Run>();
+        for (int number : numbers) {
+            Run run = mock(Run.class);
+            when(run.getNumber()).thenReturn(number);
+            runs.add(run);
+        }
+        builds.put(job, runs);
+        return job;
+    }
+
+    /**
+     * Tests that the jobs in the window are taken from in turn, and that jobs are looked up when they enter it.
+     */
+    @Test
+    void testInterleaves() {
+        Job a = job(11, 12, 13);
+        Job b = job(21);
+        Job c = job(31, 32);
+        RoundRobinRuns runs = new RoundRobinRuns(Arrays.asList(a, b, c).iterator(), job -> {
+            lookedUp.add(job);
+            return builds.get(job).iterator();
+        }, 2);
+
+        List<Integer> numbers = new ArrayList<Integer>();
+        numbers.add(runs.next().getNumber());
+        assertEquals(Arrays.asList(a, b), lookedUp);
+        while (runs.hasNext()) {
+            numbers.add(runs.next().getNumber());
+        }
+        assertEquals(Arrays.asList(11, 21, 12, 13, 31, 32), numbers);
+        assertEquals(Arrays.asList(a, b, c), lookedUp);
+    }
+
+    /**
+     * Tests that a job that is not admitted is passed over without taking its build, and that nothing is taken when
+     * no job in the window is admitted.
+     */
+    @Test
+    void testPassesOverRefused() {
+        Job a = job(11, 12);
+        Job b = job(21, 22);
+        Job c = job(31);
+        RoundRobinRuns runs = new RoundRobinRuns(Arrays.asList(a, b, c).iterator(), job -> builds.get(job).iterator(),
+                2);
+
+        assertEquals(21, runs.next(job -> job != a).getNumber());
+        assertEquals(11, runs.next(job -> true).getNumber());
+        assertNull(runs.next(job -> job == c));
+        assertEquals(22, runs.next(job -> true).getNumber());
+        assertEquals(12, runs.next(job -> true).getNumber());
+        assertEquals(31, runs.next(job -> job == c).getNumber());
+        assertNull(runs.next(job -> true));
+        assertFalse(runs.hasNext());
+    }
+
+    /**
+     * Tests that jobs without builds are skipped.
+     */
+    @Test
+    void testEmptyJobs() {
+        Job a = job();
+        Job b = job();
+        RoundRobinRuns runs = new RoundRobinRuns(Arrays.asList(a, b).iterator(), job -> builds.get(job).iterator(),
+                RoundRobinRuns.WINDOW);
+        assertFalse(runs.hasNext());
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 220 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link ScanOnDemandEnumeration}.
+ */
+class ScanOnDemandEnumerationTest {
+
+    /**
+     * Creates builds.
+     *
+     * @param count the number of builds.
+     * @return the builds.
+     */
+    private static List<Run> runs(int count) {
+        return runs("job", count);
+    }
+
+    /**
+     * Creates builds of a job.
+     *
+     * @param jobFullName the full name of the job.
+     * @param count the number of builds.
+     * @return the builds.
+     */
+    private static List<Run> runs(String jobFullName, int count) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(jobFullName);
+        List<Run> runs = new ArrayList<Run>();
+        for (int i = 1; i <= count; i++) {
+            Run run = mock(Run.class);
+            when(run.getNumber()).thenReturn(i);
+            when(run.getParent()).thenReturn(job);
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    /**
+     * Creates an enumeration of a job, which is not throttled.
+     *
+     * @param queue queues a task.
+     * @return the enumeration.
+     */
+    private static ScanOnDemandEnumeration enumeration(Predicate<ScanOnDemandTask> queue) {
+        return new ScanOnDemandEnumeration("job", null, false, 4, null, queue);
+    }
+
+    /**
+     * Waits until a condition holds.
+     *
+     * @param condition the condition.
+     * @throws InterruptedException if interrupted.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Tests that the next batch is not queued until half of the previous one is scanned.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testBatches() throws Exception {
+        final List<ScanOnDemandTask> tasks = new CopyOnWriteArrayList<ScanOnDemandTask>();
+        final ScanOnDemandEnumeration enumeration = enumeration(tasks::add);
+        Thread thread = new Thread(() -> {
+            try {
+                enumeration.enumerate(runs(10).iterator());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        await(() -> thread.getState() == Thread.State.WAITING);
+        assertEquals(4, enumeration.getQueued());
+        enumeration.taskFinished("job", false);
+        Thread.sleep(50);
+        assertEquals(4, enumeration.getQueued());
+        enumeration.taskFinished("job", true);
+
+        await(() -> enumeration.getQueued() == 8);
+        for (int i = 0; i < 4; i++) {
+            enumeration.taskFinished("job", false);
+        }
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertEquals(10, tasks.size());
+        assertEquals(10, enumeration.getQueued());
+        assertEquals(5, enumeration.getDone());
+        assertEquals(1, enumeration.getFailed());
+    }
+
+    /**
+     * Tests that the builds of a job at its cap don't hold back those of the other jobs of a folder.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testThrottledJobPassedOver() throws Exception {
+        final Map<Job, List<Run>> builds = new LinkedHashMap<Job, List<Run>>();
+        for (List<Run> runs : Arrays.asList(runs("a", 3), runs("b", 1))) {
+            builds.put(runs.get(0).getParent(), runs);
+        }
+        final List<ScanOnDemandTask> tasks = new CopyOnWriteArrayList<ScanOnDemandTask>();
+        final ScanOnDemandThrottle throttle = new ScanOnDemandThrottle(1, 1000000);
+        final ScanOnDemandEnumeration enumeration = new ScanOnDemandEnumeration("group", null, false, 100, throttle,
+                tasks::add);
+        Thread thread = new Thread(() -> {
+            try {
+                enumeration.enumerate(new RoundRobinRuns(builds.keySet().iterator(),
+                        job -> builds.get(job).iterator(), 2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        await(() -> tasks.size() == 2);
+        assertEquals(1, throttle.getRunning("a"));
+        assertEquals(1, throttle.getRunning("b"));
+        enumeration.taskFinished("a", false);
+        await(() -> tasks.size() == 3);
+        enumeration.taskFinished("a", false);
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertEquals(4, tasks.size());
+        assertEquals(1, throttle.getRunning("a"));
+    }
+
+    /**
+     * Tests that builds that could not be queued are counted as failed.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testRejected() throws Exception {
+        ScanOnDemandEnumeration enumeration = enumeration(task -> false);
+        enumeration.enumerate(runs(3).iterator());
+        assertEquals(3, enumeration.getQueued());
+        assertEquals(3, enumeration.getFailed());
+        assertEquals(0, enumeration.getEtaSeconds());
+    }
+
+    /**
+     * Tests that cancelling stops queueing and skips the queued tasks.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testCancel() throws Exception {
+        final List<ScanOnDemandTask> tasks = new ArrayList<ScanOnDemandTask>();
+        final ScanOnDemandEnumeration enumeration = enumeration(tasks::add);
+        enumeration.enumerate(runs(2).iterator());
+        enumeration.cancel();
+        enumeration.enumerate(runs(2).iterator());
+        assertEquals(2, tasks.size());
+
+        for (ScanOnDemandTask task : tasks) {
+            task.run();
+        }
+        assertEquals(2, enumeration.getSkipped());
+        assertEquals(0, enumeration.getDone());
+        assertTrue(enumeration.isCancelled());
+    }
+
+    /**
+     * Tests the progress before and after builds were scanned.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testProgress() throws Exception {
+        ScanOnDemandEnumeration enumeration = enumeration(task -> true);
+        enumeration.enumerate(Collections.<Run>emptyIterator());
+        assertEquals(0, enumeration.toJson().getInt("queued"));
+
+        enumeration.enumerate(runs(2).iterator());
+        assertEquals(-1, enumeration.getEtaSeconds());
+        enumeration.taskFinished("job", false);
+        assertTrue(enumeration.getEtaSeconds() >= 0);
+        assertEquals(1, enumeration.toJson().getInt("done"));
+        assertTrue(enumeration.toJson().getBoolean("enumerating"));
+        assertFalse(enumeration.isFinished());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.sod;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CS IGNORE MagicNumber FOR NEXT 100 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link ScanOnDemandThrottle}.
+ */
+class ScanOnDemandThrottleTest {
+
+    /**
+     * Tests that a job can't have more builds scanning than its cap, while other jobs can.
+     */
+    @Test
+    void testPerJobCap() {
+        ScanOnDemandThrottle throttle = new ScanOnDemandThrottle(2, 1000000);
+        assertTrue(throttle.tryAcquire("a"));
+        assertTrue(throttle.tryAcquire("a"));
+        assertFalse(throttle.tryAcquire("a"));
+        assertTrue(throttle.tryAcquire("b"));
+        assertEquals(2, throttle.getRunning("a"));
+
+        throttle.release("a");
+        assertTrue(throttle.tryAcquire("a"));
+        assertEquals(2, throttle.getRunning("a"));
+        assertEquals(1, throttle.getRunning("b"));
+    }
+
+    /**
+     * Tests that scans are started no faster than the limit once the burst is used.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testRate() throws Exception {
+        ScanOnDemandThrottle throttle = new ScanOnDemandThrottle(100, 5);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(throttle.tryAcquire("a"));
+        }
+        assertFalse(throttle.tryAcquire("b"));
+        for (int i = 0; i < 2; i++) {
+            while (!throttle.tryAcquire("a")) {
+                throttle.awaitChange();
+            }
+        }
+        assertTrue(System.nanoTime() - start >= 300000000L);
+    }
+
+    /**
+     * Tests that waiting for a change returns when a build is released.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testAwaitChange() throws Exception {
+        final ScanOnDemandThrottle throttle = new ScanOnDemandThrottle(1, 1000);
+        assertTrue(throttle.tryAcquire("a"));
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throttle.release("a");
+        });
+        long start = System.nanoTime();
+        thread.start();
+        throttle.awaitChange();
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(ScanOnDemandThrottle.MAX_WAIT_MILLIS));
+        thread.join(10000);
+        assertEquals(0, throttle.getRunning("a"));
+        assertTrue(throttle.tryAcquire("a"));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Sony Mobile Communications Inc. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.sonyericsson.jenkins.plugins.bfa.utils;
+
+import com.sonyericsson.jenkins.plugins.bfa.model.indication.FoundIndication;
+import hudson.model.Run;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//CS IGNORE MagicNumber FOR NEXT 50 LINES. REASON: TestData.
+
+/**
+ * Tests for {@link OldDataConverter}.
+ */
+class OldDataConverterTest {
+
+    @TempDir
+    private File buildDir;
+
+    /**
+     * Tests that the lines of the indications are read from the log in one pass.
+     *
+     * @throws Exception if so.
+     */
+    @Test
+    void testConvert() throws Exception {
+        final byte[] log = "one\ntwo\nthree\nfour\n".getBytes(StandardCharsets.UTF_8);
+        Run build = mock(Run.class);
+        when(build.getRootDir()).thenReturn(buildDir);
+        when(build.getCharset()).thenReturn(StandardCharsets.UTF_8);
+        when(build.getLogInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(log));
+
+        FoundIndication second = new FoundIndication("pattern", "log", null, 2);
+        FoundIndication fourth = new FoundIndication("pattern", "log", null, 4);
+        FoundIndication alsoFourth = new FoundIndication("other", "log", null, 4);
+        Map<Integer, List<FoundIndication>> indications = new TreeMap<Integer, List<FoundIndication>>();
+        indications.put(2, Collections.singletonList(second));
+        indications.put(4, Arrays.asList(fourth, alsoFourth));
+        OldDataConverter.FoundIndicationWork.convert(build, indications);
+
+        assertEquals("two", second.getMatchingString());
+        assertEquals("four", fourth.getMatchingString());
+        assertEquals("four", alsoFourth.getMatchingString());
+    }
+}